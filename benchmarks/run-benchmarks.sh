@@ -0,0 +1,16 @@
+#!/usr/bin/env bash
+# Ejecuta los benchmarks con el profiler de GC y compara con la línea base guardada.
+# Uso: ./run-benchmarks.sh [argumentos JMH adicionales, p. ej. un filtro "OrderService"]
+set -euo pipefail
+
+cd "$(dirname "$0")"
+
+mvn -B -q package -DskipTests
+
+mkdir -p results
+RESULT="results/jmh-$(date +%Y%m%d-%H%M%S).json"
+
+java -jar target/benchmarks.jar -prof gc -rf json -rff "$RESULT" "$@"
+
+java -cp target/benchmarks.jar com.project_final.order_service.benchmark.BaselineReport \
+    "$RESULT" baseline/baseline.json "${BENCH_THRESHOLD:-10}"
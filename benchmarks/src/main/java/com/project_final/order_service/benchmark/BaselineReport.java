@@ -0,0 +1,123 @@
+package com.project_final.order_service.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Compara un resultado JMH (-rf json) con la línea base guardada y muestra,
+ * por benchmark, la variación de la puntuación y de la asignación por operación.
+ *
+ * Uso: BaselineReport <resultado.json> <baseline.json> [umbral%]
+ *
+ * Si la línea base no existe se guarda el resultado actual como nueva línea base.
+ * Termina con código 1 si algún benchmark empeora más que el umbral (10% por defecto).
+ */
+public final class BaselineReport {
+
+    private static final String ALLOC_NORM = "gc.alloc.rate.norm";
+
+    private BaselineReport() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Uso: BaselineReport <resultado.json> <baseline.json> [umbral%]");
+            System.exit(2);
+        }
+
+        Path current = Paths.get(args[0]);
+        Path baseline = Paths.get(args[1]);
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) : 10.0;
+
+        if (!Files.exists(baseline)) {
+            Files.createDirectories(baseline.toAbsolutePath().getParent());
+            Files.copy(current, baseline, StandardCopyOption.REPLACE_EXISTING);
+            System.out.println("No existía línea base; se guarda " + current + " como " + baseline);
+            return;
+        }
+
+        ObjectMapper objectMapper = new ObjectMapper();
+        Map<String, JsonNode> baselineResults = index(objectMapper.readTree(baseline.toFile()));
+        Map<String, JsonNode> currentResults = index(objectMapper.readTree(current.toFile()));
+
+        int regressions = 0;
+        System.out.printf("%-80s %14s %14s %9s %12s %12s%n",
+                "Benchmark", "Base", "Actual", "Δ%", "B/op base", "B/op actual");
+
+        for (Map.Entry<String, JsonNode> entry : currentResults.entrySet()) {
+            JsonNode now = entry.getValue();
+            JsonNode before = baselineResults.get(entry.getKey());
+
+            double score = now.path("primaryMetric").path("score").asDouble();
+            String unit = now.path("primaryMetric").path("scoreUnit").asText();
+            Double allocNow = allocation(now);
+
+            if (before == null) {
+                System.out.printf("%-80s %14s %14.3f %9s %12s %12s   (nuevo, %s)%n",
+                        entry.getKey(), "-", score, "-", "-", format(allocNow), unit);
+                continue;
+            }
+
+            double baseScore = before.path("primaryMetric").path("score").asDouble();
+            double delta = baseScore == 0 ? 0 : (score - baseScore) / baseScore * 100.0;
+            // En modo throughput una puntuación menor es peor; en los modos de tiempo, mayor es peor
+            boolean higherIsWorse = !"thrpt".equals(now.path("mode").asText());
+            boolean regression = higherIsWorse ? delta > threshold : delta < -threshold;
+            if (regression) {
+                regressions++;
+            }
+
+            System.out.printf("%-80s %14.3f %14.3f %+8.1f%% %12s %12s%s%n",
+                    entry.getKey(), baseScore, score, delta,
+                    format(allocation(before)), format(allocNow),
+                    regression ? "   REGRESIÓN" : "");
+        }
+
+        System.out.printf("%nBenchmarks: %d, regresiones (umbral %.1f%%): %d%n",
+                currentResults.size(), threshold, regressions);
+        if (regressions > 0) {
+            System.exit(1);
+        }
+    }
+
+    // Clave: nombre del benchmark más sus parámetros, para comparar la misma configuración
+    private static Map<String, JsonNode> index(JsonNode results) {
+        Map<String, JsonNode> indexed = new LinkedHashMap<>();
+        for (JsonNode result : results) {
+            StringBuilder key = new StringBuilder(result.path("benchmark").asText());
+            JsonNode params = result.path("params");
+            Iterator<Map.Entry<String, JsonNode>> fields = params.fields();
+            while (fields.hasNext()) {
+                Map.Entry<String, JsonNode> param = fields.next();
+                key.append(' ').append(param.getKey()).append('=').append(param.getValue().asText());
+            }
+            indexed.put(key.toString(), result);
+        }
+        return indexed;
+    }
+
+    // Las versiones antiguas de JMH prefijan las métricas secundarias con '·'
+    private static Double allocation(JsonNode result) {
+        Iterator<Map.Entry<String, JsonNode>> metrics = result.path("secondaryMetrics").fields();
+        while (metrics.hasNext()) {
+            Map.Entry<String, JsonNode> metric = metrics.next();
+            if (metric.getKey().replace("·", "").equals(ALLOC_NORM)) {
+                return metric.getValue().path("score").asDouble();
+            }
+        }
+        return null;
+    }
+
+    private static String format(Double value) {
+        return value == null ? "-" : String.format("%.1f", value);
+    }
+}
@@ -0,0 +1,81 @@
+package com.project_final.order_service.benchmark;
+
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project_final.order_service.metrics.OrderMetrics;
+import com.project_final.order_service.model.Order;
+import com.project_final.order_service.service.OrderService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Construcción de los objetos compartidos por los benchmarks.
+ */
+public final class BenchmarkFixtures {
+
+    private BenchmarkFixtures() {
+    }
+
+    // OrderService con RestTemplate y repositorio en memoria, sin contexto de Spring
+    public static OrderService orderService() {
+        return orderService(new StubRestTemplate());
+    }
+
+    // Igual, con un RestTemplate simulado concreto (p. ej. con latencia)
+    public static OrderService orderService(StubRestTemplate restTemplate) {
+        OrderService orderService = new OrderService();
+        inject(orderService, "restTemplate", restTemplate);
+        inject(orderService, "orderRepository", InMemoryOrderRepository.create(10_000));
+        inject(orderService, "orderMetrics", new OrderMetrics(new SimpleMeterRegistry()));
+        return orderService;
+    }
+
+    // ObjectMapper con la misma configuración por defecto que aplica Spring Boot, más los módulos indicados
+    public static ObjectMapper objectMapper(Module... modules) {
+        return Jackson2ObjectMapperBuilder.json().modulesToInstall(modules).build();
+    }
+
+    public static Order order(long id) {
+        Order order = new Order(id % 1000 + 1, id % 50 + 1, (int) (id % 10) + 1,
+                new BigDecimal("49.99").multiply(BigDecimal.valueOf(id % 10 + 1)));
+        order.setId(id);
+        order.setStatus(Order.OrderStatus.CONFIRMED);
+        return order;
+    }
+
+    public static List<Order> orders(int size) {
+        List<Order> orders = new ArrayList<>(size);
+        for (int i = 1; i <= size; i++) {
+            orders.add(order(i));
+        }
+        return orders;
+    }
+
+    // Petición mínima para los manejadores de errores: solo responde a getRequestURI
+    public static HttpServletRequest request(String uri) {
+        return (HttpServletRequest) Proxy.newProxyInstance(HttpServletRequest.class.getClassLoader(),
+                new Class<?>[]{HttpServletRequest.class}, (proxy, method, args) -> {
+                    if (method.getName().equals("getRequestURI")) {
+                        return uri;
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    public static void inject(Object target, String fieldName, Object value) {
+        Field field = ReflectionUtils.findField(target.getClass(), fieldName);
+        if (field == null) {
+            throw new IllegalStateException("Campo no encontrado: " + fieldName);
+        }
+        ReflectionUtils.makeAccessible(field);
+        ReflectionUtils.setField(field, target, value);
+    }
+}
@@ -0,0 +1,66 @@
+package com.project_final.order_service.benchmark;
+
+import com.project_final.order_service.model.Order;
+import com.project_final.order_service.repositories.OrderRepository;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Implementación en memoria de OrderRepository construida con un proxy dinámico.
+ * Solo cubre los métodos que recorren los benchmarks; el resto lanza
+ * UnsupportedOperationException para que un cambio de ruta no pase desapercibido.
+ */
+public final class InMemoryOrderRepository {
+
+    private InMemoryOrderRepository() {
+    }
+
+    // Retiene como máximo 'capacity' órdenes para que el heap no crezca durante la medición
+    public static OrderRepository create(int capacity) {
+        Map<Long, Order> orders = new ConcurrentHashMap<>();
+        AtomicLong sequence = new AtomicLong();
+
+        return (OrderRepository) Proxy.newProxyInstance(
+                OrderRepository.class.getClassLoader(),
+                new Class<?>[]{OrderRepository.class},
+                (proxy, method, args) -> invoke(orders, sequence, capacity, proxy, method, args));
+    }
+
+    private static Object invoke(Map<Long, Order> orders, AtomicLong sequence, int capacity, Object proxy,
+                                 Method method, Object[] args) {
+        switch (method.getName()) {
+            case "save":
+                Order order = (Order) args[0];
+                if (order.getId() == null) {
+                    order.setId(sequence.incrementAndGet());
+                }
+                if (orders.size() < capacity || orders.containsKey(order.getId())) {
+                    orders.put(order.getId(), order);
+                }
+                return order;
+            case "findById":
+                return Optional.ofNullable(orders.get((Long) args[0]));
+            case "deleteById":
+                orders.remove((Long) args[0]);
+                return null;
+            case "findAll":
+                return new ArrayList<>(orders.values());
+            case "count":
+                return (long) orders.size();
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            case "equals":
+                return proxy == args[0];
+            case "toString":
+                return "InMemoryOrderRepository";
+            default:
+                throw new UnsupportedOperationException("Método no soportado en benchmarks: " + method.getName());
+        }
+    }
+}
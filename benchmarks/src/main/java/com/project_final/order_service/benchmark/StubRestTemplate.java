@@ -0,0 +1,75 @@
+package com.project_final.order_service.benchmark;
+
+import com.project_final.order_service.Dto.ProductDto;
+import com.project_final.order_service.Dto.UserDto;
+import org.springframework.web.client.RestTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+
+/**
+ * RestTemplate que responde en memoria a las rutas que usa OrderService,
+ * sin abrir conexiones HTTP. Así el benchmark mide solo el código del servicio.
+ *
+ * Con una latencia mayor que cero cada llamada bloquea el hilo ese tiempo, como un
+ * servicio remoto lento. Con 'pinned' el bloqueo ocurre dentro de un synchronized,
+ * igual que en un driver que no está preparado para hilos virtuales.
+ */
+public class StubRestTemplate extends RestTemplate {
+
+    private final long latencyMillis;
+    private final boolean pinned;
+
+    private final UserDto user = new UserDto(1L, "Bench User", "bench@example.com");
+    private final ProductDto product = new ProductDto(1L, "Bench Product", "Producto para benchmarks",
+            new BigDecimal("49.99"), 1_000_000);
+
+    public StubRestTemplate() {
+        this(Duration.ZERO, false);
+    }
+
+    public StubRestTemplate(Duration latency, boolean pinned) {
+        this.latencyMillis = latency.toMillis();
+        this.pinned = pinned;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T getForObject(String url, Class<T> responseType, Object... uriVariables) {
+        if (latencyMillis > 0) {
+            simulateLatency();
+        }
+        if (responseType == UserDto.class) {
+            return (T) user;
+        }
+        if (responseType == ProductDto.class) {
+            return (T) product;
+        }
+        if (responseType == Boolean.class) {
+            // check-stock, reduce-stock e increase-stock siempre tienen éxito
+            return (T) Boolean.TRUE;
+        }
+        throw new IllegalArgumentException("Ruta no soportada por el stub: " + url);
+    }
+
+    private void simulateLatency() {
+        if (pinned) {
+            // Monitor propio de cada llamada: no hay contención, solo el anclaje del hilo virtual
+            Object lock = new Object();
+            synchronized (lock) {
+                sleep();
+            }
+        } else {
+            sleep();
+        }
+    }
+
+    private void sleep() {
+        try {
+            Thread.sleep(latencyMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Llamada simulada interrumpida", e);
+        }
+    }
+}
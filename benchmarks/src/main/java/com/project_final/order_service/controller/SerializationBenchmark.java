@@ -0,0 +1,99 @@
+package com.project_final.order_service.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import com.project_final.order_service.benchmark.BenchmarkFixtures;
+import com.project_final.order_service.exceptions.GlobalExceptionHandler.ErrorResponse;
+import com.project_final.order_service.exceptions.GlobalExceptionHandler.StockInfo;
+import com.project_final.order_service.model.Order;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialización Jackson de las respuestas típicas de OrderController:
+ * una orden, el sobre de escritura, una respuesta de error y listados de órdenes.
+ *
+ * createOrderEnvelope usa el sobre tipado (ApiResponse) con el mensaje ya serializado;
+ * createOrderEnvelopeMap reproduce el HashMap anterior para comparar. Con blackbird=true
+ * el ObjectMapper lleva el módulo Blackbird, como con order.json.blackbird.enabled.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 2, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+public class SerializationBenchmark {
+
+    @Param({"false", "true"})
+    public boolean blackbird;
+
+    private ObjectMapper objectMapper;
+    private Order order;
+
+    @State(Scope.Benchmark)
+    public static class OrderListState {
+
+        @Param({"10", "100", "1000"})
+        public int listSize;
+
+        private List<Order> orders;
+
+        @Setup
+        public void setUp() {
+            orders = BenchmarkFixtures.orders(listSize);
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        objectMapper = blackbird ? BenchmarkFixtures.objectMapper(new BlackbirdModule()) : BenchmarkFixtures.objectMapper();
+        order = BenchmarkFixtures.order(1);
+    }
+
+    @Benchmark
+    public byte[] order() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(order);
+    }
+
+    // Lo que construye createOrder en el controlador
+    @Benchmark
+    public byte[] createOrderEnvelope() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(OrderResponses.created(order).getBody());
+    }
+
+    // Sobre anterior: un HashMap por respuesta y el mensaje codificado cada vez
+    @Benchmark
+    public byte[] createOrderEnvelopeMap() throws JsonProcessingException {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("message", "Orden creada correctamente");
+        response.put("data", order);
+        return objectMapper.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public byte[] errorResponse() throws JsonProcessingException {
+        ErrorResponse errorResponse = ErrorResponse.builder()
+                .errorCode("INSUFFICIENT_STOCK")
+                .message("Stock insuficiente para el producto ID 1. Solicitado: 100, Disponible: 5")
+                .details("No hay suficiente stock disponible para completar la orden")
+                .timestamp(LocalDateTime.now())
+                .path("/api/orders")
+                .status(409)
+                .additionalInfo(new StockInfo(1L, 100, 5))
+                .build();
+        return objectMapper.writeValueAsBytes(errorResponse);
+    }
+
+    @Benchmark
+    public byte[] orderList(OrderListState state) throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(state.orders);
+    }
+}
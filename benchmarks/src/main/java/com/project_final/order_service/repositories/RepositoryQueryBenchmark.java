@@ -0,0 +1,110 @@
+package com.project_final.order_service.repositories;
+
+import com.project_final.order_service.OrderServiceApplication;
+import com.project_final.order_service.datagen.GeneratorConfig;
+import com.project_final.order_service.datagen.OrderDataGenerator;
+import com.project_final.order_service.model.Order;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Consultas de OrderRepository sobre un volumen de datos realista generado con datagen.
+ *
+ * Por defecto usa H2 en memoria con un millón de filas. Para medir contra MySQL:
+ *   -p jdbcUrl=jdbc:mysql://localhost:3306/bench?rewriteBatchedStatements=true -p rows=10000000
+ * Si la tabla ya tiene al menos 'rows' filas no se vuelve a cargar.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class RepositoryQueryBenchmark {
+
+    @Param({"jdbc:h2:mem:bench;DB_CLOSE_DELAY=-1"})
+    public String jdbcUrl;
+
+    @Param({"sa"})
+    public String username;
+
+    @Param({""})
+    public String password;
+
+    @Param({"1000000"})
+    public long rows;
+
+    private ConfigurableApplicationContext context;
+    private OrderRepository orderRepository;
+    private long hottestUserId;
+    private long hottestProductId;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("spring.datasource.url", jdbcUrl);
+        properties.put("spring.datasource.username", username);
+        properties.put("spring.datasource.password", password);
+        properties.put("spring.jpa.hibernate.ddl-auto", "update");
+        properties.put("spring.jpa.show-sql", false);
+        properties.put("eureka.client.enabled", false);
+        properties.put("spring.cloud.discovery.enabled", false);
+        properties.put("logging.level.root", "WARN");
+
+        context = new SpringApplicationBuilder(OrderServiceApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(properties)
+                .run();
+        orderRepository = context.getBean(OrderRepository.class);
+
+        // Mismo generador y semilla que la carga, para conocer los IDs más populares
+        OrderDataGenerator generator = new OrderDataGenerator(GeneratorConfig.builder().rows(rows).build());
+        if (orderRepository.count() < rows) {
+            context.getBean(OrderItemRepository.class).deleteAllInBatch();
+            orderRepository.deleteAllInBatch();
+            generator.load(context.getBean(DataSource.class)::getConnection);
+        }
+        hottestUserId = generator.hottestUserId();
+        hottestProductId = generator.hottestProductId();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Order> findByHottestUser() {
+        return orderRepository.findByUserIdOrderByOrderDateDesc(hottestUserId);
+    }
+
+    @Benchmark
+    public List<Order> findByHottestProduct() {
+        return orderRepository.findByProductIdOrderByOrderDateDesc(hottestProductId);
+    }
+
+    @Benchmark
+    public Long countByStatus() {
+        return orderRepository.countByStatus(Order.OrderStatus.CONFIRMED);
+    }
+
+    @Benchmark
+    public BigDecimal getTotalSales() {
+        return orderRepository.getTotalSales();
+    }
+
+    @Benchmark
+    public List<Order> findRecentOrders() {
+        return orderRepository.findRecentOrders(LocalDateTime.now().minusHours(24));
+    }
+}
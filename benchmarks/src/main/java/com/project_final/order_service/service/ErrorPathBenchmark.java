@@ -0,0 +1,81 @@
+package com.project_final.order_service.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project_final.order_service.Dto.CreateOrderRequest;
+import com.project_final.order_service.benchmark.BenchmarkFixtures;
+import com.project_final.order_service.exceptions.BusinessException;
+import com.project_final.order_service.exceptions.GlobalExceptionHandler;
+import com.project_final.order_service.exceptions.OrderStatusException;
+import com.project_final.order_service.exceptions.OrderValidationException;
+import com.project_final.order_service.metrics.OrderMetrics;
+import com.project_final.order_service.model.Order;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rendimiento de la ruta 4xx completa: el validador lanza la excepción de negocio,
+ * GlobalExceptionHandler construye la respuesta y se serializa a JSON.
+ *
+ * Con stackTraces=true las excepciones capturan la pila, como con order.errors.stack-traces=true.
+ * Se ejecuta con varios hilos porque capturar la pila escala peor que la ruta sin ella.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 2, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+@Threads(4)
+public class ErrorPathBenchmark {
+
+    @Param({"false", "true"})
+    public boolean stackTraces;
+
+    private OrderService orderService;
+    private GlobalExceptionHandler handler;
+    private ObjectMapper objectMapper;
+    private HttpServletRequest request;
+    private CreateOrderRequest invalidRequest;
+    private Order deliveredOrder;
+
+    @Setup
+    public void setUp() {
+        orderService = BenchmarkFixtures.orderService();
+        BusinessException.setStackTraces(stackTraces);
+        handler = new GlobalExceptionHandler(new OrderMetrics(new SimpleMeterRegistry()), 10, 20);
+        objectMapper = BenchmarkFixtures.objectMapper();
+        request = BenchmarkFixtures.request("/api/orders");
+        invalidRequest = new CreateOrderRequest(1L, 1L, 5000);
+        deliveredOrder = BenchmarkFixtures.order(2);
+        deliveredOrder.setStatus(Order.OrderStatus.DELIVERED);
+    }
+
+    @TearDown
+    public void tearDown() {
+        BusinessException.setStackTraces(false);
+    }
+
+    @Benchmark
+    public byte[] invalidCreateOrderRequest() throws JsonProcessingException {
+        try {
+            orderService.validateCreateOrderRequest(invalidRequest);
+            throw new IllegalStateException("La petición debería ser inválida");
+        } catch (OrderValidationException e) {
+            return objectMapper.writeValueAsBytes(handler.handleOrderValidationException(e, request).getBody());
+        }
+    }
+
+    @Benchmark
+    public byte[] invalidStatusTransition() throws JsonProcessingException {
+        try {
+            orderService.validateStatusTransition(deliveredOrder, Order.OrderStatus.DELIVERED, Order.OrderStatus.PENDING);
+            throw new IllegalStateException("La transición debería ser inválida");
+        } catch (OrderStatusException e) {
+            return objectMapper.writeValueAsBytes(handler.handleOrderStatusException(e, request).getBody());
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.project_final.order_service.service;
+
+import com.project_final.order_service.Dto.CreateOrderRequest;
+import com.project_final.order_service.benchmark.BenchmarkFixtures;
+import com.project_final.order_service.exceptions.OrderStatusException;
+import com.project_final.order_service.exceptions.OrderValidationException;
+import com.project_final.order_service.model.Order;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rutas críticas de OrderService con dependencias externas simuladas en memoria.
+ * Está en el mismo paquete que OrderService para medir directamente los validadores.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 2, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+public class OrderServiceBenchmark {
+
+    private OrderService orderService;
+    private CreateOrderRequest validRequest;
+    private CreateOrderRequest invalidRequest;
+    private Order pendingOrder;
+    private Order deliveredOrder;
+
+    @Setup
+    public void setUp() {
+        orderService = BenchmarkFixtures.orderService();
+        validRequest = new CreateOrderRequest(1L, 1L, 3);
+        invalidRequest = new CreateOrderRequest(1L, 1L, 5000);
+
+        pendingOrder = BenchmarkFixtures.order(1);
+        pendingOrder.setStatus(Order.OrderStatus.PENDING);
+        deliveredOrder = BenchmarkFixtures.order(2);
+        deliveredOrder.setStatus(Order.OrderStatus.DELIVERED);
+    }
+
+    @Benchmark
+    public Order createOrder() {
+        return orderService.createOrder(validRequest);
+    }
+
+    @Benchmark
+    public void validateCreateOrderRequest() {
+        orderService.validateCreateOrderRequest(validRequest);
+    }
+
+    // Ruta 4xx: la validación falla y se construye la excepción
+    @Benchmark
+    public void validateCreateOrderRequestInvalid(Blackhole blackhole) {
+        try {
+            orderService.validateCreateOrderRequest(invalidRequest);
+        } catch (OrderValidationException e) {
+            blackhole.consume(e);
+        }
+    }
+
+    @Benchmark
+    public void validateStatusTransition() {
+        orderService.validateStatusTransition(pendingOrder, Order.OrderStatus.PENDING, Order.OrderStatus.CONFIRMED);
+    }
+
+    @Benchmark
+    public void validateStatusTransitionInvalid(Blackhole blackhole) {
+        try {
+            orderService.validateStatusTransition(deliveredOrder, Order.OrderStatus.DELIVERED, Order.OrderStatus.PENDING);
+        } catch (OrderStatusException e) {
+            blackhole.consume(e);
+        }
+    }
+}
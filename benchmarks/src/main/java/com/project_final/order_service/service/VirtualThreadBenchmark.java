@@ -0,0 +1,83 @@
+package com.project_final.order_service.service;
+
+import com.project_final.order_service.Dto.CreateOrderRequest;
+import com.project_final.order_service.benchmark.BenchmarkFixtures;
+import com.project_final.order_service.benchmark.StubRestTemplate;
+import com.project_final.order_service.config.VirtualThreads;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Creación de órdenes con servicios remotos lentos: pool de hilos de plataforma
+ * (mismo tamaño que el pool por defecto de Tomcat) frente a un hilo virtual por petición.
+ *
+ * Cada invocación lanza una ráfaga de BURST peticiones concurrentes y espera a todas;
+ * el resultado se expresa en órdenes por segundo. Con pinnedUpstream=true la latencia
+ * simulada ocurre dentro de un synchronized y los hilos virtuales quedan anclados.
+ *
+ * El modo "virtual" requiere ejecutar el jar con Java 21+; con Java 17 esa combinación
+ * de parámetros falla en el setup y JMH continúa con las demás.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+public class VirtualThreadBenchmark {
+
+    private static final int BURST = 1000;
+    private static final int PLATFORM_THREADS = 200;
+
+    @Param({"platform", "virtual"})
+    public String executor;
+
+    @Param({"20"})
+    public int upstreamLatencyMs;
+
+    @Param({"false", "true"})
+    public boolean pinnedUpstream;
+
+    private ExecutorService executorService;
+    private List<Callable<Object>> burst;
+
+    @Setup
+    public void setUp() {
+        OrderService orderService = BenchmarkFixtures.orderService(
+                new StubRestTemplate(Duration.ofMillis(upstreamLatencyMs), pinnedUpstream));
+
+        executorService = "virtual".equals(executor)
+                ? VirtualThreads.newVirtualThreadPerTaskExecutor("bench-vt-")
+                : Executors.newFixedThreadPool(PLATFORM_THREADS);
+
+        burst = new ArrayList<>(BURST);
+        for (int i = 0; i < BURST; i++) {
+            CreateOrderRequest request = new CreateOrderRequest((long) (i % 1000) + 1, (long) (i % 200) + 1, 1);
+            burst.add(() -> orderService.createOrder(request));
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        executorService.shutdownNow();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BURST)
+    public int createOrderBurst() throws Exception {
+        int completed = 0;
+        for (Future<Object> future : executorService.invokeAll(burst)) {
+            future.get();
+            completed++;
+        }
+        return completed;
+    }
+}
@@ -0,0 +1,13 @@
+package com.project_final.order_service.datagen;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Origen de conexiones JDBC; admite DataSource::getConnection o DriverManager.
+ */
+@FunctionalInterface
+public interface ConnectionFactory {
+
+    Connection open() throws SQLException;
+}
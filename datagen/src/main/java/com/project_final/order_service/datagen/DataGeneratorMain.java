@@ -0,0 +1,124 @@
+package com.project_final.order_service.datagen;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Carga órdenes sintéticas en la tabla orders, y las líneas de las que tienen varias en order_items.
+ *
+ * Modos:
+ *   jdbc      inserción por lotes JDBC en paralelo (por defecto)
+ *   csv       solo escribe los ficheros CSV en --csv-dir, con IDs de orden desde --first-id
+ *   load-data escribe los CSV y los carga con LOAD DATA LOCAL INFILE (MySQL, allowLoadLocalInfile=true)
+ *
+ * Ejemplo:
+ *   --jdbc-url=jdbc:mysql://localhost:3306/marketjosemsp?rewriteBatchedStatements=true
+ *   --user=root --password=... --rows=10000000 --seed=42 --end-date=2025-12-31
+ */
+public class DataGeneratorMain {
+
+    private static final Logger logger = LoggerFactory.getLogger(DataGeneratorMain.class);
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+
+        GeneratorConfig.Builder builder = GeneratorConfig.builder()
+                .rows(Long.parseLong(options.getOrDefault("rows", "1000000")))
+                .users(Integer.parseInt(options.getOrDefault("users", "100000")))
+                .products(Integer.parseInt(options.getOrDefault("products", "10000")))
+                .userSkew(Double.parseDouble(options.getOrDefault("user-skew", "1.07")))
+                .productSkew(Double.parseDouble(options.getOrDefault("product-skew", "1.2")))
+                .multiItemShare(Double.parseDouble(options.getOrDefault("multi-item-share", "0.08")))
+                .seed(Long.parseLong(options.getOrDefault("seed", "42")))
+                .batchSize(Integer.parseInt(options.getOrDefault("batch-size", "5000")));
+        if (options.containsKey("threads")) {
+            builder.threads(Integer.parseInt(options.get("threads")));
+        }
+        if (options.containsKey("end-date")) {
+            builder.endDate(LocalDate.parse(options.get("end-date")));
+        }
+        if (options.containsKey("start-date")) {
+            builder.startDate(LocalDate.parse(options.get("start-date")));
+        }
+        GeneratorConfig config = builder.build();
+        OrderDataGenerator generator = new OrderDataGenerator(config);
+
+        String mode = options.getOrDefault("mode", "jdbc");
+        String url = options.get("jdbc-url");
+        ConnectionFactory connections = () -> DriverManager.getConnection(url,
+                options.getOrDefault("user", "root"), options.getOrDefault("password", ""));
+
+        logger.info("Generando {} órdenes ({} usuarios, {} productos, {} a {}, semilla {})",
+                config.getRows(), config.getUsers(), config.getProducts(),
+                config.getStartDate(), config.getEndDate(), config.getSeed());
+
+        switch (mode) {
+            case "csv": {
+                Path directory = Paths.get(options.getOrDefault("csv-dir", "orders-csv"));
+                long firstId = Long.parseLong(options.getOrDefault("first-id", "1"));
+                for (Path file : generator.writeCsv(directory, firstId)) {
+                    System.out.println(OrderDataGenerator.loadDataSql(file) + ";");
+                }
+                break;
+            }
+            case "load-data": {
+                requireUrl(url);
+                Path directory = Paths.get(options.getOrDefault("csv-dir", "orders-csv"));
+                OrderDataGenerator.createTableIfMissing(connections);
+                // IDs a continuación de los existentes; MySQL avanza AUTO_INCREMENT al cargarlos
+                List<Path> files = generator.writeCsv(directory, OrderDataGenerator.nextOrderId(connections));
+                long started = System.nanoTime();
+                try (Connection connection = connections.open();
+                     Statement statement = connection.createStatement()) {
+                    for (Path file : files) {
+                        statement.execute(OrderDataGenerator.loadDataSql(file));
+                    }
+                }
+                logger.info("LOAD DATA completado en {} ms", (System.nanoTime() - started) / 1_000_000);
+                break;
+            }
+            case "jdbc": {
+                requireUrl(url);
+                if (url.startsWith("jdbc:mysql") && !url.contains("rewriteBatchedStatements=true")) {
+                    logger.warn("Sin rewriteBatchedStatements=true MySQL ejecuta los lotes fila a fila");
+                }
+                OrderDataGenerator.createTableIfMissing(connections);
+                generator.load(connections);
+                break;
+            }
+            default:
+                throw new IllegalArgumentException("Modo desconocido: " + mode);
+        }
+
+        logger.info("Usuario más activo: {}, producto más vendido: {}",
+                generator.hottestUserId(), generator.hottestProductId());
+    }
+
+    private static void requireUrl(String url) {
+        if (url == null) {
+            throw new IllegalArgumentException("Falta --jdbc-url");
+        }
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Argumento inválido (se espera --clave=valor): " + arg);
+            }
+            int separator = arg.indexOf('=');
+            values.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+        return values;
+    }
+}
@@ -0,0 +1,135 @@
+package com.project_final.order_service.datagen;
+
+import java.time.LocalDate;
+
+/**
+ * Parámetros del conjunto de datos generado. Con la misma configuración
+ * (incluidas las fechas) el resultado es idéntico fila a fila.
+ */
+public class GeneratorConfig {
+
+    private final long rows;
+    private final int users;
+    private final int products;
+    private final double userSkew;
+    private final double productSkew;
+    private final double multiItemShare;
+    private final LocalDate startDate;
+    private final LocalDate endDate;
+    private final long seed;
+    private final int threads;
+    private final int batchSize;
+
+    private GeneratorConfig(Builder builder) {
+        this.rows = builder.rows;
+        this.users = builder.users;
+        this.products = builder.products;
+        this.userSkew = builder.userSkew;
+        this.productSkew = builder.productSkew;
+        this.multiItemShare = builder.multiItemShare;
+        this.startDate = builder.startDate != null ? builder.startDate : builder.endDate.minusYears(2);
+        this.endDate = builder.endDate;
+        this.seed = builder.seed;
+        this.threads = builder.threads;
+        this.batchSize = builder.batchSize;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static class Builder {
+        private long rows = 1_000_000;
+        private int users = 100_000;
+        private int products = 10_000;
+        private double userSkew = 1.07;
+        private double productSkew = 1.2;
+        private double multiItemShare = 0.08;
+        private LocalDate startDate;
+        private LocalDate endDate = LocalDate.now();
+        private long seed = 42;
+        private int threads = Runtime.getRuntime().availableProcessors();
+        private int batchSize = 5_000;
+
+        public Builder rows(long rows) {
+            this.rows = rows;
+            return this;
+        }
+
+        public Builder users(int users) {
+            this.users = users;
+            return this;
+        }
+
+        public Builder products(int products) {
+            this.products = products;
+            return this;
+        }
+
+        // Exponente Zipf de la popularidad de usuarios
+        public Builder userSkew(double userSkew) {
+            this.userSkew = userSkew;
+            return this;
+        }
+
+        // Exponente Zipf de la popularidad de productos
+        public Builder productSkew(double productSkew) {
+            this.productSkew = productSkew;
+            return this;
+        }
+
+        // Fracción de órdenes con varias líneas
+        public Builder multiItemShare(double multiItemShare) {
+            this.multiItemShare = multiItemShare;
+            return this;
+        }
+
+        public Builder startDate(LocalDate startDate) {
+            this.startDate = startDate;
+            return this;
+        }
+
+        public Builder endDate(LocalDate endDate) {
+            this.endDate = endDate;
+            return this;
+        }
+
+        public Builder seed(long seed) {
+            this.seed = seed;
+            return this;
+        }
+
+        public Builder threads(int threads) {
+            this.threads = threads;
+            return this;
+        }
+
+        public Builder batchSize(int batchSize) {
+            this.batchSize = batchSize;
+            return this;
+        }
+
+        public GeneratorConfig build() {
+            if (rows <= 0 || users <= 0 || products <= 0 || threads <= 0 || batchSize <= 0) {
+                throw new IllegalArgumentException("rows, users, products, threads y batchSize deben ser positivos");
+            }
+            if (multiItemShare < 0 || multiItemShare > 1) {
+                throw new IllegalArgumentException("multiItemShare debe estar entre 0 y 1");
+            }
+            return new GeneratorConfig(this);
+        }
+    }
+
+    // Getters
+    public long getRows() { return rows; }
+    public int getUsers() { return users; }
+    public int getProducts() { return products; }
+    public double getUserSkew() { return userSkew; }
+    public double getProductSkew() { return productSkew; }
+    public double getMultiItemShare() { return multiItemShare; }
+    public LocalDate getStartDate() { return startDate; }
+    public LocalDate getEndDate() { return endDate; }
+    public long getSeed() { return seed; }
+    public int getThreads() { return threads; }
+    public int getBatchSize() { return batchSize; }
+}
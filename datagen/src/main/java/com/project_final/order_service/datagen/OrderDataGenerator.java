@@ -0,0 +1,569 @@
+package com.project_final.order_service.datagen;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Genera órdenes sintéticas con popularidad Zipf de usuarios y productos,
+ * fechas estacionales y una mezcla de estados que depende de la antigüedad.
+ * Una parte de las órdenes (multiItemShare) tiene varias líneas, con sus filas en order_items.
+ *
+ * Las filas se generan por bloques de CHUNK_SIZE, cada uno con su propio generador
+ * aleatorio derivado de la semilla: el resultado no depende del número de hilos.
+ */
+public class OrderDataGenerator {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderDataGenerator.class);
+
+    static final int CHUNK_SIZE = 50_000;
+
+    static final String INSERT_SQL = "INSERT INTO orders (user_id, product_id, quantity, total_price, " +
+            "order_date, status, created_at, updated_at, item_count) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    static final String INSERT_ITEM_SQL = "INSERT INTO order_items (order_id, line_number, product_id, " +
+            "quantity, unit_price, line_total) VALUES (?, ?, ?, ?, ?, ?)";
+
+    // Los CSV llevan el ID de la orden para poder enlazar las líneas
+    static final String CSV_COLUMNS = "id, user_id, product_id, quantity, total_price, order_date, status, " +
+            "created_at, updated_at, item_count";
+
+    static final String ITEM_CSV_COLUMNS = "order_id, line_number, product_id, quantity, unit_price, line_total";
+
+    static final String ITEM_CSV_PREFIX = "order-items-";
+
+    // Misma definición que genera Hibernate para las entidades Order y OrderItem
+    static final String CREATE_TABLE_SQL = "CREATE TABLE orders (" +
+            "id BIGINT AUTO_INCREMENT PRIMARY KEY, " +
+            "user_id BIGINT NOT NULL, " +
+            "product_id BIGINT NOT NULL, " +
+            "quantity INT NOT NULL, " +
+            "total_price DECIMAL(10,2) NOT NULL, " +
+            "order_date TIMESTAMP(6), " +
+            "status VARCHAR(255) NOT NULL, " +
+            "created_at TIMESTAMP(6), " +
+            "updated_at TIMESTAMP(6), " +
+            "item_count INT)";
+
+    static final String CREATE_INDEX_SQL = "CREATE INDEX idx_orders_user_updated ON orders (user_id, updated_at)";
+
+    static final String CREATE_ITEMS_TABLE_SQL = "CREATE TABLE IF NOT EXISTS order_items (" +
+            "order_id BIGINT NOT NULL, " +
+            "line_number INT NOT NULL, " +
+            "product_id BIGINT NOT NULL, " +
+            "quantity INT NOT NULL, " +
+            "unit_price DECIMAL(10,2) NOT NULL, " +
+            "line_total DECIMAL(10,2) NOT NULL, " +
+            "PRIMARY KEY (order_id, line_number))";
+
+    private final GeneratorConfig config;
+    private final ZipfSampler users;
+    private final ZipfSampler products;
+    private final SeasonalCalendar calendar;
+    private final long[] unitPriceCents;
+    private final LocalDateTime end;
+
+    public OrderDataGenerator(GeneratorConfig config) {
+        this.config = config;
+        this.users = new ZipfSampler(config.getUsers(), config.getUserSkew(), config.getSeed());
+        this.products = new ZipfSampler(config.getProducts(), config.getProductSkew(), config.getSeed() + 1);
+        this.calendar = new SeasonalCalendar(config.getStartDate(), config.getEndDate());
+        this.end = config.getEndDate().atTime(23, 59, 59);
+
+        // Precio unitario log-normal por producto, entre 1 y 5000 euros, mediana ~35
+        SplittableRandom random = new SplittableRandom(config.getSeed() + 2);
+        unitPriceCents = new long[config.getProducts() + 1];
+        for (int i = 1; i <= config.getProducts(); i++) {
+            double price = Math.exp(Math.log(35) + 1.1 * random.nextGaussian());
+            unitPriceCents[i] = Math.round(Math.min(5000, Math.max(1, price)) * 100);
+        }
+    }
+
+    // ID del usuario con más pedidos
+    public long hottestUserId() {
+        return users.idAtRank(0);
+    }
+
+    // ID del producto más vendido
+    public long hottestProductId() {
+        return products.idAtRank(0);
+    }
+
+    public long chunkCount() {
+        return (config.getRows() + CHUNK_SIZE - 1) / CHUNK_SIZE;
+    }
+
+    /**
+     * Genera las filas de un bloque. La misma fila se reutiliza en cada llamada al consumidor.
+     */
+    void generateChunk(long chunk, Consumer<OrderRow> consumer) {
+        SplittableRandom random = new SplittableRandom(mix(config.getSeed(), chunk));
+        long first = chunk * CHUNK_SIZE;
+        long last = Math.min(config.getRows(), first + CHUNK_SIZE);
+        OrderRow row = new OrderRow();
+
+        for (long i = first; i < last; i++) {
+            row.index = i;
+            row.userId = users.sample(random);
+            row.itemCount = lineCount(random);
+            row.totalPriceCents = 0;
+            for (int line = 0; line < row.itemCount; line++) {
+                long productId = lineProduct(random, row, line);
+                row.lineProductIds[line] = productId;
+                row.lineQuantities[line] = quantity(random);
+                row.lineUnitPriceCents[line] = unitPriceCents[(int) productId];
+                row.totalPriceCents += row.getLineTotalCents(line);
+            }
+            row.productId = row.lineProductIds[0];
+            row.quantity = row.lineQuantities[0];
+            row.orderDate = calendar.sample(random);
+
+            long ageDays = ChronoUnit.DAYS.between(row.orderDate, end);
+            row.status = status(random, ageDays);
+            row.updatedAt = updatedAt(random, row.orderDate, row.status);
+            consumer.accept(row);
+        }
+    }
+
+    // Entre 2 y MAX_LINES líneas en una fracción multiItemShare de las órdenes, y si no una
+    private int lineCount(SplittableRandom random) {
+        int maxLines = Math.min(OrderRow.MAX_LINES, config.getProducts());
+        if (maxLines < 2 || random.nextDouble() >= config.getMultiItemShare()) {
+            return 1;
+        }
+        return 2 + random.nextInt(maxLines - 1);
+    }
+
+    // Cada línea de una orden es de un producto distinto, como valida OrderService
+    private long lineProduct(SplittableRandom random, OrderRow row, int line) {
+        while (true) {
+            long productId = products.sample(random);
+            boolean repeated = false;
+            for (int previous = 0; previous < line && !repeated; previous++) {
+                repeated = row.lineProductIds[previous] == productId;
+            }
+            if (!repeated) {
+                return productId;
+            }
+        }
+    }
+
+    // La mayoría de pedidos son de una unidad; muy pocos superan las diez
+    private static int quantity(SplittableRandom random) {
+        double p = random.nextDouble();
+        if (p < 0.62) return 1;
+        if (p < 0.82) return 2;
+        if (p < 0.92) return 3;
+        if (p < 0.98) return 4 + random.nextInt(7);
+        return 11 + random.nextInt(40);
+    }
+
+    // Los pedidos antiguos ya se han entregado o cancelado; los recientes siguen en curso
+    private static String status(SplittableRandom random, long ageDays) {
+        double p = random.nextDouble();
+        if (ageDays > 7) {
+            if (p < 0.82) return "DELIVERED";
+            if (p < 0.92) return "CANCELLED";
+            if (p < 0.98) return "CONFIRMED";
+            return "PENDING";
+        }
+        if (p < 0.55) return "CONFIRMED";
+        if (p < 0.80) return "PENDING";
+        if (p < 0.88) return "CANCELLED";
+        return "DELIVERED";
+    }
+
+    private LocalDateTime updatedAt(SplittableRandom random, LocalDateTime orderDate, String status) {
+        LocalDateTime updated;
+        switch (status) {
+            case "DELIVERED":
+                updated = orderDate.plusHours(48 + random.nextInt(5 * 24));
+                break;
+            case "CANCELLED":
+                updated = orderDate.plusMinutes(5 + random.nextInt(48 * 60));
+                break;
+            case "CONFIRMED":
+                updated = orderDate.plusSeconds(1 + random.nextInt(3600));
+                break;
+            default:
+                updated = orderDate;
+        }
+        return updated.isAfter(end) ? end : updated;
+    }
+
+    // Semilla independiente por bloque (finalizador de SplitMix64)
+    private static long mix(long seed, long chunk) {
+        long z = seed + (chunk + 1) * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    // ========== CARGA POR JDBC ==========
+
+    // Crea orders con su índice si no existe, y order_items
+    public static void createTableIfMissing(ConnectionFactory connections) throws SQLException {
+        try (Connection connection = connections.open();
+             Statement statement = connection.createStatement()) {
+            if (!tableExists(connection, "orders")) {
+                statement.execute(CREATE_TABLE_SQL);
+                statement.execute(CREATE_INDEX_SQL);
+            }
+            statement.execute(CREATE_ITEMS_TABLE_SQL);
+        }
+    }
+
+    // Primer ID libre de orders, para los IDs explícitos de los CSV
+    public static long nextOrderId(ConnectionFactory connections) throws SQLException {
+        try (Connection connection = connections.open();
+             Statement statement = connection.createStatement();
+             ResultSet result = statement.executeQuery("SELECT COALESCE(MAX(id), 0) + 1 FROM orders")) {
+            result.next();
+            return result.getLong(1);
+        }
+    }
+
+    private static boolean tableExists(Connection connection, String table) throws SQLException {
+        DatabaseMetaData metaData = connection.getMetaData();
+        String name = metaData.storesUpperCaseIdentifiers() ? table.toUpperCase() : table;
+        try (ResultSet tables = metaData.getTables(connection.getCatalog(), null, name, new String[]{"TABLE"})) {
+            return tables.next();
+        }
+    }
+
+    /**
+     * Inserta las filas con lotes JDBC en paralelo, un commit por bloque. Las líneas de cada
+     * lote se insertan después de sus órdenes, con los IDs generados que devuelve el driver.
+     * En MySQL conviene usar rewriteBatchedStatements=true en la URL.
+     * Devuelve el número de órdenes insertadas.
+     */
+    public long load(ConnectionFactory connections) throws SQLException, InterruptedException {
+        long started = System.nanoTime();
+        AtomicLong nextChunk = new AtomicLong();
+        AtomicLong inserted = new AtomicLong();
+        AtomicLong insertedLines = new AtomicLong();
+
+        runInParallel(() -> {
+            try (Connection connection = connections.open();
+                 PreparedStatement orders = connection.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS);
+                 PreparedStatement items = connection.prepareStatement(INSERT_ITEM_SQL)) {
+                connection.setAutoCommit(false);
+                OrderBatch batch = new OrderBatch(orders, items);
+                long chunk;
+                while ((chunk = nextChunk.getAndIncrement()) < chunkCount()) {
+                    generateChunk(chunk, row -> {
+                        try {
+                            if (batch.add(row) == config.getBatchSize()) {
+                                insertedLines.addAndGet(batch.execute());
+                            }
+                        } catch (SQLException e) {
+                            throw new IllegalStateException(e);
+                        }
+                    });
+                    insertedLines.addAndGet(batch.execute());
+                    connection.commit();
+                    logProgress(inserted.addAndGet(rowsInChunk(chunk)), started);
+                }
+            }
+            return null;
+        });
+
+        logger.info("Insertadas {} órdenes y {} líneas en {} ms", inserted.get(), insertedLines.get(),
+                (System.nanoTime() - started) / 1_000_000);
+        return inserted.get();
+    }
+
+    /**
+     * Lote de órdenes pendiente. Como la fila se reutiliza, las líneas se copian al añadirla
+     * y se enlazan con el ID generado de su orden al ejecutar el lote.
+     */
+    private static final class OrderBatch {
+
+        private final PreparedStatement orders;
+        private final PreparedStatement items;
+        private final List<PendingLines> lines = new ArrayList<>();
+        private int size;
+
+        private record PendingLines(int position, long[] productIds, int[] quantities, long[] unitPriceCents) {
+        }
+
+        OrderBatch(PreparedStatement orders, PreparedStatement items) {
+            this.orders = orders;
+            this.items = items;
+        }
+
+        // Devuelve el número de órdenes en el lote
+        int add(OrderRow row) throws SQLException {
+            bind(orders, row);
+            orders.addBatch();
+            if (row.hasItems()) {
+                lines.add(new PendingLines(size,
+                        Arrays.copyOf(row.lineProductIds, row.itemCount),
+                        Arrays.copyOf(row.lineQuantities, row.itemCount),
+                        Arrays.copyOf(row.lineUnitPriceCents, row.itemCount)));
+            }
+            return ++size;
+        }
+
+        // Ejecuta las órdenes y después sus líneas; devuelve las líneas insertadas
+        int execute() throws SQLException {
+            if (size == 0) {
+                return 0;
+            }
+            orders.executeBatch();
+            int inserted = 0;
+            if (!lines.isEmpty()) {
+                try (ResultSet keys = orders.getGeneratedKeys()) {
+                    int position = 0;
+                    int next = 0;
+                    while (next < lines.size() && keys.next()) {
+                        PendingLines pending = lines.get(next);
+                        if (position++ == pending.position()) {
+                            inserted += bindLines(keys.getLong(1), pending);
+                            next++;
+                        }
+                    }
+                    if (next < lines.size()) {
+                        throw new SQLException("El driver no devolvió los IDs generados de todas las órdenes del lote");
+                    }
+                }
+                items.executeBatch();
+                lines.clear();
+            }
+            size = 0;
+            return inserted;
+        }
+
+        private int bindLines(long orderId, PendingLines pending) throws SQLException {
+            for (int line = 0; line < pending.productIds().length; line++) {
+                long unitPriceCents = pending.unitPriceCents()[line];
+                int quantity = pending.quantities()[line];
+                items.setLong(1, orderId);
+                items.setInt(2, line + 1);
+                items.setLong(3, pending.productIds()[line]);
+                items.setInt(4, quantity);
+                items.setBigDecimal(5, BigDecimal.valueOf(unitPriceCents, 2));
+                items.setBigDecimal(6, BigDecimal.valueOf(unitPriceCents * quantity, 2));
+                items.addBatch();
+            }
+            return pending.productIds().length;
+        }
+    }
+
+    private static void bind(PreparedStatement statement, OrderRow row) throws SQLException {
+        statement.setLong(1, row.userId);
+        statement.setLong(2, row.productId);
+        statement.setInt(3, row.quantity);
+        statement.setBigDecimal(4, BigDecimal.valueOf(row.totalPriceCents, 2));
+        statement.setObject(5, row.orderDate);
+        statement.setString(6, row.status);
+        statement.setObject(7, row.orderDate);
+        statement.setObject(8, row.updatedAt);
+        // Nulo en las órdenes de un solo producto, como en Order
+        if (row.hasItems()) {
+            statement.setInt(9, row.itemCount);
+        } else {
+            statement.setNull(9, Types.INTEGER);
+        }
+    }
+
+    // ========== CARGA POR CSV ==========
+
+    /**
+     * Escribe las órdenes en un fichero CSV por hilo, con rangos de bloques contiguos, y sus
+     * líneas en otro fichero por hilo. Las órdenes llevan IDs explícitos desde firstId.
+     * Devuelve los ficheros de órdenes y después los de líneas, listos para LOAD DATA (ver loadDataSql).
+     */
+    public List<Path> writeCsv(Path directory, long firstId) throws IOException, InterruptedException {
+        Files.createDirectories(directory);
+        long started = System.nanoTime();
+        int files = (int) Math.min(config.getThreads(), chunkCount());
+        long chunksPerFile = (chunkCount() + files - 1) / files;
+        List<Path> paths = new ArrayList<>();
+        AtomicLong nextFile = new AtomicLong();
+        AtomicLong written = new AtomicLong();
+
+        for (int i = 0; i < files; i++) {
+            paths.add(directory.resolve(String.format("orders-%03d.csv", i)));
+        }
+        for (int i = 0; i < files; i++) {
+            paths.add(directory.resolve(String.format(ITEM_CSV_PREFIX + "%03d.csv", i)));
+        }
+
+        try {
+            runInParallel(() -> {
+                int file;
+                while ((file = (int) nextFile.getAndIncrement()) < files) {
+                    long firstChunk = file * chunksPerFile;
+                    long lastChunk = Math.min(chunkCount(), firstChunk + chunksPerFile);
+                    try (BufferedWriter writer = Files.newBufferedWriter(paths.get(file), StandardCharsets.UTF_8);
+                         BufferedWriter itemWriter = Files.newBufferedWriter(paths.get(files + file), StandardCharsets.UTF_8)) {
+                        StringBuilder line = new StringBuilder(128);
+                        for (long chunk = firstChunk; chunk < lastChunk; chunk++) {
+                            generateChunk(chunk, row -> {
+                                try {
+                                    long id = firstId + row.index;
+                                    line.setLength(0);
+                                    appendCsv(line, row, id);
+                                    writer.append(line);
+                                    if (row.hasItems()) {
+                                        line.setLength(0);
+                                        appendItemsCsv(line, row, id);
+                                        itemWriter.append(line);
+                                    }
+                                } catch (IOException e) {
+                                    throw new IllegalStateException(e);
+                                }
+                            });
+                            logProgress(written.addAndGet(rowsInChunk(chunk)), started);
+                        }
+                    }
+                }
+                return null;
+            });
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+
+        logger.info("Escritas {} órdenes en {} ficheros CSV en {} ms", written.get(), files,
+                (System.nanoTime() - started) / 1_000_000);
+        return paths;
+    }
+
+    // La tabla depende del fichero: órdenes o líneas
+    public static String loadDataSql(Path file) {
+        boolean items = file.getFileName().toString().startsWith(ITEM_CSV_PREFIX);
+        return "LOAD DATA LOCAL INFILE '" + file.toAbsolutePath().toString().replace("\\", "/") +
+                "' INTO TABLE " + (items ? "order_items" : "orders") +
+                " FIELDS TERMINATED BY ',' LINES TERMINATED BY '\\n' (" + (items ? ITEM_CSV_COLUMNS : CSV_COLUMNS) + ")";
+    }
+
+    static void appendCsv(StringBuilder line, OrderRow row, long id) {
+        line.append(id).append(',')
+                .append(row.userId).append(',')
+                .append(row.productId).append(',')
+                .append(row.quantity).append(',');
+        appendPrice(line, row.totalPriceCents);
+        line.append(',');
+        appendDateTime(line, row.orderDate);
+        line.append(',').append(row.status).append(',');
+        appendDateTime(line, row.orderDate);
+        line.append(',');
+        appendDateTime(line, row.updatedAt);
+        // \N es NULL para LOAD DATA
+        line.append(',');
+        if (row.hasItems()) {
+            line.append(row.itemCount);
+        } else {
+            line.append("\\N");
+        }
+        line.append('\n');
+    }
+
+    static void appendItemsCsv(StringBuilder line, OrderRow row, long id) {
+        for (int i = 0; i < row.itemCount; i++) {
+            line.append(id).append(',')
+                    .append(i + 1).append(',')
+                    .append(row.lineProductIds[i]).append(',')
+                    .append(row.lineQuantities[i]).append(',');
+            appendPrice(line, row.lineUnitPriceCents[i]);
+            line.append(',');
+            appendPrice(line, row.getLineTotalCents(i));
+            line.append('\n');
+        }
+    }
+
+    private static void appendPrice(StringBuilder line, long cents) {
+        line.append(cents / 100).append('.');
+        long remainder = cents % 100;
+        if (remainder < 10) {
+            line.append('0');
+        }
+        line.append(remainder);
+    }
+
+    // yyyy-MM-dd HH:mm:ss sin pasar por DateTimeFormatter
+    private static void appendDateTime(StringBuilder line, LocalDateTime dateTime) {
+        line.append(dateTime.getYear()).append('-');
+        twoDigits(line, dateTime.getMonthValue()).append('-');
+        twoDigits(line, dateTime.getDayOfMonth()).append(' ');
+        twoDigits(line, dateTime.getHour()).append(':');
+        twoDigits(line, dateTime.getMinute()).append(':');
+        twoDigits(line, dateTime.getSecond());
+    }
+
+    private static StringBuilder twoDigits(StringBuilder line, int value) {
+        if (value < 10) {
+            line.append('0');
+        }
+        return line.append(value);
+    }
+
+    // ========== UTILIDADES ==========
+
+    private long rowsInChunk(long chunk) {
+        return Math.min(CHUNK_SIZE, config.getRows() - chunk * CHUNK_SIZE);
+    }
+
+    private void logProgress(long done, long started) {
+        // Aproximadamente cada millón de filas
+        if (done % 1_000_000 < CHUNK_SIZE) {
+            double seconds = (System.nanoTime() - started) / 1_000_000_000.0;
+            logger.info("{} / {} filas ({} filas/s)", done, config.getRows(), Math.round(done / seconds));
+        }
+    }
+
+    private interface Task {
+        Void run() throws SQLException, IOException;
+    }
+
+    private void runInParallel(Task task) throws SQLException, InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(config.getThreads());
+        try {
+            List<Future<Void>> futures = new ArrayList<>();
+            for (int i = 0; i < config.getThreads(); i++) {
+                futures.add(executor.submit(task::run));
+            }
+            for (Future<Void> future : futures) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    executor.shutdownNow();
+                    Throwable cause = e.getCause() instanceof IllegalStateException && e.getCause().getCause() != null
+                            ? e.getCause().getCause() : e.getCause();
+                    if (cause instanceof SQLException) {
+                        throw (SQLException) cause;
+                    }
+                    throw new IllegalStateException("Error generando órdenes", cause);
+                }
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
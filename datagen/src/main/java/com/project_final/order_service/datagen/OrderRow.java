@@ -0,0 +1,46 @@
+package com.project_final.order_service.datagen;
+
+import java.time.LocalDateTime;
+
+/**
+ * Fila de la tabla orders. Se reutiliza la misma instancia por hilo para no asignar por fila.
+ *
+ * Las órdenes con varias líneas llevan en la cabecera el producto y la cantidad de la primera
+ * y el total de todas, como Order.setItems; sus líneas van a order_items.
+ */
+public final class OrderRow {
+
+    static final int MAX_LINES = 5;
+
+    long index;
+    long userId;
+    long productId;
+    int quantity;
+    long totalPriceCents;
+    LocalDateTime orderDate;
+    String status;
+    LocalDateTime updatedAt;
+    int itemCount;
+    final long[] lineProductIds = new long[MAX_LINES];
+    final int[] lineQuantities = new int[MAX_LINES];
+    final long[] lineUnitPriceCents = new long[MAX_LINES];
+
+    // Posición de la fila en el conjunto generado, desde 0
+    public long getIndex() { return index; }
+    public long getUserId() { return userId; }
+    public long getProductId() { return productId; }
+    public int getQuantity() { return quantity; }
+    public long getTotalPriceCents() { return totalPriceCents; }
+    public LocalDateTime getOrderDate() { return orderDate; }
+    public String getStatus() { return status; }
+    // created_at coincide con order_date
+    public LocalDateTime getCreatedAt() { return orderDate; }
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public int getItemCount() { return itemCount; }
+    // Igual que Order.hasItems: solo estas órdenes tienen filas en order_items
+    public boolean hasItems() { return itemCount > 1; }
+    public long getLineProductId(int line) { return lineProductIds[line]; }
+    public int getLineQuantity(int line) { return lineQuantities[line]; }
+    public long getLineUnitPriceCents(int line) { return lineUnitPriceCents[line]; }
+    public long getLineTotalCents(int line) { return lineUnitPriceCents[line] * lineQuantities[line]; }
+}
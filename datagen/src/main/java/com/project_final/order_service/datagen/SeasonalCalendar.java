@@ -0,0 +1,104 @@
+package com.project_final.order_service.datagen;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.Month;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Distribución de fechas de pedido con estacionalidad de comercio electrónico:
+ * picos en noviembre y diciembre, Black Friday y Cyber Monday, más actividad
+ * en fin de semana, tendencia de crecimiento y curva horaria con picos a mediodía y noche.
+ */
+final class SeasonalCalendar {
+
+    // Factor por mes, de enero a diciembre
+    private static final double[] MONTH_FACTORS = {
+            0.85, 0.80, 0.90, 0.90, 0.95, 0.95, 1.00, 0.90, 0.95, 1.00, 1.35, 1.60
+    };
+
+    // Peso relativo de cada hora del día
+    private static final double[] HOUR_WEIGHTS = {
+            0.6, 0.4, 0.25, 0.15, 0.1, 0.1, 0.2, 0.5, 0.9, 1.2, 1.4, 1.6,
+            1.9, 2.0, 1.7, 1.5, 1.4, 1.5, 1.7, 1.9, 2.2, 2.4, 2.0, 1.2
+    };
+
+    // Crecimiento del volumen entre el primer y el último día del rango
+    private static final double GROWTH = 0.30;
+
+    private final LocalDate start;
+    private final double[] dayCdf;
+    private final double[] hourCdf;
+
+    SeasonalCalendar(LocalDate start, LocalDate end) {
+        if (end.isBefore(start)) {
+            throw new IllegalArgumentException("La fecha final es anterior a la inicial");
+        }
+        this.start = start;
+        int days = (int) ChronoUnit.DAYS.between(start, end) + 1;
+
+        dayCdf = new double[days];
+        double sum = 0;
+        for (int i = 0; i < days; i++) {
+            double trend = 1.0 + GROWTH * i / Math.max(1, days - 1);
+            sum += dayWeight(start.plusDays(i)) * trend;
+            dayCdf[i] = sum;
+        }
+        normalize(dayCdf, sum);
+
+        hourCdf = new double[HOUR_WEIGHTS.length];
+        sum = 0;
+        for (int i = 0; i < HOUR_WEIGHTS.length; i++) {
+            sum += HOUR_WEIGHTS[i];
+            hourCdf[i] = sum;
+        }
+        normalize(hourCdf, sum);
+    }
+
+    static double dayWeight(LocalDate date) {
+        double weight = MONTH_FACTORS[date.getMonthValue() - 1];
+
+        DayOfWeek dayOfWeek = date.getDayOfWeek();
+        if (dayOfWeek == DayOfWeek.SATURDAY || dayOfWeek == DayOfWeek.SUNDAY) {
+            weight *= 1.15;
+        }
+
+        // Black Friday: el día siguiente al cuarto jueves de noviembre; Cyber Monday: el lunes siguiente
+        LocalDate blackFriday = LocalDate.of(date.getYear(), Month.NOVEMBER, 1)
+                .with(TemporalAdjusters.dayOfWeekInMonth(4, DayOfWeek.THURSDAY))
+                .plusDays(1);
+        if (date.equals(blackFriday) || date.equals(blackFriday.plusDays(3))) {
+            weight *= 3.0;
+        }
+
+        // Compras navideñas
+        if (date.getMonth() == Month.DECEMBER && date.getDayOfMonth() >= 15 && date.getDayOfMonth() <= 23) {
+            weight *= 1.4;
+        }
+        return weight;
+    }
+
+    LocalDateTime sample(SplittableRandom random) {
+        int day = search(dayCdf, random.nextDouble());
+        int hour = search(hourCdf, random.nextDouble());
+        return start.plusDays(day).atTime(hour, random.nextInt(60), random.nextInt(60));
+    }
+
+    private static int search(double[] cdf, double value) {
+        int index = Arrays.binarySearch(cdf, value);
+        if (index < 0) {
+            index = -index - 1;
+        }
+        return Math.min(index, cdf.length - 1);
+    }
+
+    private static void normalize(double[] cdf, double sum) {
+        for (int i = 0; i < cdf.length; i++) {
+            cdf[i] /= sum;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.project_final.order_service.datagen;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Muestreo Zipf sobre n elementos: el elemento de rango k tiene probabilidad
+ * proporcional a 1 / k^s. Los rangos se asignan a IDs mediante una permutación
+ * derivada de la semilla, para que los IDs populares no sean siempre 1, 2, 3...
+ */
+final class ZipfSampler {
+
+    private final double[] cdf;
+    private final int[] ids;
+
+    ZipfSampler(int n, double exponent, long seed) {
+        if (n <= 0) {
+            throw new IllegalArgumentException("n debe ser positivo");
+        }
+        cdf = new double[n];
+        double sum = 0;
+        for (int k = 1; k <= n; k++) {
+            sum += 1.0 / Math.pow(k, exponent);
+            cdf[k - 1] = sum;
+        }
+        for (int i = 0; i < n; i++) {
+            cdf[i] /= sum;
+        }
+
+        ids = new int[n];
+        for (int i = 0; i < n; i++) {
+            ids[i] = i + 1;
+        }
+        SplittableRandom random = new SplittableRandom(seed);
+        for (int i = n - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int tmp = ids[i];
+            ids[i] = ids[j];
+            ids[j] = tmp;
+        }
+    }
+
+    long sample(SplittableRandom random) {
+        int index = Arrays.binarySearch(cdf, random.nextDouble());
+        if (index < 0) {
+            index = -index - 1;
+        }
+        return ids[Math.min(index, ids.length - 1)];
+    }
+
+    // ID del elemento con el rango indicado (0 = el más popular)
+    long idAtRank(int rank) {
+        return ids[rank];
+    }
+}
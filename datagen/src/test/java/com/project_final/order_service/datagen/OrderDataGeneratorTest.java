@@ -0,0 +1,159 @@
+package com.project_final.order_service.datagen;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Order Data Generator Tests")
+class OrderDataGeneratorTest {
+
+    private static GeneratorConfig config(long seed) {
+        return GeneratorConfig.builder()
+                .rows(OrderDataGenerator.CHUNK_SIZE)
+                .users(10_000)
+                .products(1_000)
+                .startDate(LocalDate.of(2024, 1, 1))
+                .endDate(LocalDate.of(2024, 12, 31))
+                .seed(seed)
+                .build();
+    }
+
+    private static List<String> csvLines(OrderDataGenerator generator) {
+        List<String> lines = new ArrayList<>();
+        generator.generateChunk(0, row -> {
+            StringBuilder line = new StringBuilder();
+            OrderDataGenerator.appendCsv(line, row, row.getIndex() + 1);
+            lines.add(line.toString());
+        });
+        return lines;
+    }
+
+    @Test
+    @DisplayName("La misma semilla produce exactamente las mismas filas")
+    void sameSeedProducesSameRows() {
+        List<String> first = csvLines(new OrderDataGenerator(config(7)));
+        List<String> second = csvLines(new OrderDataGenerator(config(7)));
+        List<String> other = csvLines(new OrderDataGenerator(config(8)));
+
+        assertEquals(OrderDataGenerator.CHUNK_SIZE, first.size());
+        assertEquals(first, second);
+        assertNotEquals(first, other);
+    }
+
+    @Test
+    @DisplayName("La popularidad de usuarios está sesgada hacia el usuario más activo")
+    void userPopularityIsSkewed() {
+        OrderDataGenerator generator = new OrderDataGenerator(config(42));
+        Map<Long, Integer> ordersPerUser = new HashMap<>();
+        generator.generateChunk(0, row -> ordersPerUser.merge(row.getUserId(), 1, Integer::sum));
+
+        int hottest = ordersPerUser.getOrDefault(generator.hottestUserId(), 0);
+        double uniformShare = OrderDataGenerator.CHUNK_SIZE / 10_000.0;
+        assertTrue(hottest > 50 * uniformShare,
+                "El usuario más activo debería tener muchas más órdenes que la media: " + hottest);
+    }
+
+    @Test
+    @DisplayName("Las filas generadas respetan el rango de fechas y los estados válidos")
+    void rowsAreWithinRangeAndValid() {
+        GeneratorConfig config = config(42);
+        OrderDataGenerator generator = new OrderDataGenerator(config);
+
+        generator.generateChunk(0, row -> {
+            assertFalse(row.getOrderDate().toLocalDate().isBefore(config.getStartDate()));
+            assertFalse(row.getOrderDate().toLocalDate().isAfter(config.getEndDate()));
+            assertFalse(row.getUpdatedAt().isBefore(row.getOrderDate()));
+            assertTrue(row.getQuantity() > 0);
+            assertTrue(row.getTotalPriceCents() > 0);
+            assertTrue(List.of("PENDING", "CONFIRMED", "CANCELLED", "DELIVERED").contains(row.getStatus()));
+        });
+    }
+
+    @Test
+    @DisplayName("Una parte de las órdenes tiene varias líneas de productos distintos y la cabecera las resume")
+    void multiItemOrdersAreConsistent() {
+        OrderDataGenerator generator = new OrderDataGenerator(config(42));
+        int[] multiItem = {0};
+
+        generator.generateChunk(0, row -> {
+            long total = 0;
+            Set<Long> productIds = new HashSet<>();
+            for (int line = 0; line < row.getItemCount(); line++) {
+                assertTrue(productIds.add(row.getLineProductId(line)));
+                assertTrue(row.getLineQuantity(line) > 0);
+                total += row.getLineTotalCents(line);
+            }
+            assertEquals(total, row.getTotalPriceCents());
+            assertEquals(row.getLineProductId(0), row.getProductId());
+            assertEquals(row.getLineQuantity(0), row.getQuantity());
+            if (row.hasItems()) {
+                multiItem[0]++;
+            }
+        });
+
+        // multiItemShare por defecto: 8 %
+        double share = multiItem[0] / (double) OrderDataGenerator.CHUNK_SIZE;
+        assertTrue(share > 0.06 && share < 0.10, "Fracción de órdenes con varias líneas: " + share);
+    }
+
+    @Test
+    @DisplayName("La carga JDBC enlaza las líneas con el ID generado de su orden")
+    void loadLinksLinesToGeneratedIds() throws Exception {
+        GeneratorConfig config = GeneratorConfig.builder()
+                .rows(2_000)
+                .users(100)
+                .products(50)
+                .endDate(LocalDate.of(2024, 12, 31))
+                .multiItemShare(0.5)
+                .threads(2)
+                .batchSize(300)
+                .build();
+        ConnectionFactory connections = () -> DriverManager.getConnection("jdbc:h2:mem:datagen;DB_CLOSE_DELAY=-1", "sa", "");
+        OrderDataGenerator.createTableIfMissing(connections);
+        OrderDataGenerator.createTableIfMissing(connections);
+
+        assertEquals(2_000, new OrderDataGenerator(config).load(connections));
+
+        try (Connection connection = connections.open();
+             Statement statement = connection.createStatement()) {
+            // Cada orden con item_count tiene exactamente esas líneas y su total es la suma
+            ResultSet mismatched = statement.executeQuery("SELECT COUNT(*) FROM orders o WHERE o.item_count IS NOT NULL " +
+                    "AND (o.item_count <> (SELECT COUNT(*) FROM order_items i WHERE i.order_id = o.id) " +
+                    "OR o.total_price <> (SELECT SUM(i.line_total) FROM order_items i WHERE i.order_id = o.id))");
+            mismatched.next();
+            assertEquals(0, mismatched.getLong(1));
+
+            ResultSet orphans = statement.executeQuery("SELECT COUNT(*) FROM order_items i " +
+                    "WHERE NOT EXISTS (SELECT 1 FROM orders o WHERE o.id = i.order_id AND o.item_count > 1)");
+            orphans.next();
+            assertEquals(0, orphans.getLong(1));
+
+            ResultSet multiItem = statement.executeQuery("SELECT COUNT(*) FROM orders WHERE item_count IS NOT NULL");
+            multiItem.next();
+            assertTrue(multiItem.getLong(1) > 0);
+        }
+    }
+
+    @Test
+    @DisplayName("Noviembre y diciembre pesan más que febrero")
+    void seasonalWeights() {
+        assertTrue(SeasonalCalendar.dayWeight(LocalDate.of(2024, 12, 18))
+                > SeasonalCalendar.dayWeight(LocalDate.of(2024, 2, 14)));
+        // Black Friday 2024: 29 de noviembre
+        assertTrue(SeasonalCalendar.dayWeight(LocalDate.of(2024, 11, 29))
+                > 2 * SeasonalCalendar.dayWeight(LocalDate.of(2024, 11, 22)));
+    }
+}
@@ -0,0 +1,40 @@
+package com.project_final.order_service.loadtest;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Buffer circular de IDs de órdenes creadas durante la prueba, para lecturas y cancelaciones.
+ * Un hueco a 0 significa vacío o ya cancelado.
+ */
+class CreatedOrders {
+
+    private final AtomicLongArray ids;
+    private final AtomicLong written = new AtomicLong();
+
+    CreatedOrders(int capacity) {
+        this.ids = new AtomicLongArray(capacity);
+    }
+
+    void add(long id) {
+        int slot = (int) (written.getAndIncrement() % ids.length());
+        ids.set(slot, id);
+    }
+
+    // ID cualquiera, o 0 si todavía no hay órdenes
+    long any(SplittableRandom random) {
+        int filled = filled();
+        return filled == 0 ? 0 : ids.get(random.nextInt(filled));
+    }
+
+    // Retira un ID para que no se cancele dos veces
+    long take(SplittableRandom random) {
+        int filled = filled();
+        return filled == 0 ? 0 : ids.getAndSet(random.nextInt(filled), 0);
+    }
+
+    private int filled() {
+        return (int) Math.min(written.get(), ids.length());
+    }
+}
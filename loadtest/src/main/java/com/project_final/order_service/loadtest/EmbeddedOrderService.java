@@ -0,0 +1,72 @@
+package com.project_final.order_service.loadtest;
+
+import com.project_final.order_service.OrderServiceApplication;
+import com.project_final.order_service.datagen.GeneratorConfig;
+import com.project_final.order_service.datagen.OrderDataGenerator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Arranca el Order Service en el mismo proceso, con H2 en memoria y sin Eureka.
+ * Las instancias de User Service y Product Service se registran como lista fija.
+ */
+public final class EmbeddedOrderService {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmbeddedOrderService.class);
+
+    private EmbeddedOrderService() {
+    }
+
+    public static ConfigurableApplicationContext start(LoadTestConfig config, StandInServices standIns) {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("server.port", config.getServerPort());
+        properties.put("spring.datasource.url", "jdbc:h2:mem:loadtest;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE");
+        properties.put("spring.datasource.driver-class-name", "org.h2.Driver");
+        properties.put("spring.datasource.username", "sa");
+        properties.put("spring.datasource.password", "");
+        properties.put("spring.jpa.hibernate.ddl-auto", "create-drop");
+        properties.put("spring.jpa.show-sql", false);
+        properties.put("eureka.client.enabled", false);
+        // Sin registro: el balanceador reparte entre las instancias simuladas
+        registerInstances(properties, "user-service", standIns.userServiceUrls());
+        registerInstances(properties, "product-service", standIns.productServiceUrls());
+        properties.put("logging.level.com.project_final.order_service.controller", "WARN");
+        properties.put("logging.level.com.project_final.order_service.service", "WARN");
+
+        return new SpringApplicationBuilder(OrderServiceApplication.class)
+                .properties(properties)
+                .run();
+    }
+
+    private static void registerInstances(Map<String, Object> properties, String serviceId, List<String> urls) {
+        for (int i = 0; i < urls.size(); i++) {
+            properties.put("spring.cloud.discovery.client.simple.instances." + serviceId + "[" + i + "].uri",
+                    urls.get(i));
+        }
+    }
+
+    // Precarga órdenes sintéticas para que las consultas trabajen sobre un volumen realista
+    public static void seedOrders(ConfigurableApplicationContext context, LoadTestConfig config)
+            throws SQLException, InterruptedException {
+        DataSource dataSource = context.getBean(DataSource.class);
+        GeneratorConfig generatorConfig = GeneratorConfig.builder()
+                .rows(config.getSeedOrders())
+                .seed(config.getSeed())
+                .build();
+        logger.info("Precargando {} órdenes sintéticas", config.getSeedOrders());
+        new OrderDataGenerator(generatorConfig).load(dataSource::getConnection);
+    }
+
+    public static int port(ConfigurableApplicationContext context) {
+        return ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+    }
+}
@@ -0,0 +1,91 @@
+package com.project_final.order_service.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+/**
+ * Informe de throughput y percentiles de latencia por operación.
+ * Además de la tabla por consola, escribe la distribución completa de cada operación
+ * en formato .hgrm (representable con HdrHistogram Plotter).
+ */
+public final class LatencyReport {
+
+    private static final double MICROS_PER_MILLI = 1000.0;
+
+    private LatencyReport() {
+    }
+
+    public static void print(PrintStream out, Map<Operation, OperationStats> stats, long elapsedNanos,
+                             double requestedRate, long lateSends) {
+        double seconds = elapsedNanos / 1_000_000_000.0;
+        long total = 0;
+        long errors = 0;
+
+        out.println();
+        out.printf("Latencia de respuesta (desde el envío previsto), ms%n");
+        out.printf("%-15s %9s %9s %9s %8s %8s %8s %8s %9s %9s%n",
+                "op", "peticiones", "errores", "pet/s", "p50", "p90", "p99", "p99.9", "p99.99", "max");
+
+        for (Map.Entry<Operation, OperationStats> entry : stats.entrySet()) {
+            OperationStats operationStats = entry.getValue();
+            if (operationStats.count() == 0) {
+                continue;
+            }
+            total += operationStats.count();
+            errors += operationStats.errors();
+            printRow(out, entry.getKey().name(), operationStats.responseTime(), operationStats.errors(), seconds);
+        }
+
+        out.println();
+        out.printf("Total: %d peticiones en %.1f s -> %.1f pet/s (objetivo %.1f pet/s), %d errores (%.2f%%)%n",
+                total, seconds, total / seconds, requestedRate, errors, total == 0 ? 0 : errors * 100.0 / total);
+        if (lateSends > 0) {
+            out.printf("Aviso: %d envíos salieron con más de 1 ms de retraso (límite de peticiones en vuelo o " +
+                    "generador saturado); su retraso está incluido en la latencia.%n", lateSends);
+        }
+
+        out.println();
+        out.printf("Tiempo de servicio (desde el envío real, sin corregir), ms%n");
+        for (Map.Entry<Operation, OperationStats> entry : stats.entrySet()) {
+            if (entry.getValue().count() > 0) {
+                printRow(out, entry.getKey().name(), entry.getValue().serviceTime(), entry.getValue().errors(), seconds);
+            }
+        }
+    }
+
+    private static void printRow(PrintStream out, String name, Histogram histogram, long errors, double seconds) {
+        out.printf("%-15s %9d %9d %9.1f %8.2f %8.2f %8.2f %8.2f %9.2f %9.2f%n",
+                name,
+                histogram.getTotalCount(),
+                errors,
+                histogram.getTotalCount() / seconds,
+                millis(histogram, 50),
+                millis(histogram, 90),
+                millis(histogram, 99),
+                millis(histogram, 99.9),
+                millis(histogram, 99.99),
+                histogram.getMaxValue() / MICROS_PER_MILLI);
+    }
+
+    private static double millis(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / MICROS_PER_MILLI;
+    }
+
+    public static void writeDistributions(Path outputDir, Map<Operation, OperationStats> stats) throws IOException {
+        Files.createDirectories(outputDir);
+        for (Map.Entry<Operation, OperationStats> entry : stats.entrySet()) {
+            if (entry.getValue().count() == 0) {
+                continue;
+            }
+            Path file = outputDir.resolve(entry.getKey().name().toLowerCase() + ".hgrm");
+            try (PrintStream out = new PrintStream(Files.newOutputStream(file))) {
+                entry.getValue().responseTime().outputPercentileDistribution(out, MICROS_PER_MILLI);
+            }
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.project_final.order_service.loadtest;
+
+import com.github.tomakehurst.wiremock.client.ResponseDefinitionBuilder;
+import com.github.tomakehurst.wiremock.http.LogNormal;
+import com.github.tomakehurst.wiremock.http.UniformDistribution;
+
+/**
+ * Distribución de latencia de un servicio simulado, en milisegundos.
+ *
+ * Formatos: "none", "fixed:20", "uniform:10:80", "lognormal:20:0.6" (mediana y sigma).
+ */
+public class LatencySpec {
+
+    private final String type;
+    private final double first;
+    private final double second;
+
+    private LatencySpec(String type, double first, double second) {
+        this.type = type;
+        this.first = first;
+        this.second = second;
+    }
+
+    public static LatencySpec parse(String spec) {
+        String[] parts = spec.trim().toLowerCase().split(":");
+        switch (parts[0]) {
+            case "none":
+                return new LatencySpec("none", 0, 0);
+            case "fixed":
+                requireParts(spec, parts, 2);
+                return new LatencySpec("fixed", Double.parseDouble(parts[1]), 0);
+            case "uniform":
+                requireParts(spec, parts, 3);
+                return new LatencySpec("uniform", Double.parseDouble(parts[1]), Double.parseDouble(parts[2]));
+            case "lognormal":
+                requireParts(spec, parts, 3);
+                return new LatencySpec("lognormal", Double.parseDouble(parts[1]), Double.parseDouble(parts[2]));
+            default:
+                throw new IllegalArgumentException("Distribución de latencia desconocida: " + spec);
+        }
+    }
+
+    private static void requireParts(String spec, String[] parts, int expected) {
+        if (parts.length != expected) {
+            throw new IllegalArgumentException("Formato de latencia inválido: " + spec);
+        }
+    }
+
+    public ResponseDefinitionBuilder applyTo(ResponseDefinitionBuilder response) {
+        switch (type) {
+            case "fixed":
+                return response.withFixedDelay((int) first);
+            case "uniform":
+                return response.withRandomDelay(new UniformDistribution((int) first, (int) second));
+            case "lognormal":
+                return response.withRandomDelay(new LogNormal(first, second));
+            default:
+                return response;
+        }
+    }
+
+    @Override
+    public String toString() {
+        switch (type) {
+            case "fixed":
+                return String.format("fija %.0f ms", first);
+            case "uniform":
+                return String.format("uniforme %.0f-%.0f ms", first, second);
+            case "lognormal":
+                return String.format("lognormal mediana %.0f ms, sigma %.2f", first, second);
+            default:
+                return "sin latencia";
+        }
+    }
+}
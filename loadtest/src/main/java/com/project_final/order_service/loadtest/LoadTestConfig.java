@@ -0,0 +1,107 @@
+package com.project_final.order_service.loadtest;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Parámetros de la prueba de carga, leídos de argumentos --clave=valor.
+ */
+public class LoadTestConfig {
+
+    // Peticiones por segundo que se lanzan, independientemente de lo que tarde el servicio
+    private final double rate;
+    private final int durationSeconds;
+    private final int warmupSeconds;
+    private final int maxInFlight;
+    private final String mix;
+    private final long seed;
+
+    // Servicio externo ya arrancado; si es null se arranca uno embebido con H2
+    private final URI target;
+    private final int serverPort;
+
+    private final int userServicePort;
+    private final int productServicePort;
+    // Instancias simuladas de cada servicio, repartidas por el balanceador del Order Service
+    private final int userInstances;
+    private final int productInstances;
+    // Latencia de la última instancia de cada servicio cuando hay varias; null = como las demás
+    private final LatencySpec slowInstanceLatency;
+    private final LatencySpec userLatency;
+    private final LatencySpec productLatency;
+    private final double userErrorRate;
+    private final double productErrorRate;
+
+    // Órdenes sintéticas precargadas en la base de datos embebida antes de la prueba
+    private final long seedOrders;
+
+    private final Path outputDir;
+
+    private LoadTestConfig(Map<String, String> args) {
+        this.rate = Double.parseDouble(args.getOrDefault("rate", "200"));
+        this.durationSeconds = Integer.parseInt(args.getOrDefault("duration", "60"));
+        this.warmupSeconds = Integer.parseInt(args.getOrDefault("warmup", "10"));
+        this.maxInFlight = Integer.parseInt(args.getOrDefault("max-in-flight", "2000"));
+        this.mix = args.getOrDefault("mix", "create=40,read=30,cancel=10,stats=20");
+        this.seed = Long.parseLong(args.getOrDefault("seed", "42"));
+        this.target = args.containsKey("target") ? URI.create(args.get("target")) : null;
+        this.serverPort = Integer.parseInt(args.getOrDefault("server-port", "0"));
+        this.userServicePort = Integer.parseInt(args.getOrDefault("user-port", "8081"));
+        this.productServicePort = Integer.parseInt(args.getOrDefault("product-port", "8082"));
+        this.userInstances = Integer.parseInt(args.getOrDefault("user-instances", "1"));
+        this.productInstances = Integer.parseInt(args.getOrDefault("product-instances", "1"));
+        this.slowInstanceLatency = args.containsKey("slow-instance-latency")
+                ? LatencySpec.parse(args.get("slow-instance-latency")) : null;
+        this.userLatency = LatencySpec.parse(args.getOrDefault("user-latency", "lognormal:15:0.5"));
+        this.productLatency = LatencySpec.parse(args.getOrDefault("product-latency", "lognormal:20:0.6"));
+        this.userErrorRate = Double.parseDouble(args.getOrDefault("user-error-rate", "0"));
+        this.productErrorRate = Double.parseDouble(args.getOrDefault("product-error-rate", "0"));
+        this.seedOrders = Long.parseLong(args.getOrDefault("seed-orders", "0"));
+        this.outputDir = Paths.get(args.getOrDefault("output", "results"));
+
+        if (rate <= 0) {
+            throw new IllegalArgumentException("rate debe ser positivo");
+        }
+        if (userInstances < 1 || productInstances < 1) {
+            throw new IllegalArgumentException("Cada servicio necesita al menos una instancia");
+        }
+        if (userErrorRate < 0 || userErrorRate > 1 || productErrorRate < 0 || productErrorRate > 1) {
+            throw new IllegalArgumentException("Las tasas de error deben estar entre 0 y 1");
+        }
+    }
+
+    public static LoadTestConfig parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Argumento inválido (se espera --clave=valor): " + arg);
+            }
+            int separator = arg.indexOf('=');
+            values.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+        return new LoadTestConfig(values);
+    }
+
+    public double getRate() { return rate; }
+    public int getDurationSeconds() { return durationSeconds; }
+    public int getWarmupSeconds() { return warmupSeconds; }
+    public int getMaxInFlight() { return maxInFlight; }
+    public String getMix() { return mix; }
+    public long getSeed() { return seed; }
+    public URI getTarget() { return target; }
+    public int getServerPort() { return serverPort; }
+    public int getUserServicePort() { return userServicePort; }
+    public int getProductServicePort() { return productServicePort; }
+    public int getUserInstances() { return userInstances; }
+    public int getProductInstances() { return productInstances; }
+    public LatencySpec getSlowInstanceLatency() { return slowInstanceLatency; }
+    public LatencySpec getUserLatency() { return userLatency; }
+    public LatencySpec getProductLatency() { return productLatency; }
+    public double getUserErrorRate() { return userErrorRate; }
+    public double getProductErrorRate() { return productErrorRate; }
+    public long getSeedOrders() { return seedOrders; }
+    public Path getOutputDir() { return outputDir; }
+}
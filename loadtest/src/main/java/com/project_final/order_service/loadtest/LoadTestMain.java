@@ -0,0 +1,62 @@
+package com.project_final.order_service.loadtest;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Prueba de carga autocontenida: arranca los servicios simulados y el Order Service
+ * (salvo que se indique --target), ejecuta el calentamiento y la medición, y
+ * genera el informe de latencias.
+ */
+public class LoadTestMain {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoadTestMain.class);
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.parse(args);
+
+        StandInServices standIns = null;
+        ConfigurableApplicationContext orderService = null;
+        try {
+            URI target = config.getTarget();
+            if (target == null) {
+                standIns = StandInServices.start(config);
+                orderService = EmbeddedOrderService.start(config, standIns);
+                if (config.getSeedOrders() > 0) {
+                    EmbeddedOrderService.seedOrders(orderService, config);
+                }
+                target = URI.create("http://localhost:" + EmbeddedOrderService.port(orderService));
+                logger.info("Order Service embebido en {}", target);
+            }
+
+            try (OpenLoadGenerator generator = new OpenLoadGenerator(target, config)) {
+                if (config.getWarmupSeconds() > 0) {
+                    logger.info("Calentamiento de {} s", config.getWarmupSeconds());
+                    generator.run(Duration.ofSeconds(config.getWarmupSeconds()));
+                    generator.reset();
+                }
+
+                long elapsed = generator.run(Duration.ofSeconds(config.getDurationSeconds()));
+
+                LatencyReport.print(System.out, generator.getStats(), elapsed, config.getRate(),
+                        generator.getLateSends());
+                String runId = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
+                LatencyReport.writeDistributions(config.getOutputDir().resolve(runId), generator.getStats());
+                logger.info("Distribuciones de latencia guardadas en {}", config.getOutputDir().resolve(runId));
+            }
+        } finally {
+            if (orderService != null) {
+                orderService.close();
+            }
+            if (standIns != null) {
+                standIns.close();
+            }
+        }
+    }
+}
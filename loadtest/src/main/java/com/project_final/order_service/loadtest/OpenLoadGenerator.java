@@ -0,0 +1,150 @@
+package com.project_final.order_service.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Generador de carga de modelo abierto: lanza peticiones a tasa constante según un
+ * calendario fijo, sin esperar a que terminen las anteriores.
+ *
+ * Cada petición tiene un instante previsto de envío (inicio + i / tasa) y su latencia se
+ * mide desde ese instante. Si el servicio se satura y se alcanza el límite de peticiones en
+ * vuelo, el envío se retrasa pero el retraso queda incluido en la latencia.
+ */
+public class OpenLoadGenerator implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(OpenLoadGenerator.class);
+
+    private final URI target;
+    private final double rate;
+    private final RequestMix mix;
+    private final SplittableRandom random;
+    private final Semaphore inFlight;
+    private final int maxInFlight;
+    private final ExecutorService clientExecutor;
+    private final HttpClient client;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final CreatedOrders createdOrders = new CreatedOrders(100_000);
+    private final Map<Operation, OperationStats> stats = new EnumMap<>(Operation.class);
+    private final LongAdder lateSends = new LongAdder();
+
+    public OpenLoadGenerator(URI target, LoadTestConfig config) {
+        this.target = target;
+        this.rate = config.getRate();
+        this.mix = new RequestMix(config.getMix());
+        this.random = new SplittableRandom(config.getSeed());
+        this.maxInFlight = config.getMaxInFlight();
+        this.inFlight = new Semaphore(maxInFlight);
+        this.clientExecutor = Executors.newFixedThreadPool(Math.max(4, Runtime.getRuntime().availableProcessors()));
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(clientExecutor)
+                .build();
+        for (Operation operation : Operation.values()) {
+            stats.put(operation, new OperationStats());
+        }
+    }
+
+    /**
+     * Ejecuta el calendario durante la duración indicada y espera a las peticiones en vuelo.
+     * Devuelve los nanosegundos transcurridos.
+     */
+    public long run(Duration duration) throws InterruptedException {
+        logger.info("Lanzando {} pet/s durante {} s con mezcla {}", rate, duration.getSeconds(), mix);
+
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+        double intervalNanos = 1_000_000_000.0 / rate;
+
+        for (long i = 0; ; i++) {
+            long intendedStart = start + (long) (i * intervalNanos);
+            if (intendedStart >= end) {
+                break;
+            }
+            long wait;
+            while ((wait = intendedStart - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            send(mix.next(random), intendedStart);
+        }
+
+        // Espera a que terminen todas las peticiones lanzadas
+        if (!inFlight.tryAcquire(maxInFlight, 60, TimeUnit.SECONDS)) {
+            logger.warn("Quedan peticiones en vuelo tras 60 s de espera");
+        } else {
+            inFlight.release(maxInFlight);
+        }
+        return System.nanoTime() - start;
+    }
+
+    private void send(Operation operation, long intendedStart) {
+        inFlight.acquireUninterruptibly();
+        HttpRequest request = operation.request(target, createdOrders, random);
+        long sendTime = System.nanoTime();
+        if (sendTime - intendedStart > 1_000_000) {
+            lateSends.increment();
+        }
+
+        client.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                .whenComplete((response, error) -> {
+                    long now = System.nanoTime();
+                    inFlight.release();
+                    boolean success = error == null && response.statusCode() / 100 == 2;
+                    // La operación real puede diferir si CANCEL se convirtió en CREATE
+                    Operation actual = operation == Operation.CANCEL && request.method().equals("POST")
+                            ? Operation.CREATE : operation;
+                    stats.get(actual).record(now - intendedStart, now - sendTime, success);
+                    if (success && (actual == Operation.CREATE || actual == Operation.CREATE_REACTIVE)) {
+                        rememberCreatedOrder(response.body());
+                    }
+                });
+    }
+
+    private void rememberCreatedOrder(String body) {
+        try {
+            JsonNode id = objectMapper.readTree(body).path("data").path("id");
+            if (id.canConvertToLong()) {
+                createdOrders.add(id.asLong());
+            }
+        } catch (Exception e) {
+            logger.debug("Respuesta de creación no interpretable: {}", e.getMessage());
+        }
+    }
+
+    public void reset() {
+        stats.values().forEach(OperationStats::reset);
+        lateSends.reset();
+    }
+
+    public Map<Operation, OperationStats> getStats() {
+        return stats;
+    }
+
+    // Envíos que salieron más de 1 ms tarde respecto al calendario
+    public long getLateSends() {
+        return lateSends.sum();
+    }
+
+    @Override
+    public void close() {
+        clientExecutor.shutdownNow();
+    }
+}
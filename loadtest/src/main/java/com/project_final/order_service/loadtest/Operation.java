@@ -0,0 +1,53 @@
+package com.project_final.order_service.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.util.SplittableRandom;
+
+/**
+ * Tipos de petición que componen la mezcla de tráfico.
+ */
+public enum Operation {
+
+    // CREATE_REACTIVE usa el pipeline no bloqueante (/api/orders/reactive)
+    CREATE, CREATE_REACTIVE, READ, CANCEL, STATS;
+
+    private static final int USERS = 1000;
+    private static final int PRODUCTS = 200;
+
+    /**
+     * Construye la petición HTTP. READ y CANCEL usan órdenes creadas durante la prueba;
+     * si aún no hay ninguna, READ consulta por usuario y CANCEL se convierte en CREATE.
+     */
+    HttpRequest request(URI base, CreatedOrders createdOrders, SplittableRandom random) {
+        switch (this) {
+            case READ: {
+                long id = createdOrders.any(random);
+                String path = id > 0 ? "/api/orders/" + id : "/api/orders/user/" + (random.nextInt(USERS) + 1);
+                return HttpRequest.newBuilder(base.resolve(path)).GET().build();
+            }
+            case CANCEL: {
+                long id = createdOrders.take(random);
+                if (id > 0) {
+                    return HttpRequest.newBuilder(base.resolve("/api/orders/" + id + "/cancel"))
+                            .PUT(HttpRequest.BodyPublishers.noBody())
+                            .build();
+                }
+                return CREATE.request(base, createdOrders, random);
+            }
+            case STATS: {
+                String path = random.nextBoolean() ? "/api/orders/stats/total" : "/api/orders/stats/sales";
+                return HttpRequest.newBuilder(base.resolve(path)).GET().build();
+            }
+            default: {
+                String body = String.format("{\"userId\":%d,\"productId\":%d,\"quantity\":%d}",
+                        random.nextInt(USERS) + 1, random.nextInt(PRODUCTS) + 1, random.nextInt(5) + 1);
+                String path = this == CREATE_REACTIVE ? "/api/orders/reactive" : "/api/orders";
+                return HttpRequest.newBuilder(base.resolve(path))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(body))
+                        .build();
+            }
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.project_final.order_service.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latencias de una operación, en microsegundos.
+ *
+ * responseTime se mide desde el instante en que la petición debía enviarse según
+ * la tasa configurada, no desde el envío real: si el generador o el cliente se
+ * retrasan, ese retraso cuenta como latencia (corrección de coordinated omission).
+ * serviceTime se mide desde el envío real y se reporta solo como referencia.
+ */
+class OperationStats {
+
+    private final Histogram responseTime = new ConcurrentHistogram(3);
+    private final Histogram serviceTime = new ConcurrentHistogram(3);
+    private final LongAdder errors = new LongAdder();
+
+    void record(long responseNanos, long serviceNanos, boolean success) {
+        responseTime.recordValue(Math.max(1, responseNanos / 1000));
+        serviceTime.recordValue(Math.max(1, serviceNanos / 1000));
+        if (!success) {
+            errors.increment();
+        }
+    }
+
+    void reset() {
+        responseTime.reset();
+        serviceTime.reset();
+        errors.reset();
+    }
+
+    Histogram responseTime() {
+        return responseTime;
+    }
+
+    Histogram serviceTime() {
+        return serviceTime;
+    }
+
+    long count() {
+        return responseTime.getTotalCount();
+    }
+
+    long errors() {
+        return errors.sum();
+    }
+}
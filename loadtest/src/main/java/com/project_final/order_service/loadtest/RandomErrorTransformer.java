@@ -0,0 +1,42 @@
+package com.project_final.order_service.loadtest;
+
+import com.github.tomakehurst.wiremock.client.ResponseDefinitionBuilder;
+import com.github.tomakehurst.wiremock.common.FileSource;
+import com.github.tomakehurst.wiremock.extension.Parameters;
+import com.github.tomakehurst.wiremock.extension.ResponseDefinitionTransformer;
+import com.github.tomakehurst.wiremock.http.Request;
+import com.github.tomakehurst.wiremock.http.ResponseDefinition;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Sustituye una fracción configurable de las respuestas por un 503,
+ * conservando el retardo configurado en el stub.
+ */
+public class RandomErrorTransformer extends ResponseDefinitionTransformer {
+
+    private final String name;
+    private final double errorRate;
+
+    public RandomErrorTransformer(String name, double errorRate) {
+        this.name = name;
+        this.errorRate = errorRate;
+    }
+
+    @Override
+    public ResponseDefinition transform(Request request, ResponseDefinition responseDefinition,
+                                        FileSource files, Parameters parameters) {
+        if (errorRate > 0 && ThreadLocalRandom.current().nextDouble() < errorRate) {
+            return ResponseDefinitionBuilder.like(responseDefinition)
+                    .withStatus(503)
+                    .withBody("{\"error\":\"servicio no disponible (simulado)\"}")
+                    .build();
+        }
+        return responseDefinition;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+}
@@ -0,0 +1,56 @@
+package com.project_final.order_service.loadtest;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Mezcla ponderada de operaciones, p. ej. "create=40,read=30,cancel=10,stats=20".
+ */
+class RequestMix {
+
+    private final Operation[] operations;
+    private final int[] cumulativeWeights;
+    private final int totalWeight;
+    private final Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+
+    RequestMix(String spec) {
+        for (String entry : spec.split(",")) {
+            String[] parts = entry.trim().split("=");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Mezcla inválida: " + spec);
+            }
+            int weight = Integer.parseInt(parts[1].trim());
+            if (weight > 0) {
+                weights.put(Operation.valueOf(parts[0].trim().toUpperCase()), weight);
+            }
+        }
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("La mezcla no contiene operaciones: " + spec);
+        }
+
+        operations = weights.keySet().toArray(new Operation[0]);
+        cumulativeWeights = new int[operations.length];
+        int sum = 0;
+        for (int i = 0; i < operations.length; i++) {
+            sum += weights.get(operations[i]);
+            cumulativeWeights[i] = sum;
+        }
+        totalWeight = sum;
+    }
+
+    Operation next(SplittableRandom random) {
+        int value = random.nextInt(totalWeight);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (value < cumulativeWeights[i]) {
+                return operations[i];
+            }
+        }
+        return operations[operations.length - 1];
+    }
+
+    @Override
+    public String toString() {
+        return weights.toString();
+    }
+}
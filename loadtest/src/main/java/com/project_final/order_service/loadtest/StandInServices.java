@@ -0,0 +1,121 @@
+package com.project_final.order_service.loadtest;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.ResponseDefinitionBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
+
+/**
+ * Sustitutos WireMock de User Service y Product Service con las mismas rutas
+ * que consume OrderService, latencia aleatoria y tasa de errores configurables.
+ * Cada servicio puede tener varias instancias para ejercitar el balanceo en cliente.
+ */
+public class StandInServices implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(StandInServices.class);
+
+    private static final String USER_JSON =
+            "{\"id\":1,\"name\":\"Load Test User\",\"email\":\"load@example.com\"}";
+    private static final String PRODUCT_JSON =
+            "{\"id\":1,\"name\":\"Load Test Product\",\"description\":\"Producto simulado\",\"price\":49.99,\"stock\":1000000}";
+
+    private final List<WireMockServer> userInstances;
+    private final List<WireMockServer> productInstances;
+
+    private StandInServices(List<WireMockServer> userInstances, List<WireMockServer> productInstances) {
+        this.userInstances = userInstances;
+        this.productInstances = productInstances;
+    }
+
+    public static StandInServices start(LoadTestConfig config) {
+        List<WireMockServer> userInstances = new ArrayList<>();
+        for (int i = 0; i < config.getUserInstances(); i++) {
+            LatencySpec latency = latencyOf(config, config.getUserLatency(), i, config.getUserInstances());
+            WireMockServer userService = server(port(config.getUserServicePort(), i), "user-errors",
+                    config.getUserErrorRate());
+            userService.stubFor(get(urlPathMatching("/api/users/\\d+"))
+                    .willReturn(json(USER_JSON, latency)));
+            userInstances.add(userService);
+            logger.info("User Service simulado en :{} ({}, errores {}%)", userService.port(),
+                    latency, config.getUserErrorRate() * 100);
+        }
+
+        List<WireMockServer> productInstances = new ArrayList<>();
+        for (int i = 0; i < config.getProductInstances(); i++) {
+            LatencySpec latency = latencyOf(config, config.getProductLatency(), i, config.getProductInstances());
+            WireMockServer productService = server(port(config.getProductServicePort(), i), "product-errors",
+                    config.getProductErrorRate());
+            productService.stubFor(get(urlPathMatching("/api/products/\\d+"))
+                    .willReturn(json(PRODUCT_JSON, latency)));
+            productService.stubFor(get(urlPathMatching("/api/products/\\d+/(check|reduce|increase)-stock"))
+                    .willReturn(json("true", latency)));
+            productInstances.add(productService);
+            logger.info("Product Service simulado en :{} ({}, errores {}%)", productService.port(),
+                    latency, config.getProductErrorRate() * 100);
+        }
+
+        return new StandInServices(userInstances, productInstances);
+    }
+
+    // URLs de cada instancia, para registrarlas en el balanceador del Order Service
+    public List<String> userServiceUrls() {
+        return urls(userInstances);
+    }
+
+    public List<String> productServiceUrls() {
+        return urls(productInstances);
+    }
+
+    // La primera instancia usa el puerto configurado; el resto, puertos libres
+    private static int port(int configuredPort, int index) {
+        return index == 0 ? configuredPort : 0;
+    }
+
+    // Con varias instancias, la última puede simular una instancia degradada
+    private static LatencySpec latencyOf(LoadTestConfig config, LatencySpec latency, int index, int instances) {
+        if (instances > 1 && index == instances - 1 && config.getSlowInstanceLatency() != null) {
+            return config.getSlowInstanceLatency();
+        }
+        return latency;
+    }
+
+    private static List<String> urls(List<WireMockServer> instances) {
+        List<String> urls = new ArrayList<>();
+        for (WireMockServer instance : instances) {
+            urls.add("http://localhost:" + instance.port());
+        }
+        return urls;
+    }
+
+    private static WireMockServer server(int port, String transformerName, double errorRate) {
+        // Respuestas asíncronas: los retardos simulados no ocupan hilos de Jetty
+        WireMockServer server = new WireMockServer(options()
+                .port(port)
+                .containerThreads(200)
+                .asynchronousResponseEnabled(true)
+                .asynchronousResponseThreads(50)
+                .disableRequestJournal()
+                .extensions(new RandomErrorTransformer(transformerName, errorRate)));
+        server.start();
+        return server;
+    }
+
+    private static ResponseDefinitionBuilder json(String body, LatencySpec latency) {
+        return latency.applyTo(aResponse()
+                .withStatus(200)
+                .withHeader("Content-Type", "application/json")
+                .withBody(body));
+    }
+
+    @Override
+    public void close() {
+        userInstances.forEach(WireMockServer::stop);
+        productInstances.forEach(WireMockServer::stop);
+    }
+}
@@ -0,0 +1,67 @@
+package com.project_final.order_service.Dto;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Sobre de las respuestas de escritura: {"success": ..., "message": ..., "data": ...}.
+ * Sin data (p. ej. al eliminar) el campo no aparece.
+ *
+ * Los mensajes fijos se registran una vez con constant(): al serializar se copian sus bytes JSON
+ * ya codificados, sin escapar ni pasar a UTF-8 el texto en cada respuesta. El resto de mensajes
+ * se escribe de la forma habitual.
+ */
+@JsonSerialize(using = ApiResponse.Serializer.class)
+public record ApiResponse<T>(boolean success, String message, T data) {
+
+    private static final Map<String, SerializedString> CONSTANT_MESSAGES = new ConcurrentHashMap<>();
+
+    public static <T> ApiResponse<T> ok(String message, T data) {
+        return new ApiResponse<>(true, message, data);
+    }
+
+    // Para inicializar constantes: devuelve el mismo mensaje, ya serializado
+    public static String constant(String message) {
+        CONSTANT_MESSAGES.putIfAbsent(message, new SerializedString(message));
+        return message;
+    }
+
+    public static class Serializer extends StdSerializer<ApiResponse<?>> {
+
+        private static final SerializedString SUCCESS = new SerializedString("success");
+        private static final SerializedString MESSAGE = new SerializedString("message");
+        private static final SerializedString DATA = new SerializedString("data");
+
+        public Serializer() {
+            super(ApiResponse.class, false);
+        }
+
+        @Override
+        public void serialize(ApiResponse<?> response, JsonGenerator gen, SerializerProvider provider)
+                throws IOException {
+            gen.writeStartObject(response);
+            gen.writeFieldName(SUCCESS);
+            gen.writeBoolean(response.success());
+            gen.writeFieldName(MESSAGE);
+            SerializedString constant = response.message() != null
+                    ? CONSTANT_MESSAGES.get(response.message()) : null;
+            if (constant != null) {
+                gen.writeString(constant);
+            } else {
+                gen.writeString(response.message());
+            }
+            if (response.data() != null) {
+                gen.writeFieldName(DATA);
+                provider.defaultSerializeValue(response.data(), gen);
+            }
+            gen.writeEndObject();
+        }
+    }
+}
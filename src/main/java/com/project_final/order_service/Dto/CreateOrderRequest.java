@@ -1,11 +1,18 @@
 package com.project_final.order_service.Dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 import java.math.BigDecimal;
+import java.util.List;
 
 public class CreateOrderRequest {
     private Long userId;
     private Long productId;
     private Integer quantity;
+    // Orden con varios productos: sustituye a productId/quantity. Se omite del JSON si no
+    // hay líneas para que la huella de idempotencia de las órdenes de un producto no cambie
+    @JsonInclude(JsonInclude.Include.NON_EMPTY)
+    private List<OrderItemRequest> items;
 
     // Constructores
     public CreateOrderRequest() {}
@@ -40,4 +47,16 @@ public class CreateOrderRequest {
     public void setQuantity(Integer quantity) {
         this.quantity = quantity;
     }
+
+    public List<OrderItemRequest> getItems() {
+        return items;
+    }
+
+    public void setItems(List<OrderItemRequest> items) {
+        this.items = items;
+    }
+
+    public boolean hasItems() {
+        return items != null && !items.isEmpty();
+    }
 }
@@ -0,0 +1,31 @@
+package com.project_final.order_service.Dto;
+
+public class OrderItemRequest {
+    private Long productId;
+    private Integer quantity;
+
+    // Constructores
+    public OrderItemRequest() {}
+
+    public OrderItemRequest(Long productId, Integer quantity) {
+        this.productId = productId;
+        this.quantity = quantity;
+    }
+
+    // Getters y Setters
+    public Long getProductId() {
+        return productId;
+    }
+
+    public void setProductId(Long productId) {
+        this.productId = productId;
+    }
+
+    public Integer getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(Integer quantity) {
+        this.quantity = quantity;
+    }
+}
@@ -1,5 +1,7 @@
 package com.project_final.order_service;
 
+import com.project_final.order_service.resilience.DeadlineClientHttpRequestFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
@@ -16,8 +18,10 @@ public class OrderServiceApplication {
 	}
 
 	@Bean
-	//*@LoadBalanced
-	public RestTemplate restTemplate() {
-		return new RestTemplate();
+	@LoadBalanced
+	public RestTemplate restTemplate(@Value("${order.remote.connect-timeout-ms:1000}") int connectTimeoutMs,
+									 @Value("${order.remote.read-timeout-ms:5000}") int readTimeoutMs) {
+		// Timeouts por llamada, recortados al plazo restante de la petición
+		return new RestTemplate(new DeadlineClientHttpRequestFactory(connectTimeoutMs, readTimeoutMs));
 	}
 }
@@ -0,0 +1,78 @@
+package com.project_final.order_service.config;
+
+import com.project_final.order_service.metrics.ServerTiming;
+import com.project_final.order_service.resilience.Deadline;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Ejecución asíncrona de los endpoints de escritura: el hilo de Tomcat se libera
+ * mientras las llamadas remotas y la escritura en base de datos se ejecutan en
+ * un pool de E/S dedicado. En el modo de hilos virtuales (VirtualThreadConfig)
+ * el pool se sustituye por un hilo virtual por tarea.
+ */
+@Configuration
+public class AsyncConfig implements WebMvcConfigurer {
+
+    public static final String ORDER_IO_EXECUTOR = "orderIoExecutor";
+
+    @Value("${order.async.request-timeout-ms:30000}")
+    private long requestTimeoutMs;
+
+    @Value("${order.async.io-executor.core-size:50}")
+    private int coreSize;
+
+    @Value("${order.async.io-executor.max-size:200}")
+    private int maxSize;
+
+    @Value("${order.async.io-executor.queue-capacity:1000}")
+    private int queueCapacity;
+
+    @Autowired(required = false)
+    @Qualifier(VirtualThreadConfig.VIRTUAL_THREAD_EXECUTOR)
+    private ExecutorService virtualThreadExecutor;
+
+    @Bean(name = ORDER_IO_EXECUTOR)
+    public AsyncTaskExecutor orderIoExecutor() {
+        if (virtualThreadExecutor != null) {
+            TaskExecutorAdapter adapter = new TaskExecutorAdapter(virtualThreadExecutor);
+            adapter.setTaskDecorator(AsyncConfig::propagateRequestContext);
+            return adapter;
+        }
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(coreSize);
+        executor.setMaxPoolSize(maxSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("order-io-");
+        // El desglose de Server-Timing y el plazo de la petición siguen a la tarea al pool de E/S
+        executor.setTaskDecorator(AsyncConfig::propagateRequestContext);
+        // Con la cola llena se rechaza la tarea (503) en lugar de bloquear el hilo de Tomcat
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        // Al vencer, Spring lanza AsyncRequestTimeoutException (503 en GlobalExceptionHandler)
+        configurer.setDefaultTimeout(requestTimeoutMs);
+        configurer.setTaskExecutor(orderIoExecutor());
+    }
+
+    private static Runnable propagateRequestContext(Runnable task) {
+        return ServerTiming.wrap(Deadline.wrap(task));
+    }
+}
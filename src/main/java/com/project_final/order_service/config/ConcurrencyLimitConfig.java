@@ -0,0 +1,81 @@
+package com.project_final.order_service.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project_final.order_service.resilience.AdaptiveConcurrencyLimiter;
+import com.project_final.order_service.resilience.ConcurrencyLimitFilter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Límite adaptativo de concurrencia de OrderController (order.concurrency-limit.enabled=true).
+ * El filtro va antes que el del plazo de la petición: una petición rechazada no cuesta nada más.
+ */
+@Configuration
+@ConditionalOnProperty(name = "order.concurrency-limit.enabled", havingValue = "true")
+public class ConcurrencyLimitConfig {
+
+    public static final String LIMIT = "order.concurrency.limit";
+    public static final String IN_FLIGHT = "order.concurrency.inflight";
+
+    @Value("${order.concurrency-limit.min-limit:4}")
+    private int minLimit;
+
+    @Value("${order.concurrency-limit.tolerance:2.0}")
+    private double tolerance;
+
+    @Value("${order.concurrency-limit.smoothing:0.2}")
+    private double smoothing;
+
+    @Bean
+    public AdaptiveConcurrencyLimiter orderWriteLimiter(
+            MeterRegistry meterRegistry,
+            @Value("${order.concurrency-limit.write.initial-limit:20}") int initialLimit,
+            @Value("${order.concurrency-limit.write.max-limit:200}") int maxLimit) {
+        return register(new AdaptiveConcurrencyLimiter("write", initialLimit, minLimit, maxLimit,
+                tolerance, smoothing), meterRegistry);
+    }
+
+    @Bean
+    public AdaptiveConcurrencyLimiter orderReadLimiter(
+            MeterRegistry meterRegistry,
+            @Value("${order.concurrency-limit.read.initial-limit:50}") int initialLimit,
+            @Value("${order.concurrency-limit.read.max-limit:500}") int maxLimit) {
+        return register(new AdaptiveConcurrencyLimiter("read", initialLimit, minLimit, maxLimit,
+                tolerance, smoothing), meterRegistry);
+    }
+
+    @Bean
+    public FilterRegistrationBean<ConcurrencyLimitFilter> concurrencyLimitFilter(
+            AdaptiveConcurrencyLimiter orderWriteLimiter,
+            AdaptiveConcurrencyLimiter orderReadLimiter,
+            MeterRegistry meterRegistry,
+            ObjectMapper objectMapper,
+            @Value("${order.concurrency-limit.stats-share:0.5}") double statsShare,
+            @Value("${order.concurrency-limit.retry-after-seconds:1}") long retryAfterSeconds) {
+        FilterRegistrationBean<ConcurrencyLimitFilter> registration = new FilterRegistrationBean<>(
+                new ConcurrencyLimitFilter(orderWriteLimiter, orderReadLimiter, statsShare, retryAfterSeconds,
+                        meterRegistry, objectMapper));
+        registration.addUrlPatterns("/api/orders", "/api/orders/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 3);
+        return registration;
+    }
+
+    private static AdaptiveConcurrencyLimiter register(AdaptiveConcurrencyLimiter limiter,
+                                                       MeterRegistry meterRegistry) {
+        Gauge.builder(LIMIT, limiter, AdaptiveConcurrencyLimiter::getLimit)
+                .description("Límite actual de peticiones concurrentes")
+                .tag("class", limiter.getName())
+                .register(meterRegistry);
+        Gauge.builder(IN_FLIGHT, limiter, AdaptiveConcurrencyLimiter::getInFlight)
+                .description("Peticiones en curso")
+                .tag("class", limiter.getName())
+                .register(meterRegistry);
+        return limiter;
+    }
+}
@@ -0,0 +1,23 @@
+package com.project_final.order_service.config;
+
+import com.project_final.order_service.exceptions.BusinessException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Captura de la pila en las excepciones de negocio (order.errors.stack-traces).
+ *
+ * El indicador de BusinessException es estático y vale para toda la JVM: se fija una sola vez
+ * al arrancar, no al crear cada bean que maneja errores.
+ */
+@Configuration
+public class ErrorsConfig {
+
+    @Bean
+    public ApplicationRunner businessExceptionStackTraces(
+            @Value("${order.errors.stack-traces:false}") boolean stackTraces) {
+        return args -> BusinessException.setStackTraces(stackTraces);
+    }
+}
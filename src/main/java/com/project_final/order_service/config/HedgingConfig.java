@@ -0,0 +1,49 @@
+package com.project_final.order_service.config;
+
+import com.project_final.order_service.resilience.RequestHedger;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Hedging de las consultas idempotentes de OrderService (order.hedging.enabled=true).
+ * Los intentos se ejecutan en un pool propio sin cola: si se llena, la llamada se hace
+ * en el hilo de la petición sin hedge.
+ */
+@Configuration
+@ConditionalOnProperty(name = "order.hedging.enabled", havingValue = "true")
+public class HedgingConfig {
+
+    public static final String HEDGE_EXECUTOR = "orderHedgeExecutor";
+
+    @Value("${order.hedging.max-threads:256}")
+    private int maxThreads;
+
+    @Bean(name = HEDGE_EXECUTOR)
+    public ThreadPoolTaskExecutor orderHedgeExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(Math.min(32, maxThreads));
+        executor.setMaxPoolSize(maxThreads);
+        executor.setQueueCapacity(0);
+        executor.setThreadNamePrefix("order-hedge-");
+        return executor;
+    }
+
+    @Bean
+    public RequestHedger requestHedger(
+            MeterRegistry meterRegistry,
+            @Qualifier(HEDGE_EXECUTOR) ThreadPoolTaskExecutor orderHedgeExecutor,
+            @Value("${order.hedging.percentile:0.95}") double percentile,
+            @Value("${order.hedging.min-delay-ms:5}") long minDelayMs,
+            @Value("${order.hedging.max-delay-ms:1000}") long maxDelayMs,
+            @Value("${order.hedging.min-samples:100}") int minSamples,
+            @Value("${order.hedging.budget-ratio:0.05}") double budgetRatio,
+            @Value("${order.hedging.max-burst:10}") int maxBurst) {
+        return new RequestHedger(meterRegistry, orderHedgeExecutor, percentile,
+                minDelayMs, maxDelayMs, minSamples, budgetRatio, maxBurst);
+    }
+}
@@ -0,0 +1,24 @@
+package com.project_final.order_service.config;
+
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Accesores generados para Jackson (order.json.blackbird.enabled=true). Blackbird sustituye
+ * las llamadas por reflexión a getters, setters y constructores (Order, OrderItem, los
+ * registros de respuesta) por lambdas generadas con LambdaMetafactory.
+ *
+ * Spring Boot añade los beans Module a su ObjectMapper, así que también aplica a CBOR y Smile.
+ */
+@Configuration
+@ConditionalOnProperty(name = "order.json.blackbird.enabled", havingValue = "true")
+public class JacksonConfig {
+
+    @Bean
+    public Module blackbirdModule() {
+        return new BlackbirdModule();
+    }
+}
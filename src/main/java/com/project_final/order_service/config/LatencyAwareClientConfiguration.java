@@ -0,0 +1,32 @@
+package com.project_final.order_service.config;
+
+import com.project_final.order_service.resilience.InstanceLoadTracker;
+import com.project_final.order_service.resilience.LatencyAwareLoadBalancer;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.loadbalancer.core.ReactorLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.Environment;
+
+/**
+ * Configuración de cada cliente de Spring Cloud LoadBalancer (un contexto hijo por servicio).
+ *
+ * Sin @Configuration a propósito: si la detectara el escaneo de componentes se cargaría en el
+ * contexto principal, donde no existe el nombre del servicio. Con
+ * order.load-balancing.latency-aware=false se usa el round robin por defecto.
+ */
+public class LatencyAwareClientConfiguration {
+
+    @Bean
+    @ConditionalOnProperty(name = "order.load-balancing.latency-aware", havingValue = "true", matchIfMissing = true)
+    public ReactorLoadBalancer<ServiceInstance> latencyAwareLoadBalancer(Environment environment,
+                                                                         LoadBalancerClientFactory clientFactory,
+                                                                         InstanceLoadTracker instanceLoadTracker) {
+        String serviceId = environment.getProperty(LoadBalancerClientFactory.PROPERTY_NAME);
+        return new LatencyAwareLoadBalancer(
+                clientFactory.getLazyProvider(serviceId, ServiceInstanceListSupplier.class),
+                serviceId, instanceLoadTracker);
+    }
+}
@@ -0,0 +1,53 @@
+package com.project_final.order_service.config;
+
+import com.project_final.order_service.resilience.InstanceLoadLifecycle;
+import com.project_final.order_service.resilience.InstanceLoadTracker;
+import com.project_final.order_service.resilience.LoadBalancedExchangeFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.reactive.ReactiveLoadBalancer;
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClients;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Balanceo en cliente de las llamadas a User Service y Product Service.
+ *
+ * Las URLs usan el ID del servicio (http://user-service); RestTemplate (@LoadBalanced) y
+ * WebClient (LoadBalancedExchangeFilter) lo resuelven contra la lista de instancias del
+ * registro. La política por defecto de todos los clientes es LatencyAwareLoadBalancer
+ * (ver LatencyAwareClientConfiguration).
+ */
+@Configuration
+@LoadBalancerClients(defaultConfiguration = LatencyAwareClientConfiguration.class)
+public class LoadBalancingConfig {
+
+    @Bean
+    public InstanceLoadTracker instanceLoadTracker(
+            MeterRegistry meterRegistry,
+            @Value("${order.load-balancing.ewma-alpha:0.3}") double alpha,
+            @Value("${order.load-balancing.ejection.consecutive-failures:5}") int failureThreshold,
+            @Value("${order.load-balancing.ejection.slow-factor:3.0}") double slowFactor,
+            @Value("${order.load-balancing.ejection.slow-min-ms:50}") long slowMinMs,
+            @Value("${order.load-balancing.ejection.min-samples:20}") int minSamples,
+            @Value("${order.load-balancing.ejection.duration-ms:30000}") long ejectionMs,
+            @Value("${order.load-balancing.ejection.max-ratio:0.5}") double maxEjectedRatio) {
+        return new InstanceLoadTracker(meterRegistry, alpha, failureThreshold, slowFactor,
+                slowMinMs, minSamples, ejectionMs, maxEjectedRatio);
+    }
+
+    // Visible para el BlockingLoadBalancerClient de cada servicio, que busca los
+    // LoadBalancerLifecycle también en el contexto padre
+    @Bean
+    public InstanceLoadLifecycle instanceLoadLifecycle(InstanceLoadTracker instanceLoadTracker) {
+        return new InstanceLoadLifecycle(instanceLoadTracker);
+    }
+
+    @Bean
+    public LoadBalancedExchangeFilter loadBalancedExchangeFilter(
+            ReactiveLoadBalancer.Factory<ServiceInstance> loadBalancerFactory,
+            InstanceLoadTracker instanceLoadTracker) {
+        return new LoadBalancedExchangeFilter(loadBalancerFactory, instanceLoadTracker);
+    }
+}
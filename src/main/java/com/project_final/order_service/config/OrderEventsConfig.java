@@ -0,0 +1,53 @@
+package com.project_final.order_service.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project_final.order_service.events.OrderChangeFeed;
+import com.project_final.order_service.events.OrderEventBus;
+import com.project_final.order_service.events.OrderEventConsumer;
+import com.project_final.order_service.events.OrderEventMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+/**
+ * Bus de eventos de órdenes (order.events.enabled=true). Todos los beans OrderEventConsumer
+ * del contexto se suscriben al bus; el feed de cambios solo con order.feed.enabled=true.
+ */
+@Configuration
+@ConditionalOnProperty(name = "order.events.enabled", havingValue = "true")
+public class OrderEventsConfig {
+
+    @Bean
+    public OrderEventMetrics orderEventMetrics(MeterRegistry meterRegistry) {
+        return new OrderEventMetrics(meterRegistry);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "order.feed.enabled", havingValue = "true")
+    public OrderChangeFeed orderChangeFeed(
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${order.feed.history-size:10000}") int historySize,
+            @Value("${order.feed.subscriber-buffer:1000}") int subscriberBuffer,
+            @Value("${order.feed.max-subscribers:500}") int maxSubscribers,
+            @Value("${order.feed.sender-threads:4}") int senderThreads,
+            @Value("${order.feed.heartbeat-ms:15000}") long heartbeatMs) {
+        return new OrderChangeFeed(objectMapper, meterRegistry, historySize, subscriberBuffer, maxSubscribers,
+                senderThreads, heartbeatMs);
+    }
+
+    @Bean
+    public OrderEventBus orderEventBus(
+            ObjectProvider<OrderEventConsumer> consumers,
+            MeterRegistry meterRegistry,
+            @Value("${order.events.ring-size:16384}") int ringSize,
+            @Value("${order.events.publish-timeout-ms:100}") long publishTimeoutMs) {
+        List<OrderEventConsumer> subscribed = consumers.orderedStream().toList();
+        return new OrderEventBus(ringSize, publishTimeoutMs, subscribed, meterRegistry);
+    }
+}
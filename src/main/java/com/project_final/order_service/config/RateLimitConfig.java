@@ -0,0 +1,59 @@
+package com.project_final.order_service.config;
+
+import com.project_final.order_service.resilience.KeyedRateLimiter;
+import com.project_final.order_service.resilience.OrderRateLimiter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Límite de creación de órdenes por cliente y por usuario (order.rate-limit.enabled=true).
+ * Los controladores lo consultan antes de llamar a OrderService.
+ */
+@Configuration
+@ConditionalOnProperty(name = "order.rate-limit.enabled", havingValue = "true")
+@EnableConfigurationProperties(RateLimitProperties.class)
+public class RateLimitConfig {
+
+    public static final String KEYS = "order.ratelimit.keys";
+    public static final String EVICTED = "order.ratelimit.evicted";
+
+    @Bean
+    public OrderRateLimiter orderRateLimiter(RateLimitProperties properties, MeterRegistry meterRegistry) {
+        Map<String, OrderRateLimiter.Tier> tiers = new HashMap<>();
+        properties.getTiers().forEach((name, tier) -> tiers.put(name, new OrderRateLimiter.Tier(name,
+                tier.getUserRate(), tier.getUserBurst(), tier.getClientRate(), tier.getClientBurst())));
+        // Sin niveles configurados, el nivel por defecto toma los valores de RateLimitProperties
+        tiers.computeIfAbsent(properties.getDefaultTier(), name -> {
+            RateLimitProperties.TierProperties defaults = new RateLimitProperties.TierProperties();
+            return new OrderRateLimiter.Tier(name, defaults.getUserRate(), defaults.getUserBurst(),
+                    defaults.getClientRate(), defaults.getClientBurst());
+        });
+
+        return new OrderRateLimiter(
+                register(new KeyedRateLimiter("client", properties.getMaxKeys(), properties.getSweepIntervalMs()),
+                        meterRegistry),
+                register(new KeyedRateLimiter("user", properties.getMaxKeys(), properties.getSweepIntervalMs()),
+                        meterRegistry),
+                tiers, properties.getClients(), properties.getDefaultTier(), meterRegistry);
+    }
+
+    private static KeyedRateLimiter register(KeyedRateLimiter limiter, MeterRegistry meterRegistry) {
+        Gauge.builder(KEYS, limiter, KeyedRateLimiter::getKeyCount)
+                .description("Cubos de fichas en memoria")
+                .tag("scope", limiter.getName())
+                .register(meterRegistry);
+        FunctionCounter.builder(EVICTED, limiter, KeyedRateLimiter::getEvictedCount)
+                .description("Cubos descartados por inactividad")
+                .tag("scope", limiter.getName())
+                .register(meterRegistry);
+        return limiter;
+    }
+}
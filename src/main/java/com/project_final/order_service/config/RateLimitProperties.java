@@ -0,0 +1,101 @@
+package com.project_final.order_service.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Propiedades order.rate-limit.*. Los niveles y la asignación de clientes son mapas, que
+ * @Value no sabe enlazar.
+ */
+@ConfigurationProperties(prefix = "order.rate-limit")
+public class RateLimitProperties {
+
+    private String defaultTier = "standard";
+    private int maxKeys = 100000;
+    private long sweepIntervalMs = 10000;
+    private Map<String, TierProperties> tiers = new HashMap<>();
+    // X-Client-Id -> nivel
+    private Map<String, String> clients = new HashMap<>();
+
+    public String getDefaultTier() {
+        return defaultTier;
+    }
+
+    public void setDefaultTier(String defaultTier) {
+        this.defaultTier = defaultTier;
+    }
+
+    public int getMaxKeys() {
+        return maxKeys;
+    }
+
+    public void setMaxKeys(int maxKeys) {
+        this.maxKeys = maxKeys;
+    }
+
+    public long getSweepIntervalMs() {
+        return sweepIntervalMs;
+    }
+
+    public void setSweepIntervalMs(long sweepIntervalMs) {
+        this.sweepIntervalMs = sweepIntervalMs;
+    }
+
+    public Map<String, TierProperties> getTiers() {
+        return tiers;
+    }
+
+    public void setTiers(Map<String, TierProperties> tiers) {
+        this.tiers = tiers;
+    }
+
+    public Map<String, String> getClients() {
+        return clients;
+    }
+
+    public void setClients(Map<String, String> clients) {
+        this.clients = clients;
+    }
+
+    public static class TierProperties {
+
+        private double userRate = 2;
+        private int userBurst = 10;
+        private double clientRate = 50;
+        private int clientBurst = 100;
+
+        public double getUserRate() {
+            return userRate;
+        }
+
+        public void setUserRate(double userRate) {
+            this.userRate = userRate;
+        }
+
+        public int getUserBurst() {
+            return userBurst;
+        }
+
+        public void setUserBurst(int userBurst) {
+            this.userBurst = userBurst;
+        }
+
+        public double getClientRate() {
+            return clientRate;
+        }
+
+        public void setClientRate(double clientRate) {
+            this.clientRate = clientRate;
+        }
+
+        public int getClientBurst() {
+            return clientBurst;
+        }
+
+        public void setClientBurst(int clientBurst) {
+            this.clientBurst = clientBurst;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.project_final.order_service.config;
+
+import com.project_final.order_service.resilience.LoadBalancedExchangeFilter;
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+
+/**
+ * Infraestructura del pipeline reactivo de creación de órdenes (/api/orders/reactive).
+ *
+ * Las llamadas remotas usan el event loop de Reactor Netty, con un pool de conexiones
+ * acotado. JPA es bloqueante, así que el guardado se ejecuta en un scheduler con tantos
+ * hilos como conexiones tiene el pool de base de datos.
+ *
+ * El WebClient resuelve los IDs de servicio con el mismo balanceo que RestTemplate.
+ */
+@Configuration
+public class ReactiveConfig {
+
+    public static final String ORDER_WEB_CLIENT = "orderWebClient";
+    public static final String ORDER_DB_SCHEDULER = "orderDbScheduler";
+
+    @Value("${order.reactive.max-connections:500}")
+    private int maxConnections;
+
+    @Value("${order.reactive.pending-acquire-max:1000}")
+    private int pendingAcquireMax;
+
+    @Value("${order.reactive.connect-timeout-ms:1000}")
+    private int connectTimeoutMs;
+
+    @Value("${order.reactive.remote-timeout-ms:2000}")
+    private long remoteTimeoutMs;
+
+    @Value("${order.reactive.db-threads:10}")
+    private int dbThreads;
+
+    @Value("${order.reactive.db-queue-capacity:1000}")
+    private int dbQueueCapacity;
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider orderConnectionProvider() {
+        return ConnectionProvider.builder("order-remote")
+                .maxConnections(maxConnections)
+                // Con la cola de espera llena la llamada falla al momento en lugar de acumular latencia
+                .pendingAcquireMaxCount(pendingAcquireMax)
+                .pendingAcquireTimeout(Duration.ofMillis(remoteTimeoutMs))
+                .maxIdleTime(Duration.ofSeconds(30))
+                .build();
+    }
+
+    @Bean(name = ORDER_WEB_CLIENT)
+    public WebClient orderWebClient(WebClient.Builder builder, ConnectionProvider orderConnectionProvider,
+                                    ObjectProvider<LoadBalancedExchangeFilter> loadBalancedExchangeFilter) {
+        HttpClient httpClient = HttpClient.create(orderConnectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, connectTimeoutMs)
+                .responseTimeout(Duration.ofMillis(remoteTimeoutMs));
+        builder.clientConnector(new ReactorClientHttpConnector(httpClient));
+        // Resuelve http://user-service y http://product-service contra las instancias registradas
+        loadBalancedExchangeFilter.ifAvailable(builder::filter);
+        return builder.build();
+    }
+
+    @Bean(name = ORDER_DB_SCHEDULER, destroyMethod = "dispose")
+    public Scheduler orderDbScheduler() {
+        return Schedulers.newBoundedElastic(dbThreads, dbQueueCapacity, "order-db");
+    }
+}
@@ -0,0 +1,28 @@
+package com.project_final.order_service.config;
+
+import com.project_final.order_service.resilience.RequestRetrier;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Reintentos de las consultas idempotentes de OrderService (order.retry.enabled=true).
+ */
+@Configuration
+@ConditionalOnProperty(name = "order.retry.enabled", havingValue = "true")
+public class RetryConfig {
+
+    @Bean
+    public RequestRetrier requestRetrier(
+            MeterRegistry meterRegistry,
+            @Value("${order.retry.max-attempts:3}") int maxAttempts,
+            @Value("${order.retry.initial-backoff-ms:50}") long initialBackoffMs,
+            @Value("${order.retry.max-backoff-ms:500}") long maxBackoffMs,
+            @Value("${order.retry.budget-ratio:0.1}") double budgetRatio,
+            @Value("${order.retry.max-burst:20}") int maxBurst) {
+        return new RequestRetrier(meterRegistry, maxAttempts, initialBackoffMs, maxBackoffMs,
+                budgetRatio, maxBurst);
+    }
+}
@@ -0,0 +1,55 @@
+package com.project_final.order_service.config;
+
+import com.project_final.order_service.metrics.VirtualThreadPinningMonitor;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.coyote.ProtocolHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Modo de hilos virtuales (order.virtual-threads.enabled=true, requiere Java 21+).
+ *
+ * Tomcat atiende cada petición en un hilo virtual, así que las llamadas de OrderService
+ * a User Service, Product Service y MySQL bloquean un hilo virtual en lugar de uno del
+ * pool de Tomcat. Los endpoints /api/orders/async usan el mismo ejecutor (AsyncConfig).
+ * En una JVM anterior a Java 21 el arranque falla con un mensaje explícito.
+ */
+@Configuration
+@ConditionalOnProperty(name = "order.virtual-threads.enabled", havingValue = "true")
+public class VirtualThreadConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(VirtualThreadConfig.class);
+
+    public static final String VIRTUAL_THREAD_EXECUTOR = "orderVirtualThreadExecutor";
+
+    @Bean(name = VIRTUAL_THREAD_EXECUTOR, destroyMethod = "shutdown")
+    public ExecutorService orderVirtualThreadExecutor() {
+        ExecutorService executor = VirtualThreads.newVirtualThreadPerTaskExecutor("order-vt-");
+        logger.info("Modo de hilos virtuales activado");
+        return executor;
+    }
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<ProtocolHandler> virtualThreadProtocolHandlerCustomizer(
+            @Qualifier(VIRTUAL_THREAD_EXECUTOR) ExecutorService orderVirtualThreadExecutor) {
+        return protocolHandler -> protocolHandler.setExecutor(orderVirtualThreadExecutor);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "order.virtual-threads.pinning-monitor.enabled", havingValue = "true",
+            matchIfMissing = true)
+    public VirtualThreadPinningMonitor virtualThreadPinningMonitor(
+            MeterRegistry meterRegistry,
+            @Value("${order.virtual-threads.pinning-monitor.threshold-ms:20}") long thresholdMs) {
+        return new VirtualThreadPinningMonitor(meterRegistry, Duration.ofMillis(thresholdMs));
+    }
+}
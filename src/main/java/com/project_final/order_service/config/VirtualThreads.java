@@ -0,0 +1,67 @@
+package com.project_final.order_service.config;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Acceso a los hilos virtuales (Java 21+) sin exigir Java 21 para compilar.
+ *
+ * El proyecto se compila con Java 17, así que la API se resuelve por reflexión al arrancar.
+ * En una JVM sin hilos virtuales isSupported() devuelve false.
+ */
+public final class VirtualThreads {
+
+    private static final Method OF_VIRTUAL = method(Thread.class, "ofVirtual");
+    private static final Method BUILDER_NAME = method(builderClass(), "name", String.class, long.class);
+    private static final Method BUILDER_FACTORY = method(builderClass(), "factory");
+    private static final Method THREAD_PER_TASK_EXECUTOR =
+            method(Executors.class, "newThreadPerTaskExecutor", ThreadFactory.class);
+
+    private VirtualThreads() {
+    }
+
+    public static boolean isSupported() {
+        return OF_VIRTUAL != null && BUILDER_NAME != null && BUILDER_FACTORY != null
+                && THREAD_PER_TASK_EXECUTOR != null;
+    }
+
+    /**
+     * Ejecutor que crea un hilo virtual por tarea, con nombres prefix0, prefix1...
+     *
+     * @throws IllegalStateException si la JVM no soporta hilos virtuales
+     */
+    public static ExecutorService newVirtualThreadPerTaskExecutor(String prefix) {
+        if (!isSupported()) {
+            throw new IllegalStateException("Los hilos virtuales requieren Java 21 o superior (JVM actual: "
+                    + System.getProperty("java.version") + ")");
+        }
+        try {
+            Object builder = BUILDER_NAME.invoke(OF_VIRTUAL.invoke(null), prefix, 0L);
+            ThreadFactory factory = (ThreadFactory) BUILDER_FACTORY.invoke(builder);
+            return (ExecutorService) THREAD_PER_TASK_EXECUTOR.invoke(null, factory);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("No se pudo crear el ejecutor de hilos virtuales", e);
+        }
+    }
+
+    private static Class<?> builderClass() {
+        try {
+            return Class.forName("java.lang.Thread$Builder");
+        } catch (ClassNotFoundException e) {
+            return null;
+        }
+    }
+
+    private static Method method(Class<?> type, String name, Class<?>... parameterTypes) {
+        if (type == null) {
+            return null;
+        }
+        try {
+            return type.getMethod(name, parameterTypes);
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.project_final.order_service.controller;
+
+import com.project_final.order_service.Dto.ApiResponse;
+import com.project_final.order_service.config.AsyncConfig;
+import com.project_final.order_service.exceptions.OrderValidationException;
+import com.project_final.order_service.model.Order;
+import com.project_final.order_service.resilience.OrderRateLimiter;
+import com.project_final.order_service.Dto.CreateOrderRequest;
+import com.project_final.order_service.service.IdempotencyService;
+import com.project_final.order_service.service.OrderService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+/**
+ * Variantes asíncronas de los endpoints de escritura.
+ *
+ * La operación se ejecuta en el pool de E/S (AsyncConfig) y el hilo de Tomcat queda libre
+ * mientras se espera a User Service, Product Service y la base de datos. Las excepciones
+ * del servicio llegan a GlobalExceptionHandler igual que en OrderController: Spring
+ * desenvuelve la CompletionException antes de despachar el error.
+ *
+ * Idempotency-Key se respeta igual que en OrderController y con los mismos ámbitos: la
+ * deduplicación y la operación se ejecutan juntas en el pool de E/S.
+ */
+@RestController
+@RequestMapping("/api/orders/async")
+@CrossOrigin(origins = "*")
+public class AsyncOrderController {
+
+    private static final Logger logger = LoggerFactory.getLogger(AsyncOrderController.class);
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Autowired
+    @Qualifier(AsyncConfig.ORDER_IO_EXECUTOR)
+    private Executor orderIoExecutor;
+
+    // Opcional: solo existe con order.rate-limit.enabled=true
+    @Autowired(required = false)
+    private OrderRateLimiter orderRateLimiter;
+
+    // Crear orden
+    @PostMapping
+    public CompletableFuture<ResponseEntity<ApiResponse<Order>>> createOrder(
+            @RequestBody CreateOrderRequest request,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+            HttpServletRequest httpRequest) {
+        logger.info("Petición asíncrona para crear orden: userId={}, productId={}, quantity={}",
+                request.getUserId(), request.getProductId(), request.getQuantity());
+
+        // En el hilo de Tomcat: lo rechazado no ocupa el pool de E/S
+        if (orderRateLimiter != null) {
+            orderRateLimiter.checkCreateOrder(httpRequest, request.getUserId());
+        }
+
+        return idempotentAsync(idempotencyKey, OrderResponses.CREATE_SCOPE, request, () -> {
+            Order createdOrder = orderService.createOrder(request);
+            logger.info("Orden creada exitosamente con ID: {}", createdOrder.getId());
+            return OrderResponses.created(createdOrder);
+        });
+    }
+
+    // Actualizar estado de orden
+    @PutMapping("/{id}/status")
+    public CompletableFuture<ResponseEntity<ApiResponse<Order>>> updateOrderStatus(
+            @PathVariable Long id, @RequestParam String status,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey) {
+        logger.info("Petición asíncrona para actualizar estado de orden {} a {}", id, status);
+
+        // El estado se valida en el hilo de la petición: no hace falta ocupar el pool para un 400
+        Order.OrderStatus newStatus;
+        try {
+            newStatus = Order.OrderStatus.valueOf(status.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new OrderValidationException("status", status,
+                    "Estado inválido. Estados válidos: PENDING, CONFIRMED, CANCELLED, DELIVERED");
+        }
+
+        return idempotentAsync(idempotencyKey, OrderResponses.STATUS_SCOPE, List.of(id, newStatus), () -> {
+            Order updatedOrder = orderService.updateOrderStatus(id, newStatus);
+            logger.info("Estado de orden {} actualizado correctamente a {}", id, newStatus);
+            return OrderResponses.statusUpdated(updatedOrder, newStatus);
+        });
+    }
+
+    // Cancelar orden
+    @PutMapping("/{id}/cancel")
+    public CompletableFuture<ResponseEntity<ApiResponse<Order>>> cancelOrder(
+            @PathVariable Long id,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey) {
+        logger.info("Petición asíncrona para cancelar orden: {}", id);
+
+        return idempotentAsync(idempotencyKey, OrderResponses.CANCEL_SCOPE, id, () -> {
+            Order cancelledOrder = orderService.cancelOrder(id);
+            logger.info("Orden {} cancelada correctamente", id);
+            return OrderResponses.cancelled(cancelledOrder);
+        });
+    }
+
+    // ========== MÉTODOS PRIVADOS ==========
+
+    // La espera a un duplicado en curso y la transacción de la clave también ocupan el pool, no Tomcat
+    private CompletableFuture<ResponseEntity<ApiResponse<Order>>> idempotentAsync(
+            String idempotencyKey, String scope, Object fingerprint,
+            Supplier<ResponseEntity<ApiResponse<Order>>> action) {
+        return CompletableFuture.supplyAsync(() -> idempotencyService.execute(idempotencyKey, scope, fingerprint,
+                OrderResponses.BODY_TYPE, action), orderIoExecutor);
+    }
+}
@@ -1,25 +1,31 @@
 package com.project_final.order_service.controller;
 
+import com.project_final.order_service.Dto.ApiResponse;
 import com.project_final.order_service.exceptions.OrderValidationException;
 import com.project_final.order_service.model.Order;
+import com.project_final.order_service.resilience.OrderRateLimiter;
 import com.project_final.order_service.Dto.CreateOrderRequest;
+import com.project_final.order_service.service.IdempotencyService;
+import com.project_final.order_service.service.OrderEtags;
 import com.project_final.order_service.service.OrderService;
+import jakarta.servlet.http.HttpServletRequest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.math.BigDecimal;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping("/api/orders")
-@CrossOrigin(origins = "*")
+@CrossOrigin(origins = "*", exposedHeaders = HttpHeaders.ETAG)
 public class OrderController {
 
     private static final Logger logger = LoggerFactory.getLogger(OrderController.class);
@@ -27,22 +33,29 @@ public class OrderController {
     @Autowired
     private OrderService orderService;
 
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    // Opcional: solo existe con order.rate-limit.enabled=true
+    @Autowired(required = false)
+    private OrderRateLimiter orderRateLimiter;
+
     // Crear orden
     @PostMapping
-    public ResponseEntity<Map<String, Object>> createOrder(@RequestBody CreateOrderRequest request) {
+    public ResponseEntity<ApiResponse<Order>> createOrder(
+            @RequestBody CreateOrderRequest request,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+            HttpServletRequest httpRequest) {
         logger.info("Petición para crear orden: userId={}, productId={}, quantity={}",
                 request.getUserId(), request.getProductId(), request.getQuantity());
 
-        Order createdOrder = orderService.createOrder(request);
-
-        Map<String, Object> response = new HashMap<>();
-        response.put("success", true);
-        response.put("message", "Orden creada correctamente");
-        response.put("data", createdOrder);
+        checkRateLimit(httpRequest, request);
 
-        logger.info("Orden creada exitosamente con ID: {}", createdOrder.getId());
-
-        return new ResponseEntity<>(response, HttpStatus.CREATED);
+        return idempotent(idempotencyKey, OrderResponses.CREATE_SCOPE, request, () -> {
+            Order createdOrder = orderService.createOrder(request);
+            logger.info("Orden creada exitosamente con ID: {}", createdOrder.getId());
+            return OrderResponses.created(createdOrder);
+        });
     }
 
     // Obtener todas las órdenes
@@ -53,21 +66,32 @@ public class OrderController {
         return new ResponseEntity<>(orders, HttpStatus.OK);
     }
 
-    // Obtener orden por ID
+    // Obtener orden por ID. Con If-None-Match se compara el ETag sin cargar la orden
     @GetMapping("/{id}")
-    public ResponseEntity<Order> getOrderById(@PathVariable Long id) {
+    public ResponseEntity<Order> getOrderById(@PathVariable Long id, WebRequest webRequest) {
         logger.debug("Petición para obtener orden con ID: {}", id);
+        if (webRequest.getHeader(HttpHeaders.IF_NONE_MATCH) != null) {
+            Optional<String> etag = orderService.getOrderEtag(id);
+            if (etag.isPresent() && webRequest.checkNotModified(etag.get())) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag.get()).varyBy(HttpHeaders.ACCEPT).build();
+            }
+        }
         Optional<Order> order = orderService.getOrderById(id);
-        return order.map(value -> new ResponseEntity<>(value, HttpStatus.OK))
+        return order.map(value -> ResponseEntity.ok().eTag(OrderEtags.forOrder(value)).varyBy(HttpHeaders.ACCEPT).body(value))
                 .orElse(new ResponseEntity<>(HttpStatus.NOT_FOUND));
     }
 
     // Obtener órdenes por usuario (endpoint usado por User Service)
     @GetMapping("/user/{userId}")
-    public ResponseEntity<List<Order>> getOrdersByUserId(@PathVariable Long userId) {
+    public ResponseEntity<List<Order>> getOrdersByUserId(@PathVariable Long userId, WebRequest webRequest) {
         logger.debug("Petición para obtener órdenes del usuario: {}", userId);
+        // Se calcula antes de leer la lista: si cambia entretanto, el cliente solo pierde un 304
+        String etag = orderService.getOrdersByUserIdEtag(userId);
+        if (webRequest.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).varyBy(HttpHeaders.ACCEPT).build();
+        }
         List<Order> orders = orderService.getOrdersByUserId(userId);
-        return new ResponseEntity<>(orders, HttpStatus.OK);
+        return ResponseEntity.ok().eTag(etag).varyBy(HttpHeaders.ACCEPT).body(orders);
     }
 
     // Obtener órdenes por producto
@@ -95,59 +119,52 @@ public class OrderController {
 
     // Actualizar estado de orden
     @PutMapping("/{id}/status")
-    public ResponseEntity<Map<String, Object>> updateOrderStatus(@PathVariable Long id, @RequestParam String status) {
+    public ResponseEntity<ApiResponse<Order>> updateOrderStatus(
+            @PathVariable Long id, @RequestParam String status,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey) {
         logger.info("Petición para actualizar estado de orden {} a {}", id, status);
 
+        Order.OrderStatus newStatus;
         try {
-            Order.OrderStatus newStatus = Order.OrderStatus.valueOf(status.toUpperCase());
-            Order updatedOrder = orderService.updateOrderStatus(id, newStatus);
-
-            Map<String, Object> response = new HashMap<>();
-            response.put("success", true);
-            response.put("message", "Estado de la orden actualizado correctamente a " + newStatus);
-            response.put("data", updatedOrder);
-
-            logger.info("Estado de orden {} actualizado correctamente a {}", id, newStatus);
-
-            return new ResponseEntity<>(response, HttpStatus.OK);
+            newStatus = Order.OrderStatus.valueOf(status.toUpperCase());
         } catch (IllegalArgumentException e) {
             throw new OrderValidationException("status", status,
                     "Estado inválido. Estados válidos: PENDING, CONFIRMED, CANCELLED, DELIVERED");
         }
+
+        return idempotent(idempotencyKey, OrderResponses.STATUS_SCOPE, List.of(id, newStatus), () -> {
+            Order updatedOrder = orderService.updateOrderStatus(id, newStatus);
+            logger.info("Estado de orden {} actualizado correctamente a {}", id, newStatus);
+            return OrderResponses.statusUpdated(updatedOrder, newStatus);
+        });
     }
 
     // Cancelar orden
     @PutMapping("/{id}/cancel")
-    public ResponseEntity<Map<String, Object>> cancelOrder(@PathVariable Long id) {
+    public ResponseEntity<ApiResponse<Order>> cancelOrder(
+            @PathVariable Long id,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey) {
         logger.info("Petición para cancelar orden: {}", id);
-        Order cancelledOrder = orderService.cancelOrder(id);
 
-        Map<String, Object> response = new HashMap<>();
-        response.put("success", true);
-        response.put("message", "Orden cancelada correctamente");
-        response.put("data", cancelledOrder);
-
-        logger.info("Orden {} cancelada correctamente", id);
-
-        return new ResponseEntity<>(response, HttpStatus.OK);
+        return idempotent(idempotencyKey, OrderResponses.CANCEL_SCOPE, id, () -> {
+            Order cancelledOrder = orderService.cancelOrder(id);
+            logger.info("Orden {} cancelada correctamente", id);
+            return OrderResponses.cancelled(cancelledOrder);
+        });
     }
 
 
 
     // Eliminar orden
     @DeleteMapping("/{id}")
-    public ResponseEntity<Map<String, Object>> deleteOrder(@PathVariable Long id) {
+    public ResponseEntity<ApiResponse<Void>> deleteOrder(@PathVariable Long id) {
         logger.info("Petición para eliminar orden: {}", id);
 
         orderService.deleteOrder(id);
 
-        Map<String, Object> response = new HashMap<>();
-        response.put("success", true);
-        response.put("message", "Orden eliminada correctamente");
-
         logger.info("Orden {} eliminada correctamente", id);
 
-        return new ResponseEntity<>(response, HttpStatus.OK);
+        return OrderResponses.deleted();
     }
 
     // Obtener órdenes recientes
@@ -179,4 +196,18 @@ public class OrderController {
         BigDecimal total = orderService.getTotalSales();
         return new ResponseEntity<>(total, HttpStatus.OK);
     }
+
+    // ========== MÉTODOS PRIVADOS ==========
+
+    // Antes de cualquier llamada remota: un consumidor abusivo no llega a User Service
+    private void checkRateLimit(HttpServletRequest httpRequest, CreateOrderRequest request) {
+        if (orderRateLimiter != null) {
+            orderRateLimiter.checkCreateOrder(httpRequest, request.getUserId());
+        }
+    }
+
+    private ResponseEntity<ApiResponse<Order>> idempotent(String idempotencyKey, String scope, Object fingerprint,
+                                                          Supplier<ResponseEntity<ApiResponse<Order>>> action) {
+        return idempotencyService.execute(idempotencyKey, scope, fingerprint, OrderResponses.BODY_TYPE, action);
+    }
 }
@@ -0,0 +1,62 @@
+package com.project_final.order_service.controller;
+
+import com.project_final.order_service.events.OrderChangeFeed;
+import com.project_final.order_service.exceptions.OrderValidationException;
+import com.project_final.order_service.model.Order;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Feed de cambios de órdenes (creaciones, cambios de estado y borrados) por server-sent events.
+ *
+ * Filtros opcionales userId, productId y status. Para reanudar se pasa el id del último evento
+ * recibido en la cabecera Last-Event-ID (EventSource lo hace solo al reconectar) o en ?after=.
+ * Un evento "reset" indica que no se puede reanudar: hay que recargar por la API REST.
+ */
+@RestController
+@RequestMapping("/api/orders/feed")
+@CrossOrigin(origins = "*")
+@ConditionalOnProperty(name = {"order.events.enabled", "order.feed.enabled"}, havingValue = "true")
+public class OrderFeedController {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderFeedController.class);
+
+    @Autowired
+    private OrderChangeFeed orderChangeFeed;
+
+    // Al vencer, EventSource reconecta con Last-Event-ID y sigue donde estaba
+    @Value("${order.feed.timeout-ms:300000}")
+    private long timeoutMs;
+
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter feed(
+            @RequestParam(required = false) Long userId,
+            @RequestParam(required = false) Long productId,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String after,
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        logger.debug("Suscripción al feed de cambios: userId={}, productId={}, status={}, cursor={}",
+                userId, productId, status, after != null ? after : lastEventId);
+
+        Order.OrderStatus orderStatus = null;
+        if (status != null) {
+            try {
+                orderStatus = Order.OrderStatus.valueOf(status.toUpperCase());
+            } catch (IllegalArgumentException e) {
+                throw new OrderValidationException("status", status,
+                        "Estado inválido. Estados válidos: PENDING, CONFIRMED, CANCELLED, DELIVERED");
+            }
+        }
+
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        orderChangeFeed.subscribe(emitter, new OrderChangeFeed.Filter(userId, productId, orderStatus),
+                after != null ? after : lastEventId);
+        return emitter;
+    }
+}
@@ -0,0 +1,143 @@
+package com.project_final.order_service.controller;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.project_final.order_service.Dto.CreateOrderRequest;
+import com.project_final.order_service.model.OrderIntake;
+import com.project_final.order_service.resilience.Deadline;
+import com.project_final.order_service.resilience.OrderRateLimiter;
+import com.project_final.order_service.service.IdempotencyService;
+import com.project_final.order_service.service.OrderIntakeService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.net.URI;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Creación de órdenes en dos pasos para picos de tráfico.
+ *
+ * POST encola la petición tras validarla en local y responde 202 con el ID de la entrada;
+ * GET /{id} devuelve su estado (QUEUED, PROCESSING, COMPLETED con orderId, o FAILED con
+ * errorCode). Con waitMs la consulta espera hasta que la entrada termine (long polling).
+ * Con el diario activo la entrada aún no tiene ID al responder: se consulta en GET /ref/{reference}.
+ */
+@RestController
+@RequestMapping("/api/orders/intake")
+@CrossOrigin(origins = "*")
+public class OrderIntakeController {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderIntakeController.class);
+
+    // Tipo del cuerpo para repetir respuestas idempotentes
+    private static final TypeReference<Map<String, Object>> BODY_TYPE = new TypeReference<>() {
+    };
+
+    @Autowired
+    private OrderIntakeService orderIntakeService;
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    // Opcional: solo existe con order.rate-limit.enabled=true
+    @Autowired(required = false)
+    private OrderRateLimiter orderRateLimiter;
+
+    // Por debajo de order.async.request-timeout-ms para responder antes de que venza la petición
+    @Value("${order.intake.max-wait-ms:25000}")
+    private long maxWaitMs;
+
+    // Encolar orden
+    @PostMapping
+    public ResponseEntity<Map<String, Object>> acceptOrder(
+            @RequestBody CreateOrderRequest request,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+            HttpServletRequest httpRequest) {
+        logger.info("Petición para encolar orden: userId={}, productId={}, quantity={}",
+                request.getUserId(), request.getProductId(), request.getQuantity());
+
+        // Se limita al encolar: una cola llena de peticiones abusivas retrasaría a todos
+        if (orderRateLimiter != null) {
+            orderRateLimiter.checkCreateOrder(httpRequest, request.getUserId());
+        }
+
+        return idempotencyService.execute(idempotencyKey, "POST /api/orders/intake", request, BODY_TYPE,
+                () -> accept(request));
+    }
+
+    // Consultar estado, esperando como mucho waitMs a que termine
+    @GetMapping("/{id}")
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> getIntake(
+            @PathVariable Long id, @RequestParam(defaultValue = "0") long waitMs) {
+        logger.debug("Petición para consultar entrada {} (espera {} ms)", id, waitMs);
+
+        return orderIntakeService.awaitCompletion(id, effectiveWaitMs(waitMs))
+                .thenApply(intake -> envelope(describe(intake), intake, HttpStatus.OK));
+    }
+
+    // Consultar estado por referencia, para entradas aceptadas con el diario activo
+    @GetMapping("/ref/{reference}")
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> getIntakeByReference(
+            @PathVariable String reference, @RequestParam(defaultValue = "0") long waitMs) {
+        logger.debug("Petición para consultar entrada con referencia {} (espera {} ms)", reference, waitMs);
+
+        return orderIntakeService.awaitCompletionByReference(reference, effectiveWaitMs(waitMs))
+                .thenApply(intake -> envelope(describe(intake), intake, HttpStatus.OK));
+    }
+
+    // ========== MÉTODOS PRIVADOS ==========
+
+    private long effectiveWaitMs(long waitMs) {
+        long effectiveWaitMs = Math.min(Math.max(0, waitMs), maxWaitMs);
+        Deadline deadline = Deadline.current();
+        if (deadline != null) {
+            effectiveWaitMs = Math.min(effectiveWaitMs, Math.max(0, deadline.remainingMillis()));
+        }
+        return effectiveWaitMs;
+    }
+
+    private ResponseEntity<Map<String, Object>> accept(CreateOrderRequest request) {
+        OrderIntake intake = orderIntakeService.accept(request);
+        logger.info("Orden encolada con ID de entrada {}", intake.getId());
+
+        ResponseEntity<Map<String, Object>> response = envelope("Orden aceptada para procesamiento", intake,
+                HttpStatus.ACCEPTED);
+        return ResponseEntity.accepted()
+                .location(URI.create(statusUrl(intake)))
+                .body(response.getBody());
+    }
+
+    private ResponseEntity<Map<String, Object>> envelope(String message, OrderIntake intake, HttpStatus status) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", intake.getStatus() != OrderIntake.Status.FAILED);
+        response.put("message", message);
+        response.put("data", intake);
+        response.put("statusUrl", statusUrl(intake));
+        return new ResponseEntity<>(response, status);
+    }
+
+    private static String describe(OrderIntake intake) {
+        switch (intake.getStatus()) {
+            case COMPLETED:
+                return "Orden creada correctamente";
+            case FAILED:
+                return "No se pudo crear la orden";
+            default:
+                return "Orden pendiente de procesamiento";
+        }
+    }
+
+    private static String statusUrl(OrderIntake intake) {
+        if (intake.getId() == null) {
+            return "/api/orders/intake/ref/" + intake.getReference();
+        }
+        return "/api/orders/intake/" + intake.getId();
+    }
+}
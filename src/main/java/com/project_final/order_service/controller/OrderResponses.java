@@ -0,0 +1,60 @@
+package com.project_final.order_service.controller;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.project_final.order_service.Dto.ApiResponse;
+import com.project_final.order_service.model.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Respuestas de escritura de los controladores de órdenes. Los mensajes son constantes
+ * serializadas una sola vez, también el de cada estado posible.
+ */
+final class OrderResponses {
+
+    // Tipo del cuerpo para repetir respuestas idempotentes
+    static final TypeReference<ApiResponse<Order>> BODY_TYPE = new TypeReference<>() {
+    };
+
+    // Ámbitos de Idempotency-Key, compartidos por las variantes síncrona, asíncrona y reactiva:
+    // la misma clave es la misma operación llegue por el endpoint que llegue
+    static final String CREATE_SCOPE = "POST /api/orders";
+    static final String STATUS_SCOPE = "PUT /api/orders/status";
+    static final String CANCEL_SCOPE = "PUT /api/orders/cancel";
+
+    private static final String CREATED = ApiResponse.constant("Orden creada correctamente");
+    private static final String CANCELLED = ApiResponse.constant("Orden cancelada correctamente");
+    private static final Map<Order.OrderStatus, String> STATUS_UPDATED = new EnumMap<>(Order.OrderStatus.class);
+
+    static {
+        for (Order.OrderStatus status : Order.OrderStatus.values()) {
+            STATUS_UPDATED.put(status, ApiResponse.constant("Estado de la orden actualizado correctamente a " + status));
+        }
+    }
+
+    // Sin datos: la misma instancia sirve para todas las respuestas
+    private static final ApiResponse<Void> DELETED = new ApiResponse<>(true,
+            ApiResponse.constant("Orden eliminada correctamente"), null);
+
+    private OrderResponses() {
+    }
+
+    static ResponseEntity<ApiResponse<Order>> created(Order order) {
+        return new ResponseEntity<>(ApiResponse.ok(CREATED, order), HttpStatus.CREATED);
+    }
+
+    static ResponseEntity<ApiResponse<Order>> statusUpdated(Order order, Order.OrderStatus status) {
+        return ResponseEntity.ok(ApiResponse.ok(STATUS_UPDATED.get(status), order));
+    }
+
+    static ResponseEntity<ApiResponse<Order>> cancelled(Order order) {
+        return ResponseEntity.ok(ApiResponse.ok(CANCELLED, order));
+    }
+
+    static ResponseEntity<ApiResponse<Void>> deleted() {
+        return ResponseEntity.ok(DELETED);
+    }
+}
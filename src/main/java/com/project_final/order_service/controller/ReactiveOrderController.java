@@ -0,0 +1,80 @@
+package com.project_final.order_service.controller;
+
+import com.project_final.order_service.Dto.ApiResponse;
+import com.project_final.order_service.Dto.CreateOrderRequest;
+import com.project_final.order_service.config.AsyncConfig;
+import com.project_final.order_service.model.Order;
+import com.project_final.order_service.resilience.OrderRateLimiter;
+import com.project_final.order_service.service.IdempotencyService;
+import com.project_final.order_service.service.OrderService;
+import com.project_final.order_service.service.ReactiveOrderService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Creación de órdenes con el pipeline reactivo. Spring MVC trata el Mono como una
+ * respuesta asíncrona, así que aplican el timeout de AsyncConfig y GlobalExceptionHandler.
+ *
+ * Con Idempotency-Key la orden se crea con OrderService en el pool de E/S, como en
+ * AsyncOrderController: el pipeline guarda la orden en otro hilo, fuera de la transacción
+ * en la que IdempotencyService confirma la clave, y un reintento podría duplicarla.
+ */
+@RestController
+@RequestMapping("/api/orders/reactive")
+@CrossOrigin(origins = "*")
+public class ReactiveOrderController {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveOrderController.class);
+
+    @Autowired
+    private ReactiveOrderService reactiveOrderService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Autowired
+    @Qualifier(AsyncConfig.ORDER_IO_EXECUTOR)
+    private Executor orderIoExecutor;
+
+    // Opcional: solo existe con order.rate-limit.enabled=true
+    @Autowired(required = false)
+    private OrderRateLimiter orderRateLimiter;
+
+    // Crear orden
+    @PostMapping
+    public Mono<ResponseEntity<ApiResponse<Order>>> createOrder(
+            @RequestBody CreateOrderRequest request,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+            HttpServletRequest httpRequest) {
+        logger.info("Petición reactiva para crear orden: userId={}, productId={}, quantity={}",
+                request.getUserId(), request.getProductId(), request.getQuantity());
+
+        if (orderRateLimiter != null) {
+            orderRateLimiter.checkCreateOrder(httpRequest, request.getUserId());
+        }
+
+        if (idempotencyKey != null) {
+            return Mono.fromFuture(CompletableFuture.supplyAsync(() -> idempotencyService.execute(idempotencyKey,
+                    OrderResponses.CREATE_SCOPE, request, OrderResponses.BODY_TYPE, () -> {
+                        Order createdOrder = orderService.createOrder(request);
+                        logger.info("Orden creada exitosamente con ID: {}", createdOrder.getId());
+                        return OrderResponses.created(createdOrder);
+                    }), orderIoExecutor));
+        }
+
+        return reactiveOrderService.createOrder(request)
+                .map(OrderResponses::created);
+    }
+}
@@ -0,0 +1,112 @@
+package com.project_final.order_service.events;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.project_final.order_service.model.Order;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+/**
+ * Copia inmutable de un OrderEvent, para guardarla o enviarla fuera del hilo del consumidor.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public final class OrderChange {
+
+    private final String cursor;
+    private final long sequence;
+    private final OrderEvent.Type type;
+    private final long orderId;
+    private final long userId;
+    private final long productId;
+    private final int quantity;
+    private final int itemCount;
+    // Productos de todas las líneas; nulo en órdenes de un solo producto
+    private final List<Long> productIds;
+    private final BigDecimal totalPrice;
+    private final Order.OrderStatus previousStatus;
+    private final Order.OrderStatus status;
+    private final LocalDateTime timestamp;
+
+    public OrderChange(String cursor, OrderEvent event) {
+        this.cursor = cursor;
+        this.sequence = event.getSequence();
+        this.type = event.getType();
+        this.orderId = event.getOrderId();
+        this.userId = event.getUserId();
+        this.productId = event.getProductId();
+        this.quantity = event.getQuantity();
+        this.itemCount = event.getItemCount();
+        this.productIds = event.getLineCount() > 0 ? lineProductIds(event) : null;
+        this.totalPrice = event.getTotalPrice();
+        this.previousStatus = event.getPreviousStatus();
+        this.status = event.getStatus();
+        this.timestamp = LocalDateTime.ofInstant(Instant.ofEpochMilli(event.getTimestampMillis()), ZoneId.systemDefault());
+    }
+
+    public String getCursor() {
+        return cursor;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public OrderEvent.Type getType() {
+        return type;
+    }
+
+    public long getOrderId() {
+        return orderId;
+    }
+
+    public long getUserId() {
+        return userId;
+    }
+
+    public long getProductId() {
+        return productId;
+    }
+
+    public int getQuantity() {
+        return quantity;
+    }
+
+    public int getItemCount() {
+        return itemCount;
+    }
+
+    public List<Long> getProductIds() {
+        return productIds;
+    }
+
+    public boolean containsProduct(long productId) {
+        return this.productId == productId || (productIds != null && productIds.contains(productId));
+    }
+
+    public BigDecimal getTotalPrice() {
+        return totalPrice;
+    }
+
+    public Order.OrderStatus getPreviousStatus() {
+        return previousStatus;
+    }
+
+    public Order.OrderStatus getStatus() {
+        return status;
+    }
+
+    public LocalDateTime getTimestamp() {
+        return timestamp;
+    }
+
+    private static List<Long> lineProductIds(OrderEvent event) {
+        Long[] productIds = new Long[event.getLineCount()];
+        for (int i = 0; i < productIds.length; i++) {
+            productIds[i] = event.getLineProductId(i);
+        }
+        return List.of(productIds);
+    }
+}
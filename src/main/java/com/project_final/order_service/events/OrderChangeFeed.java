@@ -0,0 +1,392 @@
+package com.project_final.order_service.events;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project_final.order_service.model.Order;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Feed de cambios de órdenes por server-sent events (order.feed.enabled=true).
+ *
+ * - Consumidor DROP del bus de eventos: cada cambio se serializa una vez y se reparte a las
+ *   suscripciones cuyo filtro (userId, productId, status) lo acepta. productId acepta las órdenes
+ *   que incluyen el producto en cualquier línea, como GET /api/orders/product/{productId}.
+ * - El id de cada evento SSE es su cursor, "época-secuencia": la secuencia del bus es monótona
+ *   y la época cambia con cada arranque de la instancia. Al reconectar con Last-Event-ID (o
+ *   ?after=) se repite lo que falte desde el histórico de los últimos history-size cambios.
+ *   Si el cursor es de otra época, es más antiguo que el histórico o hay un hueco por medio,
+ *   se envía un evento "reset": el cliente recarga por la API REST y sigue desde ahí.
+ * - Cada suscripción tiene una cola de subscriber-buffer mensajes que vacían los hilos de
+ *   envío. Un cliente que no lee a tiempo llena su cola y se desconecta: nunca frena al bus
+ *   ni a las demás suscripciones.
+ * - Si el propio feed se queda atrás en el bus, el histórico ya no es continuo: se vacía y se
+ *   desconecta a todos, que al reconectar reciben el reset.
+ */
+public class OrderChangeFeed implements OrderEventConsumer, SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderChangeFeed.class);
+
+    public static final String SUBSCRIBERS = "order.feed.subscribers";
+    public static final String DISCONNECTED = "order.feed.disconnected";
+    public static final String RESETS = "order.feed.resets";
+
+    static final String RESET_EVENT = "reset";
+    private static final Message HEARTBEAT = new Message(null, null, null, null);
+
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final int historySize;
+    private final int subscriberBuffer;
+    private final int maxSubscribers;
+    private final int senderThreads;
+    private final long heartbeatMs;
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    // Histórico continuo para reanudar; protegido por el propio feed
+    private final ArrayDeque<Message> history = new ArrayDeque<>();
+    private long lastSequence = -1;
+    // Cursor más antiguo desde el que el histórico sigue sin huecos
+    private long resumableFrom = -1;
+
+    private volatile boolean running;
+    private ExecutorService senderExecutor;
+    private ScheduledExecutorService heartbeats;
+
+    public OrderChangeFeed(ObjectMapper objectMapper, MeterRegistry meterRegistry, int historySize,
+                           int subscriberBuffer, int maxSubscribers, int senderThreads, long heartbeatMs) {
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.historySize = historySize;
+        this.subscriberBuffer = subscriberBuffer;
+        this.maxSubscribers = maxSubscribers;
+        this.senderThreads = senderThreads;
+        this.heartbeatMs = heartbeatMs;
+    }
+
+    // ========== API ==========
+
+    /**
+     * Registra una suscripción sobre el emitter, con lo que falte desde el cursor si lo hay.
+     */
+    public void subscribe(SseEmitter emitter, Filter filter, String cursor) {
+        if (!running) {
+            throw new RejectedExecutionException("Feed de cambios detenido");
+        }
+        if (subscriberCount.incrementAndGet() > maxSubscribers) {
+            subscriberCount.decrementAndGet();
+            throw new RejectedExecutionException("Demasiadas suscripciones al feed de cambios");
+        }
+        Subscriber subscriber = new Subscriber(emitter, filter);
+        emitter.onCompletion(() -> subscriber.close("completed"));
+        emitter.onTimeout(() -> subscriber.close("timeout"));
+        emitter.onError(error -> subscriber.close("client"));
+
+        // Repetición y alta en el mismo bloque: ningún cambio se pierde ni llega dos veces
+        synchronized (this) {
+            if (cursor != null) {
+                replay(subscriber, cursor);
+            }
+            subscribers.add(subscriber);
+        }
+        subscriber.schedule();
+    }
+
+    public int getSubscriberCount() {
+        return subscriberCount.get();
+    }
+
+    // ========== CONSUMIDOR DEL BUS ==========
+
+    @Override
+    public String getName() {
+        return "feed";
+    }
+
+    @Override
+    public void onEvent(OrderEvent event, boolean endOfBatch) {
+        String cursor = cursorOf(event.getSequence());
+        OrderChange change = new OrderChange(cursor, event);
+        String data;
+        try {
+            data = objectMapper.writeValueAsString(change);
+        } catch (JsonProcessingException e) {
+            logger.warn("No se pudo serializar el cambio {} para el feed: {}", cursor, e.getMessage());
+            return;
+        }
+        Message message = new Message(cursor, event.getType().name().toLowerCase(), data, change);
+
+        synchronized (this) {
+            if (resumableFrom == Long.MAX_VALUE) {
+                resumableFrom = event.getSequence() - 1;
+            }
+            history.addLast(message);
+            if (history.size() > historySize) {
+                history.removeFirst();
+                resumableFrom = history.peekFirst().change.getSequence() - 1;
+            }
+            lastSequence = event.getSequence();
+            for (Subscriber subscriber : subscribers) {
+                if (subscriber.filter.matches(change) && !subscriber.offer(message)) {
+                    subscriber.close("slow");
+                }
+            }
+        }
+    }
+
+    @Override
+    public void onOverrun(long missed) {
+        List<Subscriber> dropped;
+        synchronized (this) {
+            // Lo que queda en el histórico ya no enlaza con lo que llega: nadie puede reanudar desde ahí
+            history.clear();
+            resumableFrom = Long.MAX_VALUE;
+            dropped = new ArrayList<>(subscribers);
+        }
+        for (Subscriber subscriber : dropped) {
+            subscriber.close("overrun");
+        }
+    }
+
+    // ========== CICLO DE VIDA ==========
+
+    @Override
+    public void start() {
+        AtomicInteger threadIndex = new AtomicInteger();
+        senderExecutor = Executors.newFixedThreadPool(senderThreads, runnable -> {
+            Thread thread = new Thread(runnable, "order-feed-" + threadIndex.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+        heartbeats = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "order-feed-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+        heartbeats.scheduleAtFixedRate(this::heartbeat, heartbeatMs, heartbeatMs, TimeUnit.MILLISECONDS);
+
+        Gauge.builder(SUBSCRIBERS, subscriberCount, AtomicInteger::get)
+                .description("Suscripciones abiertas al feed de cambios")
+                .register(meterRegistry);
+
+        running = true;
+        logger.info("Feed de cambios activo: histórico de {} cambios, {} mensajes por suscripción, máximo {} suscripciones",
+                historySize, subscriberBuffer, maxSubscribers);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        heartbeats.shutdownNow();
+        for (Subscriber subscriber : new ArrayList<>(subscribers)) {
+            subscriber.close("shutdown");
+        }
+        senderExecutor.shutdown();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // ========== MÉTODOS PRIVADOS ==========
+
+    private String cursorOf(long sequence) {
+        return epoch + "-" + sequence;
+    }
+
+    // Se llama con el lock del feed
+    private void replay(Subscriber subscriber, String cursor) {
+        long after = parseSequence(cursor);
+        if (after == Long.MIN_VALUE || after < resumableFrom || after > lastSequence) {
+            reset(subscriber, "cursor-expired");
+            return;
+        }
+        List<Message> missing = new ArrayList<>();
+        for (Message message : history) {
+            if (message.change.getSequence() > after && subscriber.filter.matches(message.change)) {
+                missing.add(message);
+            }
+        }
+        // Si lo que falta no cabe en la cola, recargar sale más barato que repetirlo
+        if (missing.size() >= subscriberBuffer) {
+            reset(subscriber, "too-far-behind");
+            return;
+        }
+        missing.forEach(subscriber::offer);
+    }
+
+    // Long.MIN_VALUE si el cursor no es de esta época o no se entiende
+    private long parseSequence(String cursor) {
+        int separator = cursor.indexOf('-');
+        if (separator <= 0 || !cursor.substring(0, separator).equals(epoch)) {
+            return Long.MIN_VALUE;
+        }
+        try {
+            return Long.parseLong(cursor.substring(separator + 1));
+        } catch (NumberFormatException e) {
+            return Long.MIN_VALUE;
+        }
+    }
+
+    private void reset(Subscriber subscriber, String reason) {
+        String cursor = cursorOf(lastSequence);
+        String data;
+        try {
+            data = objectMapper.writeValueAsString(Map.of("reason", reason, "cursor", cursor));
+        } catch (JsonProcessingException e) {
+            data = "{}";
+        }
+        subscriber.offer(new Message(cursor, RESET_EVENT, data, null));
+        meterRegistry.counter(RESETS, "reason", reason).increment();
+    }
+
+    // Un comentario SSE para que proxies y balanceadores no cierren la conexión por inactividad
+    private void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offer(HEARTBEAT);
+        }
+    }
+
+    /**
+     * Filtro de una suscripción; los campos null aceptan cualquier valor.
+     */
+    public static final class Filter {
+
+        private final Long userId;
+        private final Long productId;
+        private final Order.OrderStatus status;
+
+        public Filter(Long userId, Long productId, Order.OrderStatus status) {
+            this.userId = userId;
+            this.productId = productId;
+            this.status = status;
+        }
+
+        boolean matches(OrderChange change) {
+            return (userId == null || userId == change.getUserId())
+                    && (productId == null || change.containsProduct(productId))
+                    && (status == null || status == change.getStatus());
+        }
+    }
+
+    private static final class Message {
+
+        private final String id;
+        private final String name;
+        private final String data;
+        private final OrderChange change;
+
+        private Message(String id, String name, String data, OrderChange change) {
+            this.id = id;
+            this.name = name;
+            this.data = data;
+            this.change = change;
+        }
+    }
+
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final Filter filter;
+        private final BlockingQueue<Message> queue;
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+        private volatile boolean completed;
+
+        private Subscriber(SseEmitter emitter, Filter filter) {
+            this.emitter = emitter;
+            this.filter = filter;
+            this.queue = new ArrayBlockingQueue<>(subscriberBuffer);
+        }
+
+        private boolean offer(Message message) {
+            if (!queue.offer(message)) {
+                return false;
+            }
+            schedule();
+            return true;
+        }
+
+        // Deja de recibir en el momento; el emitter se cierra desde el hilo de envío, que puede
+        // estar bloqueado escribiendo a este mismo cliente
+        private void close(String reason) {
+            if (!closed.compareAndSet(false, true)) {
+                return;
+            }
+            subscribers.remove(this);
+            subscriberCount.decrementAndGet();
+            queue.clear();
+            meterRegistry.counter(DISCONNECTED, "reason", reason).increment();
+            schedule();
+        }
+
+        private void schedule() {
+            if (scheduled.compareAndSet(false, true)) {
+                try {
+                    senderExecutor.execute(this::drain);
+                } catch (RejectedExecutionException e) {
+                    // Parada en curso
+                    scheduled.set(false);
+                }
+            }
+        }
+
+        private void drain() {
+            try {
+                Message message;
+                while (!closed.get() && (message = queue.poll()) != null) {
+                    send(message);
+                }
+                if (closed.get() && !completed) {
+                    completed = true;
+                    emitter.complete();
+                }
+            } catch (IOException | IllegalStateException e) {
+                // El cliente cerró la conexión o el emitter ya terminó
+                close("client");
+                completed = true;
+            } finally {
+                scheduled.set(false);
+                // Lo que haya llegado mientras se soltaba la marca necesita otra vuelta
+                if (!queue.isEmpty() || (closed.get() && !completed)) {
+                    schedule();
+                }
+            }
+        }
+
+        private void send(Message message) throws IOException {
+            if (message == HEARTBEAT) {
+                emitter.send(SseEmitter.event().comment("heartbeat"));
+                return;
+            }
+            emitter.send(SseEmitter.event()
+                    .id(message.id)
+                    .name(message.name)
+                    .data(message.data, MediaType.APPLICATION_JSON));
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.project_final.order_service.events;
+
+import com.project_final.order_service.model.Order;
+import com.project_final.order_service.model.OrderItem;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Cambio de estado de una orden, ya confirmado en la base de datos.
+ *
+ * Los objetos se reutilizan: OrderEventBus los crea al arrancar (uno por posición del anillo y
+ * uno por consumidor) y los sobrescribe en cada evento. Un consumidor no debe guardar la
+ * referencia; si necesita el evento después, copia los campos.
+ */
+public final class OrderEvent {
+
+    public enum Type {
+        CREATED, STATUS_CHANGED, DELETED
+    }
+
+    private long sequence;
+    private Type type;
+    private long orderId;
+    private long userId;
+    private long productId;
+    private int quantity;
+    private int itemCount;
+    // Producto de cada línea en órdenes con varias; el array crece y se reutiliza
+    private long[] lineProductIds = new long[0];
+    private int lineCount;
+    private BigDecimal totalPrice;
+    private Order.OrderStatus previousStatus;
+    private Order.OrderStatus status;
+    private long timestampMillis;
+
+    // Sin copias: los campos de la orden se leen directamente
+    void set(long sequence, Type type, Order order, Order.OrderStatus previousStatus, long timestampMillis) {
+        this.sequence = sequence;
+        this.type = type;
+        this.orderId = order.getId() != null ? order.getId() : 0;
+        this.userId = order.getUserId() != null ? order.getUserId() : 0;
+        this.productId = order.getProductId() != null ? order.getProductId() : 0;
+        this.quantity = order.getQuantity() != null ? order.getQuantity() : 0;
+        this.itemCount = order.getItemCount() != null ? order.getItemCount() : 1;
+        List<OrderItem> items = order.getItems();
+        this.lineCount = itemCount > 1 ? items.size() : 0;
+        ensureLineCapacity(lineCount);
+        for (int i = 0; i < lineCount; i++) {
+            lineProductIds[i] = items.get(i).getProductId();
+        }
+        this.totalPrice = order.getTotalPrice();
+        this.previousStatus = previousStatus;
+        this.status = order.getStatus();
+        this.timestampMillis = timestampMillis;
+    }
+
+    void copyFrom(OrderEvent other) {
+        this.sequence = other.sequence;
+        this.type = other.type;
+        this.orderId = other.orderId;
+        this.userId = other.userId;
+        this.productId = other.productId;
+        this.quantity = other.quantity;
+        this.itemCount = other.itemCount;
+        this.lineCount = other.lineCount;
+        ensureLineCapacity(lineCount);
+        System.arraycopy(other.lineProductIds, 0, lineProductIds, 0, lineCount);
+        this.totalPrice = other.totalPrice;
+        this.previousStatus = other.previousStatus;
+        this.status = other.status;
+        this.timestampMillis = other.timestampMillis;
+    }
+
+    // Posición en el bus: crece de uno en uno desde el arranque
+    public long getSequence() {
+        return sequence;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public long getOrderId() {
+        return orderId;
+    }
+
+    public long getUserId() {
+        return userId;
+    }
+
+    // En órdenes con varias líneas, el de la primera
+    public long getProductId() {
+        return productId;
+    }
+
+    public int getQuantity() {
+        return quantity;
+    }
+
+    public int getItemCount() {
+        return itemCount;
+    }
+
+    // Líneas con producto conocido: las de una orden con varias, o 0
+    public int getLineCount() {
+        return lineCount;
+    }
+
+    public long getLineProductId(int line) {
+        return lineProductIds[line];
+    }
+
+    // Si la orden incluye el producto en la cabecera o en cualquiera de sus líneas
+    public boolean containsProduct(long productId) {
+        if (this.productId == productId) {
+            return true;
+        }
+        for (int i = 0; i < lineCount; i++) {
+            if (lineProductIds[i] == productId) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public BigDecimal getTotalPrice() {
+        return totalPrice;
+    }
+
+    // Solo en STATUS_CHANGED
+    public Order.OrderStatus getPreviousStatus() {
+        return previousStatus;
+    }
+
+    // En DELETED, el estado que tenía al eliminarse
+    public Order.OrderStatus getStatus() {
+        return status;
+    }
+
+    public long getTimestampMillis() {
+        return timestampMillis;
+    }
+
+    private void ensureLineCapacity(int lines) {
+        if (lineProductIds.length < lines) {
+            lineProductIds = new long[Math.max(lines, 2 * lineProductIds.length)];
+        }
+    }
+}
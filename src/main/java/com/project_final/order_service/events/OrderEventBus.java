@@ -0,0 +1,313 @@
+package com.project_final.order_service.events;
+
+import com.project_final.order_service.model.Order;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Bus de eventos de órdenes en proceso, sobre un anillo preasignado (order.events.enabled=true).
+ *
+ * - OrderService publica OrderCreated, StatusChanged y Deleted después del commit: dentro de una
+ *   transacción el evento espera a afterCommit; fuera, ya está confirmado y sale en el momento.
+ * - Los eventos se escriben en objetos creados al arrancar: publicar no reserva memoria (salvo
+ *   el aviso de afterCommit cuando hay transacción). Un solo escritor a la vez, bajo un lock
+ *   que solo cubre copiar la orden en su posición.
+ * - Cada consumidor corre en su hilo y lee a su ritmo. Copia el evento en su propio objeto y
+ *   comprueba después que la posición no se ha reescrito mientras tanto.
+ * - Contrapresión por consumidor: BLOCK hace esperar a quien publica hasta publish-timeout-ms
+ *   y DROP nunca; quien se queda una vuelta por detrás salta lo perdido y recibe onOverrun.
+ */
+public class OrderEventBus implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderEventBus.class);
+
+    public static final String LAG = "order.events.lag";
+    public static final String DROPPED = "order.events.dropped";
+    public static final String ERRORS = "order.events.errors";
+    public static final String PUBLISH_TIMEOUTS = "order.events.publish.timeouts";
+
+    private static final int SPIN_TRIES = 100;
+    private static final int YIELD_TRIES = 100;
+    private static final long IDLE_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+    private static final long OVERRUN_LOG_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+    private final OrderEvent[] ring;
+    private final int mask;
+    private final long publishTimeoutNanos;
+    private final List<ConsumerRunner> runners = new ArrayList<>();
+    private final ConsumerRunner[] gating;
+    private final Counter publishTimeouts;
+    private final Object publishLock = new Object();
+
+    // Última posición reclamada por el escritor (puede estar a medio escribir)
+    private volatile long claimed = -1;
+    // Última posición publicada: visible para los consumidores
+    private volatile long cursor = -1;
+    private volatile boolean running;
+
+    public OrderEventBus(int ringSize, long publishTimeoutMillis, List<OrderEventConsumer> consumers,
+                         MeterRegistry meterRegistry) {
+        if (Integer.bitCount(ringSize) != 1) {
+            throw new IllegalArgumentException("El tamaño del anillo debe ser potencia de 2: " + ringSize);
+        }
+        this.ring = new OrderEvent[ringSize];
+        for (int i = 0; i < ringSize; i++) {
+            ring[i] = new OrderEvent();
+        }
+        this.mask = ringSize - 1;
+        this.publishTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(publishTimeoutMillis);
+
+        List<ConsumerRunner> blocking = new ArrayList<>();
+        for (OrderEventConsumer consumer : consumers) {
+            ConsumerRunner runner = new ConsumerRunner(consumer, meterRegistry);
+            runners.add(runner);
+            if (consumer.getBackpressure() == OrderEventConsumer.Backpressure.BLOCK) {
+                blocking.add(runner);
+            }
+        }
+        this.gating = blocking.toArray(new ConsumerRunner[0]);
+        this.publishTimeouts = Counter.builder(PUBLISH_TIMEOUTS)
+                .description("Eventos publicados sin esperar más a un consumidor BLOCK")
+                .register(meterRegistry);
+    }
+
+    // ========== PUBLICACIÓN ==========
+
+    public void publishCreated(Order order) {
+        publishAfterCommit(OrderEvent.Type.CREATED, order, null);
+    }
+
+    public void publishStatusChanged(Order order, Order.OrderStatus previousStatus) {
+        publishAfterCommit(OrderEvent.Type.STATUS_CHANGED, order, previousStatus);
+    }
+
+    public void publishDeleted(Order order) {
+        publishAfterCommit(OrderEvent.Type.DELETED, order, null);
+    }
+
+    // Visibilidad de paquete para los tests
+    void publish(OrderEvent.Type type, Order order, Order.OrderStatus previousStatus) {
+        if (!running) {
+            return;
+        }
+        synchronized (publishLock) {
+            long sequence = claimed + 1;
+            awaitCapacity(sequence);
+            claimed = sequence;
+            // Los consumidores que lean la posición después ven que se está reescribiendo
+            VarHandle.storeStoreFence();
+            ring[(int) sequence & mask].set(sequence, type, order, previousStatus, System.currentTimeMillis());
+            cursor = sequence;
+        }
+    }
+
+    public long getCursor() {
+        return cursor;
+    }
+
+    public int getRingSize() {
+        return ring.length;
+    }
+
+    // ========== CICLO DE VIDA ==========
+
+    @Override
+    public void start() {
+        running = true;
+        for (ConsumerRunner runner : runners) {
+            Thread thread = new Thread(runner, "order-events-" + runner.consumer.getName());
+            thread.setDaemon(true);
+            runner.thread = thread;
+            thread.start();
+        }
+        logger.info("Bus de eventos de órdenes activo: anillo de {} posiciones, {} consumidores",
+                ring.length, runners.size());
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        for (ConsumerRunner runner : runners) {
+            // Cada consumidor termina lo publicado antes de salir
+            LockSupport.unpark(runner.thread);
+            try {
+                runner.thread.join(TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // ========== MÉTODOS PRIVADOS ==========
+
+    private void publishAfterCommit(OrderEvent.Type type, Order order, Order.OrderStatus previousStatus) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new AfterCommit(type, order, previousStatus));
+        } else {
+            publish(type, order, previousStatus);
+        }
+    }
+
+    // La posición 'sequence' reutiliza la de sequence - tamaño: los consumidores BLOCK deben haberla leído
+    private void awaitCapacity(long sequence) {
+        long wrapPoint = sequence - ring.length;
+        if (gating.length == 0 || minGatingSequence() >= wrapPoint) {
+            return;
+        }
+        long deadline = System.nanoTime() + publishTimeoutNanos;
+        int idle = 0;
+        while (minGatingSequence() < wrapPoint) {
+            if (System.nanoTime() - deadline >= 0) {
+                publishTimeouts.increment();
+                return;
+            }
+            idle = idle(idle);
+        }
+    }
+
+    private long minGatingSequence() {
+        long min = Long.MAX_VALUE;
+        for (ConsumerRunner runner : gating) {
+            min = Math.min(min, runner.sequence);
+        }
+        return min;
+    }
+
+    // Espera progresiva: unas vueltas activas, luego yield y por último park
+    private static int idle(int idle) {
+        if (idle < SPIN_TRIES) {
+            Thread.onSpinWait();
+        } else if (idle < SPIN_TRIES + YIELD_TRIES) {
+            Thread.yield();
+        } else {
+            LockSupport.parkNanos(IDLE_PARK_NANOS);
+            return idle;
+        }
+        return idle + 1;
+    }
+
+    private final class AfterCommit implements TransactionSynchronization {
+
+        private final OrderEvent.Type type;
+        private final Order order;
+        private final Order.OrderStatus previousStatus;
+
+        private AfterCommit(OrderEvent.Type type, Order order, Order.OrderStatus previousStatus) {
+            this.type = type;
+            this.order = order;
+            this.previousStatus = previousStatus;
+        }
+
+        @Override
+        public void afterCommit() {
+            publish(type, order, previousStatus);
+        }
+    }
+
+    private final class ConsumerRunner implements Runnable {
+
+        private final OrderEventConsumer consumer;
+        private final OrderEvent view = new OrderEvent();
+        private final Counter dropped;
+        private final Counter errors;
+        private Thread thread;
+        private long missedSinceLog;
+        private long lastOverrunLog = System.nanoTime() - OVERRUN_LOG_INTERVAL_NANOS;
+
+        // Última posición procesada
+        private volatile long sequence = -1;
+
+        private ConsumerRunner(OrderEventConsumer consumer, MeterRegistry meterRegistry) {
+            this.consumer = consumer;
+            this.dropped = Counter.builder(DROPPED)
+                    .description("Eventos que el consumidor no llegó a leer")
+                    .tag("consumer", consumer.getName())
+                    .register(meterRegistry);
+            this.errors = Counter.builder(ERRORS)
+                    .description("Eventos en los que el consumidor lanzó una excepción")
+                    .tag("consumer", consumer.getName())
+                    .register(meterRegistry);
+            Gauge.builder(LAG, this, runner -> cursor - runner.sequence)
+                    .description("Eventos publicados pendientes de leer")
+                    .tag("consumer", consumer.getName())
+                    .register(meterRegistry);
+        }
+
+        @Override
+        public void run() {
+            long next = sequence + 1;
+            int idle = 0;
+            while (running || next <= cursor) {
+                long available = cursor;
+                if (available < next) {
+                    idle = idle(idle);
+                    continue;
+                }
+                idle = 0;
+                while (next <= available) {
+                    view.copyFrom(ring[(int) next & mask]);
+                    // Las lecturas de la posición terminan antes de mirar si se ha reescrito
+                    VarHandle.loadLoadFence();
+                    long overwritten = claimed - ring.length;
+                    if (next <= overwritten) {
+                        // Una vuelta por detrás: se salta a la mitad del anillo para no volver a quedarse corto
+                        long resume = Math.max(next + 1, cursor - ring.length / 2 + 1);
+                        overrun(resume - next);
+                        next = resume;
+                        sequence = next - 1;
+                        break;
+                    }
+                    deliver(next == available);
+                    sequence = next;
+                    next++;
+                }
+            }
+        }
+
+        private void deliver(boolean endOfBatch) {
+            try {
+                consumer.onEvent(view, endOfBatch);
+            } catch (RuntimeException e) {
+                errors.increment();
+                logger.warn("El consumidor de eventos {} falló con el evento {}: {}",
+                        consumer.getName(), view.getSequence(), e.getMessage());
+            }
+        }
+
+        private void overrun(long missed) {
+            dropped.increment(missed);
+            // Con el consumidor saturado esto pasa muchas veces por segundo: un aviso cada 10 s
+            missedSinceLog += missed;
+            long now = System.nanoTime();
+            if (now - lastOverrunLog >= OVERRUN_LOG_INTERVAL_NANOS) {
+                logger.warn("El consumidor de eventos {} perdió {} eventos", consumer.getName(), missedSinceLog);
+                missedSinceLog = 0;
+                lastOverrunLog = now;
+            }
+            try {
+                consumer.onOverrun(missed);
+            } catch (RuntimeException e) {
+                errors.increment();
+                logger.warn("El consumidor de eventos {} falló al recuperarse: {}", consumer.getName(), e.getMessage());
+            }
+        }
+    }
+}
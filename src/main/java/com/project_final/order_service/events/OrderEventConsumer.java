@@ -0,0 +1,38 @@
+package com.project_final.order_service.events;
+
+/**
+ * Consumidor de OrderEventBus. Cada uno tiene su propio hilo y su propia posición en el anillo.
+ *
+ * Los beans que implementan esta interfaz se registran solos al arrancar el bus.
+ */
+public interface OrderEventConsumer {
+
+    /**
+     * Qué hace el bus cuando el consumidor se queda una vuelta de anillo por detrás.
+     */
+    enum Backpressure {
+        // Quien publica espera a que el consumidor libere sitio, como mucho order.events.publish-timeout-ms
+        BLOCK,
+        // Quien publica no espera: el consumidor salta los eventos perdidos y recibe onOverrun
+        DROP
+    }
+
+    // Etiqueta de sus métricas y nombre de su hilo
+    String getName();
+
+    default Backpressure getBackpressure() {
+        return Backpressure.DROP;
+    }
+
+    /**
+     * Un evento. endOfBatch indica que no hay más publicados por ahora: buen momento para
+     * vaciar lo que el consumidor acumule. El evento se reutiliza después de volver.
+     */
+    void onEvent(OrderEvent event, boolean endOfBatch);
+
+    /**
+     * Se han perdido 'missed' eventos; el consumidor debería reconstruir su estado.
+     */
+    default void onOverrun(long missed) {
+    }
+}
@@ -0,0 +1,53 @@
+package com.project_final.order_service.events;
+
+import com.project_final.order_service.model.Order;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Consumidor de OrderEventBus que publica los cambios de las órdenes como métricas.
+ * Los contadores se crean al arrancar: cada evento solo incrementa.
+ */
+public class OrderEventMetrics implements OrderEventConsumer {
+
+    public static final String EVENTS = "order.events";
+    public static final String CREATED_AMOUNT = "order.events.created.amount";
+
+    private final Counter[][] counters;
+    private final DistributionSummary createdAmount;
+
+    public OrderEventMetrics(MeterRegistry meterRegistry) {
+        OrderEvent.Type[] types = OrderEvent.Type.values();
+        Order.OrderStatus[] statuses = Order.OrderStatus.values();
+        this.counters = new Counter[types.length][statuses.length];
+        for (OrderEvent.Type type : types) {
+            for (Order.OrderStatus status : statuses) {
+                counters[type.ordinal()][status.ordinal()] = Counter.builder(EVENTS)
+                        .description("Cambios de órdenes publicados en el bus de eventos")
+                        .tag("type", type.name().toLowerCase())
+                        .tag("status", status.name())
+                        .register(meterRegistry);
+            }
+        }
+        this.createdAmount = DistributionSummary.builder(CREATED_AMOUNT)
+                .description("Importe de las órdenes creadas")
+                .baseUnit("currency")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String getName() {
+        return "metrics";
+    }
+
+    @Override
+    public void onEvent(OrderEvent event, boolean endOfBatch) {
+        if (event.getStatus() != null) {
+            counters[event.getType().ordinal()][event.getStatus().ordinal()].increment();
+        }
+        if (event.getType() == OrderEvent.Type.CREATED && event.getTotalPrice() != null) {
+            createdAmount.record(event.getTotalPrice().doubleValue());
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.project_final.order_service.exceptions;
+
+/**
+ * Base de las excepciones de negocio esperadas: validación, orden inexistente, transición de
+ * estado, stock, límites e idempotencia. Terminan en un 4xx y el mensaje ya explica el error.
+ *
+ * Por defecto no capturan la pila: con tráfico abusivo, crearlas aparecía en los perfiles y
+ * nadie miraba esa pila. Para depurar se activa con order.errors.stack-traces=true.
+ * Las excepciones de servicios externos y de stock interno sí la capturan siempre.
+ */
+public abstract class BusinessException extends RuntimeException {
+
+    private static volatile boolean stackTraces;
+
+    protected BusinessException(String message) {
+        super(message, null, true, stackTraces);
+    }
+
+    public static void setStackTraces(boolean enabled) {
+        stackTraces = enabled;
+    }
+
+    public static boolean isStackTraces() {
+        return stackTraces;
+    }
+}
@@ -0,0 +1,51 @@
+package com.project_final.order_service.exceptions;
+
+import com.project_final.order_service.resilience.TokenBucket;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Límite de registros de errores esperados: como mucho ratePerSecond por código de error, con
+ * ráfagas de burst. Con tráfico abusivo el log deja de crecer al ritmo de las peticiones y un
+ * código muy repetido no tapa a los demás. Los registros omitidos se cuentan y se informan
+ * con el siguiente admitido del mismo código.
+ */
+final class ErrorLogLimiter {
+
+    private final double ratePerSecond;
+    private final int burst;
+    // Los códigos de error son un conjunto fijo y pequeño: el mapa no crece sin límite
+    private final Map<String, Limit> limits = new ConcurrentHashMap<>();
+
+    ErrorLogLimiter(double ratePerSecond, int burst) {
+        this.ratePerSecond = ratePerSecond;
+        this.burst = burst;
+    }
+
+    /**
+     * Devuelve -1 si no se debe registrar o, si se puede, cuántos registros de ese código se
+     * omitieron desde el último admitido.
+     */
+    long tryAcquire(String errorCode, long nowNanos) {
+        Limit limit = limits.get(errorCode);
+        if (limit == null) {
+            limit = limits.computeIfAbsent(errorCode, code -> new Limit(new TokenBucket(ratePerSecond, burst, nowNanos)));
+        }
+        if (limit.bucket.tryAcquire(nowNanos) != 0) {
+            limit.skipped.incrementAndGet();
+            return -1;
+        }
+        return limit.skipped.getAndSet(0);
+    }
+
+    private static final class Limit {
+        private final TokenBucket bucket;
+        private final AtomicLong skipped = new AtomicLong();
+
+        private Limit(TokenBucket bucket) {
+            this.bucket = bucket;
+        }
+    }
+}
@@ -1,8 +1,14 @@
 
 package com.project_final.order_service.exceptions;
 
+import com.project_final.order_service.metrics.OrderMetrics;
+import com.project_final.order_service.model.Order;
+import com.project_final.order_service.resilience.ConcurrencyLimitFilter;
+import jakarta.servlet.http.HttpServletRequest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
@@ -11,171 +17,231 @@ import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.MissingServletRequestParameterException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
-import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.context.request.async.AsyncRequestTimeoutException;
 import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestControllerAdvice
 public class GlobalExceptionHandler {
 
     private static final Logger logger = LoggerFactory.getLogger(GlobalExceptionHandler.class);
 
+    private final OrderMetrics orderMetrics;
+    private final ErrorLogLimiter errorLogLimiter;
+
+    // La captura de la pila de las excepciones de negocio se configura en ErrorsConfig
+    public GlobalExceptionHandler(
+            OrderMetrics orderMetrics,
+            @Value("${order.errors.log-rate-per-second:10}") double logRatePerSecond,
+            @Value("${order.errors.log-burst:20}") int logBurst) {
+        this.orderMetrics = orderMetrics;
+        this.errorLogLimiter = new ErrorLogLimiter(logRatePerSecond, logBurst);
+    }
+
     // EXCEPCIONES ESPECÍFICAS DE ÓRDENES
 
     @ExceptionHandler(OrderNotFoundException.class)
     public ResponseEntity<ErrorResponse> handleOrderNotFoundException(
-            OrderNotFoundException ex, WebRequest request) {
+            OrderNotFoundException ex, HttpServletRequest request) {
 
-        logger.warn("Orden no encontrada: {}", ex.getMessage());
+        if (logAllowed("ORDER_NOT_FOUND")) {
+            logger.warn("Orden no encontrada: {}", ex.getMessage());
+        }
 
         ErrorResponse errorResponse = ErrorResponse.builder()
                 .errorCode("ORDER_NOT_FOUND")
                 .message(ex.getMessage())
                 .details("La orden solicitada no existe en el sistema")
                 .timestamp(LocalDateTime.now())
-                .path(request.getDescription(false).replace("uri=", ""))
+                .path(request.getRequestURI())
                 .status(HttpStatus.NOT_FOUND.value())
                 .build();
 
-        return new ResponseEntity<>(errorResponse, HttpStatus.NOT_FOUND);
+        return respond(ex, errorResponse, HttpStatus.NOT_FOUND);
     }
 
     @ExceptionHandler(OrderValidationException.class)
     public ResponseEntity<ErrorResponse> handleOrderValidationException(
-            OrderValidationException ex, WebRequest request) {
+            OrderValidationException ex, HttpServletRequest request) {
 
-        logger.warn("Error de validación de orden: {}", ex.getMessage());
+        if (logAllowed("ORDER_VALIDATION_ERROR")) {
+            logger.warn("Error de validación de orden: {}", ex.getMessage());
+        }
 
         ErrorResponse errorResponse = ErrorResponse.builder()
                 .errorCode("ORDER_VALIDATION_ERROR")
                 .message(ex.getMessage())
                 .details("Los datos de la orden no son válidos")
                 .timestamp(LocalDateTime.now())
-                .path(request.getDescription(false).replace("uri=", ""))
+                .path(request.getRequestURI())
                 .status(HttpStatus.BAD_REQUEST.value())
                 .field(ex.getField())
                 .build();
 
-        return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+        return respond(ex, errorResponse, HttpStatus.BAD_REQUEST);
     }
 
     @ExceptionHandler(InsufficientStockException.class)
     public ResponseEntity<ErrorResponse> handleInsufficientStockException(
-            InsufficientStockException ex, WebRequest request) {
-
-        logger.warn("Stock insuficiente: {}", ex.getMessage());
+            InsufficientStockException ex, HttpServletRequest request) {
 
-        Map<String, Object> additionalInfo = new HashMap<>();
-        additionalInfo.put("productId", ex.getProductId());
-        additionalInfo.put("requestedQuantity", ex.getRequestedQuantity());
-        additionalInfo.put("availableStock", ex.getAvailableStock());
+        if (logAllowed("INSUFFICIENT_STOCK")) {
+            logger.warn("Stock insuficiente: {}", ex.getMessage());
+        }
 
         ErrorResponse errorResponse = ErrorResponse.builder()
                 .errorCode("INSUFFICIENT_STOCK")
                 .message(ex.getMessage())
                 .details("No hay suficiente stock disponible para completar la orden")
                 .timestamp(LocalDateTime.now())
-                .path(request.getDescription(false).replace("uri=", ""))
+                .path(request.getRequestURI())
                 .status(HttpStatus.CONFLICT.value())
-                .additionalInfo(additionalInfo)
+                .additionalInfo(new StockInfo(ex.getProductId(), ex.getRequestedQuantity(), ex.getAvailableStock()))
                 .build();
 
-        return new ResponseEntity<>(errorResponse, HttpStatus.CONFLICT);
+        return respond(ex, errorResponse, HttpStatus.CONFLICT);
     }
 
     @ExceptionHandler(OrderStatusException.class)
     public ResponseEntity<ErrorResponse> handleOrderStatusException(
-            OrderStatusException ex, WebRequest request) {
+            OrderStatusException ex, HttpServletRequest request) {
 
-        logger.warn("Error de estado de orden: {}", ex.getMessage());
-
-        Map<String, Object> additionalInfo = new HashMap<>();
-        additionalInfo.put("orderId", ex.getOrderId());
-        additionalInfo.put("currentStatus", ex.getCurrentStatus());
-        additionalInfo.put("requestedStatus", ex.getRequestedStatus());
+        if (logAllowed("ORDER_STATUS_ERROR")) {
+            logger.warn("Error de estado de orden: {}", ex.getMessage());
+        }
 
         ErrorResponse errorResponse = ErrorResponse.builder()
                 .errorCode("ORDER_STATUS_ERROR")
                 .message(ex.getMessage())
                 .details("Transición de estado no permitida")
                 .timestamp(LocalDateTime.now())
-                .path(request.getDescription(false).replace("uri=", ""))
+                .path(request.getRequestURI())
                 .status(HttpStatus.BAD_REQUEST.value())
-                .additionalInfo(additionalInfo)
+                .additionalInfo(new StatusInfo(ex.getOrderId(), ex.getCurrentStatus(), ex.getRequestedStatus()))
                 .build();
 
-        return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+        return respond(ex, errorResponse, HttpStatus.BAD_REQUEST);
     }
 
     @ExceptionHandler(OrderCancellationException.class)
     public ResponseEntity<ErrorResponse> handleOrderCancellationException(
-            OrderCancellationException ex, WebRequest request) {
-
-        logger.warn("Error al cancelar orden: {}", ex.getMessage());
+            OrderCancellationException ex, HttpServletRequest request) {
 
-        Map<String, Object> additionalInfo = new HashMap<>();
-        additionalInfo.put("orderId", ex.getOrderId());
-        additionalInfo.put("currentStatus", ex.getCurrentStatus());
+        if (logAllowed("ORDER_CANCELLATION_ERROR")) {
+            logger.warn("Error al cancelar orden: {}", ex.getMessage());
+        }
 
         ErrorResponse errorResponse = ErrorResponse.builder()
                 .errorCode("ORDER_CANCELLATION_ERROR")
                 .message(ex.getMessage())
                 .details("No se puede cancelar la orden en su estado actual")
                 .timestamp(LocalDateTime.now())
-                .path(request.getDescription(false).replace("uri=", ""))
+                .path(request.getRequestURI())
                 .status(HttpStatus.BAD_REQUEST.value())
-                .additionalInfo(additionalInfo)
+                .additionalInfo(new CancellationInfo(ex.getOrderId(), ex.getCurrentStatus()))
                 .build();
 
-        return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+        return respond(ex, errorResponse, HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(OrderDeletionException.class)
+    public ResponseEntity<ErrorResponse> handleOrderDeletionException(
+            OrderDeletionException ex, HttpServletRequest request) {
+
+        if (logAllowed("ORDER_DELETION_ERROR")) {
+            logger.warn("Error al eliminar orden: {}", ex.getMessage());
+        }
+
+        ErrorResponse errorResponse = ErrorResponse.builder()
+                .errorCode("ORDER_DELETION_ERROR")
+                .message(ex.getMessage())
+                .details("No se puede eliminar la orden en su estado actual")
+                .timestamp(LocalDateTime.now())
+                .path(request.getRequestURI())
+                .status(HttpStatus.BAD_REQUEST.value())
+                .additionalInfo(new DeletionInfo(ex.getOrderId(), ex.getCurrentStatus()))
+                .build();
+
+        return respond(ex, errorResponse, HttpStatus.BAD_REQUEST);
     }
 
     @ExceptionHandler(StockOperationException.class)
     public ResponseEntity<ErrorResponse> handleStockOperationException(
-            StockOperationException ex, WebRequest request) {
+            StockOperationException ex, HttpServletRequest request) {
 
         logger.error("Error en operación de stock: {}", ex.getMessage());
 
-        Map<String, Object> additionalInfo = new HashMap<>();
-        additionalInfo.put("productId", ex.getProductId());
-        additionalInfo.put("operation", ex.getOperation());
-        additionalInfo.put("quantity", ex.getQuantity());
-
         ErrorResponse errorResponse = ErrorResponse.builder()
                 .errorCode("STOCK_OPERATION_ERROR")
                 .message(ex.getMessage())
                 .details("Error interno en operaciones de stock")
                 .timestamp(LocalDateTime.now())
-                .path(request.getDescription(false).replace("uri=", ""))
+                .path(request.getRequestURI())
                 .status(HttpStatus.INTERNAL_SERVER_ERROR.value())
-                .additionalInfo(additionalInfo)
+                .additionalInfo(new StockOperationInfo(ex.getProductId(), ex.getOperation(), ex.getQuantity()))
                 .build();
 
-        return new ResponseEntity<>(errorResponse, HttpStatus.INTERNAL_SERVER_ERROR);
+        return respond(ex, errorResponse, HttpStatus.INTERNAL_SERVER_ERROR);
+    }
+
+    @ExceptionHandler(IdempotencyKeyException.class)
+    public ResponseEntity<ErrorResponse> handleIdempotencyKeyException(
+            IdempotencyKeyException ex, HttpServletRequest request) {
+
+        if (logAllowed("IDEMPOTENCY_KEY")) {
+            logger.warn("Conflicto de clave de idempotencia: {}", ex.getMessage());
+        }
+
+        boolean inProgress = ex.getReason() == IdempotencyKeyException.Reason.IN_PROGRESS;
+        HttpStatus status = inProgress ? HttpStatus.CONFLICT : HttpStatus.UNPROCESSABLE_ENTITY;
+
+        ErrorResponse errorResponse = ErrorResponse.builder()
+                .errorCode(inProgress ? "IDEMPOTENCY_KEY_IN_PROGRESS" : "IDEMPOTENCY_KEY_MISMATCH")
+                .message(ex.getMessage())
+                .details(inProgress
+                        ? "La petición original sigue en curso, reintente más tarde con la misma clave"
+                        : "Use una clave nueva para una petición distinta")
+                .timestamp(LocalDateTime.now())
+                .path(request.getRequestURI())
+                .status(status.value())
+                .additionalInfo(new IdempotencyInfo(ex.getIdempotencyKey()))
+                .build();
+
+        ResponseEntity<ErrorResponse> response = respond(ex, errorResponse, status);
+        if (!inProgress) {
+            return response;
+        }
+        return ResponseEntity.status(status).header(HttpHeaders.RETRY_AFTER, "1").body(response.getBody());
     }
 
     @ExceptionHandler({UserServiceException.class, ProductServiceException.class, ExternalServiceException.class})
     public ResponseEntity<ErrorResponse> handleExternalServiceException(
-            RuntimeException ex, WebRequest request) {
+            RuntimeException ex, HttpServletRequest request) {
 
         logger.error("Error de servicio externo: {}", ex.getMessage());
 
-        Map<String, Object> additionalInfo = new HashMap<>();
+        // Un 4xx del servicio remoto (usuario o producto inexistente) no es saturación
+        Object additionalInfo;
+        boolean overloaded;
         if (ex instanceof UserServiceException) {
             UserServiceException userEx = (UserServiceException) ex;
-            additionalInfo.put("userId", userEx.getUserId());
-            additionalInfo.put("operation", userEx.getServiceOperation());
+            additionalInfo = new UserServiceInfo(userEx.getUserId(), userEx.getServiceOperation());
+            overloaded = userEx.isTransient();
         } else if (ex instanceof ProductServiceException) {
             ProductServiceException prodEx = (ProductServiceException) ex;
-            additionalInfo.put("productId", prodEx.getProductId());
-            additionalInfo.put("operation", prodEx.getServiceOperation());
-        } else if (ex instanceof ExternalServiceException) {
+            additionalInfo = new ProductServiceInfo(prodEx.getProductId(), prodEx.getServiceOperation());
+            overloaded = prodEx.isTransient();
+        } else {
             ExternalServiceException extEx = (ExternalServiceException) ex;
-            additionalInfo.put("serviceName", extEx.getServiceName());
-            additionalInfo.put("operation", extEx.getOperation());
+            additionalInfo = new ExternalServiceInfo(extEx.getServiceName(), extEx.getOperation());
+            overloaded = true;
+        }
+        if (overloaded) {
+            ConcurrencyLimitFilter.markOverloaded(request);
         }
 
         ErrorResponse errorResponse = ErrorResponse.builder()
@@ -183,21 +249,23 @@ public class GlobalExceptionHandler {
                 .message(ex.getMessage())
                 .details("Error de comunicación con servicios externos")
                 .timestamp(LocalDateTime.now())
-                .path(request.getDescription(false).replace("uri=", ""))
+                .path(request.getRequestURI())
                 .status(HttpStatus.SERVICE_UNAVAILABLE.value())
                 .additionalInfo(additionalInfo)
                 .build();
 
-        return new ResponseEntity<>(errorResponse, HttpStatus.SERVICE_UNAVAILABLE);
+        return respond(ex, errorResponse, HttpStatus.SERVICE_UNAVAILABLE);
     }
 
     // EXCEPCIONES GENERALES DE SPRING
 
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ErrorResponse> handleMethodArgumentNotValidException(
-            MethodArgumentNotValidException ex, WebRequest request) {
+            MethodArgumentNotValidException ex, HttpServletRequest request) {
 
-        logger.warn("Error de validación: {}", ex.getMessage());
+        if (logAllowed("VALIDATION_ERROR")) {
+            logger.warn("Error de validación: {}", ex.getMessage());
+        }
 
         Map<String, String> fieldErrors = new HashMap<>();
         StringBuilder message = new StringBuilder("Errores de validación: ");
@@ -210,28 +278,26 @@ public class GlobalExceptionHandler {
                     .append("; ");
         }
 
-        // Crear additionalInfo con los errores de campo
-        Map<String, Object> additionalInfo = new HashMap<>();
-        additionalInfo.put("fieldErrors", fieldErrors);
-
         ErrorResponse errorResponse = ErrorResponse.builder()
                 .errorCode("VALIDATION_ERROR")
                 .message(message.toString())
                 .details("Los datos proporcionados no son válidos")
                 .timestamp(LocalDateTime.now())
-                .path(request.getDescription(false).replace("uri=", ""))
+                .path(request.getRequestURI())
                 .status(HttpStatus.BAD_REQUEST.value())
-                .additionalInfo(additionalInfo)
+                .additionalInfo(new FieldErrorsInfo(fieldErrors))
                 .build();
 
-        return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+        return respond(ex, errorResponse, HttpStatus.BAD_REQUEST);
     }
 
     @ExceptionHandler(HttpMessageNotReadableException.class)
     public ResponseEntity<ErrorResponse> handleHttpMessageNotReadableException(
-            HttpMessageNotReadableException ex, WebRequest request) {
+            HttpMessageNotReadableException ex, HttpServletRequest request) {
 
-        logger.error("Error de formato de datos: {}", ex.getMessage());
+        if (logAllowed("BAD_REQUEST")) {
+            logger.error("Error de formato de datos: {}", ex.getMessage());
+        }
 
         String message = "Formato de datos inválido";
         String details = "Los datos enviados no pueden ser procesados. Verifique el formato JSON.";
@@ -250,64 +316,123 @@ public class GlobalExceptionHandler {
                 .message(message)
                 .details(details)
                 .timestamp(LocalDateTime.now())
-                .path(request.getDescription(false).replace("uri=", ""))
+                .path(request.getRequestURI())
                 .status(HttpStatus.BAD_REQUEST.value())
                 .build();
 
-        return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+        return respond(ex, errorResponse, HttpStatus.BAD_REQUEST);
     }
 
     @ExceptionHandler(MissingServletRequestParameterException.class)
     public ResponseEntity<ErrorResponse> handleMissingServletRequestParameterException(
-            MissingServletRequestParameterException ex, WebRequest request) {
-
-        logger.error("Parámetro faltante: {}", ex.getMessage());
+            MissingServletRequestParameterException ex, HttpServletRequest request) {
 
-        Map<String, Object> additionalInfo = new HashMap<>();
-        additionalInfo.put("missingParameter", ex.getParameterName());
-        additionalInfo.put("parameterType", ex.getParameterType());
+        if (logAllowed("MISSING_PARAMETER")) {
+            logger.error("Parámetro faltante: {}", ex.getMessage());
+        }
 
         ErrorResponse errorResponse = ErrorResponse.builder()
                 .errorCode("MISSING_PARAMETER")
                 .message("Parámetro requerido faltante: " + ex.getParameterName())
                 .details("Faltan parámetros obligatorios en la petición")
                 .timestamp(LocalDateTime.now())
-                .path(request.getDescription(false).replace("uri=", ""))
+                .path(request.getRequestURI())
                 .status(HttpStatus.BAD_REQUEST.value())
-                .additionalInfo(additionalInfo)
+                .additionalInfo(new MissingParameterInfo(ex.getParameterName(), ex.getParameterType()))
                 .build();
 
-        return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+        return respond(ex, errorResponse, HttpStatus.BAD_REQUEST);
     }
 
     @ExceptionHandler(MethodArgumentTypeMismatchException.class)
     public ResponseEntity<ErrorResponse> handleMethodArgumentTypeMismatchException(
-            MethodArgumentTypeMismatchException ex, WebRequest request) {
+            MethodArgumentTypeMismatchException ex, HttpServletRequest request) {
 
-        logger.error("Tipo de dato inválido: {}", ex.getMessage());
-
-        Map<String, Object> additionalInfo = new HashMap<>();
-        additionalInfo.put("parameter", ex.getName());
-        additionalInfo.put("value", ex.getValue());
-        additionalInfo.put("requiredType", ex.getRequiredType() != null ? ex.getRequiredType().getSimpleName() : "unknown");
+        if (logAllowed("INVALID_PARAMETER_TYPE")) {
+            logger.error("Tipo de dato inválido: {}", ex.getMessage());
+        }
 
         ErrorResponse errorResponse = ErrorResponse.builder()
                 .errorCode("INVALID_PARAMETER_TYPE")
                 .message("Tipo de dato inválido para el parámetro: " + ex.getName())
                 .details("El formato de los datos no es correcto")
                 .timestamp(LocalDateTime.now())
-                .path(request.getDescription(false).replace("uri=", ""))
+                .path(request.getRequestURI())
                 .status(HttpStatus.BAD_REQUEST.value())
-                .additionalInfo(additionalInfo)
+                .additionalInfo(new ParameterTypeInfo(ex.getName(), ex.getValue(),
+                        ex.getRequiredType() != null ? ex.getRequiredType().getSimpleName() : "unknown"))
                 .build();
 
-        return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+        return respond(ex, errorResponse, HttpStatus.BAD_REQUEST);
+    }
+
+    // EXCEPCIONES DE EJECUCIÓN ASÍNCRONA
+
+    @ExceptionHandler(AsyncRequestTimeoutException.class)
+    public ResponseEntity<ErrorResponse> handleAsyncRequestTimeoutException(
+            AsyncRequestTimeoutException ex, HttpServletRequest request) {
+
+        logger.warn("Tiempo de espera agotado en petición asíncrona: {}", request.getRequestURI());
+        ConcurrencyLimitFilter.markOverloaded(request);
+
+        ErrorResponse errorResponse = ErrorResponse.builder()
+                .errorCode("REQUEST_TIMEOUT")
+                .message("Tiempo de espera agotado")
+                .details("La operación no terminó dentro del tiempo máximo de la petición")
+                .timestamp(LocalDateTime.now())
+                .path(request.getRequestURI())
+                .status(HttpStatus.SERVICE_UNAVAILABLE.value())
+                .build();
+
+        return respond(ex, errorResponse, HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<ErrorResponse> handleRejectedExecutionException(
+            RejectedExecutionException ex, HttpServletRequest request) {
+
+        logger.warn("Pool de E/S saturado: {}", ex.getMessage());
+        ConcurrencyLimitFilter.markOverloaded(request);
+
+        ErrorResponse errorResponse = ErrorResponse.builder()
+                .errorCode("SERVICE_OVERLOADED")
+                .message("Servicio saturado")
+                .details("No hay capacidad para procesar la petición. Inténtelo de nuevo más tarde.")
+                .timestamp(LocalDateTime.now())
+                .path(request.getRequestURI())
+                .status(HttpStatus.SERVICE_UNAVAILABLE.value())
+                .build();
+
+        return respond(ex, errorResponse, HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    @ExceptionHandler(RateLimitExceededException.class)
+    public ResponseEntity<ErrorResponse> handleRateLimitExceededException(
+            RateLimitExceededException ex, HttpServletRequest request) {
+
+        logger.debug("Límite de peticiones superado: {} (nivel {})", ex.getScope(), ex.getTier());
+
+        ErrorResponse errorResponse = ErrorResponse.builder()
+                .errorCode("RATE_LIMIT_EXCEEDED")
+                .message(ex.getMessage())
+                .details("Demasiadas órdenes en poco tiempo. Inténtelo de nuevo más tarde.")
+                .timestamp(LocalDateTime.now())
+                .path(request.getRequestURI())
+                .status(HttpStatus.TOO_MANY_REQUESTS.value())
+                .additionalInfo(new RateLimitInfo(ex.getScope(), ex.getRetryAfterMillis()))
+                .build();
+
+        ResponseEntity<ErrorResponse> response = respond(ex, errorResponse, HttpStatus.TOO_MANY_REQUESTS);
+        String retryAfterSeconds = String.valueOf((ex.getRetryAfterMillis() + 999) / 1000);
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, retryAfterSeconds)
+                .body(response.getBody());
     }
 
     // EXCEPCIÓN GENÉRICA
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ErrorResponse> handleGenericException(
-            Exception ex, WebRequest request) {
+            Exception ex, HttpServletRequest request) {
 
         logger.error("Error inesperado: ", ex); // Log completo con stack trace
 
@@ -316,37 +441,37 @@ public class GlobalExceptionHandler {
                 .message("Error interno del servidor")
                 .details("Ha ocurrido un error inesperado. Contacte al administrador del sistema.")
                 .timestamp(LocalDateTime.now())
-                .path(request.getDescription(false).replace("uri=", ""))
+                .path(request.getRequestURI())
                 .status(HttpStatus.INTERNAL_SERVER_ERROR.value())
                 .build();
 
-        return new ResponseEntity<>(errorResponse, HttpStatus.INTERNAL_SERVER_ERROR);
-    }
-
-    // CLASE PARA RESPUESTA DE ERROR
-    public static class ErrorResponse {
-        private String errorCode;
-        private String message;
-        private String details;
-        private LocalDateTime timestamp;
-        private String path;
-        private int status;
-        private String field;
-        private Map<String, Object> additionalInfo;
-
-        // Constructor privado para el builder
-        private ErrorResponse(Builder builder) {
-            this.errorCode = builder.errorCode;
-            this.message = builder.message;
-            this.details = builder.details;
-            this.timestamp = builder.timestamp;
-            this.path = builder.path;
-            this.status = builder.status;
-            this.field = builder.field;
-            this.additionalInfo = builder.additionalInfo;
+        return respond(ex, errorResponse, HttpStatus.INTERNAL_SERVER_ERROR);
+    }
+
+    // Errores esperados (4xx): con tráfico abusivo se registra solo una parte, las métricas los cuentan todos
+    private boolean logAllowed(String errorCode) {
+        long skipped = errorLogLimiter.tryAcquire(errorCode, System.nanoTime());
+        if (skipped < 0) {
+            return false;
         }
+        if (skipped > 0) {
+            logger.warn("{} errores {} sin registrar por el límite de log", skipped, errorCode);
+        }
+        return true;
+    }
+
+    // Cuenta el error por tipo de excepción y construye la respuesta
+    private ResponseEntity<ErrorResponse> respond(Exception ex, ErrorResponse errorResponse, HttpStatus status) {
+        orderMetrics.recordError(ex, errorResponse.errorCode(), status);
+        return new ResponseEntity<>(errorResponse, status);
+    }
+
+    // RESPUESTA DE ERROR
+
+    // Inmutable; additionalInfo es uno de los registros de abajo según la excepción
+    public record ErrorResponse(String errorCode, String message, String details, LocalDateTime timestamp,
+                                String path, int status, String field, Object additionalInfo) {
 
-        // Builder pattern
         public static Builder builder() {
             return new Builder();
         }
@@ -359,7 +484,7 @@ public class GlobalExceptionHandler {
             private String path;
             private int status;
             private String field;
-            private Map<String, Object> additionalInfo;
+            private Object additionalInfo;
 
             public Builder errorCode(String errorCode) {
                 this.errorCode = errorCode;
@@ -396,24 +521,55 @@ public class GlobalExceptionHandler {
                 return this;
             }
 
-            public Builder additionalInfo(Map<String, Object> additionalInfo) {
+            public Builder additionalInfo(Object additionalInfo) {
                 this.additionalInfo = additionalInfo;
                 return this;
             }
 
             public ErrorResponse build() {
-                return new ErrorResponse(this);
+                return new ErrorResponse(errorCode, message, details, timestamp, path, status, field, additionalInfo);
             }
         }
+    }
+
+    // INFORMACIÓN ADICIONAL POR TIPO DE ERROR
+
+    public record StockInfo(Long productId, Integer requestedQuantity, Integer availableStock) {
+    }
+
+    public record StatusInfo(Long orderId, Order.OrderStatus currentStatus, Order.OrderStatus requestedStatus) {
+    }
+
+    public record CancellationInfo(Long orderId, Order.OrderStatus currentStatus) {
+    }
+
+    public record DeletionInfo(Long orderId, Order.OrderStatus currentStatus) {
+    }
+
+    public record StockOperationInfo(Long productId, String operation, Integer quantity) {
+    }
+
+    public record IdempotencyInfo(String idempotencyKey) {
+    }
+
+    public record UserServiceInfo(Long userId, String operation) {
+    }
+
+    public record ProductServiceInfo(Long productId, String operation) {
+    }
+
+    public record ExternalServiceInfo(String serviceName, String operation) {
+    }
 
-        // Getters
-        public String getErrorCode() { return errorCode; }
-        public String getMessage() { return message; }
-        public String getDetails() { return details; }
-        public LocalDateTime getTimestamp() { return timestamp; }
-        public String getPath() { return path; }
-        public int getStatus() { return status; }
-        public String getField() { return field; }
-        public Map<String, Object> getAdditionalInfo() { return additionalInfo; }
-    }
-}
\ No newline at end of file
+    public record FieldErrorsInfo(Map<String, String> fieldErrors) {
+    }
+
+    public record MissingParameterInfo(String missingParameter, String parameterType) {
+    }
+
+    public record ParameterTypeInfo(String parameter, Object value, String requiredType) {
+    }
+
+    public record RateLimitInfo(String scope, long retryAfterMs) {
+    }
+}
@@ -0,0 +1,28 @@
+package com.project_final.order_service.exceptions;
+
+public class IdempotencyKeyException extends BusinessException {
+
+    public enum Reason {
+        // La misma clave se usó con otro cuerpo de petición
+        MISMATCH,
+        // La primera ejecución sigue en curso (en otra instancia o más allá del tiempo de espera)
+        IN_PROGRESS
+    }
+
+    private final String idempotencyKey;
+    private final Reason reason;
+
+    public IdempotencyKeyException(String idempotencyKey, Reason reason, String message) {
+        super(message);
+        this.idempotencyKey = idempotencyKey;
+        this.reason = reason;
+    }
+
+    public String getIdempotencyKey() {
+        return idempotencyKey;
+    }
+
+    public Reason getReason() {
+        return reason;
+    }
+}
@@ -1,13 +1,13 @@
 package com.project_final.order_service.exceptions;
 
-public class InsufficientStockException extends RuntimeException {
+public class InsufficientStockException extends BusinessException {
     private final Long productId;
     private final Integer requestedQuantity;
     private final Integer availableStock;
 
     public InsufficientStockException(Long productId, Integer requestedQuantity, Integer availableStock) {
-        super(String.format("Stock insuficiente para el producto ID %d. Solicitado: %d, Disponible: %d",
-                productId, requestedQuantity, availableStock));
+        super("Stock insuficiente para el producto ID " + productId + ". Solicitado: " + requestedQuantity
+                + ", Disponible: " + availableStock);
         this.productId = productId;
         this.requestedQuantity = requestedQuantity;
         this.availableStock = availableStock;
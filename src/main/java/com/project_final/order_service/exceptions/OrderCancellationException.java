@@ -2,12 +2,12 @@ package com.project_final.order_service.exceptions;
 
 import com.project_final.order_service.model.Order;
 
-public class OrderCancellationException extends RuntimeException {
+public class OrderCancellationException extends BusinessException {
     private final Long orderId;
     private final Order.OrderStatus currentStatus;
 
     public OrderCancellationException(Long orderId, Order.OrderStatus currentStatus) {
-        super(String.format("No se puede cancelar la orden %d en estado %s", orderId, currentStatus));
+        super("No se puede cancelar la orden " + orderId + " en estado " + currentStatus);
         this.orderId = orderId;
         this.currentStatus = currentStatus;
     }
@@ -1,6 +1,6 @@
 package com.project_final.order_service.exceptions;
 
-public class OrderNotFoundException extends RuntimeException {
+public class OrderNotFoundException extends BusinessException {
     private final Long orderId;
 
     public OrderNotFoundException(Long orderId) {
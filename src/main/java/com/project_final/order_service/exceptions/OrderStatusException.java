@@ -2,14 +2,13 @@ package com.project_final.order_service.exceptions;
 
 import com.project_final.order_service.model.Order;
 
-public class OrderStatusException extends RuntimeException {
+public class OrderStatusException extends BusinessException {
     private final Long orderId;
     private final Order.OrderStatus currentStatus;
     private final Order.OrderStatus requestedStatus;
 
     public OrderStatusException(Long orderId, Order.OrderStatus currentStatus, Order.OrderStatus requestedStatus) {
-        super(String.format("No se puede cambiar el estado de la orden %d de %s a %s",
-                orderId, currentStatus, requestedStatus));
+        super("No se puede cambiar el estado de la orden " + orderId + " de " + currentStatus + " a " + requestedStatus);
         this.orderId = orderId;
         this.currentStatus = currentStatus;
         this.requestedStatus = requestedStatus;
@@ -1,6 +1,6 @@
 package com.project_final.order_service.exceptions;
 
-public class OrderValidationException extends RuntimeException {
+public class OrderValidationException extends BusinessException {
     private final String field;
     private final Object value;
 
@@ -11,7 +11,7 @@ public class OrderValidationException extends RuntimeException {
     }
 
     public OrderValidationException(String field, Object value, String message) {
-        super(String.format("Error de validación en campo '%s' con valor '%s': %s", field, value, message));
+        super("Error de validación en campo '" + field + "' con valor '" + value + "': " + message);
         this.field = field;
         this.value = value;
     }
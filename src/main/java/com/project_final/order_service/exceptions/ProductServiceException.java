@@ -3,18 +3,26 @@ package com.project_final.order_service.exceptions;
 public class ProductServiceException extends RuntimeException {
     private final Long productId;
     private final String serviceOperation;
+    // 5xx, error de E/S o timeout del servicio: repetir la llamada puede salir bien
+    private final boolean transientFailure;
 
     public ProductServiceException(Long productId, String serviceOperation, String message) {
+        this(productId, serviceOperation, message, false);
+    }
+
+    public ProductServiceException(Long productId, String serviceOperation, String message, boolean transientFailure) {
         super(String.format("Error en Product Service para producto %d durante operación '%s': %s",
                 productId, serviceOperation, message));
         this.productId = productId;
         this.serviceOperation = serviceOperation;
+        this.transientFailure = transientFailure;
     }
 
     public ProductServiceException(String message) {
         super(message);
         this.productId = null;
         this.serviceOperation = null;
+        this.transientFailure = false;
     }
 
     public Long getProductId() {
@@ -24,4 +32,8 @@ public class ProductServiceException extends RuntimeException {
     public String getServiceOperation() {
         return serviceOperation;
     }
+
+    public boolean isTransient() {
+        return transientFailure;
+    }
 }
@@ -0,0 +1,28 @@
+package com.project_final.order_service.exceptions;
+
+public class RateLimitExceededException extends BusinessException {
+
+    // "client" o "user": qué cubo se agotó
+    private final String scope;
+    private final String tier;
+    private final long retryAfterMillis;
+
+    public RateLimitExceededException(String scope, String tier, long retryAfterMillis) {
+        super("Límite de creación de órdenes superado (" + scope + ")");
+        this.scope = scope;
+        this.tier = tier;
+        this.retryAfterMillis = retryAfterMillis;
+    }
+
+    public String getScope() {
+        return scope;
+    }
+
+    public String getTier() {
+        return tier;
+    }
+
+    public long getRetryAfterMillis() {
+        return retryAfterMillis;
+    }
+}
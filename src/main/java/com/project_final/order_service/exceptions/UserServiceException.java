@@ -3,18 +3,26 @@ package com.project_final.order_service.exceptions;
 public class UserServiceException extends RuntimeException {
     private final Long userId;
     private final String serviceOperation;
+    // 5xx, error de E/S o timeout del servicio: repetir la llamada puede salir bien
+    private final boolean transientFailure;
 
     public UserServiceException(Long userId, String serviceOperation, String message) {
+        this(userId, serviceOperation, message, false);
+    }
+
+    public UserServiceException(Long userId, String serviceOperation, String message, boolean transientFailure) {
         super(String.format("Error en User Service para usuario %d durante operación '%s': %s",
                 userId, serviceOperation, message));
         this.userId = userId;
         this.serviceOperation = serviceOperation;
+        this.transientFailure = transientFailure;
     }
 
     public UserServiceException(String message) {
         super(message);
         this.userId = null;
         this.serviceOperation = null;
+        this.transientFailure = false;
     }
 
     public Long getUserId() {
@@ -24,4 +32,8 @@ public class UserServiceException extends RuntimeException {
     public String getServiceOperation() {
         return serviceOperation;
     }
+
+    public boolean isTransient() {
+        return transientFailure;
+    }
 }
\ No newline at end of file
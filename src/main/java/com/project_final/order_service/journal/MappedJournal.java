@@ -0,0 +1,349 @@
+package com.project_final.order_service.journal;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Diario de solo escritura al final, en segmentos de tamaño fijo mapeados en memoria.
+ *
+ * - Cada registro es [longitud][CRC32C][datos]. Al abrir se recorre desde el checkpoint y el
+ *   final es el primer registro incompleto o con CRC incorrecto (escritura cortada por una
+ *   caída); lo que haya detrás se borra.
+ * - Los offsets son lógicos: base del segmento + posición. Un registro que no cabe en lo que
+ *   queda del segmento va al principio del siguiente.
+ * - sync(offset) garantiza en disco todo lo escrito hasta offset. Las llamadas concurrentes se
+ *   agrupan: mientras un hilo hace el force, los demás esperan y el siguiente force cubre todo
+ *   lo escrito entretanto.
+ * - checkpoint(offset) marca lo ya aplicado: los segmentos que quedan por debajo se borran y
+ *   al reabrir la lectura empieza ahí.
+ */
+public class MappedJournal implements Closeable {
+
+    static final int HEADER_BYTES = 8;
+    private static final int END_OF_SEGMENT = -1;
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String CHECKPOINT_FILE = "checkpoint";
+
+    private final Path directory;
+    private final int segmentSize;
+    private final FileChannel checkpointChannel;
+    private final TreeMap<Long, Segment> segments = new TreeMap<>();
+    private final Object syncLock = new Object();
+
+    private Segment active;
+    private long writeOffset;
+    private volatile long syncedOffset;
+    private volatile long checkpointOffset;
+
+    public MappedJournal(Path directory, int segmentSize) throws IOException {
+        if (segmentSize < 4096) {
+            throw new IllegalArgumentException("El segmento debe tener al menos 4096 bytes");
+        }
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        Files.createDirectories(directory);
+        this.checkpointChannel = FileChannel.open(directory.resolve(CHECKPOINT_FILE),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        open();
+    }
+
+    // ========== ESCRITURA ==========
+
+    /**
+     * Añade un registro y devuelve el offset de su final. No es durable hasta sync(offset).
+     */
+    public synchronized long append(byte[] payload) {
+        int size = HEADER_BYTES + payload.length;
+        if (size > segmentSize) {
+            throw new IllegalArgumentException("Registro de " + payload.length + " bytes mayor que el segmento");
+        }
+        int position = (int) (writeOffset - active.base);
+        if (position + size > segmentSize) {
+            if (segmentSize - position >= Integer.BYTES) {
+                active.buffer.putInt(position, END_OF_SEGMENT);
+            }
+            active = createSegment(active.base + segmentSize);
+            writeOffset = active.base;
+            position = 0;
+        }
+
+        CRC32C crc = new CRC32C();
+        crc.update(payload);
+        active.buffer.put(position + HEADER_BYTES, payload);
+        active.buffer.putInt(position + Integer.BYTES, (int) crc.getValue());
+        active.buffer.putInt(position, payload.length);
+        writeOffset += size;
+        return writeOffset;
+    }
+
+    /**
+     * Espera a que todo lo escrito hasta offset esté en disco.
+     */
+    public void sync(long offset) {
+        if (syncedOffset >= offset) {
+            return;
+        }
+        synchronized (syncLock) {
+            if (syncedOffset >= offset) {
+                return;
+            }
+            long from = syncedOffset;
+            long target;
+            List<Segment> dirty;
+            synchronized (this) {
+                target = writeOffset;
+                dirty = new ArrayList<>(segments.subMap(segments.floorKey(Math.max(from, segments.firstKey())),
+                        true, target, false).values());
+            }
+            for (Segment segment : dirty) {
+                int start = (int) Math.max(0, from - segment.base);
+                int end = (int) Math.min(segmentSize, target - segment.base);
+                if (end > start) {
+                    segment.buffer.force(start, end - start);
+                }
+            }
+            syncedOffset = target;
+        }
+    }
+
+    // ========== LECTURA ==========
+
+    /**
+     * Lee como mucho maxRecords registros ya en disco a partir de offset (el final de un
+     * registro anterior o el checkpoint) y devuelve el offset siguiente al último leído.
+     */
+    public long read(long offset, int maxRecords, RecordConsumer consumer) {
+        long limit = syncedOffset;
+        int records = 0;
+        while (records < maxRecords && offset < limit) {
+            Segment segment;
+            synchronized (this) {
+                segment = segments.get(baseOf(offset));
+            }
+            if (segment == null) {
+                throw new IllegalStateException("Segmento del offset " + offset + " no disponible");
+            }
+            int position = (int) (offset - segment.base);
+            int length = segmentSize - position < Integer.BYTES ? END_OF_SEGMENT : segment.buffer.getInt(position);
+            if (length == END_OF_SEGMENT) {
+                offset = segment.base + segmentSize;
+                continue;
+            }
+            ByteBuffer payload = segment.buffer.slice(position + HEADER_BYTES, length).asReadOnlyBuffer();
+            long next = offset + HEADER_BYTES + length;
+            consumer.accept(next, payload);
+            offset = next;
+            records++;
+        }
+        return offset;
+    }
+
+    /**
+     * Marca como aplicado todo lo anterior a offset y borra los segmentos que ya no hacen falta.
+     */
+    public void checkpoint(long offset) {
+        ByteBuffer record = ByteBuffer.allocate(2 * Long.BYTES);
+        record.putLong(offset).putLong(checksum(offset)).flip();
+        try {
+            checkpointChannel.write(record, 0);
+            checkpointChannel.force(false);
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo guardar el checkpoint del diario", e);
+        }
+        checkpointOffset = offset;
+
+        List<Segment> obsolete;
+        synchronized (this) {
+            // El segmento activo se conserva aunque el offset sea justo su final
+            obsolete = new ArrayList<>(segments.headMap(Math.min(baseOf(offset), active.base), false).values());
+            obsolete.forEach(segment -> segments.remove(segment.base));
+        }
+        for (Segment segment : obsolete) {
+            segment.delete();
+        }
+    }
+
+    public long getCheckpointOffset() {
+        return checkpointOffset;
+    }
+
+    public long getSyncedOffset() {
+        return syncedOffset;
+    }
+
+    public synchronized int getSegmentCount() {
+        return segments.size();
+    }
+
+    @Override
+    public void close() throws IOException {
+        sync(Long.MAX_VALUE);
+        synchronized (this) {
+            for (Segment segment : segments.values()) {
+                segment.channel.close();
+            }
+            segments.clear();
+        }
+        checkpointChannel.close();
+    }
+
+    @FunctionalInterface
+    public interface RecordConsumer {
+        // next: offset del final del registro, el que se pasa a checkpoint una vez aplicado
+        void accept(long next, ByteBuffer payload);
+    }
+
+    // ========== APERTURA ==========
+
+    private void open() throws IOException {
+        long checkpoint = readCheckpoint();
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(directory)) {
+            files = listing.filter(file -> file.getFileName().toString().endsWith(SEGMENT_SUFFIX)).toList();
+        }
+        for (Path file : files) {
+            String name = file.getFileName().toString();
+            long base = Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length()));
+            if (base + segmentSize <= checkpoint) {
+                Files.delete(file);
+            } else {
+                segments.put(base, mapSegment(file, base));
+            }
+        }
+        if (segments.isEmpty()) {
+            createSegment(baseOf(checkpoint));
+        }
+
+        checkpointOffset = Math.max(checkpoint, segments.firstKey());
+        writeOffset = findEnd(checkpointOffset);
+        active = segments.get(baseOf(writeOffset));
+        if (active == null) {
+            active = createSegment(baseOf(writeOffset));
+        }
+        // Lo que haya detrás del final no se confirmó nunca: se descarta
+        for (Segment later : new ArrayList<>(segments.tailMap(active.base, false).values())) {
+            segments.remove(later.base);
+            later.delete();
+        }
+        clearTail((int) (writeOffset - active.base));
+        syncedOffset = writeOffset;
+    }
+
+    private long findEnd(long offset) {
+        while (true) {
+            Segment segment = segments.get(baseOf(offset));
+            if (segment == null) {
+                return offset;
+            }
+            int position = (int) (offset - segment.base);
+            if (segmentSize - position < HEADER_BYTES) {
+                offset = segment.base + segmentSize;
+                continue;
+            }
+            int length = segment.buffer.getInt(position);
+            if (length == END_OF_SEGMENT) {
+                offset = segment.base + segmentSize;
+                continue;
+            }
+            if (length <= 0 || length > segmentSize - position - HEADER_BYTES) {
+                return offset;
+            }
+            byte[] payload = new byte[length];
+            segment.buffer.get(position + HEADER_BYTES, payload);
+            CRC32C crc = new CRC32C();
+            crc.update(payload);
+            if ((int) crc.getValue() != segment.buffer.getInt(position + Integer.BYTES)) {
+                return offset;
+            }
+            offset += HEADER_BYTES + length;
+        }
+    }
+
+    private void clearTail(int position) {
+        boolean dirty = false;
+        for (int i = position; i < segmentSize && !dirty; i++) {
+            dirty = active.buffer.get(i) != 0;
+        }
+        if (dirty) {
+            for (int i = position; i < segmentSize; i++) {
+                active.buffer.put(i, (byte) 0);
+            }
+            active.buffer.force();
+        }
+    }
+
+    private long readCheckpoint() throws IOException {
+        ByteBuffer record = ByteBuffer.allocate(2 * Long.BYTES);
+        if (checkpointChannel.read(record, 0) < record.capacity()) {
+            return 0;
+        }
+        record.flip();
+        long offset = record.getLong();
+        // Checkpoint cortado: se relee desde el principio y quien aplica descarta lo repetido
+        return record.getLong() == checksum(offset) ? offset : 0;
+    }
+
+    private Segment createSegment(long base) {
+        Path file = directory.resolve(String.format("%020d%s", base, SEGMENT_SUFFIX));
+        try {
+            Segment segment = mapSegment(file, base);
+            segments.put(base, segment);
+            return segment;
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo crear el segmento " + file, e);
+        }
+    }
+
+    private Segment mapSegment(Path file, long base) throws IOException {
+        FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        return new Segment(base, file, channel, channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize));
+    }
+
+    private long baseOf(long offset) {
+        return offset - offset % segmentSize;
+    }
+
+    private static long checksum(long offset) {
+        CRC32C crc = new CRC32C();
+        crc.update(ByteBuffer.allocate(Long.BYTES).putLong(offset).flip());
+        return crc.getValue();
+    }
+
+    private static final class Segment {
+
+        private final long base;
+        private final Path file;
+        private final FileChannel channel;
+        private final MappedByteBuffer buffer;
+
+        private Segment(long base, Path file, FileChannel channel, MappedByteBuffer buffer) {
+            this.base = base;
+            this.file = file;
+            this.channel = channel;
+            this.buffer = buffer;
+        }
+
+        // El mapeo sigue vivo hasta que se recoja el buffer; en Linux el fichero ya borrado no molesta
+        private void delete() {
+            try {
+                channel.close();
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                throw new UncheckedIOException("No se pudo borrar el segmento " + file, e);
+            }
+        }
+    }
+}
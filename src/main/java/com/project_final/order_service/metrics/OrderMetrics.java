@@ -0,0 +1,171 @@
+package com.project_final.order_service.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Métricas propias del servicio, complementarias a las que publica Actuator
+ * (http.server.requests para los endpoints y spring.data.repository.invocations
+ * para el repositorio).
+ */
+@Component
+public class OrderMetrics {
+
+    // Latencia de las llamadas a User Service y Product Service
+    public static final String REMOTE_CALLS = "order.remote.calls";
+
+    // Respuestas alternativas usadas cuando falla una llamada remota
+    public static final String FALLBACKS = "order.remote.fallbacks";
+
+    // Llamadas no realizadas o cortadas por agotarse el plazo de la petición
+    public static final String DEADLINE_EXCEEDED = "order.deadline.exceeded";
+
+    // Excepciones resueltas por GlobalExceptionHandler
+    public static final String ERRORS = "order.errors";
+
+    // Peticiones con Idempotency-Key: executed, replayed, waited, in_progress, mismatch
+    public static final String IDEMPOTENCY = "order.idempotency";
+
+    // Cola de /api/orders/intake: accepted, rejected, retried, completed, failed
+    public static final String INTAKE = "order.intake";
+
+    // Tiempo desde que se acepta una entrada hasta su resultado final
+    public static final String INTAKE_LATENCY = "order.intake.latency";
+
+    // Órdenes por transacción del group commit: batch (lote entero) o single (reintento individual)
+    public static final String GROUP_COMMIT = "order.groupcommit.orders";
+
+    private final MeterRegistry meterRegistry;
+
+    public OrderMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Ejecuta una llamada remota y registra su duración etiquetada por servicio,
+     * operación y resultado, además de acumularla en la fase de Server-Timing.
+     * Las excepciones se propagan sin cambios.
+     */
+    public <T> T timeRemoteCall(String service, String operation, ServerTiming.Phase phase, Supplier<T> call) {
+        long timingStart = ServerTiming.start();
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "unknown";
+        try {
+            T result = call.get();
+            outcome = result == null ? "empty" : "success";
+            return result;
+        } catch (RuntimeException e) {
+            outcome = outcome(e);
+            throw e;
+        } finally {
+            ServerTiming.stop(phase, timingStart);
+            sample.stop(remoteCallTimer(service, operation, outcome));
+        }
+    }
+
+    /**
+     * Variante reactiva: la duración se mide desde la suscripción hasta la señal final.
+     * El registro de Server-Timing se recibe explícitamente porque la llamada termina
+     * en un hilo distinto al de la petición.
+     */
+    public <T> Mono<T> timeRemoteCall(String service, String operation, ServerTiming timing,
+                                      ServerTiming.Phase phase, Mono<T> call) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return call
+                    .doOnSuccess(result -> recordRemoteCall(service, operation, timing, phase, start,
+                            result == null ? "empty" : "success"))
+                    .doOnError(e -> recordRemoteCall(service, operation, timing, phase, start, outcome(e)))
+                    .doOnCancel(() -> recordRemoteCall(service, operation, timing, phase, start, "cancelled"));
+        });
+    }
+
+    public void recordFallback(String service, String operation) {
+        meterRegistry.counter(FALLBACKS, "service", service, "operation", operation).increment();
+    }
+
+    public void recordDeadlineExceeded(String service, String operation) {
+        meterRegistry.counter(DEADLINE_EXCEEDED, "service", service, "operation", operation).increment();
+    }
+
+    public void recordIdempotency(String outcome) {
+        meterRegistry.counter(IDEMPOTENCY, "outcome", outcome).increment();
+    }
+
+    public void recordIntake(String outcome) {
+        meterRegistry.counter(INTAKE, "outcome", outcome).increment();
+    }
+
+    public void recordIntakeLatency(String outcome, Duration latency) {
+        Timer.builder(INTAKE_LATENCY)
+                .description("Tiempo entre la aceptación de una orden encolada y su resultado")
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(latency);
+    }
+
+    public void recordGroupCommit(String mode, int orders) {
+        DistributionSummary.builder(GROUP_COMMIT)
+                .description("Órdenes guardadas por commit del group commit")
+                .tag("mode", mode)
+                .register(meterRegistry)
+                .record(orders);
+    }
+
+    public void recordError(Exception ex, String errorCode, HttpStatusCode status) {
+        meterRegistry.counter(ERRORS,
+                "exception", ex.getClass().getSimpleName(),
+                "errorCode", errorCode,
+                "status", String.valueOf(status.value())).increment();
+    }
+
+    private void recordRemoteCall(String service, String operation, ServerTiming timing,
+                                  ServerTiming.Phase phase, long start, String outcome) {
+        long elapsed = System.nanoTime() - start;
+        if (timing != null) {
+            timing.add(phase, elapsed);
+        }
+        remoteCallTimer(service, operation, outcome).record(elapsed, TimeUnit.NANOSECONDS);
+    }
+
+    private Timer remoteCallTimer(String service, String operation, String outcome) {
+        return Timer.builder(REMOTE_CALLS)
+                .description("Llamadas a servicios externos")
+                .tag("service", service)
+                .tag("operation", operation)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private static String outcome(Throwable e) {
+        if (e instanceof HttpStatusCodeException) {
+            return ((HttpStatusCodeException) e).getStatusCode().is4xxClientError() ? "client_error" : "server_error";
+        }
+        if (e instanceof WebClientResponseException) {
+            return ((WebClientResponseException) e).getStatusCode().is4xxClientError() ? "client_error" : "server_error";
+        }
+        if (e instanceof ResourceAccessException || e instanceof WebClientRequestException) {
+            // Timeouts y errores de conexión
+            return "io_error";
+        }
+        if (e instanceof TimeoutException) {
+            return "timeout";
+        }
+        return "error";
+    }
+}
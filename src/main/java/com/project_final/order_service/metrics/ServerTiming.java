@@ -0,0 +1,169 @@
+package com.project_final.order_service.metrics;
+
+/**
+ * Desglose de tiempos de una petición, publicado en la cabecera Server-Timing.
+ *
+ * El registro se asocia al hilo de la petición mediante un ThreadLocal (como
+ * RequestContextHolder). Si la funcionalidad está desactivada no hay registro
+ * asociado: start() devuelve 0 y stop() no hace nada, sin asignar memoria.
+ *
+ * Uso:
+ *   long start = ServerTiming.start();
+ *   ...
+ *   ServerTiming.stop(ServerTiming.Phase.USER, start);
+ */
+public final class ServerTiming {
+
+    public enum Phase {
+        VALIDATION("val", "Validación"),
+        USER("user", "User Service"),
+        PRODUCT("product", "Product Service"),
+        STOCK("stock", "Stock"),
+        DB("db", "Base de datos"),
+        SERIALIZATION("ser", "Serialización");
+
+        private final String metricName;
+        private final String description;
+
+        Phase(String metricName, String description) {
+            this.metricName = metricName;
+            this.description = description;
+        }
+
+        public String getMetricName() {
+            return metricName;
+        }
+
+        public String getDescription() {
+            return description;
+        }
+    }
+
+    public static final String HEADER = "Server-Timing";
+
+    private static final Phase[] PHASES = Phase.values();
+
+    private static final ThreadLocal<ServerTiming> CURRENT = new ThreadLocal<>();
+
+    private final long begin = System.nanoTime();
+    private final long[] durations = new long[PHASES.length];
+    private long serializationStart;
+
+    private ServerTiming() {
+    }
+
+    // ========== CICLO DE VIDA (filtro) ==========
+
+    public static ServerTiming bind() {
+        ServerTiming timing = new ServerTiming();
+        CURRENT.set(timing);
+        return timing;
+    }
+
+    public static void unbind() {
+        CURRENT.remove();
+    }
+
+    public static ServerTiming current() {
+        return CURRENT.get();
+    }
+
+    // Asocia el registro del hilo que envía la tarea al hilo del pool que la ejecuta
+    public static Runnable wrap(Runnable task) {
+        ServerTiming timing = CURRENT.get();
+        if (timing == null) {
+            return task;
+        }
+        return () -> {
+            ServerTiming previous = CURRENT.get();
+            CURRENT.set(timing);
+            try {
+                task.run();
+            } finally {
+                if (previous == null) {
+                    CURRENT.remove();
+                } else {
+                    CURRENT.set(previous);
+                }
+            }
+        };
+    }
+
+    // Restaura un registro en el hilo del despacho asíncrono
+    public static void rebind(ServerTiming timing) {
+        CURRENT.set(timing);
+    }
+
+    // ========== MEDICIÓN ==========
+
+    public static long start() {
+        return CURRENT.get() == null ? 0L : System.nanoTime();
+    }
+
+    public static void stop(Phase phase, long start) {
+        if (start == 0L) {
+            return;
+        }
+        ServerTiming timing = CURRENT.get();
+        if (timing != null) {
+            timing.durations[phase.ordinal()] += System.nanoTime() - start;
+        }
+    }
+
+    // La serialización empieza justo antes de escribir el cuerpo y termina al cerrar la petición
+    public static void markSerializationStart() {
+        ServerTiming timing = CURRENT.get();
+        if (timing != null) {
+            timing.serializationStart = System.nanoTime();
+        }
+    }
+
+    // Acumula una fase medida fuera del hilo de la petición (llamadas reactivas)
+    public void add(Phase phase, long nanos) {
+        durations[phase.ordinal()] += nanos;
+    }
+
+    public long duration(Phase phase) {
+        return durations[phase.ordinal()];
+    }
+
+    /**
+     * Cierra la medición y devuelve el valor de la cabecera, p. ej.
+     * "val;dur=0.05, user;dur=12.31, db;dur=2.40, ser;dur=0.21, total;dur=16.02".
+     * Solo se incluyen las fases con tiempo registrado.
+     */
+    public String finish() {
+        long now = System.nanoTime();
+        if (serializationStart != 0L) {
+            durations[Phase.SERIALIZATION.ordinal()] += now - serializationStart;
+            serializationStart = 0L;
+        }
+
+        StringBuilder header = new StringBuilder(128);
+        for (Phase phase : PHASES) {
+            if (durations[phase.ordinal()] > 0) {
+                appendMetric(header, phase.getMetricName(), phase.getDescription(), durations[phase.ordinal()]);
+            }
+        }
+        appendMetric(header, "total", null, now - begin);
+        return header.toString();
+    }
+
+    private static void appendMetric(StringBuilder header, String name, String description, long nanos) {
+        if (header.length() > 0) {
+            header.append(", ");
+        }
+        header.append(name);
+        if (description != null) {
+            header.append(";desc=\"").append(description).append('"');
+        }
+        // Milisegundos con dos decimales
+        long hundredths = nanos / 10_000;
+        header.append(";dur=").append(hundredths / 100).append('.');
+        long fraction = hundredths % 100;
+        if (fraction < 10) {
+            header.append('0');
+        }
+        header.append(fraction);
+    }
+}
@@ -0,0 +1,79 @@
+package com.project_final.order_service.metrics;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import org.springframework.web.util.WebUtils;
+
+import java.io.IOException;
+
+/**
+ * Añade la cabecera Server-Timing a las respuestas de la API.
+ *
+ * El cuerpo se retiene en memoria hasta terminar la petición: la cabecera debe enviarse
+ * antes que el cuerpo y la serialización solo se conoce después de escribirlo.
+ * En los endpoints asíncronos el registro se guarda en la petición al liberar el hilo
+ * de Tomcat y la cabecera se escribe al terminar el despacho asíncrono.
+ * El feed de cambios (SSE) no pasa por aquí: retener su cuerpo impediría el streaming.
+ * Se activa con order.server-timing.enabled=true.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+@ConditionalOnProperty(name = "order.server-timing.enabled", havingValue = "true")
+public class ServerTimingFilter extends OncePerRequestFilter {
+
+    private static final String FEED_PATH = "/api/orders/feed";
+    private static final String TIMING_ATTRIBUTE = ServerTimingFilter.class.getName() + ".timing";
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String uri = request.getRequestURI();
+        return !uri.startsWith("/api/") || uri.startsWith(FEED_PATH);
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        ServerTiming timing = (ServerTiming) request.getAttribute(TIMING_ATTRIBUTE);
+        if (isAsyncDispatch(request) && timing != null) {
+            ServerTiming.rebind(timing);
+        } else {
+            timing = ServerTiming.bind();
+        }
+
+        // En el despacho asíncrono la respuesta ya viene envuelta desde la petición inicial
+        HttpServletResponse responseToUse = response;
+        if (WebUtils.getNativeResponse(response, ContentCachingResponseWrapper.class) == null) {
+            responseToUse = new ContentCachingResponseWrapper(response);
+        }
+
+        try {
+            filterChain.doFilter(request, responseToUse);
+        } finally {
+            ServerTiming.unbind();
+            if (isAsyncStarted(request)) {
+                // La respuesta se completa en el despacho asíncrono
+                request.setAttribute(TIMING_ATTRIBUTE, timing);
+            } else {
+                ContentCachingResponseWrapper wrapper =
+                        WebUtils.getNativeResponse(responseToUse, ContentCachingResponseWrapper.class);
+                wrapper.setHeader(ServerTiming.HEADER, timing.finish());
+                // Necesaria para que el navegador muestre los tiempos en peticiones de otro origen
+                wrapper.setHeader("Timing-Allow-Origin", "*");
+                wrapper.copyBodyToResponse();
+            }
+        }
+    }
+}
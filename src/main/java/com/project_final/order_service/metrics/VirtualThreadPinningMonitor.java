@@ -0,0 +1,118 @@
+package com.project_final.order_service.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Detecta hilos virtuales anclados a su hilo portador (pinning) escuchando el evento
+ * JFR jdk.VirtualThreadPinned: ocurre al bloquearse dentro de un bloque synchronized,
+ * típicamente en el driver JDBC o en el pool de conexiones.
+ *
+ * Cada anclaje se cuenta en order.virtual.pinned, etiquetado con el primer frame del
+ * código que lo provoca fuera del JDK. La primera vez que aparece un frame se registra
+ * la pila completa en el log.
+ */
+public class VirtualThreadPinningMonitor implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+
+    public static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    public static final String PINNED = "order.virtual.pinned";
+
+    private static final int MAX_LOGGED_FRAMES = 30;
+
+    private final MeterRegistry meterRegistry;
+    private final Duration threshold;
+    private final Map<String, Boolean> reportedFrames = new ConcurrentHashMap<>();
+
+    private volatile RecordingStream stream;
+
+    public VirtualThreadPinningMonitor(MeterRegistry meterRegistry, Duration threshold) {
+        this.meterRegistry = meterRegistry;
+        this.threshold = threshold;
+    }
+
+    @Override
+    public void start() {
+        RecordingStream recording = new RecordingStream();
+        recording.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        recording.onEvent(PINNED_EVENT, this::onPinned);
+        recording.startAsync();
+        stream = recording;
+        logger.info("Monitor de pinning de hilos virtuales activo (umbral {} ms)", threshold.toMillis());
+    }
+
+    @Override
+    public void stop() {
+        RecordingStream recording = stream;
+        stream = null;
+        if (recording != null) {
+            recording.close();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return stream != null;
+    }
+
+    // Visibilidad de paquete para los tests
+    void onPinned(RecordedEvent event) {
+        String frame = firstApplicationFrame(event.getStackTrace());
+        Timer.builder(PINNED)
+                .description("Tiempo que un hilo virtual estuvo anclado a su hilo portador")
+                .tag("frame", frame)
+                .register(meterRegistry)
+                .record(event.getDuration());
+
+        if (reportedFrames.putIfAbsent(frame, Boolean.TRUE) == null) {
+            logger.warn("Hilo virtual anclado {} ms en {}:{}", event.getDuration().toMillis(), frame,
+                    describe(event.getStackTrace()));
+        }
+    }
+
+    static String firstApplicationFrame(RecordedStackTrace stackTrace) {
+        if (stackTrace == null) {
+            return "unknown";
+        }
+        for (RecordedFrame frame : stackTrace.getFrames()) {
+            if (!frame.isJavaFrame() || frame.getMethod() == null) {
+                continue;
+            }
+            String className = frame.getMethod().getType().getName();
+            if (!className.startsWith("java.") && !className.startsWith("jdk.") && !className.startsWith("sun.")) {
+                return className + "." + frame.getMethod().getName();
+            }
+        }
+        return "jdk";
+    }
+
+    private static String describe(RecordedStackTrace stackTrace) {
+        if (stackTrace == null) {
+            return " (sin pila)";
+        }
+        StringBuilder description = new StringBuilder();
+        List<RecordedFrame> frames = stackTrace.getFrames();
+        for (int i = 0; i < frames.size() && i < MAX_LOGGED_FRAMES; i++) {
+            RecordedFrame frame = frames.get(i);
+            if (frame.getMethod() != null) {
+                description.append(System.lineSeparator()).append("\tat ")
+                        .append(frame.getMethod().getType().getName()).append('.')
+                        .append(frame.getMethod().getName()).append(':').append(frame.getLineNumber());
+            }
+        }
+        return description.toString();
+    }
+}
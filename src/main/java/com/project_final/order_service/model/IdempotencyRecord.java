@@ -0,0 +1,110 @@
+package com.project_final.order_service.model;
+
+import jakarta.persistence.*;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+
+/**
+ * Resultado de una petición con cabecera Idempotency-Key.
+ *
+ * La clave la asigna el cliente, así que la entidad implementa Persistable: el primer save
+ * es siempre un INSERT y un duplicado choca con la clave primaria en lugar de sobrescribirla.
+ */
+@Entity
+@Table(name = "idempotency_keys", indexes = @Index(name = "idx_idempotency_expires_at", columnList = "expires_at"))
+public class IdempotencyRecord implements Persistable<String> {
+
+    @Id
+    @Column(name = "idempotency_key", length = 320)
+    private String key;
+
+    // SHA-256 del cuerpo de la petición: la misma clave con otro cuerpo es un error del cliente
+    @Column(name = "request_hash", nullable = false, length = 64)
+    private String requestHash;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 16)
+    private Status status;
+
+    @Column(name = "response_status")
+    private Integer responseStatus;
+
+    @Lob
+    @Column(name = "response_body")
+    private String responseBody;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    @Transient
+    private boolean isNew = true;
+
+    public enum Status {
+        IN_PROGRESS, COMPLETED
+    }
+
+    protected IdempotencyRecord() {
+    }
+
+    public IdempotencyRecord(String key, String requestHash, LocalDateTime expiresAt) {
+        this.key = key;
+        this.requestHash = requestHash;
+        this.status = Status.IN_PROGRESS;
+        this.createdAt = LocalDateTime.now();
+        this.expiresAt = expiresAt;
+    }
+
+    public void complete(int responseStatus, String responseBody) {
+        this.status = Status.COMPLETED;
+        this.responseStatus = responseStatus;
+        this.responseBody = responseBody;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.isNew = false;
+    }
+
+    @Override
+    public String getId() {
+        return key;
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public String getRequestHash() {
+        return requestHash;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public Integer getResponseStatus() {
+        return responseStatus;
+    }
+
+    public String getResponseBody() {
+        return responseBody;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+}
@@ -1,11 +1,15 @@
 package com.project_final.order_service.model;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import jakarta.persistence.*;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 
 @Entity
-@Table(name = "orders")
+// El índice cubre la consulta de versión de las órdenes de un usuario (ETag de /user/{userId})
+@Table(name = "orders", indexes = @Index(name = "idx_orders_user_updated", columnList = "user_id, updated_at"))
 public class Order {
 
     @Id
@@ -38,6 +42,17 @@ public class Order {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    // Órdenes con varias líneas: productId y quantity son los de la primera línea y totalPrice
+    // el de toda la orden. Nulo en las órdenes de un solo producto
+    @Column(name = "item_count")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Integer itemCount;
+
+    // Las líneas viven en order_items y OrderService las carga solo si itemCount > 1
+    @Transient
+    @JsonInclude(JsonInclude.Include.NON_EMPTY)
+    private List<OrderItem> items = new ArrayList<>();
+
     // Enum para estados de la orden
     public enum OrderStatus {
         PENDING, CONFIRMED, CANCELLED, DELIVERED
@@ -137,6 +152,34 @@ public class Order {
         this.updatedAt = updatedAt;
     }
 
+    public Integer getItemCount() {
+        return itemCount;
+    }
+
+    public boolean hasItems() {
+        return itemCount != null && itemCount > 1;
+    }
+
+    public List<OrderItem> getItems() {
+        return items;
+    }
+
+    // Asigna las líneas y deja la cabecera con la primera línea y el total de la orden
+    public void setItems(List<OrderItem> items) {
+        this.items = items;
+        this.itemCount = items.size();
+        if (!items.isEmpty()) {
+            this.productId = items.get(0).getProductId();
+            this.quantity = items.get(0).getQuantity();
+            this.totalPrice = items.stream().map(OrderItem::getLineTotal).reduce(BigDecimal.ZERO, BigDecimal::add);
+        }
+    }
+
+    // Líneas cargadas de order_items, sin tocar la cabecera
+    public void attachItems(List<OrderItem> items) {
+        this.items = items;
+    }
+
     @PreUpdate
     protected void onUpdate() {
         this.updatedAt = LocalDateTime.now();
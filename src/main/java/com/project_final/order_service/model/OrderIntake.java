@@ -0,0 +1,188 @@
+package com.project_final.order_service.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.project_final.order_service.Dto.CreateOrderRequest;
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Petición de creación de orden aceptada por /api/orders/intake y pendiente de procesar.
+ *
+ * La tabla es la cola: una fila QUEUED se reclama (PROCESSING) con un UPDATE condicional,
+ * así que varias instancias pueden compartirla sin procesar dos veces la misma entrada.
+ * La referencia identifica la entrada antes de tener ID (diario de la cola de entrada).
+ */
+@Entity
+@Table(name = "order_intake", indexes = @Index(name = "idx_order_intake_status", columnList = "status, available_at"))
+public class OrderIntake {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "reference", length = 36, unique = true)
+    private String reference;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    @Column(nullable = false)
+    private Integer quantity;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 16)
+    private Status status;
+
+    // Orden creada al completarse
+    @Column(name = "order_id")
+    private Long orderId;
+
+    @Column(name = "error_code", length = 64)
+    private String errorCode;
+
+    @Column(name = "error_message", length = 500)
+    private String errorMessage;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    // Antes de esta fecha no se reclama (espera entre reintentos)
+    @JsonIgnore
+    @Column(name = "available_at", nullable = false)
+    private LocalDateTime availableAt;
+
+    @JsonIgnore
+    @Column(name = "claim_token", length = 36)
+    private String claimToken;
+
+    @JsonIgnore
+    @Version
+    private Long version;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    public enum Status {
+        QUEUED, PROCESSING, COMPLETED, FAILED
+    }
+
+    protected OrderIntake() {
+    }
+
+    public OrderIntake(CreateOrderRequest request) {
+        this(UUID.randomUUID().toString(), request, LocalDateTime.now());
+    }
+
+    public OrderIntake(String reference, CreateOrderRequest request, LocalDateTime createdAt) {
+        this.reference = reference;
+        this.userId = request.getUserId();
+        this.productId = request.getProductId();
+        this.quantity = request.getQuantity();
+        this.status = Status.QUEUED;
+        this.createdAt = createdAt;
+        this.updatedAt = createdAt;
+        this.availableAt = createdAt;
+    }
+
+    public CreateOrderRequest toRequest() {
+        return new CreateOrderRequest(userId, productId, quantity);
+    }
+
+    public void complete(Long orderId) {
+        this.status = Status.COMPLETED;
+        this.orderId = orderId;
+        this.errorCode = null;
+        this.errorMessage = null;
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    public void fail(String errorCode, String errorMessage) {
+        this.status = Status.FAILED;
+        this.errorCode = errorCode;
+        this.errorMessage = truncate(errorMessage);
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    // Vuelve a la cola tras un fallo transitorio
+    public void retryAt(LocalDateTime availableAt, String errorMessage) {
+        this.status = Status.QUEUED;
+        this.claimToken = null;
+        this.availableAt = availableAt;
+        this.errorMessage = truncate(errorMessage);
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    @JsonIgnore
+    public boolean isFinished() {
+        return status == Status.COMPLETED || status == Status.FAILED;
+    }
+
+    private static String truncate(String message) {
+        return message != null && message.length() > 500 ? message.substring(0, 500) : message;
+    }
+
+    // Getters
+    public Long getId() {
+        return id;
+    }
+
+    public String getReference() {
+        return reference;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public Integer getQuantity() {
+        return quantity;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public Long getOrderId() {
+        return orderId;
+    }
+
+    public String getErrorCode() {
+        return errorCode;
+    }
+
+    public String getErrorMessage() {
+        return errorMessage;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public LocalDateTime getAvailableAt() {
+        return availableAt;
+    }
+
+    public String getClaimToken() {
+        return claimToken;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+}
@@ -0,0 +1,133 @@
+package com.project_final.order_service.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.*;
+import org.springframework.data.domain.Persistable;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.util.Objects;
+
+/**
+ * Línea de una orden con varios productos.
+ *
+ * La clave es (order_id, line_number) y la asigna OrderService, sin IDENTITY: así Hibernate
+ * agrupa los INSERT de todas las líneas en un lote JDBC (hibernate.jdbc.batch_size). Por la
+ * misma razón implementa Persistable y el primer save es siempre un INSERT sin SELECT previo.
+ */
+@Entity
+@Table(name = "order_items")
+@IdClass(OrderItem.Key.class)
+public class OrderItem implements Persistable<OrderItem.Key> {
+
+    @Id
+    @Column(name = "order_id")
+    private Long orderId;
+
+    @Id
+    @Column(name = "line_number")
+    private Integer lineNumber;
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    @Column(nullable = false)
+    private Integer quantity;
+
+    @Column(name = "unit_price", nullable = false, precision = 10, scale = 2)
+    private BigDecimal unitPrice;
+
+    @Column(name = "line_total", nullable = false, precision = 10, scale = 2)
+    private BigDecimal lineTotal;
+
+    @Transient
+    private boolean isNew = true;
+
+    protected OrderItem() {
+    }
+
+    public OrderItem(Integer lineNumber, Long productId, Integer quantity, BigDecimal unitPrice) {
+        this.lineNumber = lineNumber;
+        this.productId = productId;
+        this.quantity = quantity;
+        this.unitPrice = unitPrice;
+        this.lineTotal = unitPrice.multiply(BigDecimal.valueOf(quantity));
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.isNew = false;
+    }
+
+    @Override
+    @JsonIgnore
+    public Key getId() {
+        return new Key(orderId, lineNumber);
+    }
+
+    @Override
+    @JsonIgnore
+    public boolean isNew() {
+        return isNew;
+    }
+
+    @JsonIgnore
+    public Long getOrderId() {
+        return orderId;
+    }
+
+    public void setOrderId(Long orderId) {
+        this.orderId = orderId;
+    }
+
+    public Integer getLineNumber() {
+        return lineNumber;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public Integer getQuantity() {
+        return quantity;
+    }
+
+    public BigDecimal getUnitPrice() {
+        return unitPrice;
+    }
+
+    public BigDecimal getLineTotal() {
+        return lineTotal;
+    }
+
+    public static class Key implements Serializable {
+
+        private Long orderId;
+        private Integer lineNumber;
+
+        public Key() {
+        }
+
+        public Key(Long orderId, Integer lineNumber) {
+            this.orderId = orderId;
+            this.lineNumber = lineNumber;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key other)) {
+                return false;
+            }
+            return Objects.equals(orderId, other.orderId) && Objects.equals(lineNumber, other.lineNumber);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(orderId, lineNumber);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.project_final.order_service.repositories;
+
+import com.project_final.order_service.model.OrderIntake;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface OrderIntakeRepository extends JpaRepository<OrderIntake, Long> {
+
+    // Entradas listas para procesar, en orden de llegada
+    @Query("SELECT i.id FROM OrderIntake i WHERE i.status = :status AND i.availableAt <= :now ORDER BY i.id")
+    List<Long> findReadyIds(@Param("status") OrderIntake.Status status, @Param("now") LocalDateTime now,
+                            Pageable pageable);
+
+    // Reclama un lote en una sola sentencia: solo se queda con las filas que siguen en la cola
+    @Modifying
+    @Transactional
+    @Query("UPDATE OrderIntake i SET i.status = :processing, i.claimToken = :token, i.attempts = i.attempts + 1, " +
+            "i.version = i.version + 1, i.updatedAt = :now WHERE i.id IN :ids AND i.status = :queued")
+    int claim(@Param("ids") Collection<Long> ids, @Param("token") String token,
+              @Param("queued") OrderIntake.Status queued, @Param("processing") OrderIntake.Status processing,
+              @Param("now") LocalDateTime now);
+
+    List<OrderIntake> findByClaimTokenAndStatus(String claimToken, OrderIntake.Status status);
+
+    // Devuelve a la cola las entradas abandonadas por una instancia caída a mitad de proceso
+    @Modifying
+    @Transactional
+    @Query("UPDATE OrderIntake i SET i.status = :queued, i.claimToken = NULL, i.version = i.version + 1, " +
+            "i.updatedAt = :now WHERE i.status = :processing AND i.updatedAt < :before")
+    int requeueStale(@Param("queued") OrderIntake.Status queued, @Param("processing") OrderIntake.Status processing,
+                     @Param("before") LocalDateTime before, @Param("now") LocalDateTime now);
+
+    long countByStatus(OrderIntake.Status status);
+
+    Optional<OrderIntake> findByReference(String reference);
+
+    // Referencias ya guardadas: al repetir el diario tras una caída se descartan
+    @Query("SELECT i.reference FROM OrderIntake i WHERE i.reference IN :references")
+    List<String> findExistingReferences(@Param("references") Collection<String> references);
+}
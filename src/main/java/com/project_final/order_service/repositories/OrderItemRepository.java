@@ -0,0 +1,24 @@
+package com.project_final.order_service.repositories;
+
+import com.project_final.order_service.model.OrderItem;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OrderItemRepository extends JpaRepository<OrderItem, OrderItem.Key> {
+
+    List<OrderItem> findByOrderIdOrderByLineNumber(Long orderId);
+
+    // Líneas de varias órdenes en una sola consulta (listados)
+    List<OrderItem> findByOrderIdInOrderByOrderIdAscLineNumberAsc(Collection<Long> orderIds);
+
+    @Modifying
+    @Query("DELETE FROM OrderItem i WHERE i.orderId = :orderId")
+    int deleteByOrderId(@Param("orderId") Long orderId);
+}
@@ -0,0 +1,32 @@
+package com.project_final.order_service.repositories;
+
+import java.time.LocalDateTime;
+
+/**
+ * Resumen de un conjunto de órdenes que cambia si cualquiera de ellas se crea, se modifica o se borra.
+ */
+public class OrderListVersion {
+
+    private final long count;
+    private final Long maxId;
+    private final LocalDateTime maxUpdatedAt;
+
+    // Long y no long: es el tipo que devuelve COUNT en la consulta JPQL
+    public OrderListVersion(Long count, Long maxId, LocalDateTime maxUpdatedAt) {
+        this.count = count;
+        this.maxId = maxId;
+        this.maxUpdatedAt = maxUpdatedAt;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public Long getMaxId() {
+        return maxId;
+    }
+
+    public LocalDateTime getMaxUpdatedAt() {
+        return maxUpdatedAt;
+    }
+}
@@ -8,6 +8,7 @@ import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Long> {
@@ -15,9 +16,23 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
     // Buscar órdenes por usuario
     List<Order> findByUserIdOrderByOrderDateDesc(Long userId);
 
+    // Versión de las órdenes del usuario para su ETag: solo lee el índice (user_id, updated_at)
+    @Query("SELECT new com.project_final.order_service.repositories.OrderListVersion(COUNT(o), MAX(o.id), MAX(o.updatedAt)) " +
+            "FROM Order o WHERE o.userId = :userId")
+    OrderListVersion findVersionByUserId(@Param("userId") Long userId);
+
+    // Fecha de modificación de la orden, sin cargar la entidad
+    @Query("SELECT o.updatedAt FROM Order o WHERE o.id = :id")
+    Optional<LocalDateTime> findUpdatedAtById(@Param("id") Long id);
+
     // Buscar órdenes por producto
     List<Order> findByProductIdOrderByOrderDateDesc(Long productId);
 
+    // Buscar órdenes por producto, también en cualquier línea de las órdenes con varios productos
+    @Query("SELECT o FROM Order o WHERE o.productId = :productId OR o.id IN " +
+            "(SELECT i.orderId FROM OrderItem i WHERE i.productId = :productId) ORDER BY o.orderDate DESC")
+    List<Order> findContainingProduct(@Param("productId") Long productId);
+
     // Buscar órdenes por estado
     List<Order> findByStatusOrderByOrderDateDesc(Order.OrderStatus status);
 
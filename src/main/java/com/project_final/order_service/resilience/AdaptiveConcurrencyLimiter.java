@@ -0,0 +1,151 @@
+package com.project_final.order_service.resilience;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Límite de peticiones concurrentes que se adapta a la latencia medida (algoritmo de gradiente).
+ *
+ * - La latencia mínima de las últimas ventanas de muestras aproxima la latencia sin cola; se
+ *   compara con la media reciente. Si la reciente supera tolerance veces la mínima, las peticiones
+ *   están haciendo cola en algún recurso (MySQL, Product Service) y el límite baja en proporción.
+ *   Si no, sube poco a poco (raíz cuadrada del límite) para buscar capacidad libre.
+ * - La mínima se renueva cada ventana: si el servicio se vuelve más lento de forma permanente
+ *   (otra consulta, otro hardware), la nueva latencia pasa a ser la referencia.
+ * - Una petición fallida por saturación recorta el límite multiplicativamente.
+ * - Con menos de la mitad del límite en uso la latencia no dice nada de la capacidad y el
+ *   límite no se mueve.
+ * - tryAcquire(share) admite solo si las peticiones en curso no llegan a share × límite: una
+ *   clase de menor prioridad con share < 1 se rechaza antes y deja hueco a la principal.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    // Muestras por ventana de latencia mínima
+    private static final int RTT_WINDOW = 500;
+    private static final double SHORT_RTT_ALPHA = 0.1;
+    private static final double MIN_GRADIENT = 0.5;
+    private static final double DROP_BACKOFF = 0.9;
+
+    private final String name;
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final double smoothing;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile double limit;
+    private long minRttNanos = Long.MAX_VALUE;
+    private long windowMinRttNanos = Long.MAX_VALUE;
+    private int windowSamples;
+    private double shortRttNanos = -1;
+
+    public AdaptiveConcurrencyLimiter(String name, int initialLimit, int minLimit, int maxLimit,
+                                      double tolerance, double smoothing) {
+        this.name = name;
+        this.minLimit = Math.max(1, minLimit);
+        this.maxLimit = Math.max(this.minLimit, maxLimit);
+        this.tolerance = tolerance;
+        this.smoothing = smoothing;
+        this.limit = clamp(initialLimit);
+    }
+
+    /**
+     * Reserva un hueco si hay capacidad para esta clase de petición, o devuelve null.
+     * El permiso debe cerrarse siempre con onSuccess, onDropped u onIgnore.
+     */
+    public Permit tryAcquire(double share) {
+        int allowed = Math.max(1, (int) (limit * share));
+        while (true) {
+            int current = inFlight.get();
+            if (current >= allowed) {
+                return null;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return new Permit(current + 1);
+            }
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    // ========== MÉTODOS PRIVADOS ==========
+
+    // Visibilidad de paquete para los tests
+    synchronized void onSample(long rttNanos, int inFlightAtStart) {
+        if (rttNanos <= 0) {
+            return;
+        }
+        windowMinRttNanos = Math.min(windowMinRttNanos, rttNanos);
+        if (++windowSamples >= RTT_WINDOW) {
+            minRttNanos = windowMinRttNanos;
+            windowMinRttNanos = Long.MAX_VALUE;
+            windowSamples = 0;
+        }
+        shortRttNanos = shortRttNanos < 0 ? rttNanos : shortRttNanos + (rttNanos - shortRttNanos) * SHORT_RTT_ALPHA;
+
+        double current = limit;
+        if (inFlightAtStart < current / 2) {
+            return;
+        }
+        long baselineNanos = Math.min(minRttNanos, windowMinRttNanos);
+        double gradient = Math.max(MIN_GRADIENT, Math.min(1.0, tolerance * baselineNanos / shortRttNanos));
+        double target = current * gradient + Math.sqrt(current);
+        limit = clamp(current * (1 - smoothing) + target * smoothing);
+    }
+
+    private synchronized void onDrop() {
+        limit = clamp(limit * DROP_BACKOFF);
+    }
+
+    private double clamp(double value) {
+        return Math.max(minLimit, Math.min(maxLimit, value));
+    }
+
+    public final class Permit {
+
+        private final long startNanos = System.nanoTime();
+        private final int inFlightAtStart;
+        private boolean released;
+
+        private Permit(int inFlightAtStart) {
+            this.inFlightAtStart = inFlightAtStart;
+        }
+
+        // Petición atendida: su latencia alimenta el límite
+        public void onSuccess() {
+            if (release()) {
+                onSample(System.nanoTime() - startNanos, inFlightAtStart);
+            }
+        }
+
+        // Petición fallida por saturación: el límite se recorta
+        public void onDropped() {
+            if (release()) {
+                onDrop();
+            }
+        }
+
+        // Petición que no dice nada de la capacidad (por ejemplo, cancelada por el cliente)
+        public void onIgnore() {
+            release();
+        }
+
+        private boolean release() {
+            if (released) {
+                return false;
+            }
+            released = true;
+            inFlight.decrementAndGet();
+            return true;
+        }
+    }
+}
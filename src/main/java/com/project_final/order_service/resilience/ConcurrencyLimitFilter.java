@@ -0,0 +1,151 @@
+package com.project_final.order_service.resilience;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project_final.order_service.exceptions.GlobalExceptionHandler.ErrorResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+
+/**
+ * Limita las peticiones concurrentes de OrderController antes de que lleguen a hacer cola en
+ * Tomcat, MySQL o Product Service.
+ *
+ * - Escrituras y lecturas tienen cada una su AdaptiveConcurrencyLimiter.
+ * - Las estadísticas (/api/orders/stats/**) comparten el límite de lecturas pero solo pueden
+ *   ocupar stats-share de él: con el servicio saturado se rechazan antes que las lecturas.
+ * - Lo que no cabe se rechaza al momento con 503 SERVICE_OVERLOADED y Retry-After, en lugar
+ *   de esperar y agotar el plazo de todas las peticiones a la vez.
+ * - Solo recorta el límite un fallo por saturación, que GlobalExceptionHandler marca con
+ *   markOverloaded: pool de E/S lleno, plazo o espera asíncrona agotados y 5xx o errores de E/S
+ *   de los servicios remotos. Un 503 por un usuario inexistente no dice nada de la capacidad.
+ * - Los endpoints /async, /reactive, /intake y /feed tienen su propia protección y no pasan por aquí.
+ */
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConcurrencyLimitFilter.class);
+
+    public static final String REJECTED = "order.concurrency.rejected";
+
+    private static final String OVERLOADED = ConcurrencyLimitFilter.class.getName() + ".OVERLOADED";
+
+    private static final String BASE_PATH = "/api/orders";
+    private static final String[] EXCLUDED_PATHS = {"/api/orders/async", "/api/orders/reactive", "/api/orders/intake",
+            "/api/orders/feed"};
+
+    enum RequestClass {
+        WRITE, READ, STATS
+    }
+
+    private final AdaptiveConcurrencyLimiter writeLimiter;
+    private final AdaptiveConcurrencyLimiter readLimiter;
+    private final double statsShare;
+    private final long retryAfterSeconds;
+    private final MeterRegistry meterRegistry;
+    private final ObjectMapper objectMapper;
+
+    public ConcurrencyLimitFilter(AdaptiveConcurrencyLimiter writeLimiter, AdaptiveConcurrencyLimiter readLimiter,
+                                  double statsShare, long retryAfterSeconds, MeterRegistry meterRegistry,
+                                  ObjectMapper objectMapper) {
+        this.writeLimiter = writeLimiter;
+        this.readLimiter = readLimiter;
+        this.statsShare = statsShare;
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.meterRegistry = meterRegistry;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String uri = request.getRequestURI();
+        if (!uri.equals(BASE_PATH) && !uri.startsWith(BASE_PATH + "/")) {
+            return true;
+        }
+        for (String excluded : EXCLUDED_PATHS) {
+            if (uri.equals(excluded) || uri.startsWith(excluded + "/")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        RequestClass requestClass = classify(request);
+        AdaptiveConcurrencyLimiter limiter = requestClass == RequestClass.WRITE ? writeLimiter : readLimiter;
+        AdaptiveConcurrencyLimiter.Permit permit = limiter.tryAcquire(
+                requestClass == RequestClass.STATS ? statsShare : 1.0);
+
+        if (permit == null) {
+            reject(request, response, requestClass, limiter);
+            return;
+        }
+
+        boolean completed = false;
+        try {
+            filterChain.doFilter(request, response);
+            completed = true;
+        } finally {
+            if (!completed || isOverloaded(request)) {
+                permit.onDropped();
+            } else if (response.getStatus() >= 500) {
+                // Error que no viene de la saturación: su latencia tampoco sirve de muestra
+                permit.onIgnore();
+            } else {
+                permit.onSuccess();
+            }
+        }
+    }
+
+    // La petición falló por saturación del servicio o de sus dependencias
+    public static void markOverloaded(HttpServletRequest request) {
+        request.setAttribute(OVERLOADED, Boolean.TRUE);
+    }
+
+    public static boolean isOverloaded(HttpServletRequest request) {
+        return request.getAttribute(OVERLOADED) != null;
+    }
+
+    // Visibilidad de paquete para los tests
+    static RequestClass classify(HttpServletRequest request) {
+        if (!"GET".equalsIgnoreCase(request.getMethod()) && !"HEAD".equalsIgnoreCase(request.getMethod())) {
+            return RequestClass.WRITE;
+        }
+        return request.getRequestURI().startsWith(BASE_PATH + "/stats") ? RequestClass.STATS : RequestClass.READ;
+    }
+
+    // ========== MÉTODOS PRIVADOS ==========
+
+    private void reject(HttpServletRequest request, HttpServletResponse response, RequestClass requestClass,
+                        AdaptiveConcurrencyLimiter limiter) throws IOException {
+        meterRegistry.counter(REJECTED, "class", requestClass.name().toLowerCase()).increment();
+        logger.debug("Petición {} {} rechazada: {} en curso con límite {}", request.getMethod(),
+                request.getRequestURI(), limiter.getInFlight(), limiter.getLimit());
+
+        ErrorResponse errorResponse = ErrorResponse.builder()
+                .errorCode("SERVICE_OVERLOADED")
+                .message("Servicio saturado")
+                .details("Demasiadas peticiones en curso. Inténtelo de nuevo más tarde.")
+                .timestamp(LocalDateTime.now())
+                .path(request.getRequestURI())
+                .status(HttpStatus.SERVICE_UNAVAILABLE.value())
+                .build();
+
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        objectMapper.writeValue(response.getOutputStream(), errorResponse);
+    }
+}
@@ -0,0 +1,100 @@
+package com.project_final.order_service.resilience;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * Plazo máximo de una petición, compartido por todas las llamadas remotas que hace.
+ *
+ * Se fija en DeadlineFilter a partir de la cabecera X-Request-Timeout (milisegundos
+ * relativos, sin depender de relojes sincronizados) o del valor por defecto, y se asocia
+ * al hilo de la petición como ServerTiming. Cada llamada remota usa como timeout lo que
+ * queda del plazo y lo reenvía en la misma cabecera al servicio llamado.
+ */
+public final class Deadline {
+
+    public static final String HEADER = "X-Request-Timeout";
+
+    private static final ThreadLocal<Deadline> CURRENT = new ThreadLocal<>();
+
+    private final long deadlineNanos;
+
+    private Deadline(long deadlineNanos) {
+        this.deadlineNanos = deadlineNanos;
+    }
+
+    public static Deadline after(Duration budget) {
+        return new Deadline(System.nanoTime() + budget.toNanos());
+    }
+
+    // ========== CICLO DE VIDA (filtro) ==========
+
+    public static void bind(Deadline deadline) {
+        CURRENT.set(deadline);
+    }
+
+    public static void unbind() {
+        CURRENT.remove();
+    }
+
+    public static Deadline current() {
+        return CURRENT.get();
+    }
+
+    // Asocia el plazo del hilo que envía la tarea al hilo del pool que la ejecuta
+    public static Runnable wrap(Runnable task) {
+        Deadline deadline = CURRENT.get();
+        if (deadline == null) {
+            return task;
+        }
+        return () -> {
+            Deadline previous = CURRENT.get();
+            CURRENT.set(deadline);
+            try {
+                task.run();
+            } finally {
+                if (previous == null) {
+                    CURRENT.remove();
+                } else {
+                    CURRENT.set(previous);
+                }
+            }
+        };
+    }
+
+    // Ejecuta una acción sin plazo (p. ej. una compensación que debe completarse)
+    public static <T> T withoutDeadline(Supplier<T> action) {
+        Deadline previous = CURRENT.get();
+        if (previous == null) {
+            return action.get();
+        }
+        CURRENT.remove();
+        try {
+            return action.get();
+        } finally {
+            CURRENT.set(previous);
+        }
+    }
+
+    // ========== PRESUPUESTO ==========
+
+    public long remainingMillis() {
+        return (deadlineNanos - System.nanoTime()) / 1_000_000;
+    }
+
+    public boolean isExpired() {
+        return deadlineNanos - System.nanoTime() <= 0;
+    }
+
+    /**
+     * Timeout a usar en una llamada: el menor entre el configurado y lo que queda del plazo,
+     * con un mínimo de 1 ms (0 significa "sin límite" para HttpURLConnection).
+     */
+    public int timeoutMillis(int configuredMillis) {
+        long remaining = Math.max(1, remainingMillis());
+        if (configuredMillis <= 0) {
+            return (int) Math.min(Integer.MAX_VALUE, remaining);
+        }
+        return (int) Math.min(configuredMillis, remaining);
+    }
+}
@@ -0,0 +1,37 @@
+package com.project_final.order_service.resilience;
+
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+
+import java.io.IOException;
+import java.net.HttpURLConnection;
+
+/**
+ * Fábrica de peticiones de RestTemplate que ajusta los timeouts de cada conexión a lo que
+ * queda del plazo de la petición y lo reenvía en X-Request-Timeout. Sin plazo asociado al
+ * hilo se usan los timeouts configurados.
+ */
+public class DeadlineClientHttpRequestFactory extends SimpleClientHttpRequestFactory {
+
+    private final int connectTimeoutMs;
+    private final int readTimeoutMs;
+
+    public DeadlineClientHttpRequestFactory(int connectTimeoutMs, int readTimeoutMs) {
+        this.connectTimeoutMs = connectTimeoutMs;
+        this.readTimeoutMs = readTimeoutMs;
+        setConnectTimeout(connectTimeoutMs);
+        setReadTimeout(readTimeoutMs);
+    }
+
+    @Override
+    protected void prepareConnection(HttpURLConnection connection, String httpMethod) throws IOException {
+        super.prepareConnection(connection, httpMethod);
+
+        Deadline deadline = Deadline.current();
+        if (deadline != null) {
+            connection.setConnectTimeout(deadline.timeoutMillis(connectTimeoutMs));
+            int readTimeout = deadline.timeoutMillis(readTimeoutMs);
+            connection.setReadTimeout(readTimeout);
+            connection.setRequestProperty(Deadline.HEADER, String.valueOf(readTimeout));
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.project_final.order_service.resilience;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * Fija el plazo de cada petición de la API: el indicado por el cliente en X-Request-Timeout,
+ * limitado a order.deadline.max-timeout-ms, o order.deadline.default-timeout-ms si no lo indica.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 5)
+@ConditionalOnProperty(name = "order.deadline.enabled", havingValue = "true", matchIfMissing = true)
+public class DeadlineFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(DeadlineFilter.class);
+
+    @Value("${order.deadline.default-timeout-ms:5000}")
+    private long defaultTimeoutMs;
+
+    @Value("${order.deadline.max-timeout-ms:30000}")
+    private long maxTimeoutMs;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        Deadline.bind(Deadline.after(Duration.ofMillis(budgetMillis(request.getHeader(Deadline.HEADER)))));
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            Deadline.unbind();
+        }
+    }
+
+    long budgetMillis(String header) {
+        if (header == null || header.isBlank()) {
+            return defaultTimeoutMs;
+        }
+        try {
+            long requested = Long.parseLong(header.trim());
+            if (requested <= 0) {
+                // El cliente ya no espera la respuesta
+                return 0;
+            }
+            return Math.min(requested, maxTimeoutMs);
+        } catch (NumberFormatException e) {
+            logger.debug("Cabecera {} inválida: {}", Deadline.HEADER, header);
+            return defaultTimeoutMs;
+        }
+    }
+}
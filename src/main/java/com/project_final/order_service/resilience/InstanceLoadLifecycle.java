@@ -0,0 +1,84 @@
+package com.project_final.order_service.resilience;
+
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerLifecycle;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.client.loadbalancer.ResponseData;
+import org.springframework.cloud.client.loadbalancer.TimedRequestContext;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.IOException;
+
+/**
+ * Informa a InstanceLoadTracker de cada petición de RestTemplate balanceada (@LoadBalanced):
+ * una petición más en curso al elegir instancia y su latencia y resultado al terminar.
+ * Un 5xx cuenta como fallo de la instancia; un 4xx es un error del llamante y no.
+ */
+public class InstanceLoadLifecycle implements LoadBalancerLifecycle<Object, Object, ServiceInstance> {
+
+    private final InstanceLoadTracker tracker;
+
+    public InstanceLoadLifecycle(InstanceLoadTracker tracker) {
+        this.tracker = tracker;
+    }
+
+    @Override
+    public boolean supports(Class requestContextClass, Class responseClass, Class serverTypeClass) {
+        return ServiceInstance.class.isAssignableFrom(serverTypeClass);
+    }
+
+    @Override
+    public void onStart(Request<Object> request) {
+    }
+
+    @Override
+    public void onStartRequest(Request<Object> request, Response<ServiceInstance> lbResponse) {
+        if (lbResponse == null || !lbResponse.hasServer()) {
+            return;
+        }
+        if (request.getContext() instanceof TimedRequestContext context) {
+            context.setRequestStartTime(System.nanoTime());
+        }
+        tracker.onStart(lbResponse.getServer());
+    }
+
+    @Override
+    public void onComplete(CompletionContext<Object, ServiceInstance, Object> completionContext) {
+        Response<ServiceInstance> lbResponse = completionContext.getLoadBalancerResponse();
+        if (lbResponse == null || !lbResponse.hasServer()) {
+            return;
+        }
+        ServiceInstance instance = lbResponse.getServer();
+        if (completionContext.status() == CompletionContext.Status.DISCARD) {
+            tracker.onCancel(instance);
+            return;
+        }
+        long startNanos = completionContext.getLoadBalancerRequest() != null
+                && completionContext.getLoadBalancerRequest().getContext() instanceof TimedRequestContext context
+                ? context.getRequestStartTime() : 0;
+        if (startNanos == 0) {
+            tracker.onCancel(instance);
+            return;
+        }
+        boolean success = completionContext.status() == CompletionContext.Status.SUCCESS
+                && !isServerError(completionContext.getClientResponse());
+        tracker.onComplete(instance, System.nanoTime() - startNanos, success);
+    }
+
+    private static boolean isServerError(Object response) {
+        HttpStatusCode status = null;
+        try {
+            if (response instanceof ClientHttpResponse clientResponse) {
+                status = clientResponse.getStatusCode();
+            } else if (response instanceof ResponseData responseData) {
+                status = responseData.getHttpStatus();
+            }
+        } catch (IOException e) {
+            return true;
+        }
+        return status != null && status.is5xxServerError();
+    }
+}
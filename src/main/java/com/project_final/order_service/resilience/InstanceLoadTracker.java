@@ -0,0 +1,250 @@
+package com.project_final.order_service.resilience;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.client.ServiceInstance;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Carga y latencia de cada instancia de User Service y Product Service, compartida por
+ * RestTemplate y WebClient.
+ *
+ * - Elección: de dos instancias al azar gana la de menor coste, latencia EWMA multiplicada
+ *   por las peticiones en curso + 1 ("power of two choices"). Evita que todas las peticiones
+ *   persigan a la misma instancia rápida.
+ * - Expulsión: una instancia sale de la rotación durante 'ejection' tras N fallos seguidos o
+ *   si su latencia supera 'slowFactor' veces la mediana de las demás. Nunca se expulsa más de
+ *   la fracción configurada de un servicio y, si todas están fuera, se usan todas.
+ * - Métricas: order.lb.ejections (por servicio, instancia y motivo) y order.lb.ejected
+ *   (instancias expulsadas ahora mismo por servicio).
+ */
+public class InstanceLoadTracker {
+
+    private static final Logger logger = LoggerFactory.getLogger(InstanceLoadTracker.class);
+
+    public static final String EJECTIONS = "order.lb.ejections";
+    public static final String EJECTED = "order.lb.ejected";
+
+    // Latencia supuesta de una instancia sin respuestas cuando ninguna otra tiene datos
+    private static final double DEFAULT_EWMA_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final MeterRegistry meterRegistry;
+    private final double alpha;
+    private final int failureThreshold;
+    private final double slowFactor;
+    private final long slowMinNanos;
+    private final int minSamples;
+    private final long ejectionNanos;
+    private final double maxEjectedRatio;
+    private final Map<String, Map<String, InstanceStats>> services = new ConcurrentHashMap<>();
+
+    public InstanceLoadTracker(MeterRegistry meterRegistry, double alpha, int failureThreshold,
+                               double slowFactor, long slowMinMs, int minSamples,
+                               long ejectionMs, double maxEjectedRatio) {
+        this.meterRegistry = meterRegistry;
+        this.alpha = alpha;
+        this.failureThreshold = failureThreshold;
+        this.slowFactor = slowFactor;
+        this.slowMinNanos = TimeUnit.MILLISECONDS.toNanos(slowMinMs);
+        this.minSamples = minSamples;
+        this.ejectionNanos = TimeUnit.MILLISECONDS.toNanos(ejectionMs);
+        this.maxEjectedRatio = maxEjectedRatio;
+    }
+
+    /**
+     * Elige instancia entre las que devuelve el registro. Devuelve null si la lista está vacía.
+     */
+    public ServiceInstance choose(List<ServiceInstance> instances) {
+        if (instances.isEmpty()) {
+            return null;
+        }
+        if (instances.size() == 1) {
+            return instances.get(0);
+        }
+
+        Map<String, InstanceStats> peers = peers(instances.get(0));
+        retainRegistered(peers, instances);
+
+        long now = System.nanoTime();
+        List<ServiceInstance> candidates = new ArrayList<>(instances.size());
+        List<InstanceStats> candidateStats = new ArrayList<>(instances.size());
+        for (ServiceInstance instance : instances) {
+            InstanceStats stats = stats(peers, instance);
+            if (stats.readmitIfExpired(now, medianEwma(peers.values(), stats))) {
+                logger.info("Instancia {} de {} readmitida en el balanceo", stats.address(), stats.service());
+            }
+            if (!stats.isEjected()) {
+                candidates.add(instance);
+                candidateStats.add(stats);
+            }
+        }
+        if (candidates.isEmpty()) {
+            // Mejor una instancia dudosa que ninguna
+            return instances.get(ThreadLocalRandom.current().nextInt(instances.size()));
+        }
+        if (candidates.size() == 1) {
+            return candidates.get(0);
+        }
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(candidates.size());
+        int second = random.nextInt(candidates.size() - 1);
+        if (second >= first) {
+            second++;
+        }
+        double median = medianEwma(candidateStats, null);
+        double defaultEwma = median > 0 ? median : DEFAULT_EWMA_NANOS;
+        return candidateStats.get(first).cost(defaultEwma) <= candidateStats.get(second).cost(defaultEwma)
+                ? candidates.get(first)
+                : candidates.get(second);
+    }
+
+    public void onStart(ServiceInstance instance) {
+        stats(peers(instance), instance).onStart();
+    }
+
+    public void onComplete(ServiceInstance instance, long nanos, boolean success) {
+        Map<String, InstanceStats> peers = peers(instance);
+        InstanceStats stats = stats(peers, instance);
+        stats.onComplete(nanos, success, alpha);
+        evaluate(peers, stats);
+    }
+
+    // Petición cancelada (timeout del llamante, hedge perdedor): no hay latencia que registrar
+    public void onCancel(ServiceInstance instance) {
+        stats(peers(instance), instance).onRelease();
+    }
+
+    public int outstanding(ServiceInstance instance) {
+        return stats(peers(instance), instance).outstanding();
+    }
+
+    public double latencyMillis(ServiceInstance instance) {
+        return stats(peers(instance), instance).ewmaNanos() / 1_000_000.0;
+    }
+
+    public boolean isEjected(ServiceInstance instance) {
+        return stats(peers(instance), instance).isEjected();
+    }
+
+    // ========== MÉTODOS PRIVADOS ==========
+
+    private void evaluate(Map<String, InstanceStats> peers, InstanceStats stats) {
+        if (stats.isEjected()) {
+            return;
+        }
+        String reason = null;
+        if (stats.consecutiveFailures() >= failureThreshold) {
+            reason = "failures";
+        } else if (stats.samples() >= minSamples) {
+            double ewma = stats.ewmaNanos();
+            double peerMedian = medianEwma(peers.values(), stats);
+            if (peerMedian > 0 && ewma > slowMinNanos && ewma > peerMedian * slowFactor) {
+                reason = "slow";
+            }
+        }
+        if (reason == null) {
+            return;
+        }
+
+        // Las expulsiones de un servicio se deciden de una en una para respetar el máximo
+        synchronized (peers) {
+            int ejected = countEjected(peers);
+            if (ejected + 1 > (int) (peers.size() * maxEjectedRatio) || stats.isEjected()) {
+                return;
+            }
+            stats.eject(System.nanoTime() + ejectionNanos);
+        }
+        meterRegistry.counter(EJECTIONS, "service", stats.service(), "instance", stats.address(), "reason", reason)
+                .increment();
+        logger.warn("Instancia {} de {} expulsada del balanceo durante {} ms ({}; latencia {} ms, {} fallos seguidos)",
+                stats.address(), stats.service(), TimeUnit.NANOSECONDS.toMillis(ejectionNanos), reason,
+                String.format(Locale.ROOT, "%.1f", stats.ewmaNanos() / 1_000_000.0), stats.consecutiveFailures());
+    }
+
+    private Map<String, InstanceStats> peers(ServiceInstance instance) {
+        String service = serviceOf(instance);
+        Map<String, InstanceStats> peers = services.get(service);
+        if (peers != null) {
+            return peers;
+        }
+        Map<String, InstanceStats> created = new ConcurrentHashMap<>();
+        peers = services.putIfAbsent(service, created);
+        if (peers == null) {
+            Gauge.builder(EJECTED, created, InstanceLoadTracker::countEjected)
+                    .tag("service", service)
+                    .description("Instancias fuera del balanceo por lentitud o fallos")
+                    .register(meterRegistry);
+            peers = created;
+        }
+        return peers;
+    }
+
+    private InstanceStats stats(Map<String, InstanceStats> peers, ServiceInstance instance) {
+        String address = instance.getHost() + ":" + instance.getPort();
+        InstanceStats stats = peers.get(address);
+        if (stats != null) {
+            return stats;
+        }
+        // Una instancia nueva empieza con la latencia de sus pares
+        InstanceStats created = new InstanceStats(serviceOf(instance), address, medianEwma(peers.values(), null));
+        stats = peers.putIfAbsent(address, created);
+        return stats != null ? stats : created;
+    }
+
+    // Olvida las instancias que ya no están en el registro
+    private static void retainRegistered(Map<String, InstanceStats> peers, List<ServiceInstance> instances) {
+        if (peers.size() <= instances.size()) {
+            return;
+        }
+        Set<String> registered = new HashSet<>();
+        for (ServiceInstance instance : instances) {
+            registered.add(instance.getHost() + ":" + instance.getPort());
+        }
+        peers.keySet().retainAll(registered);
+    }
+
+    // Mediana de la latencia de las instancias activas con datos, sin contar 'exclude'; -1 si no hay
+    private static double medianEwma(Iterable<InstanceStats> stats, InstanceStats exclude) {
+        List<Double> values = new ArrayList<>();
+        for (InstanceStats peer : stats) {
+            double ewma = peer.ewmaNanos();
+            if (peer != exclude && ewma >= 0 && !peer.isEjected()) {
+                values.add(ewma);
+            }
+        }
+        if (values.isEmpty()) {
+            return -1;
+        }
+        Collections.sort(values);
+        return values.get(values.size() / 2);
+    }
+
+    private static int countEjected(Map<String, InstanceStats> peers) {
+        int ejected = 0;
+        for (InstanceStats stats : peers.values()) {
+            if (stats.isEjected()) {
+                ejected++;
+            }
+        }
+        return ejected;
+    }
+
+    // Eureka devuelve el nombre de la aplicación en mayúsculas
+    private static String serviceOf(ServiceInstance instance) {
+        String serviceId = instance.getServiceId();
+        return serviceId != null ? serviceId.toLowerCase(Locale.ROOT) : "unknown";
+    }
+}
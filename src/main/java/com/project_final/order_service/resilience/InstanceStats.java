@@ -0,0 +1,102 @@
+package com.project_final.order_service.resilience;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Estado de una instancia remota para el balanceo: peticiones en curso, latencia media
+ * exponencial (EWMA), fallos consecutivos y expulsión temporal.
+ *
+ * Las peticiones en curso son un contador atómico porque se leen en cada elección; el resto
+ * se actualiza una vez por respuesta y va protegido por el monitor del objeto.
+ */
+final class InstanceStats {
+
+    private final String service;
+    private final String address;
+    private final AtomicInteger outstanding = new AtomicInteger();
+
+    // -1 mientras no haya ninguna respuesta
+    private double ewmaNanos = -1;
+    private long samples;
+    private int consecutiveFailures;
+    private long ejectedUntilNanos;
+    private boolean ejected;
+
+    InstanceStats(String service, String address, double initialEwmaNanos) {
+        this.service = service;
+        this.address = address;
+        this.ewmaNanos = initialEwmaNanos;
+    }
+
+    String service() {
+        return service;
+    }
+
+    String address() {
+        return address;
+    }
+
+    int outstanding() {
+        return outstanding.get();
+    }
+
+    void onStart() {
+        outstanding.incrementAndGet();
+    }
+
+    // Una petición cancelada libera su hueco pero no aporta latencia
+    void onRelease() {
+        outstanding.updateAndGet(current -> Math.max(0, current - 1));
+    }
+
+    synchronized void onComplete(long nanos, boolean success, double alpha) {
+        onRelease();
+        // Un fallo rápido (conexión rechazada) no debe hacer que la instancia parezca más rápida
+        double sample = success ? nanos : Math.max(nanos, ewmaNanos);
+        ewmaNanos = ewmaNanos < 0 ? sample : ewmaNanos + alpha * (sample - ewmaNanos);
+        samples++;
+        consecutiveFailures = success ? 0 : consecutiveFailures + 1;
+    }
+
+    synchronized double ewmaNanos() {
+        return ewmaNanos;
+    }
+
+    synchronized long samples() {
+        return samples;
+    }
+
+    synchronized int consecutiveFailures() {
+        return consecutiveFailures;
+    }
+
+    synchronized boolean isEjected() {
+        return ejected;
+    }
+
+    synchronized void eject(long untilNanos) {
+        ejected = true;
+        ejectedUntilNanos = untilNanos;
+    }
+
+    /**
+     * Readmite la instancia si ha vencido su expulsión. Vuelve con la latencia de sus pares
+     * para que reciba tráfico de prueba sin acaparar todas las peticiones.
+     */
+    synchronized boolean readmitIfExpired(long nowNanos, double peerEwmaNanos) {
+        if (!ejected || nowNanos - ejectedUntilNanos < 0) {
+            return false;
+        }
+        ejected = false;
+        ewmaNanos = peerEwmaNanos;
+        samples = 0;
+        consecutiveFailures = 0;
+        return true;
+    }
+
+    // Coste de enviar una petición más: latencia esperada multiplicada por la cola que tiene delante
+    double cost(double defaultEwmaNanos) {
+        double latency = ewmaNanos();
+        return (latency < 0 ? defaultEwmaNanos : latency) * (outstanding.get() + 1);
+    }
+}
@@ -0,0 +1,97 @@
+package com.project_final.order_service.resilience;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Un TokenBucket por clave (usuario, cliente) con memoria acotada.
+ *
+ * - Los cubos llenos se descartan en un barrido periódico: una clave que deja de llegar no
+ *   ocupa memoria más allá de lo que tarda en rellenarse su cubo.
+ * - Como mucho maxKeys cubos. Si se llega al máximo y el barrido no libera nada (miles de
+ *   claves distintas activas a la vez, típicamente userIds inventados), las claves nuevas
+ *   comparten un cubo de desbordamiento: siguen limitadas, pero entre todas.
+ * - El barrido lo hace el hilo que lo encuentra pendiente, sin bloquear a los demás.
+ */
+public class KeyedRateLimiter {
+
+    private final String name;
+    private final int maxKeys;
+    private final long sweepIntervalNanos;
+
+    private final ConcurrentHashMap<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, TokenBucket> overflowBuckets = new ConcurrentHashMap<>();
+    private final AtomicBoolean sweeping = new AtomicBoolean();
+    private final AtomicLong lastSweepNanos = new AtomicLong(System.nanoTime());
+    private final AtomicLong evicted = new AtomicLong();
+
+    public KeyedRateLimiter(String name, int maxKeys, long sweepIntervalMillis) {
+        this.name = name;
+        this.maxKeys = Math.max(1, maxKeys);
+        this.sweepIntervalNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, sweepIntervalMillis));
+    }
+
+    /**
+     * Consume una ficha del cubo de la clave. bucketGroup separa las claves con distintos
+     * parámetros (por ejemplo, el nivel del cliente) también en el cubo de desbordamiento.
+     * Devuelve 0 si se admite o los nanosegundos hasta la siguiente ficha.
+     */
+    public long tryAcquire(String bucketGroup, String key, double ratePerSecond, int burst) {
+        long now = System.nanoTime();
+        sweepIfDue(now);
+
+        String bucketKey = bucketGroup + ":" + key;
+        TokenBucket bucket = buckets.get(bucketKey);
+        if (bucket == null) {
+            if (buckets.size() >= maxKeys) {
+                sweep(now);
+            }
+            bucket = buckets.size() < maxKeys
+                    ? buckets.computeIfAbsent(bucketKey, k -> new TokenBucket(ratePerSecond, burst, now))
+                    : overflowBuckets.computeIfAbsent(bucketGroup, k -> new TokenBucket(ratePerSecond, burst, now));
+        }
+        return bucket.tryAcquire(now);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getKeyCount() {
+        return buckets.size();
+    }
+
+    public long getEvictedCount() {
+        return evicted.get();
+    }
+
+    // ========== MÉTODOS PRIVADOS ==========
+
+    private void sweepIfDue(long now) {
+        long last = lastSweepNanos.get();
+        if (now - last >= sweepIntervalNanos && lastSweepNanos.compareAndSet(last, now)) {
+            sweep(now);
+        }
+    }
+
+    // Visibilidad de paquete para los tests
+    void sweep(long now) {
+        if (!sweeping.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            // Un cubo que se consume justo mientras se descarta vuelve a empezar lleno: como
+            // mucho regala una ráfaga a esa clave, a cambio de no bloquear nunca
+            buckets.forEach((key, bucket) -> {
+                if (bucket.isIdle(now) && buckets.remove(key, bucket)) {
+                    evicted.incrementAndGet();
+                }
+            });
+            overflowBuckets.values().removeIf(bucket -> bucket.isIdle(now));
+        } finally {
+            sweeping.set(false);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.project_final.order_service.resilience;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.EmptyResponse;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.loadbalancer.core.NoopServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.core.ReactorServiceInstanceLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Balanceador de Spring Cloud LoadBalancer que elige instancia según carga y latencia
+ * (InstanceLoadTracker) en lugar de round robin.
+ *
+ * La lista de instancias viene del ServiceInstanceListSupplier del cliente: la caché local
+ * del registro de Eureka en producción, o una lista fija (spring.cloud.discovery.client.simple)
+ * en pruebas y en la prueba de carga.
+ */
+public class LatencyAwareLoadBalancer implements ReactorServiceInstanceLoadBalancer {
+
+    private static final Logger logger = LoggerFactory.getLogger(LatencyAwareLoadBalancer.class);
+
+    private final ObjectProvider<ServiceInstanceListSupplier> supplierProvider;
+    private final String serviceId;
+    private final InstanceLoadTracker tracker;
+
+    public LatencyAwareLoadBalancer(ObjectProvider<ServiceInstanceListSupplier> supplierProvider,
+                                    String serviceId, InstanceLoadTracker tracker) {
+        this.supplierProvider = supplierProvider;
+        this.serviceId = serviceId;
+        this.tracker = tracker;
+    }
+
+    @Override
+    @SuppressWarnings("rawtypes")
+    public Mono<Response<ServiceInstance>> choose(Request request) {
+        ServiceInstanceListSupplier supplier = supplierProvider.getIfAvailable(NoopServiceInstanceListSupplier::new);
+        return supplier.get(request).next().map(this::choose);
+    }
+
+    private Response<ServiceInstance> choose(List<ServiceInstance> instances) {
+        ServiceInstance instance = tracker.choose(instances);
+        if (instance == null) {
+            logger.warn("No hay instancias disponibles de {}", serviceId);
+            return new EmptyResponse();
+        }
+        return new DefaultResponse(instance);
+    }
+}
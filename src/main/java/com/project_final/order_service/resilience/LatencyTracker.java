@@ -0,0 +1,53 @@
+package com.project_final.order_service.resilience;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Percentil de las últimas N latencias de una operación.
+ *
+ * Las muestras se guardan en un buffer circular sin bloqueos y el percentil se recalcula
+ * cada 'recomputeEvery' muestras, así que leerlo es una lectura volátil. Una muestra
+ * escrita a la vez que se copia el buffer puede perderse: es aceptable para una estimación.
+ */
+final class LatencyTracker {
+
+    private final long[] samples;
+    private final double percentile;
+    private final int minSamples;
+    private final int recomputeEvery;
+    private final AtomicLong count = new AtomicLong();
+
+    private volatile long percentileNanos = -1;
+
+    LatencyTracker(int windowSize, double percentile, int minSamples) {
+        this.samples = new long[windowSize];
+        this.percentile = percentile;
+        this.minSamples = Math.min(minSamples, windowSize);
+        this.recomputeEvery = Math.max(1, windowSize / 16);
+    }
+
+    void record(long nanos) {
+        long n = count.getAndIncrement();
+        samples[(int) (n % samples.length)] = nanos;
+        if ((n + 1) % recomputeEvery == 0 || n + 1 == minSamples) {
+            recompute(n + 1);
+        }
+    }
+
+    // -1 mientras no haya muestras suficientes
+    long percentileNanos() {
+        return percentileNanos;
+    }
+
+    private void recompute(long total) {
+        int size = (int) Math.min(total, samples.length);
+        if (size < minSamples) {
+            return;
+        }
+        long[] copy = Arrays.copyOf(samples, size);
+        Arrays.sort(copy);
+        int index = (int) Math.ceil(percentile * size) - 1;
+        percentileNanos = copy[Math.max(0, Math.min(size - 1, index))];
+    }
+}
@@ -0,0 +1,86 @@
+package com.project_final.order_service.resilience;
+
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultRequest;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerUriTools;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.client.loadbalancer.reactive.ReactiveLoadBalancer;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Balanceo de WebClient con el mismo criterio y las mismas estadísticas que RestTemplate.
+ *
+ * Sustituye al filtro estándar de Spring Cloud porque este no avisa cuando la petición se
+ * cancela (timeout del pipeline reactivo) y la instancia quedaría con una petición en curso
+ * para siempre.
+ */
+public class LoadBalancedExchangeFilter implements ExchangeFilterFunction {
+
+    private final ReactiveLoadBalancer.Factory<ServiceInstance> loadBalancerFactory;
+    private final InstanceLoadTracker tracker;
+
+    public LoadBalancedExchangeFilter(ReactiveLoadBalancer.Factory<ServiceInstance> loadBalancerFactory,
+                                      InstanceLoadTracker tracker) {
+        this.loadBalancerFactory = loadBalancerFactory;
+        this.tracker = tracker;
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        URI url = request.url();
+        String serviceId = url.getHost();
+        ReactiveLoadBalancer<ServiceInstance> loadBalancer = serviceId != null
+                ? loadBalancerFactory.getInstance(serviceId) : null;
+        if (loadBalancer == null) {
+            return next.exchange(request);
+        }
+
+        return Mono.from(loadBalancer.choose(new DefaultRequest<>(new RequestDataContext())))
+                .flatMap(response -> exchange(request, next, serviceId, response));
+    }
+
+    private Mono<ClientResponse> exchange(ClientRequest request, ExchangeFunction next,
+                                          String serviceId, Response<ServiceInstance> response) {
+        if (!response.hasServer()) {
+            return Mono.error(new WebClientRequestException(
+                    new IllegalStateException("No hay instancias disponibles de " + serviceId),
+                    request.method(), request.url(), request.headers()));
+        }
+        ServiceInstance instance = response.getServer();
+        ClientRequest balanced = ClientRequest.from(request)
+                .url(LoadBalancerUriTools.reconstructURI(instance, request.url()))
+                .build();
+
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            AtomicBoolean done = new AtomicBoolean();
+            tracker.onStart(instance);
+            return next.exchange(balanced)
+                    .doOnSuccess(clientResponse -> {
+                        if (done.compareAndSet(false, true)) {
+                            boolean success = clientResponse == null || !clientResponse.statusCode().is5xxServerError();
+                            tracker.onComplete(instance, System.nanoTime() - start, success);
+                        }
+                    })
+                    .doOnError(e -> {
+                        if (done.compareAndSet(false, true)) {
+                            tracker.onComplete(instance, System.nanoTime() - start, false);
+                        }
+                    })
+                    .doOnCancel(() -> {
+                        if (done.compareAndSet(false, true)) {
+                            tracker.onCancel(instance);
+                        }
+                    });
+        });
+    }
+}
@@ -0,0 +1,115 @@
+package com.project_final.order_service.resilience;
+
+import com.project_final.order_service.exceptions.RateLimitExceededException;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limita la creación de órdenes por cliente y por usuario, antes de cualquier llamada a
+ * User Service o Product Service.
+ *
+ * - Cliente: el valor de X-Client-Id si es un cliente configurado (lo pone el gateway tras
+ *   autenticar), y si no la IP de origen. Un X-Client-Id desconocido no cuenta, así que
+ *   cambiarlo en cada petición no da cubos nuevos.
+ * - La IP de origen es request.getRemoteAddr(). Con server.forward-headers-strategy=native
+ *   Tomcat la resuelve desde X-Forwarded-For recorriéndolo de derecha a izquierda y saltando
+ *   solo los proxies de server.tomcat.remoteip.internal-proxies; las entradas que añade el
+ *   propio cliente quedan a la izquierda y no cambian la clave.
+ * - Usuario: el userId del cuerpo. Un consumidor que inventa userIds agota su cubo de cliente;
+ *   uno que repite el mismo agota el del usuario. Los demás clientes y usuarios conservan su
+ *   capacidad entera.
+ * - Cada cliente tiene un nivel (tier) con sus tasas; los clientes no configurados usan el
+ *   nivel por defecto.
+ */
+public class OrderRateLimiter {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderRateLimiter.class);
+
+    public static final String CLIENT_HEADER = "X-Client-Id";
+    public static final String REJECTED = "order.ratelimit.rejected";
+
+    public static final class Tier {
+
+        private final String name;
+        private final double userRatePerSecond;
+        private final int userBurst;
+        private final double clientRatePerSecond;
+        private final int clientBurst;
+
+        public Tier(String name, double userRatePerSecond, int userBurst,
+                    double clientRatePerSecond, int clientBurst) {
+            this.name = name;
+            this.userRatePerSecond = userRatePerSecond;
+            this.userBurst = userBurst;
+            this.clientRatePerSecond = clientRatePerSecond;
+            this.clientBurst = clientBurst;
+        }
+
+        public String getName() {
+            return name;
+        }
+    }
+
+    private final KeyedRateLimiter clientLimiter;
+    private final KeyedRateLimiter userLimiter;
+    private final Map<String, Tier> tiers;
+    private final Map<String, String> clientTiers;
+    private final Tier defaultTier;
+    private final MeterRegistry meterRegistry;
+
+    public OrderRateLimiter(KeyedRateLimiter clientLimiter, KeyedRateLimiter userLimiter, Map<String, Tier> tiers,
+                            Map<String, String> clientTiers, String defaultTier, MeterRegistry meterRegistry) {
+        if (!tiers.containsKey(defaultTier)) {
+            throw new IllegalArgumentException("Nivel por defecto no configurado: " + defaultTier);
+        }
+        for (Map.Entry<String, String> client : clientTiers.entrySet()) {
+            if (!tiers.containsKey(client.getValue())) {
+                throw new IllegalArgumentException("Nivel no configurado para el cliente "
+                        + client.getKey() + ": " + client.getValue());
+            }
+        }
+        this.clientLimiter = clientLimiter;
+        this.userLimiter = userLimiter;
+        this.tiers = Map.copyOf(tiers);
+        this.clientTiers = Map.copyOf(clientTiers);
+        this.defaultTier = tiers.get(defaultTier);
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Consume una ficha del cliente y otra del usuario, o lanza RateLimitExceededException
+     * con el tiempo hasta la siguiente ficha.
+     */
+    public void checkCreateOrder(HttpServletRequest request, Long userId) {
+        String declaredClient = request.getHeader(CLIENT_HEADER);
+        String tierName = declaredClient != null ? clientTiers.get(declaredClient) : null;
+        Tier tier = tierName != null ? tiers.get(tierName) : defaultTier;
+        String client = tierName != null ? declaredClient : request.getRemoteAddr();
+
+        long waitNanos = clientLimiter.tryAcquire(tier.name, client, tier.clientRatePerSecond, tier.clientBurst);
+        if (waitNanos > 0) {
+            throw rejected("client", client, tier, waitNanos);
+        }
+        if (userId != null) {
+            waitNanos = userLimiter.tryAcquire(tier.name, String.valueOf(userId),
+                    tier.userRatePerSecond, tier.userBurst);
+            if (waitNanos > 0) {
+                throw rejected("user", String.valueOf(userId), tier, waitNanos);
+            }
+        }
+    }
+
+    // ========== MÉTODOS PRIVADOS ==========
+
+    private RateLimitExceededException rejected(String scope, String key, Tier tier, long waitNanos) {
+        meterRegistry.counter(REJECTED, "scope", scope, "tier", tier.name).increment();
+        logger.debug("Creación de orden limitada: {}={} (nivel {})", scope, key, tier.name);
+        return new RateLimitExceededException(scope, tier.name,
+                Math.max(1, TimeUnit.NANOSECONDS.toMillis(waitNanos)));
+    }
+}
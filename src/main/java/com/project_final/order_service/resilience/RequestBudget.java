@@ -0,0 +1,42 @@
+package com.project_final.order_service.resilience;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cubo de fichas que limita la carga extra de hedges y reintentos: cada petición primaria
+ * aporta 'ratio' fichas (hasta 'maxTokens') y cada petición adicional consume una. Con ratio
+ * 0.05 se envían como mucho un 5 % de peticiones adicionales, más una ráfaga inicial de maxTokens.
+ */
+final class RequestBudget {
+
+    // Fichas en milésimas para operar con enteros
+    private static final long SCALE = 1000;
+
+    private final long creditPerRequest;
+    private final long maxTokens;
+    private final AtomicLong tokens;
+
+    RequestBudget(double ratio, int maxTokens) {
+        this.creditPerRequest = Math.round(ratio * SCALE);
+        this.maxTokens = maxTokens * SCALE;
+        this.tokens = new AtomicLong(this.maxTokens);
+    }
+
+    void onRequest() {
+        if (tokens.get() < maxTokens) {
+            tokens.updateAndGet(current -> Math.min(maxTokens, current + creditPerRequest));
+        }
+    }
+
+    boolean tryAcquire() {
+        while (true) {
+            long current = tokens.get();
+            if (current < SCALE) {
+                return false;
+            }
+            if (tokens.compareAndSet(current, current - SCALE)) {
+                return true;
+            }
+        }
+    }
+}
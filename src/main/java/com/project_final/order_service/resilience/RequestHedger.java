@@ -0,0 +1,179 @@
+package com.project_final.order_service.resilience;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Hedging de llamadas idempotentes: si la respuesta no llega antes del percentil configurado
+ * de la latencia reciente de la operación, se lanza una segunda petición y se usa la primera
+ * respuesta que llegue.
+ *
+ * - Solo se hace hedge por lentitud; un error de la primaria se propaga sin más intentos.
+ * - Sin muestras suficientes la llamada se hace directamente en el hilo actual.
+ * - El número de hedges lo limita RequestBudget; con el plazo de la petición agotado no se envían.
+ * - Métricas: order.hedge.sent (hedges enviados) y order.hedge.won (hedges cuya respuesta se usó).
+ *   Ambas se comparan con order.remote.calls para obtener la tasa de hedge.
+ */
+public class RequestHedger {
+
+    private static final Logger logger = LoggerFactory.getLogger(RequestHedger.class);
+
+    public static final String HEDGES_SENT = "order.hedge.sent";
+    public static final String HEDGES_WON = "order.hedge.won";
+
+    private static final int WINDOW_SIZE = 1024;
+
+    private final MeterRegistry meterRegistry;
+    private final Executor executor;
+    private final double percentile;
+    private final long minDelayNanos;
+    private final long maxDelayNanos;
+    private final int minSamples;
+    private final RequestBudget budget;
+    private final Map<String, LatencyTracker> trackers = new ConcurrentHashMap<>();
+
+    public RequestHedger(MeterRegistry meterRegistry, Executor executor, double percentile,
+                         long minDelayMs, long maxDelayMs, int minSamples, double budgetRatio, int maxBurst) {
+        this.meterRegistry = meterRegistry;
+        this.executor = executor;
+        this.percentile = percentile;
+        this.minDelayNanos = TimeUnit.MILLISECONDS.toNanos(minDelayMs);
+        this.maxDelayNanos = TimeUnit.MILLISECONDS.toNanos(maxDelayMs);
+        this.minSamples = minSamples;
+        this.budget = new RequestBudget(budgetRatio, maxBurst);
+    }
+
+    public <T> T execute(String service, String operation, Supplier<T> call) {
+        LatencyTracker tracker = trackers.computeIfAbsent(service + "." + operation,
+                key -> new LatencyTracker(WINDOW_SIZE, percentile, minSamples));
+        budget.onRequest();
+
+        long delayNanos = hedgeDelayNanos(tracker);
+        if (delayNanos < 0) {
+            return timed(tracker, call);
+        }
+
+        CompletableFuture<T> result = new CompletableFuture<>();
+        AtomicInteger pending = new AtomicInteger(1);
+        AtomicBoolean winner = new AtomicBoolean();
+        if (!launch(call, tracker, result, pending, winner, false, service, operation)) {
+            // Pool de hedging saturado: llamada normal
+            return timed(tracker, call);
+        }
+
+        try {
+            return result.get(delayNanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            sendHedge(call, tracker, result, pending, winner, service, operation);
+        } catch (ExecutionException e) {
+            throw unwrap(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Llamada interrumpida", e);
+        }
+        return await(result);
+    }
+
+    // Retardo actual del hedge de una operación en milisegundos (-1 si aún no hay muestras suficientes)
+    public long hedgeDelayMillis(String service, String operation) {
+        LatencyTracker tracker = trackers.get(service + "." + operation);
+        long nanos = tracker == null ? -1 : hedgeDelayNanos(tracker);
+        return nanos < 0 ? -1 : TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+
+    // ========== MÉTODOS PRIVADOS ==========
+
+    private long hedgeDelayNanos(LatencyTracker tracker) {
+        long percentileNanos = tracker.percentileNanos();
+        if (percentileNanos < 0) {
+            return -1;
+        }
+        return Math.max(minDelayNanos, Math.min(maxDelayNanos, percentileNanos));
+    }
+
+    private <T> void sendHedge(Supplier<T> call, LatencyTracker tracker, CompletableFuture<T> result,
+                               AtomicInteger pending, AtomicBoolean winner, String service, String operation) {
+        Deadline deadline = Deadline.current();
+        if (result.isDone() || (deadline != null && deadline.isExpired()) || !budget.tryAcquire()) {
+            return;
+        }
+        pending.incrementAndGet();
+        if (launch(call, tracker, result, pending, winner, true, service, operation)) {
+            meterRegistry.counter(HEDGES_SENT, "service", service, "operation", operation).increment();
+            logger.debug("Hedge enviado para {}.{}", service, operation);
+        } else {
+            pending.decrementAndGet();
+        }
+    }
+
+    // Ejecuta un intento en el pool; el primero que responde completa el resultado
+    private <T> boolean launch(Supplier<T> call, LatencyTracker tracker, CompletableFuture<T> result,
+                               AtomicInteger pending, AtomicBoolean winner, boolean hedge,
+                               String service, String operation) {
+        try {
+            executor.execute(Deadline.wrap(() -> {
+                long start = System.nanoTime();
+                try {
+                    T value = call.get();
+                    tracker.record(System.nanoTime() - start);
+                    // Gana el primero en responder. El contador se anota antes de completar,
+                    // así quien recibe el resultado ya lo ve
+                    if (winner.compareAndSet(false, true)) {
+                        if (hedge) {
+                            meterRegistry.counter(HEDGES_WON, "service", service, "operation", operation).increment();
+                        }
+                        result.complete(value);
+                    }
+                } catch (RuntimeException e) {
+                    // Solo falla si fallan todos los intentos lanzados
+                    if (pending.decrementAndGet() == 0) {
+                        result.completeExceptionally(e);
+                    }
+                }
+            }));
+            return true;
+        } catch (RejectedExecutionException e) {
+            return false;
+        }
+    }
+
+    private <T> T timed(LatencyTracker tracker, Supplier<T> call) {
+        long start = System.nanoTime();
+        T value = call.get();
+        tracker.record(System.nanoTime() - start);
+        return value;
+    }
+
+    private static <T> T await(CompletableFuture<T> result) {
+        try {
+            return result.get();
+        } catch (ExecutionException e) {
+            throw unwrap(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Llamada interrumpida", e);
+        }
+    }
+
+    // Se propaga la excepción original para que el llamador la traduzca igual que sin hedging
+    private static RuntimeException unwrap(ExecutionException e) {
+        Throwable cause = e.getCause();
+        if (cause instanceof RuntimeException) {
+            return (RuntimeException) cause;
+        }
+        return new IllegalStateException(cause);
+    }
+}
@@ -0,0 +1,110 @@
+package com.project_final.order_service.resilience;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Reintentos de llamadas idempotentes ante fallos transitorios (502, 503, 504 y errores de E/S).
+ *
+ * - Espera exponencial con jitter completo: entre 0 y min(maxBackoff, initialBackoff * 2^intento).
+ * - Cada servicio tiene un cubo de fichas compartido por todas las peticiones (RequestBudget):
+ *   durante una caída las fichas se agotan y se deja de reintentar en lugar de multiplicar la carga.
+ * - No se reintenta si la espera no cabe en el plazo restante de la petición.
+ * - Solo para consultas. Las operaciones de stock no tienen clave de idempotencia y nunca
+ *   pasan por aquí: repetirlas podría descontar el stock dos veces.
+ * - Métricas: order.retry.attempts (reintentos enviados) y order.retry.budget.exhausted
+ *   (reintentos descartados por falta de fichas).
+ */
+public class RequestRetrier {
+
+    private static final Logger logger = LoggerFactory.getLogger(RequestRetrier.class);
+
+    public static final String RETRY_ATTEMPTS = "order.retry.attempts";
+    public static final String BUDGET_EXHAUSTED = "order.retry.budget.exhausted";
+
+    private final MeterRegistry meterRegistry;
+    private final int maxAttempts;
+    private final long initialBackoffMs;
+    private final long maxBackoffMs;
+    private final double budgetRatio;
+    private final int maxBurst;
+    private final Map<String, RequestBudget> budgets = new ConcurrentHashMap<>();
+
+    public RequestRetrier(MeterRegistry meterRegistry, int maxAttempts, long initialBackoffMs,
+                          long maxBackoffMs, double budgetRatio, int maxBurst) {
+        this.meterRegistry = meterRegistry;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.initialBackoffMs = initialBackoffMs;
+        this.maxBackoffMs = maxBackoffMs;
+        this.budgetRatio = budgetRatio;
+        this.maxBurst = maxBurst;
+    }
+
+    public <T> T execute(String service, String operation, Supplier<T> call) {
+        RequestBudget budget = budgets.computeIfAbsent(service, key -> new RequestBudget(budgetRatio, maxBurst));
+        budget.onRequest();
+
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return call.get();
+            } catch (RuntimeException e) {
+                if (attempt >= maxAttempts || !isTransient(e)) {
+                    throw e;
+                }
+                long backoffMs = backoffMillis(attempt);
+                Deadline deadline = Deadline.current();
+                if (deadline != null && deadline.remainingMillis() <= backoffMs) {
+                    throw e;
+                }
+                if (!budget.tryAcquire()) {
+                    meterRegistry.counter(BUDGET_EXHAUSTED, "service", service, "operation", operation).increment();
+                    logger.debug("Sin presupuesto para reintentar {}.{}", service, operation);
+                    throw e;
+                }
+                logger.debug("Reintentando {}.{} en {} ms (intento {}): {}",
+                        service, operation, backoffMs, attempt + 1, e.getMessage());
+                sleep(backoffMs, e);
+                meterRegistry.counter(RETRY_ATTEMPTS, "service", service, "operation", operation).increment();
+            }
+        }
+    }
+
+    // ========== MÉTODOS PRIVADOS ==========
+
+    // Jitter completo: los reintentos de muchas peticiones no llegan a la vez al servicio
+    long backoffMillis(int attempt) {
+        long ceiling = Math.min(maxBackoffMs, initialBackoffMs << Math.min(attempt - 1, 20));
+        return ceiling <= 0 ? 0 : ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+
+    private static boolean isTransient(RuntimeException e) {
+        if (e instanceof HttpServerErrorException serverError) {
+            int status = serverError.getStatusCode().value();
+            return status == HttpStatus.BAD_GATEWAY.value()
+                    || status == HttpStatus.SERVICE_UNAVAILABLE.value()
+                    || status == HttpStatus.GATEWAY_TIMEOUT.value();
+        }
+        return e instanceof ResourceAccessException;
+    }
+
+    private static void sleep(long millis, RuntimeException failure) {
+        if (millis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException interrupted) {
+            Thread.currentThread().interrupt();
+            throw failure;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.project_final.order_service.resilience;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cubo de fichas sin bloqueos: rate fichas por segundo con capacidad burst.
+ *
+ * - El estado es un único long, el instante teórico en que el cubo vuelve a estar lleno
+ *   (algoritmo GCRA). Consumir una ficha es adelantarlo un intervalo de emisión con un CAS,
+ *   sin contadores de fichas ni marcas de tiempo aparte que actualizar juntas.
+ * - Admite mientras ese instante no quede más de (burst - 1) intervalos por delante de ahora,
+ *   que es exactamente un cubo de burst fichas que se rellena a rate por segundo.
+ * - Con el instante ya en el pasado el cubo está lleno y equivale a uno nuevo: se puede
+ *   descartar sin cambiar el comportamiento.
+ */
+public final class TokenBucket {
+
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    private final long emissionIntervalNanos;
+    private final long burstToleranceNanos;
+    private final AtomicLong fullAtNanos;
+
+    public TokenBucket(double ratePerSecond, int burst, long nowNanos) {
+        if (ratePerSecond <= 0 || burst < 1) {
+            throw new IllegalArgumentException("rate y burst deben ser positivos");
+        }
+        this.emissionIntervalNanos = Math.max(1, (long) (NANOS_PER_SECOND / ratePerSecond));
+        this.burstToleranceNanos = emissionIntervalNanos * (burst - 1);
+        this.fullAtNanos = new AtomicLong(nowNanos);
+    }
+
+    /**
+     * Consume una ficha si hay. Devuelve 0 si se admite o, si no, los nanosegundos que faltan
+     * para la siguiente ficha.
+     */
+    public long tryAcquire(long nowNanos) {
+        while (true) {
+            long fullAt = fullAtNanos.get();
+            long base = fullAt - nowNanos > 0 ? fullAt : nowNanos;
+            long ahead = base - nowNanos;
+            if (ahead > burstToleranceNanos) {
+                return ahead - burstToleranceNanos;
+            }
+            if (fullAtNanos.compareAndSet(fullAt, base + emissionIntervalNanos)) {
+                return 0;
+            }
+        }
+    }
+
+    // Cubo lleno: no guarda nada que uno nuevo no tenga
+    public boolean isIdle(long nowNanos) {
+        return fullAtNanos.get() - nowNanos <= 0;
+    }
+}
@@ -0,0 +1,323 @@
+package com.project_final.order_service.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project_final.order_service.exceptions.IdempotencyKeyException;
+import com.project_final.order_service.exceptions.IdempotencyKeyException.Reason;
+import com.project_final.order_service.exceptions.OrderValidationException;
+import com.project_final.order_service.metrics.OrderMetrics;
+import com.project_final.order_service.model.IdempotencyRecord;
+import com.project_final.order_service.repositories.IdempotencyRecordRepository;
+import com.project_final.order_service.resilience.Deadline;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Deduplicación de peticiones con cabecera Idempotency-Key.
+ *
+ * - Duplicados concurrentes en esta instancia esperan a la primera ejecución y reciben su resultado.
+ * - Las respuestas completadas se guardan en la tabla idempotency_keys y en una caché LRU acotada,
+ *   y se repiten tal cual (con la cabecera Idempotent-Replayed) durante la ventana configurada.
+ * - La respuesta se guarda en la misma transacción que el trabajo de la petición: si la orden se
+ *   confirma, su clave también, así que cada orden se procesa una sola vez.
+ * - Si la ejecución falla no se guarda nada y un reintento vuelve a ejecutarse.
+ */
+@Service
+public class IdempotencyService {
+
+    private static final Logger logger = LoggerFactory.getLogger(IdempotencyService.class);
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final int MAX_KEY_LENGTH = 255;
+    private static final int PURGE_EVERY = 1000;
+
+    @Autowired
+    private IdempotencyRecordRepository repository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private OrderMetrics orderMetrics;
+
+    // Ventana de deduplicación
+    @Value("${order.idempotency.ttl-hours:24}")
+    private long ttlHours;
+
+    @Value("${order.idempotency.cache-size:10000}")
+    private int cacheSize;
+
+    // Espera máxima de un duplicado a la primera ejecución (también limitada por el plazo de la petición)
+    @Value("${order.idempotency.wait-timeout-ms:10000}")
+    private long waitTimeoutMs;
+
+    // Una ejecución en curso más antigua se da por abandonada (la instancia se cayó a mitad)
+    @Value("${order.idempotency.stale-after-ms:60000}")
+    private long staleAfterMs;
+
+    private final Map<String, CompletableFuture<StoredResponse>> inFlight = new ConcurrentHashMap<>();
+    private final Map<String, StoredResponse> completed = Collections.synchronizedMap(
+            new LinkedHashMap<>(256, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, StoredResponse> eldest) {
+                    return size() > cacheSize;
+                }
+            });
+    private final AtomicLong executions = new AtomicLong();
+
+    /**
+     * Ejecuta 'action' una sola vez por clave y petición. Sin clave se ejecuta sin más.
+     *
+     * @param scope       operación (p. ej. "POST /api/orders"); la misma clave en otra operación es otra clave
+     * @param fingerprint datos de la petición; la misma clave con otros datos se rechaza
+     * @param bodyType    tipo del cuerpo de la respuesta, para leer la guardada al repetirla
+     */
+    public <T> ResponseEntity<T> execute(String idempotencyKey, String scope, Object fingerprint,
+                                         TypeReference<T> bodyType, Supplier<ResponseEntity<T>> action) {
+        if (idempotencyKey == null) {
+            return action.get();
+        }
+        validateKey(idempotencyKey);
+
+        String key = scope + " " + idempotencyKey;
+        String requestHash = hash(fingerprint);
+
+        StoredResponse cached = cached(key);
+        if (cached != null) {
+            return replay(cached, requestHash, idempotencyKey, bodyType, "replayed");
+        }
+
+        CompletableFuture<StoredResponse> execution = new CompletableFuture<>();
+        CompletableFuture<StoredResponse> running = inFlight.putIfAbsent(key, execution);
+        if (running != null) {
+            return replay(await(running, idempotencyKey), requestHash, idempotencyKey, bodyType, "waited");
+        }
+
+        try {
+            Execution<T> result = executeOnce(key, requestHash, idempotencyKey, bodyType, action);
+            execution.complete(result.stored);
+            return result.response;
+        } catch (RuntimeException e) {
+            execution.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, execution);
+        }
+    }
+
+    // ========== MÉTODOS PRIVADOS ==========
+
+    private <T> Execution<T> executeOnce(String key, String requestHash, String idempotencyKey,
+                                         TypeReference<T> bodyType, Supplier<ResponseEntity<T>> action) {
+        LocalDateTime now = LocalDateTime.now();
+        purgeExpiredPeriodically(now);
+
+        Optional<IdempotencyRecord> existing = repository.findById(key);
+        if (existing.isPresent()) {
+            IdempotencyRecord record = existing.get();
+            if (record.getExpiresAt().isBefore(now) || isStale(record, now)) {
+                // Fuera de la ventana, o ejecución abandonada: se vuelve a reclamar la clave
+                repository.delete(record);
+            } else if (record.getStatus() == IdempotencyRecord.Status.COMPLETED) {
+                StoredResponse stored = StoredResponse.from(record);
+                completed.put(key, stored);
+                return new Execution<>(stored, replay(stored, requestHash, idempotencyKey, bodyType, "replayed"));
+            } else {
+                throw inProgress(idempotencyKey);
+            }
+        }
+
+        IdempotencyRecord claim = new IdempotencyRecord(key, requestHash, now.plusHours(ttlHours));
+        try {
+            repository.saveAndFlush(claim);
+        } catch (DataIntegrityViolationException e) {
+            // Otra instancia reclamó la clave a la vez
+            throw inProgress(idempotencyKey);
+        }
+
+        try {
+            TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+            Execution<T> result = transaction.execute(status -> {
+                ResponseEntity<T> response = action.get();
+                String body = toJson(response.getBody());
+                claim.complete(response.getStatusCode().value(), body);
+                repository.save(claim);
+                return new Execution<>(new StoredResponse(requestHash, response.getStatusCode().value(), body,
+                        claim.getExpiresAt()), response);
+            });
+            completed.put(key, result.stored);
+            orderMetrics.recordIdempotency("executed");
+            return result;
+        } catch (RuntimeException e) {
+            // Nada que repetir: se libera la clave para que el reintento se ejecute
+            releaseClaim(key);
+            throw e;
+        }
+    }
+
+    private StoredResponse cached(String key) {
+        StoredResponse stored = completed.get(key);
+        if (stored != null && stored.expiresAt.isBefore(LocalDateTime.now())) {
+            completed.remove(key);
+            return null;
+        }
+        return stored;
+    }
+
+    private StoredResponse await(CompletableFuture<StoredResponse> running, String idempotencyKey) {
+        long timeoutMs = waitTimeoutMs;
+        Deadline deadline = Deadline.current();
+        if (deadline != null) {
+            timeoutMs = Math.min(timeoutMs, Math.max(0, deadline.remainingMillis()));
+        }
+        try {
+            return running.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw inProgress(idempotencyKey);
+        } catch (ExecutionException e) {
+            // El duplicado recibe el mismo error que la primera ejecución
+            Throwable cause = e.getCause();
+            throw cause instanceof RuntimeException ? (RuntimeException) cause : new IllegalStateException(cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw inProgress(idempotencyKey);
+        }
+    }
+
+    private <T> ResponseEntity<T> replay(StoredResponse stored, String requestHash, String idempotencyKey,
+                                         TypeReference<T> bodyType, String outcome) {
+        if (!stored.requestHash.equals(requestHash)) {
+            orderMetrics.recordIdempotency("mismatch");
+            throw new IdempotencyKeyException(idempotencyKey, Reason.MISMATCH,
+                    "La clave de idempotencia " + idempotencyKey + " ya se usó con otra petición");
+        }
+        orderMetrics.recordIdempotency(outcome);
+        logger.debug("Respuesta repetida para la clave de idempotencia {}", idempotencyKey);
+        return ResponseEntity.status(stored.status)
+                .header(REPLAYED_HEADER, "true")
+                .body(fromJson(stored.body, bodyType));
+    }
+
+    private IdempotencyKeyException inProgress(String idempotencyKey) {
+        orderMetrics.recordIdempotency("in_progress");
+        return new IdempotencyKeyException(idempotencyKey, Reason.IN_PROGRESS,
+                "La petición con clave de idempotencia " + idempotencyKey + " todavía se está procesando");
+    }
+
+    private boolean isStale(IdempotencyRecord record, LocalDateTime now) {
+        return record.getStatus() == IdempotencyRecord.Status.IN_PROGRESS
+                && record.getCreatedAt().plusNanos(TimeUnit.MILLISECONDS.toNanos(staleAfterMs)).isBefore(now);
+    }
+
+    private void releaseClaim(String key) {
+        try {
+            repository.deleteById(key);
+        } catch (RuntimeException e) {
+            // Se liberará al considerarse abandonada (stale-after-ms)
+            logger.warn("No se pudo liberar la clave de idempotencia {}: {}", key, e.getMessage());
+        }
+    }
+
+    private void purgeExpiredPeriodically(LocalDateTime now) {
+        if (executions.incrementAndGet() % PURGE_EVERY != 0) {
+            return;
+        }
+        try {
+            int purged = repository.deleteExpired(now);
+            logger.debug("Purgadas {} claves de idempotencia caducadas", purged);
+        } catch (RuntimeException e) {
+            logger.warn("Error purgando claves de idempotencia: {}", e.getMessage());
+        }
+    }
+
+    private static void validateKey(String idempotencyKey) {
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new OrderValidationException(HEADER, idempotencyKey,
+                    "La clave de idempotencia debe tener entre 1 y " + MAX_KEY_LENGTH + " caracteres");
+        }
+    }
+
+    private String hash(Object fingerprint) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(toJson(fingerprint).getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private String toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo serializar la respuesta idempotente", e);
+        }
+    }
+
+    private <T> T fromJson(String body, TypeReference<T> bodyType) {
+        try {
+            return objectMapper.readValue(body, bodyType);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo leer la respuesta idempotente guardada", e);
+        }
+    }
+
+    private static final class StoredResponse {
+        private final String requestHash;
+        private final int status;
+        private final String body;
+        private final LocalDateTime expiresAt;
+
+        private StoredResponse(String requestHash, int status, String body, LocalDateTime expiresAt) {
+            this.requestHash = requestHash;
+            this.status = status;
+            this.body = body;
+            this.expiresAt = expiresAt;
+        }
+
+        private static StoredResponse from(IdempotencyRecord record) {
+            return new StoredResponse(record.getRequestHash(), record.getResponseStatus(),
+                    record.getResponseBody(), record.getExpiresAt());
+        }
+    }
+
+    private static final class Execution<T> {
+        private final StoredResponse stored;
+        private final ResponseEntity<T> response;
+
+        private Execution(StoredResponse stored, ResponseEntity<T> response) {
+            this.stored = stored;
+            this.response = response;
+        }
+    }
+}
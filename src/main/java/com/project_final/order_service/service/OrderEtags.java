@@ -0,0 +1,45 @@
+package com.project_final.order_service.service;
+
+import com.project_final.order_service.model.Order;
+import com.project_final.order_service.repositories.OrderListVersion;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * ETags de las órdenes, calculados a partir de updated_at.
+ *
+ * Son débiles (W/): identifican los datos, no los bytes. La misma orden en JSON, CBOR o Smile,
+ * comprimida o no, tiene el mismo ETag, e If-None-Match compara en modo débil. Con un ETag
+ * fuerte Tomcat no comprime la respuesta.
+ * La fecha se redondea a microsegundos, la precisión de la columna: el ETag de una orden
+ * recién guardada coincide con el de la misma orden leída después de la base de datos.
+ */
+public final class OrderEtags {
+
+    private OrderEtags() {
+    }
+
+    public static String forOrder(Order order) {
+        return forOrder(order.getId(), order.getUpdatedAt());
+    }
+
+    public static String forOrder(Long id, LocalDateTime updatedAt) {
+        return "W/\"o" + id + "-" + micros(updatedAt) + "\"";
+    }
+
+    // Número de órdenes, ID más alto y última modificación: cambia con cualquier alta, baja o cambio
+    public static String forUserOrders(Long userId, OrderListVersion version) {
+        return "W/\"u" + userId + "-" + version.getCount() + "-" + (version.getMaxId() != null ? version.getMaxId() : 0)
+                + "-" + micros(version.getMaxUpdatedAt()) + "\"";
+    }
+
+    // ========== MÉTODOS PRIVADOS ==========
+
+    private static long micros(LocalDateTime dateTime) {
+        if (dateTime == null) {
+            return 0;
+        }
+        return dateTime.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + dateTime.getNano() / 1_000;
+    }
+}
@@ -0,0 +1,262 @@
+package com.project_final.order_service.service;
+
+import com.project_final.order_service.exceptions.ExternalServiceException;
+import com.project_final.order_service.metrics.OrderMetrics;
+import com.project_final.order_service.model.Order;
+import com.project_final.order_service.repositories.OrderItemRepository;
+import com.project_final.order_service.repositories.OrderRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Group commit de las órdenes nuevas (order.group-commit.enabled=true).
+ *
+ * - Las creaciones concurrentes entregan su orden ya validada y esperan. Cada hilo de escritura
+ *   toma lo que se ha acumulado en la cola, espera como mucho max-delay-ms a que llegue más
+ *   (hasta max-batch-size órdenes) y lo guarda todo en una transacción: un commit, y un fsync
+ *   de MySQL, por lote en lugar de uno por orden.
+ * - Cada llamante recibe su orden con el ID generado. Si el lote falla se deshace entero y
+ *   cada orden se repite en su propia transacción: el error solo llega a la orden que lo causa.
+ * - Con la cola llena (queue-capacity) se rechaza con RejectedExecutionException (503).
+ * - Al parar se vacía la cola antes de terminar; lo que llegue después se guarda directamente.
+ */
+@Service
+@ConditionalOnProperty(name = "order.group-commit.enabled", havingValue = "true")
+public class OrderGroupCommitter implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderGroupCommitter.class);
+
+    public static final String QUEUED = "order.groupcommit.queued";
+
+    private static final long IDLE_POLL_MS = 100;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private OrderMetrics orderMetrics;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${order.group-commit.writers:2}")
+    private int writers;
+
+    @Value("${order.group-commit.max-batch-size:100}")
+    private int maxBatchSize;
+
+    @Value("${order.group-commit.max-delay-ms:2}")
+    private long maxDelayMs;
+
+    @Value("${order.group-commit.queue-capacity:10000}")
+    private int queueCapacity;
+
+    private volatile boolean running;
+    private BlockingQueue<Pending> queue;
+    private List<Thread> writerThreads = List.of();
+
+    // ========== API ==========
+
+    /**
+     * Guarda la orden (y sus líneas) en el siguiente lote y espera al commit.
+     */
+    public Order save(Order order) {
+        if (!running) {
+            return new TransactionTemplate(transactionManager).execute(status -> write(order));
+        }
+        try {
+            return submit(order).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ExternalServiceException("order-service", "saveOrder", "Espera del guardado interrumpida");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new ExternalServiceException("order-service", "saveOrder", e.getCause().getMessage());
+        }
+    }
+
+    /**
+     * Encola la orden sin esperar; el futuro se completa con el commit de su lote.
+     */
+    public CompletableFuture<Order> submit(Order order) {
+        if (!running) {
+            throw new RejectedExecutionException("Guardado de órdenes detenido");
+        }
+        Pending pending = new Pending(order);
+        if (!queue.offer(pending)) {
+            throw new RejectedExecutionException("Cola de guardado de órdenes llena");
+        }
+        // Parada en curso: si ningún hilo de escritura la ha tomado ya no la tomará
+        if (!running && queue.remove(pending)) {
+            throw new RejectedExecutionException("Guardado de órdenes detenido");
+        }
+        return pending.future;
+    }
+
+    // ========== CICLO DE VIDA ==========
+
+    @Override
+    public void start() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        Gauge.builder(QUEUED, queue, BlockingQueue::size)
+                .description("Órdenes esperando al siguiente commit")
+                .register(meterRegistry);
+
+        running = true;
+        List<Thread> threads = new ArrayList<>(writers);
+        for (int i = 0; i < writers; i++) {
+            Thread thread = new Thread(this::writeLoop, "order-group-commit-" + i);
+            thread.setDaemon(true);
+            thread.start();
+            threads.add(thread);
+        }
+        writerThreads = threads;
+
+        logger.info("Group commit de órdenes activo: {} hilos, lotes de hasta {} órdenes, espera máxima {} ms",
+                writers, maxBatchSize, maxDelayMs);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        for (Thread thread : writerThreads) {
+            try {
+                thread.join(TimeUnit.SECONDS.toMillis(30));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // ========== ESCRITURA ==========
+
+    private void writeLoop() {
+        List<Pending> batch = new ArrayList<>(maxBatchSize);
+        // Al parar se sigue hasta vaciar la cola
+        while (running || !queue.isEmpty()) {
+            try {
+                Pending first = queue.poll(IDLE_POLL_MS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, maxBatchSize - batch.size());
+                long lingerEnd = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(maxDelayMs);
+                while (running && batch.size() < maxBatchSize) {
+                    long remaining = lingerEnd - System.nanoTime();
+                    Pending next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : null;
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                    queue.drainTo(batch, maxBatchSize - batch.size());
+                }
+                flush(batch);
+            } catch (InterruptedException e) {
+                // Solo se interrumpe al cerrar la JVM: lo que quede en el lote se guarda igualmente
+                flush(batch);
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                logger.error("Error en el group commit de órdenes: {}", e.getMessage(), e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    // Visibilidad de paquete para los tests
+    void flush(List<Pending> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        try {
+            List<Order> saved = transaction.execute(status -> {
+                List<Order> orders = new ArrayList<>(batch.size());
+                for (Pending pending : batch) {
+                    orders.add(write(pending.order));
+                }
+                return orders;
+            });
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).future.complete(saved.get(i));
+            }
+            orderMetrics.recordGroupCommit("batch", batch.size());
+        } catch (RuntimeException e) {
+            if (batch.size() == 1) {
+                batch.get(0).future.completeExceptionally(e);
+                return;
+            }
+            logger.warn("Lote de {} órdenes deshecho ({}): se guardan una a una", batch.size(), e.getMessage());
+            for (Pending pending : batch) {
+                // El INSERT deshecho dejó asignado un ID que no existe
+                pending.order.setId(null);
+                try {
+                    pending.future.complete(transaction.execute(status -> write(pending.order)));
+                    orderMetrics.recordGroupCommit("single", 1);
+                } catch (RuntimeException single) {
+                    pending.future.completeExceptionally(single);
+                }
+            }
+        }
+    }
+
+    // ========== MÉTODOS PRIVADOS ==========
+
+    private Order write(Order order) {
+        Order savedOrder = orderRepository.save(order);
+        if (order.hasItems()) {
+            order.getItems().forEach(item -> item.setOrderId(savedOrder.getId()));
+            orderItemRepository.saveAll(order.getItems());
+            savedOrder.attachItems(order.getItems());
+        }
+        return savedOrder;
+    }
+
+    static final class Pending {
+
+        private final Order order;
+        private final CompletableFuture<Order> future = new CompletableFuture<>();
+
+        Pending(Order order) {
+            this.order = order;
+        }
+
+        CompletableFuture<Order> future() {
+            return future;
+        }
+    }
+}
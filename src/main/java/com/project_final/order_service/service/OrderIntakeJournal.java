@@ -0,0 +1,316 @@
+package com.project_final.order_service.service;
+
+import com.project_final.order_service.Dto.CreateOrderRequest;
+import com.project_final.order_service.journal.MappedJournal;
+import com.project_final.order_service.model.OrderIntake;
+import com.project_final.order_service.repositories.OrderIntakeRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Diario local de la cola de entrada (order.intake.journal.enabled=true).
+ *
+ * - accept() escribe la entrada en un MappedJournal y responde 202 en cuanto está en disco
+ *   (fsync agrupado entre peticiones concurrentes), sin esperar a MySQL. Un pico de latencia
+ *   de la base de datos deja de notarse en /intake.
+ * - Un hilo aplicador lee el diario y guarda las entradas en order_intake en lotes de hasta
+ *   apply-batch-size con una transacción por lote. Después avanza el checkpoint del diario y
+ *   avisa al despachador de OrderIntakeService. Si MySQL falla, las entradas esperan en el
+ *   diario y se reintenta.
+ * - Al arrancar se repite el diario desde el checkpoint. Las entradas guardadas justo antes de
+ *   una caída, sin llegar a avanzar el checkpoint, se reconocen por su referencia y se descartan.
+ * - Hasta que se aplican, las entradas solo existen en esta instancia: se consultan por
+ *   referencia y el directorio debe estar en un disco persistente propio de la instancia.
+ */
+@Service
+@ConditionalOnProperty(name = "order.intake.journal.enabled", havingValue = "true")
+public class OrderIntakeJournal implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderIntakeJournal.class);
+
+    public static final String UNAPPLIED = "order.intake.journal.unapplied";
+    public static final String FSYNC = "order.intake.journal.fsync";
+
+    private static final byte RECORD_VERSION = 1;
+    private static final int RECORD_BYTES = 1 + 2 * Long.BYTES + 2 * Long.BYTES + Integer.BYTES + Long.BYTES + Integer.BYTES;
+
+    @Autowired
+    private OrderIntakeRepository repository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${order.intake.journal.dir:./data/intake-journal}")
+    private String directory;
+
+    @Value("${order.intake.journal.segment-size-mb:64}")
+    private int segmentSizeMb;
+
+    @Value("${order.intake.journal.apply-batch-size:500}")
+    private int applyBatchSize;
+
+    @Value("${order.intake.journal.apply-interval-ms:50}")
+    private long applyIntervalMs;
+
+    private final Map<String, Pending> unapplied = new ConcurrentHashMap<>();
+    private final Semaphore wakeups = new Semaphore(0);
+
+    private volatile boolean running;
+    private volatile Runnable applyListener = () -> { };
+    private MappedJournal journal;
+    private Thread applier;
+    private Timer fsyncTimer;
+    private long appliedOffset;
+    // Hasta aquí el diario puede tener entradas ya guardadas en la tabla
+    private long replayEnd;
+
+    // ========== API ==========
+
+    /**
+     * Escribe la entrada en el diario y vuelve cuando está en disco. La entrada aún no tiene ID.
+     */
+    public OrderIntake append(CreateOrderRequest request) {
+        if (!running) {
+            throw new RejectedExecutionException("Diario de la cola de entrada detenido");
+        }
+        OrderIntake intake = new OrderIntake(request);
+        Pending pending = new Pending(intake);
+        // Se registra antes de escribir: el aplicador puede guardarla en cuanto llega a disco
+        unapplied.put(intake.getReference(), pending);
+        try {
+            long offset = journal.append(encode(intake));
+            long start = System.nanoTime();
+            journal.sync(offset);
+            fsyncTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        } catch (RuntimeException e) {
+            unapplied.remove(intake.getReference());
+            throw e;
+        }
+        wakeups.release();
+        return intake;
+    }
+
+    // Entrada todavía sin guardar en la tabla, o null
+    public OrderIntake findUnapplied(String reference) {
+        Pending pending = unapplied.get(reference);
+        return pending != null ? pending.intake : null;
+    }
+
+    // Se completa con la entrada ya guardada (con ID); null si ya estaba guardada
+    public CompletableFuture<OrderIntake> whenApplied(String reference) {
+        Pending pending = unapplied.get(reference);
+        return pending != null ? pending.applied : null;
+    }
+
+    public int getUnappliedCount() {
+        return unapplied.size();
+    }
+
+    // OrderIntakeService despierta a su despachador con cada lote guardado
+    public void setApplyListener(Runnable applyListener) {
+        this.applyListener = applyListener;
+    }
+
+    // ========== CICLO DE VIDA ==========
+
+    // Arranca antes y para después que OrderIntakeService
+    @Override
+    public int getPhase() {
+        return DEFAULT_PHASE - 1;
+    }
+
+    @Override
+    public void start() {
+        try {
+            journal = new MappedJournal(Path.of(directory), segmentSizeMb * 1024 * 1024);
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo abrir el diario de la cola de entrada en " + directory, e);
+        }
+        appliedOffset = journal.getCheckpointOffset();
+        replayEnd = journal.getSyncedOffset();
+        long next = appliedOffset;
+        while (next < replayEnd) {
+            next = journal.read(next, applyBatchSize, (end, payload) -> {
+                OrderIntake intake = decode(payload);
+                unapplied.put(intake.getReference(), new Pending(intake));
+            });
+        }
+
+        fsyncTimer = Timer.builder(FSYNC)
+                .description("Tiempo hasta tener en disco una entrada del diario")
+                .register(meterRegistry);
+        Gauge.builder(UNAPPLIED, unapplied, Map::size)
+                .description("Entradas del diario pendientes de guardar en order_intake")
+                .register(meterRegistry);
+
+        running = true;
+        applier = new Thread(this::applyLoop, "order-intake-journal");
+        applier.setDaemon(true);
+        applier.start();
+
+        logger.info("Diario de la cola de entrada en {}: {} entradas por aplicar", directory, unapplied.size());
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        wakeups.release();
+        Thread thread = applier;
+        if (thread != null) {
+            try {
+                thread.join(TimeUnit.SECONDS.toMillis(30));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        try {
+            journal.close();
+        } catch (IOException e) {
+            logger.warn("Error cerrando el diario de la cola de entrada: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // ========== APLICACIÓN ==========
+
+    private void applyLoop() {
+        // Al parar se intenta guardar lo pendiente; lo que no se pueda se repite al arrancar
+        while (running || appliedOffset < journal.getSyncedOffset()) {
+            try {
+                wakeups.tryAcquire(applyIntervalMs, TimeUnit.MILLISECONDS);
+                wakeups.drainPermits();
+                while (applyBatch() > 0) {
+                    // Sigue mientras haya entradas en disco sin guardar
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                logger.error("Error guardando entradas del diario: {}", e.getMessage());
+                if (!running) {
+                    return;
+                }
+                sleepQuietly(applyIntervalMs * 10);
+            }
+        }
+    }
+
+    // Visibilidad de paquete para los tests
+    int applyBatch() {
+        List<OrderIntake> batch = new ArrayList<>(applyBatchSize);
+        long batchStart = appliedOffset;
+        long next = journal.read(appliedOffset, applyBatchSize, (end, payload) -> batch.add(decode(payload)));
+        if (batch.isEmpty()) {
+            if (next > appliedOffset) {
+                appliedOffset = next;
+            }
+            return 0;
+        }
+
+        List<OrderIntake> toSave = batch;
+        if (batchStart < replayEnd) {
+            Set<String> existing = new HashSet<>(repository.findExistingReferences(
+                    batch.stream().map(OrderIntake::getReference).toList()));
+            toSave = batch.stream().filter(intake -> !existing.contains(intake.getReference())).toList();
+        }
+        List<OrderIntake> entries = toSave;
+        List<OrderIntake> saved = entries.isEmpty() ? List.of()
+                : new TransactionTemplate(transactionManager).execute(status -> repository.saveAll(entries));
+
+        journal.checkpoint(next);
+        appliedOffset = next;
+        for (OrderIntake intake : batch) {
+            Pending pending = unapplied.remove(intake.getReference());
+            if (pending != null) {
+                pending.applied.complete(intake);
+            }
+        }
+        if (!saved.isEmpty()) {
+            applyListener.run();
+        }
+        return batch.size();
+    }
+
+    // ========== MÉTODOS PRIVADOS ==========
+
+    // Formato binario fijo: versión, referencia, usuario, producto, cantidad, fecha de creación
+    private static byte[] encode(OrderIntake intake) {
+        UUID reference = UUID.fromString(intake.getReference());
+        LocalDateTime createdAt = intake.getCreatedAt();
+        return ByteBuffer.allocate(RECORD_BYTES)
+                .put(RECORD_VERSION)
+                .putLong(reference.getMostSignificantBits())
+                .putLong(reference.getLeastSignificantBits())
+                .putLong(intake.getUserId())
+                .putLong(intake.getProductId())
+                .putInt(intake.getQuantity())
+                .putLong(createdAt.toEpochSecond(ZoneOffset.UTC))
+                .putInt(createdAt.getNano())
+                .array();
+    }
+
+    // Visibilidad de paquete para los tests
+    static OrderIntake decode(ByteBuffer payload) {
+        byte version = payload.get();
+        if (version != RECORD_VERSION) {
+            throw new IllegalStateException("Versión de registro del diario desconocida: " + version);
+        }
+        String reference = new UUID(payload.getLong(), payload.getLong()).toString();
+        CreateOrderRequest request = new CreateOrderRequest(payload.getLong(), payload.getLong(), payload.getInt());
+        LocalDateTime createdAt = LocalDateTime.ofEpochSecond(payload.getLong(), payload.getInt(), ZoneOffset.UTC);
+        return new OrderIntake(reference, request, createdAt);
+    }
+
+    private static void sleepQuietly(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static final class Pending {
+
+        private final OrderIntake intake;
+        private final CompletableFuture<OrderIntake> applied = new CompletableFuture<>();
+
+        private Pending(OrderIntake intake) {
+            this.intake = intake;
+        }
+    }
+}
@@ -0,0 +1,433 @@
+package com.project_final.order_service.service;
+
+import com.project_final.order_service.Dto.CreateOrderRequest;
+import com.project_final.order_service.config.AsyncConfig;
+import com.project_final.order_service.exceptions.*;
+import com.project_final.order_service.metrics.OrderMetrics;
+import com.project_final.order_service.model.Order;
+import com.project_final.order_service.model.OrderIntake;
+import com.project_final.order_service.repositories.OrderIntakeRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cola de entrada de órdenes (/api/orders/intake).
+ *
+ * - La petición se valida en local, se guarda en la tabla order_intake y se responde 202 sin
+ *   esperar a User Service ni a Product Service. La cola absorbe picos muy por encima de la
+ *   capacidad de los servicios remotos; con order.intake.max-pending entradas pendientes se
+ *   rechaza con 503.
+ * - Un hilo despachador reclama lotes de hasta batch-size entradas con un solo UPDATE y los
+ *   reparte entre 'workers' hilos. Sin hilo libre no reclama más, así que la concurrencia
+ *   contra los servicios remotos nunca pasa de 'workers'.
+ * - Cada entrada se procesa con OrderService.createOrder en la misma transacción que marca la
+ *   entrada como completada: o quedan las dos, o ninguna.
+ * - Los fallos de User Service y Product Service se reintentan con espera exponencial hasta
+ *   max-attempts; el resto de errores dejan la entrada en FAILED con el código de error de la API.
+ * - Las entradas reclamadas por una instancia que se cae vuelven a la cola tras stale-after-ms.
+ * - Con order.intake.journal.enabled=true la entrada se escribe en un diario local en lugar de en
+ *   la tabla y llega a ella después (OrderIntakeJournal); hasta entonces se consulta por referencia.
+ */
+@Service
+public class OrderIntakeService implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderIntakeService.class);
+
+    public static final String PENDING = "order.intake.pending";
+    public static final String ACTIVE = "order.intake.active";
+
+    @Autowired
+    private OrderIntakeRepository repository;
+
+    @Autowired
+    private OrderService orderService;
+
+    // Opcional: solo existe con order.intake.journal.enabled=true
+    @Autowired(required = false)
+    private OrderIntakeJournal intakeJournal;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private OrderMetrics orderMetrics;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // Las esperas largas se resuelven en el pool de E/S, no en el hilo que completa la entrada
+    @Autowired
+    @Qualifier(AsyncConfig.ORDER_IO_EXECUTOR)
+    private Executor orderIoExecutor;
+
+    @Value("${order.intake.workers:16}")
+    private int workers;
+
+    @Value("${order.intake.batch-size:50}")
+    private int batchSize;
+
+    @Value("${order.intake.poll-interval-ms:500}")
+    private long pollIntervalMs;
+
+    @Value("${order.intake.max-pending:100000}")
+    private long maxPending;
+
+    @Value("${order.intake.max-attempts:3}")
+    private int maxAttempts;
+
+    @Value("${order.intake.retry-backoff-ms:1000}")
+    private long retryBackoffMs;
+
+    @Value("${order.intake.stale-after-ms:300000}")
+    private long staleAfterMs;
+
+    private final AtomicLong pending = new AtomicLong();
+    private final AtomicInteger active = new AtomicInteger();
+    private final Semaphore wakeups = new Semaphore(0);
+    private final Map<Long, CompletableFuture<Void>> waiters = new ConcurrentHashMap<>();
+
+    private volatile boolean running;
+    private Semaphore slots;
+    private Thread dispatcher;
+    private ThreadPoolTaskExecutor workerExecutor;
+    private long lastStaleCheck;
+
+    // ========== API ==========
+
+    public OrderIntake accept(CreateOrderRequest request) {
+        orderService.validateCreateOrderRequest(request);
+
+        if (pending.get() >= maxPending) {
+            orderMetrics.recordIntake("rejected");
+            throw new RejectedExecutionException("Cola de órdenes llena: " + pending.get() + " pendientes");
+        }
+
+        OrderIntake intake = intakeJournal != null
+                ? intakeJournal.append(request)
+                : repository.save(new OrderIntake(request));
+        pending.incrementAndGet();
+        orderMetrics.recordIntake("accepted");
+        wakeups.release();
+
+        logger.debug("Orden encolada con ID de entrada {} (referencia {})", intake.getId(), intake.getReference());
+        return intake;
+    }
+
+    public OrderIntake getIntake(Long id) {
+        if (id == null || id <= 0) {
+            throw new OrderValidationException("id", id, "El ID de la entrada debe ser un número positivo");
+        }
+        return repository.findById(id)
+                .orElseThrow(() -> new OrderNotFoundException("Entrada de orden no encontrada con ID: " + id));
+    }
+
+    public OrderIntake getIntakeByReference(String reference) {
+        if (reference == null || reference.isBlank()) {
+            throw new OrderValidationException("reference", reference, "La referencia de la entrada es obligatoria");
+        }
+        OrderIntake unapplied = intakeJournal != null ? intakeJournal.findUnapplied(reference) : null;
+        if (unapplied != null) {
+            return unapplied;
+        }
+        return repository.findByReference(reference)
+                .orElseThrow(() -> new OrderNotFoundException("Entrada de orden no encontrada con referencia: " + reference));
+    }
+
+    /**
+     * Como awaitCompletion, para una entrada identificada por su referencia: si sigue en el
+     * diario espera primero a que llegue a la tabla.
+     */
+    public CompletableFuture<OrderIntake> awaitCompletionByReference(String reference, long waitMs) {
+        CompletableFuture<OrderIntake> applied = intakeJournal != null ? intakeJournal.whenApplied(reference) : null;
+        if (applied == null) {
+            OrderIntake intake = getIntakeByReference(reference);
+            return awaitCompletion(intake.getId(), waitMs);
+        }
+
+        long start = System.nanoTime();
+        return applied.copy()
+                .completeOnTimeout(null, Math.max(0, waitMs), TimeUnit.MILLISECONDS)
+                .thenComposeAsync(intake -> {
+                    OrderIntake current = getIntakeByReference(reference);
+                    long remainingMs = waitMs - TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                    return current.getId() == null
+                            ? CompletableFuture.completedFuture(current)
+                            : awaitCompletion(current.getId(), remainingMs);
+                }, orderIoExecutor);
+    }
+
+    /**
+     * Espera como mucho waitMs a que la entrada termine y devuelve su estado en ese momento.
+     * Solo despiertan antes de tiempo las entradas procesadas en esta instancia; las demás
+     * se consultan de nuevo al vencer la espera.
+     */
+    public CompletableFuture<OrderIntake> awaitCompletion(Long id, long waitMs) {
+        OrderIntake intake = getIntake(id);
+        if (intake.isFinished() || waitMs <= 0) {
+            return CompletableFuture.completedFuture(intake);
+        }
+
+        CompletableFuture<Void> signal = waiters.computeIfAbsent(id, key -> new CompletableFuture<>());
+        // Puede haber terminado entre la consulta y el registro de la espera
+        OrderIntake current = getIntake(id);
+        if (current.isFinished()) {
+            return CompletableFuture.completedFuture(current);
+        }
+
+        return signal.copy()
+                .completeOnTimeout(null, waitMs, TimeUnit.MILLISECONDS)
+                .thenApplyAsync(ignored -> {
+                    if (!signal.isDone()) {
+                        waiters.remove(id, signal);
+                    }
+                    return getIntake(id);
+                }, orderIoExecutor);
+    }
+
+    // ========== CICLO DE VIDA ==========
+
+    @Override
+    public void start() {
+        LocalDateTime now = LocalDateTime.now();
+        int requeued = repository.requeueStale(OrderIntake.Status.QUEUED, OrderIntake.Status.PROCESSING,
+                now.minusNanos(TimeUnit.MILLISECONDS.toNanos(staleAfterMs)), now);
+        pending.set(repository.countByStatus(OrderIntake.Status.QUEUED));
+        if (intakeJournal != null) {
+            // Las entradas del diario cuentan desde que se aceptan, aunque aún no estén en la tabla
+            pending.addAndGet(intakeJournal.getUnappliedCount());
+            intakeJournal.setApplyListener(wakeups::release);
+        }
+        lastStaleCheck = System.currentTimeMillis();
+
+        slots = new Semaphore(workers);
+        workerExecutor = new ThreadPoolTaskExecutor();
+        workerExecutor.setCorePoolSize(workers);
+        workerExecutor.setMaxPoolSize(workers);
+        workerExecutor.setThreadNamePrefix("order-intake-");
+        workerExecutor.setWaitForTasksToCompleteOnShutdown(true);
+        workerExecutor.setAwaitTerminationSeconds(30);
+        workerExecutor.initialize();
+
+        Gauge.builder(PENDING, pending, AtomicLong::get)
+                .description("Entradas en cola pendientes de procesar")
+                .register(meterRegistry);
+        Gauge.builder(ACTIVE, active, AtomicInteger::get)
+                .description("Entradas en proceso")
+                .register(meterRegistry);
+
+        running = true;
+        dispatcher = new Thread(this::dispatchLoop, "order-intake-dispatcher");
+        dispatcher.setDaemon(true);
+        dispatcher.start();
+
+        logger.info("Cola de órdenes activa: {} workers, lotes de {}, {} pendientes ({} recuperadas)",
+                workers, batchSize, pending.get(), requeued);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        Thread thread = dispatcher;
+        dispatcher = null;
+        if (thread != null) {
+            thread.interrupt();
+        }
+        if (workerExecutor != null) {
+            // Las entradas en curso terminan; las que no llegaron a reclamarse siguen en la tabla
+            workerExecutor.shutdown();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // ========== DESPACHO ==========
+
+    private void dispatchLoop() {
+        while (running) {
+            try {
+                wakeups.tryAcquire(pollIntervalMs, TimeUnit.MILLISECONDS);
+                wakeups.drainPermits();
+                requeueStaleIfDue();
+                while (running && dispatchBatch() > 0) {
+                    // Sigue reclamando mientras haya entradas listas y workers libres
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                logger.error("Error en el despachador de la cola de órdenes: {}", e.getMessage(), e);
+                sleepQuietly(pollIntervalMs);
+            }
+        }
+    }
+
+    // Visibilidad de paquete para los tests
+    int dispatchBatch() throws InterruptedException {
+        slots.acquire();
+        int permits = 1;
+        while (permits < batchSize && slots.tryAcquire()) {
+            permits++;
+        }
+
+        List<OrderIntake> claimed = List.of();
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            List<Long> ids = repository.findReadyIds(OrderIntake.Status.QUEUED, now, PageRequest.of(0, permits));
+            if (!ids.isEmpty()) {
+                String token = UUID.randomUUID().toString();
+                if (repository.claim(ids, token, OrderIntake.Status.QUEUED, OrderIntake.Status.PROCESSING, now) > 0) {
+                    claimed = repository.findByClaimTokenAndStatus(token, OrderIntake.Status.PROCESSING);
+                }
+            }
+        } finally {
+            slots.release(permits - claimed.size());
+        }
+
+        pending.addAndGet(-claimed.size());
+        for (OrderIntake intake : claimed) {
+            active.incrementAndGet();
+            workerExecutor.execute(() -> {
+                try {
+                    process(intake);
+                } catch (RuntimeException e) {
+                    // Sin poder guardar el resultado la entrada sigue reclamada y se reencola por antigüedad
+                    logger.error("Error guardando el resultado de la entrada {}: {}", intake.getId(), e.getMessage());
+                } finally {
+                    active.decrementAndGet();
+                    slots.release();
+                }
+            });
+        }
+        return claimed.size();
+    }
+
+    // Visibilidad de paquete para los tests
+    void process(OrderIntake intake) {
+        try {
+            TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+            transaction.executeWithoutResult(status -> {
+                Order order = orderService.createOrder(intake.toRequest());
+                intake.complete(order.getId());
+                repository.save(intake);
+            });
+            finish(intake, "completed");
+        } catch (ObjectOptimisticLockingFailureException e) {
+            // Se dio por abandonada y otra instancia la reclamó: su resultado es el que vale
+            logger.warn("La entrada {} cambió mientras se procesaba: {}", intake.getId(), e.getMessage());
+        } catch (RuntimeException e) {
+            handleFailure(intake, e);
+        }
+    }
+
+    // ========== MÉTODOS PRIVADOS ==========
+
+    private void handleFailure(OrderIntake intake, RuntimeException e) {
+        if (isTransient(e) && intake.getAttempts() < maxAttempts) {
+            long backoffMs = retryBackoffMs << Math.min(intake.getAttempts() - 1, 10);
+            intake.retryAt(LocalDateTime.now().plusNanos(TimeUnit.MILLISECONDS.toNanos(backoffMs)), e.getMessage());
+            repository.save(intake);
+            pending.incrementAndGet();
+            orderMetrics.recordIntake("retried");
+            logger.info("Entrada {} reencolada en {} ms (intento {}): {}",
+                    intake.getId(), backoffMs, intake.getAttempts(), e.getMessage());
+            return;
+        }
+
+        intake.fail(errorCode(e), e.getMessage());
+        repository.save(intake);
+        finish(intake, "failed");
+        logger.warn("Entrada {} fallida tras {} intentos: {}", intake.getId(), intake.getAttempts(), e.getMessage());
+    }
+
+    private void finish(OrderIntake intake, String outcome) {
+        orderMetrics.recordIntake(outcome);
+        orderMetrics.recordIntakeLatency(outcome, Duration.between(intake.getCreatedAt(), LocalDateTime.now()));
+
+        CompletableFuture<Void> signal = waiters.remove(intake.getId());
+        if (signal != null) {
+            signal.complete(null);
+        }
+    }
+
+    private void requeueStaleIfDue() {
+        long now = System.currentTimeMillis();
+        if (now - lastStaleCheck < staleAfterMs / 2) {
+            return;
+        }
+        lastStaleCheck = now;
+        LocalDateTime current = LocalDateTime.now();
+        int requeued = repository.requeueStale(OrderIntake.Status.QUEUED, OrderIntake.Status.PROCESSING,
+                current.minusNanos(TimeUnit.MILLISECONDS.toNanos(staleAfterMs)), current);
+        if (requeued > 0) {
+            pending.addAndGet(requeued);
+            logger.warn("{} entradas abandonadas devueltas a la cola", requeued);
+        }
+    }
+
+    // Fallos transitorios de los servicios remotos: todavía no se ha guardado nada, así que se puede
+    // repetir. Un 4xx (usuario o producto inexistente) falla a la primera
+    private static boolean isTransient(RuntimeException e) {
+        if (e instanceof UserServiceException userError) {
+            return userError.isTransient();
+        }
+        if (e instanceof ProductServiceException productError) {
+            return productError.isTransient();
+        }
+        return e instanceof ExternalServiceException;
+    }
+
+    // Mismos códigos que devuelve GlobalExceptionHandler en /api/orders
+    private static String errorCode(RuntimeException e) {
+        if (e instanceof InsufficientStockException) {
+            return "INSUFFICIENT_STOCK";
+        }
+        if (e instanceof OrderValidationException) {
+            return "ORDER_VALIDATION_ERROR";
+        }
+        if (e instanceof StockOperationException) {
+            return "STOCK_OPERATION_ERROR";
+        }
+        if (e instanceof UserServiceException || e instanceof ProductServiceException
+                || e instanceof ExternalServiceException) {
+            return "EXTERNAL_SERVICE_ERROR";
+        }
+        return "INTERNAL_SERVER_ERROR";
+    }
+
+    private static void sleepQuietly(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -1,23 +1,53 @@
 package com.project_final.order_service.service;
 
+import com.project_final.order_service.config.AsyncConfig;
 import com.project_final.order_service.model.Order;
+import com.project_final.order_service.model.OrderItem;
 import com.project_final.order_service.Dto.CreateOrderRequest;
+import com.project_final.order_service.Dto.OrderItemRequest;
 import com.project_final.order_service.Dto.ProductDto;
 import com.project_final.order_service.Dto.UserDto;
+import com.project_final.order_service.repositories.OrderItemRepository;
+import com.project_final.order_service.repositories.OrderListVersion;
 import com.project_final.order_service.repositories.OrderRepository;
+import com.project_final.order_service.events.OrderEventBus;
 import com.project_final.order_service.exceptions.*;
+import com.project_final.order_service.metrics.OrderMetrics;
+import com.project_final.order_service.metrics.ServerTiming;
+import com.project_final.order_service.metrics.ServerTiming.Phase;
+import com.project_final.order_service.resilience.Deadline;
+import com.project_final.order_service.resilience.RequestHedger;
+import com.project_final.order_service.resilience.RequestRetrier;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 @Service
 public class OrderService {
@@ -27,21 +57,63 @@ public class OrderService {
     @Autowired
     private OrderRepository orderRepository;
 
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+
     @Autowired
     private RestTemplate restTemplate;
 
-    // URLs de otros servicios
-    private final String PRODUCT_SERVICE_URL = "http://localhost:8082/api/products";
-    private final String USER_SERVICE_URL = "http://localhost:8081/api/users";
+    @Autowired
+    private OrderMetrics orderMetrics;
 
-    // Crear orden
-    @Transactional
+    // Consultas en paralelo de las órdenes con varias líneas
+    @Autowired
+    @Qualifier(AsyncConfig.ORDER_IO_EXECUTOR)
+    private Executor orderIoExecutor;
+
+    // Opcional: solo existe con order.hedging.enabled=true
+    @Autowired(required = false)
+    private RequestHedger requestHedger;
+
+    // Opcional: solo existe con order.retry.enabled=true
+    @Autowired(required = false)
+    private RequestRetrier requestRetrier;
+
+    // Opcional: solo existe con order.group-commit.enabled=true
+    @Autowired(required = false)
+    private OrderGroupCommitter orderGroupCommitter;
+
+    // Opcional: solo existe con order.events.enabled=true
+    @Autowired(required = false)
+    private OrderEventBus orderEventBus;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // URLs de otros servicios: el host es el ID del servicio y lo resuelve el balanceador
+    @Value("${product.service.url:http://product-service}/api/products")
+    private String productServiceUrl = "http://product-service/api/products";
+
+    @Value("${user.service.url:http://user-service}/api/users")
+    private String userServiceUrl = "http://user-service/api/users";
+
+    @Value("${order.items.max-lines:50}")
+    private int maxOrderLines = 50;
+
+    // Crear orden. Sin @Transactional: las consultas remotas no retienen una conexión y el
+    // guardado decide su transacción (ver persist)
     public Order createOrder(CreateOrderRequest request) {
+        if (request != null && request.hasItems()) {
+            return createMultiItemOrder(request);
+        }
+
         logger.info("Iniciando creación de orden para usuario {} y producto {}",
                 request.getUserId(), request.getProductId());
 
         // Validar entrada
+        long validationStart = ServerTiming.start();
         validateCreateOrderRequest(request);
+        ServerTiming.stop(Phase.VALIDATION, validationStart);
 
         try {
             // Validar usuario
@@ -77,15 +149,21 @@ public class OrderService {
             //         request.getQuantity(), "No se pudo reducir el stock");
             // }
 
+            // Si el cliente ya no espera la respuesta no se persiste la orden
+            ensureDeadline("order-service", "createOrder");
+
             // Guardar orden
             order.setStatus(Order.OrderStatus.CONFIRMED);
-            Order savedOrder = orderRepository.save(order);
+            Order savedOrder = persist(order);
+            if (orderEventBus != null) {
+                orderEventBus.publishCreated(savedOrder);
+            }
 
             logger.info("Orden creada exitosamente con ID: {}", savedOrder.getId());
             return savedOrder;
 
         } catch (UserServiceException | ProductServiceException | InsufficientStockException |
-                 StockOperationException e) {
+                 StockOperationException | ExternalServiceException | RejectedExecutionException e) {
             logger.error("Error específico creando orden: {}", e.getMessage());
             throw e;
         } catch (Exception e) {
@@ -98,7 +176,7 @@ public class OrderService {
     // Obtener todas las órdenes
     public List<Order> getAllOrders() {
         logger.debug("Obteniendo todas las órdenes");
-        return orderRepository.findAll();
+        return withItems(orderRepository.findAll());
     }
 
     // Obtener orden por ID
@@ -109,7 +187,12 @@ public class OrderService {
             throw new OrderValidationException("id", id, "El ID de la orden debe ser un número positivo");
         }
 
-        return orderRepository.findById(id);
+        long dbStart = ServerTiming.start();
+        Optional<Order> order = orderRepository.findById(id);
+        order.filter(Order::hasItems).ifPresent(found ->
+                found.attachItems(orderItemRepository.findByOrderIdOrderByLineNumber(found.getId())));
+        ServerTiming.stop(Phase.DB, dbStart);
+        return order;
     }
 
     // Obtener orden por ID (método que lanza excepción si no existe)
@@ -127,7 +210,32 @@ public class OrderService {
                     "El ID del usuario debe ser un número positivo");
         }
 
-        return orderRepository.findByUserIdOrderByOrderDateDesc(userId);
+        return withItems(orderRepository.findByUserIdOrderByOrderDateDesc(userId));
+    }
+
+    // ETag de la orden sin cargarla; vacío si no existe
+    public Optional<String> getOrderEtag(Long id) {
+        if (id == null || id <= 0) {
+            throw new OrderValidationException("id", id, "El ID de la orden debe ser un número positivo");
+        }
+
+        long dbStart = ServerTiming.start();
+        Optional<LocalDateTime> updatedAt = orderRepository.findUpdatedAtById(id);
+        ServerTiming.stop(Phase.DB, dbStart);
+        return updatedAt.map(value -> OrderEtags.forOrder(id, value));
+    }
+
+    // ETag de las órdenes del usuario: una consulta agregada sobre el índice, sin leer las órdenes
+    public String getOrdersByUserIdEtag(Long userId) {
+        if (userId == null || userId <= 0) {
+            throw new OrderValidationException("userId", userId,
+                    "El ID del usuario debe ser un número positivo");
+        }
+
+        long dbStart = ServerTiming.start();
+        OrderListVersion version = orderRepository.findVersionByUserId(userId);
+        ServerTiming.stop(Phase.DB, dbStart);
+        return OrderEtags.forUserOrders(userId, version);
     }
 
     // Obtener órdenes por producto
@@ -139,7 +247,7 @@ public class OrderService {
                     "El ID del producto debe ser un número positivo");
         }
 
-        return orderRepository.findByProductIdOrderByOrderDateDesc(productId);
+        return withItems(orderRepository.findContainingProduct(productId));
     }
 
     // Obtener órdenes por estado
@@ -150,7 +258,7 @@ public class OrderService {
             throw new OrderValidationException("status", null, "El estado no puede ser nulo");
         }
 
-        return orderRepository.findByStatusOrderByOrderDateDesc(status);
+        return withItems(orderRepository.findByStatusOrderByOrderDateDesc(status));
     }
 
     // Actualizar estado de orden
@@ -170,14 +278,22 @@ public class OrderService {
 
         // Actualizar el estado primero
         order.setStatus(newStatus);
+        long dbStart = ServerTiming.start();
         Order updatedOrder = orderRepository.save(order);
+        // Si save devuelve otra instancia no trae las líneas, que no se persisten con la orden;
+        // el evento las necesita para el filtro por producto del feed
+        updatedOrder.attachItems(order.getItems());
+        ServerTiming.stop(Phase.DB, dbStart);
         logger.info("Estado de orden {} actualizado de {} a {}", id, oldStatus, newStatus);
+        if (orderEventBus != null) {
+            orderEventBus.publishStatusChanged(updatedOrder, oldStatus);
+        }
 
         // Si se cancela una orden confirmada, intentar devolver stock (sin fallar la transacción)
         if (oldStatus == Order.OrderStatus.CONFIRMED && newStatus == Order.OrderStatus.CANCELLED) {
             logger.info("Devolviendo stock para orden cancelada: {}", id);
             try {
-                if (!increaseProductStock(order.getProductId(), order.getQuantity())) {
+                if (!increaseOrderStock(order)) {
                     logger.warn("No se pudo devolver el stock para la orden {}, pero la cancelación se mantuvo", id);
                 }
             } catch (StockOperationException e) {
@@ -231,7 +347,7 @@ public class OrderService {
             if (order.getStatus() == Order.OrderStatus.CONFIRMED) {
                 logger.info("Devolviendo stock antes de eliminar orden confirmada: {}", id);
                 try {
-                    if (!increaseProductStock(order.getProductId(), order.getQuantity())) {
+                    if (!increaseOrderStock(order)) {
                         logger.warn("No se pudo devolver el stock para la orden {}, pero se procederá con la eliminación", id);
                     }
                 } catch (Exception e) {
@@ -239,8 +355,14 @@ public class OrderService {
                 }
             }
 
-            // Eliminar la orden
+            // Eliminar la orden y sus líneas. Las líneas se borran siempre, sin mirar itemCount
+            long dbStart = ServerTiming.start();
+            orderItemRepository.deleteByOrderId(id);
             orderRepository.deleteById(id);
+            ServerTiming.stop(Phase.DB, dbStart);
+            if (orderEventBus != null) {
+                orderEventBus.publishDeleted(order);
+            }
             logger.info("Orden {} eliminada exitosamente", id);
 
         } catch (Exception e) {
@@ -254,7 +376,7 @@ public class OrderService {
     public List<Order> getRecentOrders() {
         logger.debug("Obteniendo órdenes recientes (últimas 24 horas)");
         LocalDateTime yesterday = LocalDateTime.now().minusHours(24);
-        return orderRepository.findRecentOrders(yesterday);
+        return withItems(orderRepository.findRecentOrders(yesterday));
     }
 
     // Obtener estadísticas
@@ -285,13 +407,194 @@ public class OrderService {
         return total != null ? total : BigDecimal.ZERO;
     }
 
+    // ========== ÓRDENES CON VARIAS LÍNEAS ==========
+
+    // Un solo usuario que validar, los productos y el stock de todas las líneas consultados a la
+    // vez y la cabecera y las líneas guardadas en la misma transacción
+    private Order createMultiItemOrder(CreateOrderRequest request) {
+        logger.info("Iniciando creación de orden con {} líneas para usuario {}",
+                request.getItems().size(), request.getUserId());
+
+        long validationStart = ServerTiming.start();
+        Map<Long, Integer> lines = validateOrderItems(request);
+        ServerTiming.stop(Phase.VALIDATION, validationStart);
+
+        try {
+            UserDto user = getUserById(request.getUserId());
+            if (user == null) {
+                throw new UserServiceException(request.getUserId(), "getUserById",
+                        "Usuario no encontrado");
+            }
+
+            // Productos repetidos se consultan una vez; la latencia total es la de la consulta más lenta
+            List<Long> productIds = new ArrayList<>(lines.keySet());
+            long productStart = ServerTiming.start();
+            List<FutureTask<ProductDto>> productTasks = fork(productIds, productId -> () -> getProductById(productId));
+            List<FutureTask<Boolean>> stockTasks = fork(productIds,
+                    productId -> () -> checkProductStock(productId, lines.get(productId)));
+            List<ProductDto> products = join(productTasks);
+            List<Boolean> inStock = join(stockTasks);
+            ServerTiming.stop(Phase.PRODUCT, productStart);
+
+            List<OrderItem> items = new ArrayList<>(productIds.size());
+            for (int i = 0; i < productIds.size(); i++) {
+                Long productId = productIds.get(i);
+                Integer quantity = lines.get(productId);
+                ProductDto product = products.get(i);
+                if (product == null) {
+                    throw new ProductServiceException(productId, "getProductById", "Producto no encontrado");
+                }
+                if (!Boolean.TRUE.equals(inStock.get(i))) {
+                    throw new InsufficientStockException(productId, quantity, product.getStock());
+                }
+                items.add(new OrderItem(i + 1, productId, quantity, product.getPrice()));
+            }
+
+            Order order = new Order();
+            order.setUserId(request.getUserId());
+            order.setItems(items);
+
+            // Si el cliente ya no espera la respuesta no se persiste la orden
+            ensureDeadline("order-service", "createOrder");
+
+            // Guardar cabecera y líneas: las líneas van en un único lote JDBC
+            order.setStatus(Order.OrderStatus.CONFIRMED);
+            Order savedOrder = persist(order);
+            if (orderEventBus != null) {
+                orderEventBus.publishCreated(savedOrder);
+            }
+
+            logger.info("Orden creada exitosamente con ID: {} ({} líneas)", savedOrder.getId(), items.size());
+            return savedOrder;
+
+        } catch (UserServiceException | ProductServiceException | InsufficientStockException |
+                 StockOperationException | ExternalServiceException | RejectedExecutionException e) {
+            logger.error("Error específico creando orden: {}", e.getMessage());
+            throw e;
+        } catch (Exception e) {
+            logger.error("Error inesperado creando orden: {}", e.getMessage(), e);
+            throw new ExternalServiceException("order-service", "createOrder",
+                    "Error inesperado durante la creación de la orden");
+        }
+    }
+
+    // Guarda la orden y sus líneas. Sin transacción en curso y con group commit activo va en el
+    // siguiente lote de OrderGroupCommitter. Dentro de una transacción (la cola de entrada) se
+    // guarda en ella, para que la orden y la entrada se confirmen juntas
+    private Order persist(Order order) {
+        long dbStart = ServerTiming.start();
+        try {
+            if (orderGroupCommitter != null && !TransactionSynchronizationManager.isActualTransactionActive()) {
+                return orderGroupCommitter.save(order);
+            }
+            // Una sola línea cabe en la cabecera: solo se escriben order_items con varias
+            if (!order.hasItems()) {
+                return orderRepository.save(order);
+            }
+            return new TransactionTemplate(transactionManager).execute(status -> {
+                Order savedOrder = orderRepository.save(order);
+                order.getItems().forEach(item -> item.setOrderId(savedOrder.getId()));
+                orderItemRepository.saveAll(order.getItems());
+                savedOrder.attachItems(order.getItems());
+                return savedOrder;
+            });
+        } finally {
+            ServerTiming.stop(Phase.DB, dbStart);
+        }
+    }
+
+    // Carga con una sola consulta las líneas de las órdenes con varios productos de un listado
+    private List<Order> withItems(List<Order> orders) {
+        Map<Long, Order> multiItem = orders.stream()
+                .filter(Order::hasItems)
+                .collect(Collectors.toMap(Order::getId, Function.identity()));
+        if (multiItem.isEmpty()) {
+            return orders;
+        }
+        Map<Long, List<OrderItem>> itemsByOrder = orderItemRepository
+                .findByOrderIdInOrderByOrderIdAscLineNumberAsc(multiItem.keySet()).stream()
+                .collect(Collectors.groupingBy(OrderItem::getOrderId));
+        multiItem.forEach((id, order) -> order.attachItems(itemsByOrder.getOrDefault(id, List.of())));
+        return orders;
+    }
+
+    // Devuelve el stock de todas las líneas; false si alguna no se pudo devolver
+    private boolean increaseOrderStock(Order order) {
+        if (!order.hasItems()) {
+            return increaseProductStock(order.getProductId(), order.getQuantity());
+        }
+        boolean result = true;
+        for (OrderItem item : order.getItems()) {
+            result &= increaseProductStock(item.getProductId(), item.getQuantity());
+        }
+        return result;
+    }
+
+    // Lanza las llamadas en el pool de E/S. Las que no caben se quedan para join
+    private <T, R> List<FutureTask<R>> fork(List<T> inputs, Function<T, Callable<R>> call) {
+        List<FutureTask<R>> tasks = new ArrayList<>(inputs.size());
+        for (T input : inputs) {
+            Callable<R> callable = call.apply(input);
+            FutureTask<R> task = new FutureTask<>(() -> {
+                // Las consultas en paralelo no acumulan su tiempo en Server-Timing: se mide el
+                // de todas juntas en el hilo de la petición
+                ServerTiming timing = ServerTiming.current();
+                ServerTiming.unbind();
+                try {
+                    return callable.call();
+                } finally {
+                    if (timing != null) {
+                        ServerTiming.rebind(timing);
+                    }
+                }
+            });
+            tasks.add(task);
+            try {
+                orderIoExecutor.execute(task);
+            } catch (RejectedExecutionException e) {
+                logger.debug("Pool de E/S lleno: la consulta se hace en el hilo de la petición");
+            }
+        }
+        return tasks;
+    }
+
+    // El hilo que espera ejecuta él mismo las tareas que aún no han empezado: con el pool
+    // saturado (o llamado desde el propio pool) la orden avanza en lugar de bloquearse
+    private <R> List<R> join(List<FutureTask<R>> tasks) {
+        List<R> results = new ArrayList<>(tasks.size());
+        try {
+            for (FutureTask<R> task : tasks) {
+                task.run();
+                results.add(task.get());
+            }
+            return results;
+        } catch (ExecutionException e) {
+            tasks.forEach(task -> task.cancel(false));
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new ExternalServiceException("order-service", "createOrder", e.getCause().getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            tasks.forEach(task -> task.cancel(true));
+            throw new ExternalServiceException("order-service", "createOrder", "Creación de la orden interrumpida");
+        }
+    }
+
     // ========== MÉTODOS PRIVADOS PARA VALIDACIONES ==========
 
-    private void validateCreateOrderRequest(CreateOrderRequest request) {
+    // Visibilidad de paquete para poder medirlo en los benchmarks JMH
+    void validateCreateOrderRequest(CreateOrderRequest request) {
         if (request == null) {
             throw new OrderValidationException("Datos de orden requeridos");
         }
 
+        // La cola de entrada y el pipeline reactivo solo guardan órdenes de un producto
+        if (request.hasItems()) {
+            throw new OrderValidationException("items", request.getItems().size(),
+                    "Las órdenes con varios productos se crean con POST /api/orders");
+        }
+
         if (request.getUserId() == null || request.getUserId() <= 0) {
             throw new OrderValidationException("userId", request.getUserId(),
                     "El ID del usuario debe ser un número positivo");
@@ -313,7 +616,43 @@ public class OrderService {
         }
     }
 
-    private void validateStatusTransition(Order order, Order.OrderStatus from, Order.OrderStatus to) {
+    // Devuelve las cantidades por producto, sumando las líneas del mismo producto
+    Map<Long, Integer> validateOrderItems(CreateOrderRequest request) {
+        if (request.getUserId() == null || request.getUserId() <= 0) {
+            throw new OrderValidationException("userId", request.getUserId(),
+                    "El ID del usuario debe ser un número positivo");
+        }
+
+        if (request.getProductId() != null || request.getQuantity() != null) {
+            throw new OrderValidationException("items", request.getItems().size(),
+                    "Use items o productId/quantity, no ambos");
+        }
+
+        if (request.getItems().size() > maxOrderLines) {
+            throw new OrderValidationException("items", request.getItems().size(),
+                    "Una orden no puede tener más de " + maxOrderLines + " líneas");
+        }
+
+        Map<Long, Integer> lines = new LinkedHashMap<>();
+        for (OrderItemRequest item : request.getItems()) {
+            if (item == null || item.getProductId() == null || item.getProductId() <= 0) {
+                throw new OrderValidationException("items.productId", item != null ? item.getProductId() : null,
+                        "El ID del producto debe ser un número positivo");
+            }
+            if (item.getQuantity() == null || item.getQuantity() <= 0) {
+                throw new OrderValidationException("items.quantity", item.getQuantity(),
+                        "La cantidad debe ser un número positivo");
+            }
+            int quantity = lines.merge(item.getProductId(), item.getQuantity(), Integer::sum);
+            if (quantity > 1000) {
+                throw new OrderValidationException("items.quantity", quantity,
+                        "La cantidad no puede exceder 1000 unidades por producto");
+            }
+        }
+        return lines;
+    }
+
+    void validateStatusTransition(Order order, Order.OrderStatus from, Order.OrderStatus to) {
         // Reglas de transición de estado
         switch (from) {
             case PENDING:
@@ -349,14 +688,54 @@ public class OrderService {
 
     // ========== MÉTODOS PRIVADOS PARA COMUNICACIÓN CON OTROS SERVICIOS ==========
 
+    // Falla sin llamar al servicio si el plazo de la petición ya se agotó
+    private void ensureDeadline(String serviceName, String operation) {
+        Deadline deadline = Deadline.current();
+        if (deadline != null && deadline.isExpired()) {
+            throw deadlineExceeded(serviceName, operation);
+        }
+    }
+
+    // Un timeout provocado por el plazo de la petición se informa como plazo agotado
+    private void checkDeadlineAfterFailure(String serviceName, String operation, RestClientException e) {
+        Deadline deadline = Deadline.current();
+        if (deadline != null && deadline.isExpired()) {
+            logger.warn("Plazo agotado durante {}.{}: {}", serviceName, operation, e.getMessage());
+            throw deadlineExceeded(serviceName, operation);
+        }
+    }
+
+    // Solo para consultas idempotentes: reintentos ante fallos transitorios y hedge en cada intento
+    private <T> T idempotent(String serviceName, String operation, Supplier<T> call) {
+        Supplier<T> hedged = () -> requestHedger != null
+                ? requestHedger.execute(serviceName, operation, call) : call.get();
+        return requestRetrier != null ? requestRetrier.execute(serviceName, operation, hedged) : hedged.get();
+    }
+
+    // 5xx, errores de E/S y timeouts; un 4xx (usuario o producto inexistente) se repetiría igual
+    private static boolean isTransient(RestClientException e) {
+        return e instanceof HttpServerErrorException || e instanceof ResourceAccessException;
+    }
+
+    private ExternalServiceException deadlineExceeded(String serviceName, String operation) {
+        orderMetrics.recordDeadlineExceeded(serviceName, operation);
+        return new ExternalServiceException(serviceName, operation, "Plazo de la petición agotado");
+    }
+
     private UserDto getUserById(Long userId) {
         try {
-            String url = USER_SERVICE_URL + "/" + userId;
+            ensureDeadline("user-service", "getUserById");
+            String url = userServiceUrl + "/" + userId;
             logger.debug("Consultando usuario en: {}", url);
-            return restTemplate.getForObject(url, UserDto.class);
+            return orderMetrics.timeRemoteCall("user-service", "getUserById", Phase.USER,
+                    () -> idempotent("user-service", "getUserById",
+                            () -> restTemplate.getForObject(url, UserDto.class)));
+        } catch (ExternalServiceException e) {
+            throw e;
         } catch (RestClientException e) {
+            checkDeadlineAfterFailure("user-service", "getUserById", e);
             logger.error("Error consultando User Service para usuario {}: {}", userId, e.getMessage());
-            throw new UserServiceException(userId, "getUserById", e.getMessage());
+            throw new UserServiceException(userId, "getUserById", e.getMessage(), isTransient(e));
         } catch (Exception e) {
             logger.error("Error inesperado consultando User Service: {}", e.getMessage());
             throw new ExternalServiceException("user-service", "getUserById", e.getMessage());
@@ -365,12 +744,18 @@ public class OrderService {
 
     private ProductDto getProductById(Long productId) {
         try {
-            String url = PRODUCT_SERVICE_URL + "/" + productId;
+            ensureDeadline("product-service", "getProductById");
+            String url = productServiceUrl + "/" + productId;
             logger.debug("Consultando producto en: {}", url);
-            return restTemplate.getForObject(url, ProductDto.class);
+            return orderMetrics.timeRemoteCall("product-service", "getProductById", Phase.PRODUCT,
+                    () -> idempotent("product-service", "getProductById",
+                            () -> restTemplate.getForObject(url, ProductDto.class)));
+        } catch (ExternalServiceException e) {
+            throw e;
         } catch (RestClientException e) {
+            checkDeadlineAfterFailure("product-service", "getProductById", e);
             logger.error("Error consultando Product Service para producto {}: {}", productId, e.getMessage());
-            throw new ProductServiceException(productId, "getProductById", e.getMessage());
+            throw new ProductServiceException(productId, "getProductById", e.getMessage(), isTransient(e));
         } catch (Exception e) {
             logger.error("Error inesperado consultando Product Service: {}", e.getMessage());
             throw new ExternalServiceException("product-service", "getProductById", e.getMessage());
@@ -379,13 +764,19 @@ public class OrderService {
 
     private boolean checkProductStock(Long productId, Integer quantity) {
         try {
-            String url = PRODUCT_SERVICE_URL + "/" + productId + "/check-stock?quantity=" + quantity;
+            ensureDeadline("product-service", "checkProductStock");
+            String url = productServiceUrl + "/" + productId + "/check-stock?quantity=" + quantity;
             logger.debug("Verificando stock en: {}", url);
-            Boolean hasStock = restTemplate.getForObject(url, Boolean.class);
+            Boolean hasStock = orderMetrics.timeRemoteCall("product-service", "checkProductStock", Phase.STOCK,
+                    () -> idempotent("product-service", "checkProductStock",
+                            () -> restTemplate.getForObject(url, Boolean.class)));
             return hasStock != null && hasStock;
+        } catch (ExternalServiceException e) {
+            throw e;
         } catch (RestClientException e) {
+            checkDeadlineAfterFailure("product-service", "checkProductStock", e);
             logger.error("Error verificando stock para producto {}: {}", productId, e.getMessage());
-            throw new ProductServiceException(productId, "checkStock", e.getMessage());
+            throw new ProductServiceException(productId, "checkStock", e.getMessage(), isTransient(e));
         } catch (Exception e) {
             logger.error("Error inesperado verificando stock: {}", e.getMessage());
             return false; // En caso de error, asumimos que no hay stock
@@ -394,11 +785,17 @@ public class OrderService {
 
     private boolean reduceProductStock(Long productId, Integer quantity) {
         try {
-            String url = PRODUCT_SERVICE_URL + "/" + productId + "/reduce-stock?quantity=" + quantity;
+            ensureDeadline("product-service", "reduceProductStock");
+            String url = productServiceUrl + "/" + productId + "/reduce-stock?quantity=" + quantity;
             logger.debug("Reduciendo stock en: {}", url);
-            Boolean success = restTemplate.getForObject(url, Boolean.class);
+            // Sin clave de idempotencia no se reintenta: un reintento podría descontar el stock dos veces
+            Boolean success = orderMetrics.timeRemoteCall("product-service", "reduceProductStock", Phase.STOCK,
+                    () -> restTemplate.getForObject(url, Boolean.class));
             return success != null && success;
+        } catch (ExternalServiceException e) {
+            throw e;
         } catch (RestClientException e) {
+            checkDeadlineAfterFailure("product-service", "reduceProductStock", e);
             logger.error("Error reduciendo stock para producto {}: {}", productId, e.getMessage());
             throw new StockOperationException(productId, "reduce", quantity, e.getMessage());
         } catch (Exception e) {
@@ -410,9 +807,13 @@ public class OrderService {
 
     private boolean increaseProductStock(Long productId, Integer quantity) {
         try {
-            String url = PRODUCT_SERVICE_URL + "/" + productId + "/increase-stock?quantity=" + quantity;
+            String url = productServiceUrl + "/" + productId + "/increase-stock?quantity=" + quantity;
             logger.debug("Aumentando stock en: {}", url);
-            Boolean success = restTemplate.getForObject(url, Boolean.class);
+            // Compensa una cancelación ya aceptada: se completa aunque el cliente haya dejado de esperar.
+            // Tampoco se reintenta, por la misma razón que reduceProductStock
+            Boolean success = Deadline.withoutDeadline(() -> orderMetrics.timeRemoteCall(
+                    "product-service", "increaseProductStock", Phase.STOCK,
+                    () -> restTemplate.getForObject(url, Boolean.class)));
             boolean result = success != null && success;
 
             if (!result) {
@@ -0,0 +1,281 @@
+package com.project_final.order_service.service;
+
+import com.project_final.order_service.config.ReactiveConfig;
+import com.project_final.order_service.model.Order;
+import com.project_final.order_service.Dto.CreateOrderRequest;
+import com.project_final.order_service.Dto.ProductDto;
+import com.project_final.order_service.Dto.UserDto;
+import com.project_final.order_service.repositories.OrderRepository;
+import com.project_final.order_service.events.OrderEventBus;
+import com.project_final.order_service.exceptions.*;
+import com.project_final.order_service.metrics.OrderMetrics;
+import com.project_final.order_service.metrics.ServerTiming;
+import com.project_final.order_service.metrics.ServerTiming.Phase;
+import com.project_final.order_service.resilience.Deadline;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientException;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Creación de órdenes sin bloquear hilos: alternativa a OrderService.createOrder
+ * con las mismas reglas de negocio y las mismas excepciones.
+ *
+ * - Usuario y producto se consultan en paralelo; la verificación de stock va después.
+ * - Cada llamada tiene su timeout, recortado al plazo restante de la petición (Deadline).
+ *   Si falla la verificación de stock se usa el stock informado por el producto.
+ * - El número de creaciones en curso está acotado; por encima se responde 503.
+ * - El guardado se ejecuta en el scheduler de base de datos, o sin ocupar ningún hilo en el
+ *   siguiente lote de OrderGroupCommitter si el group commit está activo.
+ */
+@Service
+public class ReactiveOrderService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveOrderService.class);
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderMetrics orderMetrics;
+
+    // Opcional: solo existe con order.group-commit.enabled=true
+    @Autowired(required = false)
+    private OrderGroupCommitter orderGroupCommitter;
+
+    // Opcional: solo existe con order.events.enabled=true
+    @Autowired(required = false)
+    private OrderEventBus orderEventBus;
+
+    @Autowired
+    @Qualifier(ReactiveConfig.ORDER_WEB_CLIENT)
+    private WebClient webClient;
+
+    @Autowired
+    @Qualifier(ReactiveConfig.ORDER_DB_SCHEDULER)
+    private Scheduler dbScheduler;
+
+    @Value("${order.reactive.remote-timeout-ms:2000}")
+    private long remoteTimeoutMs;
+
+    @Value("${order.reactive.max-in-flight:1000}")
+    private int maxInFlight;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    // URLs de otros servicios: el host es el ID del servicio y lo resuelve el balanceador
+    @Value("${product.service.url:http://product-service}/api/products")
+    private String productServiceUrl = "http://product-service/api/products";
+
+    @Value("${user.service.url:http://user-service}/api/users")
+    private String userServiceUrl = "http://user-service/api/users";
+
+    // Crear orden
+    public Mono<Order> createOrder(CreateOrderRequest request) {
+        // Se capturan en el hilo de la petición: el resto del pipeline corre en el event loop
+        ServerTiming timing = ServerTiming.current();
+        Deadline deadline = Deadline.current();
+
+        return Mono.defer(() -> {
+            logger.info("Iniciando creación reactiva de orden para usuario {} y producto {}",
+                    request != null ? request.getUserId() : null, request != null ? request.getProductId() : null);
+
+            // Validar entrada
+            long validationStart = System.nanoTime();
+            orderService.validateCreateOrderRequest(request);
+            addTiming(timing, Phase.VALIDATION, validationStart);
+
+            if (inFlight.incrementAndGet() > maxInFlight) {
+                inFlight.decrementAndGet();
+                return Mono.error(new RejectedExecutionException(
+                        "Se alcanzó el máximo de " + maxInFlight + " creaciones de orden en curso"));
+            }
+
+            return Mono.zip(getUserById(request.getUserId(), timing, deadline),
+                            getProductById(request.getProductId(), timing, deadline))
+                    .flatMap(userAndProduct -> {
+                        ProductDto product = userAndProduct.getT2();
+                        return checkProductStock(request.getProductId(), request.getQuantity(), product,
+                                timing, deadline)
+                                .flatMap(hasStock -> {
+                                    if (!hasStock) {
+                                        return Mono.error(new InsufficientStockException(request.getProductId(),
+                                                request.getQuantity(), product.getStock()));
+                                    }
+                                    // Si el cliente ya no espera la respuesta no se persiste la orden
+                                    if (deadline != null && deadline.isExpired()) {
+                                        return Mono.error(deadlineExceeded("order-service", "createOrder"));
+                                    }
+                                    return saveOrder(request, product, timing);
+                                });
+                    })
+                    .doOnNext(savedOrder -> {
+                        logger.info("Orden creada exitosamente con ID: {}", savedOrder.getId());
+                        if (orderEventBus != null) {
+                            orderEventBus.publishCreated(savedOrder);
+                        }
+                    })
+                    .onErrorMap(e -> !isExpected(e), e -> {
+                        logger.error("Error inesperado creando orden: {}", e.getMessage(), e);
+                        return new ExternalServiceException("order-service", "createOrder",
+                                "Error inesperado durante la creación de la orden");
+                    })
+                    .doFinally(signal -> inFlight.decrementAndGet());
+        });
+    }
+
+    // Creaciones en curso (pendientes de respuesta remota o de guardado)
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    // ========== MÉTODOS PRIVADOS PARA COMUNICACIÓN CON OTROS SERVICIOS ==========
+
+    private Mono<UserDto> getUserById(Long userId, ServerTiming timing, Deadline deadline) {
+        logger.debug("Consultando usuario en: {}/{}", userServiceUrl, userId);
+        return remoteGet("user-service", "getUserById", timing, Phase.USER, deadline, UserDto.class,
+                userServiceUrl + "/{id}", userId)
+                .onErrorMap(ReactiveOrderService::isRemoteFailure, e -> {
+                    logger.error("Error consultando User Service para usuario {}: {}", userId, describe(e));
+                    return new UserServiceException(userId, "getUserById", describe(e), isTransient(e));
+                })
+                .switchIfEmpty(Mono.error(() -> new UserServiceException(userId, "getUserById",
+                        "Usuario no encontrado")));
+    }
+
+    private Mono<ProductDto> getProductById(Long productId, ServerTiming timing, Deadline deadline) {
+        logger.debug("Consultando producto en: {}/{}", productServiceUrl, productId);
+        return remoteGet("product-service", "getProductById", timing, Phase.PRODUCT, deadline, ProductDto.class,
+                productServiceUrl + "/{id}", productId)
+                .onErrorMap(ReactiveOrderService::isRemoteFailure, e -> {
+                    logger.error("Error consultando Product Service para producto {}: {}", productId, describe(e));
+                    return new ProductServiceException(productId, "getProductById", describe(e), isTransient(e));
+                })
+                .switchIfEmpty(Mono.error(() -> new ProductServiceException(productId, "getProductById",
+                        "Producto no encontrado")));
+    }
+
+    private Mono<Boolean> checkProductStock(Long productId, Integer quantity, ProductDto product,
+                                            ServerTiming timing, Deadline deadline) {
+        logger.debug("Verificando stock en: {}/{}/check-stock?quantity={}", productServiceUrl, productId, quantity);
+        return remoteGet("product-service", "checkProductStock", timing, Phase.STOCK, deadline, Boolean.class,
+                productServiceUrl + "/{id}/check-stock?quantity={quantity}", productId, quantity)
+                .defaultIfEmpty(false)
+                // Fallback: el producto ya trae su stock; la reducción real sigue validándose en Product Service
+                .onErrorResume(ReactiveOrderService::isRemoteFailure, e -> {
+                    logger.warn("Verificación de stock no disponible para producto {} ({}), se usa el stock del producto",
+                            productId, describe(e));
+                    orderMetrics.recordFallback("product-service", "checkProductStock");
+                    return Mono.just(product.getStock() != null && product.getStock() >= quantity);
+                });
+    }
+
+    /**
+     * GET con timeout recortado al plazo restante, que además se reenvía en X-Request-Timeout.
+     * Con el plazo agotado falla con ExternalServiceException sin hacer la llamada.
+     */
+    private <T> Mono<T> remoteGet(String service, String operation, ServerTiming timing, Phase phase,
+                                  Deadline deadline, Class<T> responseType, String uri, Object... uriVariables) {
+        return Mono.defer(() -> {
+            if (deadline != null && deadline.isExpired()) {
+                return Mono.error(deadlineExceeded(service, operation));
+            }
+            int timeoutMs = deadline != null ? deadline.timeoutMillis((int) remoteTimeoutMs) : (int) remoteTimeoutMs;
+
+            WebClient.RequestHeadersSpec<?> spec = webClient.get().uri(uri, uriVariables);
+            if (deadline != null) {
+                spec = spec.header(Deadline.HEADER, String.valueOf(timeoutMs));
+            }
+            Mono<T> call = spec.retrieve()
+                    .bodyToMono(responseType)
+                    .timeout(Duration.ofMillis(timeoutMs));
+
+            return orderMetrics.timeRemoteCall(service, operation, timing, phase, call)
+                    .onErrorMap(e -> e instanceof TimeoutException && deadline != null && deadline.isExpired(),
+                            e -> deadlineExceeded(service, operation));
+        });
+    }
+
+    // ========== MÉTODOS PRIVADOS ==========
+
+    private Mono<Order> saveOrder(CreateOrderRequest request, ProductDto product, ServerTiming timing) {
+        // Calcular precio total
+        BigDecimal totalPrice = product.getPrice().multiply(BigDecimal.valueOf(request.getQuantity()));
+
+        Order order = new Order(request.getUserId(), request.getProductId(),
+                request.getQuantity(), totalPrice);
+        order.setStatus(Order.OrderStatus.CONFIRMED);
+
+        if (orderGroupCommitter != null) {
+            return Mono.defer(() -> {
+                long dbStart = System.nanoTime();
+                return Mono.fromFuture(orderGroupCommitter.submit(order))
+                        .doOnSuccess(savedOrder -> addTiming(timing, Phase.DB, dbStart));
+            });
+        }
+        return Mono.fromCallable(() -> {
+            long dbStart = System.nanoTime();
+            Order savedOrder = orderRepository.save(order);
+            addTiming(timing, Phase.DB, dbStart);
+            return savedOrder;
+        }).subscribeOn(dbScheduler);
+    }
+
+    private ExternalServiceException deadlineExceeded(String service, String operation) {
+        orderMetrics.recordDeadlineExceeded(service, operation);
+        return new ExternalServiceException(service, operation, "Plazo de la petición agotado");
+    }
+
+    private static void addTiming(ServerTiming timing, Phase phase, long start) {
+        if (timing != null) {
+            timing.add(phase, System.nanoTime() - start);
+        }
+    }
+
+    private static boolean isRemoteFailure(Throwable e) {
+        return e instanceof WebClientException || e instanceof TimeoutException;
+    }
+
+    // 5xx, errores de E/S y timeouts; un 4xx (usuario o producto inexistente) se repetiría igual
+    private static boolean isTransient(Throwable e) {
+        if (e instanceof WebClientResponseException responseError) {
+            return responseError.getStatusCode().is5xxServerError();
+        }
+        return e instanceof WebClientRequestException || e instanceof TimeoutException;
+    }
+
+    // Excepciones que ya tienen su respuesta en GlobalExceptionHandler
+    private static boolean isExpected(Throwable e) {
+        return e instanceof OrderValidationException
+                || e instanceof UserServiceException
+                || e instanceof ProductServiceException
+                || e instanceof InsufficientStockException
+                || e instanceof StockOperationException
+                || e instanceof ExternalServiceException
+                || e instanceof RejectedExecutionException;
+    }
+
+    private String describe(Throwable e) {
+        if (e instanceof TimeoutException) {
+            return "Tiempo de espera agotado (" + remoteTimeoutMs + " ms)";
+        }
+        return e.getMessage();
+    }
+}
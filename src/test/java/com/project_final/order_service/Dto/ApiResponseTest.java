@@ -0,0 +1,89 @@
+package com.project_final.order_service.Dto;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project_final.order_service.model.Order;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Api Response Tests")
+class ApiResponseTest {
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    @Test
+    @DisplayName("Should serialize the same JSON as the previous map envelope")
+    void serialize_SameAsMapEnvelope() throws Exception {
+        // Arrange
+        Order order = order();
+        Map<String, Object> envelope = new HashMap<>();
+        envelope.put("success", true);
+        envelope.put("message", "Orden creada correctamente");
+        envelope.put("data", order);
+
+        // Act
+        String json = objectMapper.writeValueAsString(
+                ApiResponse.ok(ApiResponse.constant("Orden creada correctamente"), order));
+
+        // Assert
+        assertEquals(objectMapper.readTree(objectMapper.writeValueAsString(envelope)), objectMapper.readTree(json));
+    }
+
+    @Test
+    @DisplayName("Should write constant and ad hoc messages identically, escapes included")
+    void serialize_ConstantMessageEscaped() throws Exception {
+        // Arrange
+        String message = "Acción \"inválida\"\n";
+        String adHoc = objectMapper.writeValueAsString(new ApiResponse<>(true, message, null));
+
+        // Act
+        String constant = objectMapper.writeValueAsString(new ApiResponse<>(true, ApiResponse.constant(message), null));
+
+        // Assert
+        assertEquals(adHoc, constant);
+        assertEquals(message, objectMapper.readTree(constant).get("message").asText());
+    }
+
+    @Test
+    @DisplayName("Should omit data when there is none")
+    void serialize_WithoutData() throws Exception {
+        // Act
+        String json = objectMapper.writeValueAsString(new ApiResponse<Void>(true, "Orden eliminada correctamente", null));
+
+        // Assert
+        assertEquals("{\"success\":true,\"message\":\"Orden eliminada correctamente\"}", json);
+    }
+
+    @Test
+    @DisplayName("Should read back a stored envelope with its typed data")
+    void deserialize_TypedData() throws Exception {
+        // Arrange
+        String json = objectMapper.writeValueAsString(ApiResponse.ok("Orden cancelada correctamente", order()));
+
+        // Act
+        ApiResponse<Order> response = objectMapper.readValue(json, new TypeReference<ApiResponse<Order>>() {
+        });
+
+        // Assert
+        assertTrue(response.success());
+        assertEquals("Orden cancelada correctamente", response.message());
+        assertEquals(7L, response.data().getId());
+        assertEquals(Order.OrderStatus.CONFIRMED, response.data().getStatus());
+    }
+
+    // ========== MÉTODOS AUXILIARES ==========
+
+    private Order order() {
+        Order order = new Order(1L, 2L, 3, new BigDecimal("29.97"));
+        order.setId(7L);
+        order.setStatus(Order.OrderStatus.CONFIRMED);
+        return order;
+    }
+}
@@ -0,0 +1,48 @@
+package com.project_final.order_service.config;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeFalse;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+@DisplayName("Virtual Threads Tests")
+class VirtualThreadsTest {
+
+    private static final boolean JAVA_21 = Runtime.version().feature() >= 21;
+
+    @Test
+    @DisplayName("Should report support according to the running JVM")
+    void isSupported_MatchesJvmVersion() {
+        assertEquals(JAVA_21, VirtualThreads.isSupported());
+    }
+
+    @Test
+    @DisplayName("Should fail with a clear message on JVMs without virtual threads")
+    void newExecutor_UnsupportedJvm() {
+        assumeFalse(JAVA_21);
+
+        IllegalStateException exception = assertThrows(IllegalStateException.class,
+                () -> VirtualThreads.newVirtualThreadPerTaskExecutor("test-vt-"));
+
+        assertTrue(exception.getMessage().contains("Java 21"));
+    }
+
+    @Test
+    @DisplayName("Should run tasks on named virtual threads")
+    void newExecutor_RunsOnVirtualThreads() throws Exception {
+        assumeTrue(JAVA_21);
+
+        ExecutorService executor = VirtualThreads.newVirtualThreadPerTaskExecutor("test-vt-");
+        try {
+            Future<String> name = executor.submit(() -> Thread.currentThread().toString());
+            assertTrue(name.get().contains("test-vt-0"), name.get());
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package com.project_final.order_service.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project_final.order_service.Dto.ApiResponse;
+import com.project_final.order_service.Dto.CreateOrderRequest;
+import com.project_final.order_service.config.AsyncConfig;
+import com.project_final.order_service.exceptions.*;
+import com.project_final.order_service.metrics.OrderMetrics;
+import com.project_final.order_service.model.Order;
+import com.project_final.order_service.service.IdempotencyService;
+import com.project_final.order_service.service.OrderService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.function.Supplier;
+
+import static org.hamcrest.Matchers.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(AsyncOrderController.class)
+@Import(AsyncConfig.class)
+@DisplayName("Async Order Controller Tests")
+class AsyncOrderControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private OrderService orderService;
+
+    @MockBean
+    private IdempotencyService idempotencyService;
+
+    @MockBean
+    private OrderMetrics orderMetrics;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private Order testOrder;
+
+    @BeforeEach
+    void setUp() {
+        // Sin Idempotency-Key el servicio ejecuta la acción sin más
+        when(idempotencyService.execute(isNull(), anyString(), any(), any(), any()))
+                .thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(4).get());
+
+        testOrder = new Order(1L, 1L, 2, new BigDecimal("2599.98"));
+        testOrder.setId(1L);
+        testOrder.setStatus(Order.OrderStatus.CONFIRMED);
+        testOrder.setOrderDate(LocalDateTime.now());
+        testOrder.setCreatedAt(LocalDateTime.now());
+        testOrder.setUpdatedAt(LocalDateTime.now());
+    }
+
+    @Test
+    @DisplayName("POST /api/orders/async - Should create order on the I/O executor")
+    void createOrder_Success() throws Exception {
+        // Arrange
+        when(orderService.createOrder(any(CreateOrderRequest.class))).thenReturn(testOrder);
+
+        // Act
+        MvcResult result = mockMvc.perform(post("/api/orders/async")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new CreateOrderRequest(1L, 1L, 2))))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.success", is(true)))
+                .andExpect(jsonPath("$.message", is("Orden creada correctamente")))
+                .andExpect(jsonPath("$.data.id", is(1)));
+    }
+
+    @Test
+    @DisplayName("POST /api/orders/async - Should replay a retried Idempotency-Key without creating again")
+    void createOrder_IdempotencyKeyReplayed() throws Exception {
+        // Arrange
+        CreateOrderRequest request = new CreateOrderRequest(1L, 1L, 2);
+        when(idempotencyService.execute(eq("retry-1"), eq("POST /api/orders"), any(), any(), any()))
+                .thenReturn(ResponseEntity.status(HttpStatus.CREATED)
+                        .header(IdempotencyService.REPLAYED_HEADER, "true")
+                        .body(ApiResponse.ok("Orden creada correctamente", testOrder)));
+
+        // Act
+        MvcResult result = mockMvc.perform(post("/api/orders/async")
+                        .header(IdempotencyService.HEADER, "retry-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isCreated())
+                .andExpect(header().string(IdempotencyService.REPLAYED_HEADER, "true"))
+                .andExpect(jsonPath("$.data.id", is(1)));
+        verify(orderService, never()).createOrder(any());
+    }
+
+    @Test
+    @DisplayName("POST /api/orders/async - Should map service exceptions like the sync endpoint")
+    void createOrder_InsufficientStock() throws Exception {
+        // Arrange
+        when(orderService.createOrder(any(CreateOrderRequest.class)))
+                .thenThrow(new InsufficientStockException(1L, 10, 5));
+
+        // Act
+        MvcResult result = mockMvc.perform(post("/api/orders/async")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new CreateOrderRequest(1L, 1L, 10))))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.errorCode", is("INSUFFICIENT_STOCK")));
+    }
+
+    @Test
+    @DisplayName("PUT /api/orders/async/{id}/status - Should reject invalid status without going async")
+    void updateOrderStatus_InvalidStatus() throws Exception {
+        // Act & Assert
+        mockMvc.perform(put("/api/orders/async/1/status").param("status", "SHIPPED"))
+                .andExpect(request().asyncNotStarted())
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errorCode", is("ORDER_VALIDATION_ERROR")));
+
+        verify(orderService, never()).updateOrderStatus(any(), any());
+    }
+
+    @Test
+    @DisplayName("PUT /api/orders/async/{id}/cancel - Should cancel order asynchronously")
+    void cancelOrder_Success() throws Exception {
+        // Arrange
+        testOrder.setStatus(Order.OrderStatus.CANCELLED);
+        when(orderService.cancelOrder(eq(1L))).thenReturn(testOrder);
+
+        // Act
+        MvcResult result = mockMvc.perform(put("/api/orders/async/1/cancel"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.status", is("CANCELLED")));
+    }
+}
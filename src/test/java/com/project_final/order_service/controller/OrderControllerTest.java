@@ -1,9 +1,16 @@
 package com.project_final.order_service.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.project_final.order_service.config.BinaryFormatsConfig;
 import com.project_final.order_service.Dto.CreateOrderRequest;
 import com.project_final.order_service.exceptions.*;
 import com.project_final.order_service.model.Order;
+import com.project_final.order_service.metrics.OrderMetrics;
+import com.project_final.order_service.service.IdempotencyService;
+import com.project_final.order_service.service.OrderEtags;
 import com.project_final.order_service.service.OrderService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -16,13 +23,18 @@ import org.springframework.test.web.servlet.MockMvc;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
@@ -38,6 +50,12 @@ class OrderControllerTest {
     @MockBean
     private OrderService orderService;
 
+    @MockBean
+    private IdempotencyService idempotencyService;
+
+    @MockBean
+    private OrderMetrics orderMetrics;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -46,6 +64,10 @@ class OrderControllerTest {
 
     @BeforeEach
     void setUp() {
+        // Sin Idempotency-Key el servicio ejecuta la acción sin más
+        when(idempotencyService.execute(isNull(), anyString(), any(), any(), any()))
+                .thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(4).get());
+
         testOrder = new Order(1L, 1L, 2, new BigDecimal("2599.98"));
         testOrder.setId(1L);
         testOrder.setStatus(Order.OrderStatus.CONFIRMED);
@@ -191,6 +213,56 @@ class OrderControllerTest {
         verify(orderService).getAllOrders();
     }
 
+    @Test
+    @DisplayName("GET /api/orders - Should keep JSON when the client accepts any format")
+    void getAllOrders_AnyFormatIsJson() throws Exception {
+        // Arrange
+        when(orderService.getAllOrders()).thenReturn(List.of(testOrder));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/orders").accept(MediaType.ALL))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$[0].id", is(1)));
+    }
+
+    @Test
+    @DisplayName("GET /api/orders - Should return CBOR with the same fields as JSON")
+    void getAllOrders_Cbor() throws Exception {
+        // Arrange
+        when(orderService.getAllOrders()).thenReturn(List.of(testOrder));
+
+        // Act
+        byte[] cbor = mockMvc.perform(get("/api/orders").accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+        byte[] json = mockMvc.perform(get("/api/orders"))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        // Assert
+        assertSameOrders(objectMapper.readTree(json), new CBORMapper().readTree(cbor));
+        assertTrue(cbor.length < json.length);
+    }
+
+    @Test
+    @DisplayName("GET /api/orders - Should return Smile with the same fields as JSON")
+    void getAllOrders_Smile() throws Exception {
+        // Arrange
+        when(orderService.getAllOrders()).thenReturn(List.of(testOrder));
+
+        // Act
+        byte[] smile = mockMvc.perform(get("/api/orders").accept(BinaryFormatsConfig.SMILE))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(BinaryFormatsConfig.SMILE))
+                .andReturn().getResponse().getContentAsByteArray();
+        byte[] json = mockMvc.perform(get("/api/orders"))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        // Assert
+        assertSameOrders(objectMapper.readTree(json), new SmileMapper().readTree(smile));
+    }
+
     @Test
     @DisplayName("GET /api/orders/{id} - Should return order by ID")
     void getOrderById_Success() throws Exception {
@@ -241,6 +313,63 @@ class OrderControllerTest {
         verify(orderService).getOrdersByUserId(1L);
     }
 
+    @Test
+    @DisplayName("GET /api/orders/{id} - Should return the order ETag")
+    void getOrderById_ReturnsEtag() throws Exception {
+        // Arrange
+        when(orderService.getOrderById(1L)).thenReturn(Optional.of(testOrder));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/orders/1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", OrderEtags.forOrder(testOrder)));
+
+        verify(orderService, never()).getOrderEtag(any());
+    }
+
+    @Test
+    @DisplayName("GET /api/orders/{id} - Should return 304 without loading the order when the ETag matches")
+    void getOrderById_NotModified() throws Exception {
+        // Arrange
+        String etag = OrderEtags.forOrder(testOrder);
+        when(orderService.getOrderEtag(1L)).thenReturn(Optional.of(etag));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/orders/1").header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", etag))
+                .andExpect(content().string(""));
+
+        verify(orderService, never()).getOrderById(any());
+    }
+
+    @Test
+    @DisplayName("GET /api/orders/{id} - Should return the order when the ETag is stale")
+    void getOrderById_StaleEtag() throws Exception {
+        // Arrange
+        when(orderService.getOrderEtag(1L)).thenReturn(Optional.of(OrderEtags.forOrder(testOrder)));
+        when(orderService.getOrderById(1L)).thenReturn(Optional.of(testOrder));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/orders/1").header("If-None-Match", "W/\"o1-0\""))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id", is(1)));
+    }
+
+    @Test
+    @DisplayName("GET /api/orders/user/{userId} - Should return 304 without reading the orders when the ETag matches")
+    void getOrdersByUserId_NotModified() throws Exception {
+        // Arrange
+        when(orderService.getOrdersByUserIdEtag(1L)).thenReturn("W/\"u1-3-9-1000\"");
+
+        // Act & Assert
+        mockMvc.perform(get("/api/orders/user/1").header("If-None-Match", "W/\"u1-3-9-1000\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        verify(orderService, never()).getOrdersByUserId(any());
+    }
+
     @Test
     @DisplayName("PUT /api/orders/{id}/status - Should update order status")
     void updateOrderStatus_Success() throws Exception {
@@ -464,4 +593,27 @@ class OrderControllerTest {
 
         verify(orderService, never()).getOrdersByStatus(any(Order.OrderStatus.class));
     }
-}
\ No newline at end of file
+
+    // ========== MÉTODOS AUXILIARES ==========
+
+    // Mismos campos y valores; los números pueden venir con otra representación (decimal o double)
+    private static void assertSameOrders(JsonNode json, JsonNode binary) {
+        assertEquals(json.size(), binary.size());
+        for (int i = 0; i < json.size(); i++) {
+            JsonNode expected = json.get(i);
+            JsonNode actual = binary.get(i);
+            List<String> expectedFields = new ArrayList<>();
+            expected.fieldNames().forEachRemaining(expectedFields::add);
+            List<String> actualFields = new ArrayList<>();
+            actual.fieldNames().forEachRemaining(actualFields::add);
+            assertEquals(expectedFields, actualFields);
+            for (String field : expectedFields) {
+                if (expected.get(field).isNumber()) {
+                    assertEquals(0, expected.get(field).decimalValue().compareTo(actual.get(field).decimalValue()), field);
+                } else {
+                    assertEquals(expected.get(field), actual.get(field), field);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.project_final.order_service.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project_final.order_service.Dto.CreateOrderRequest;
+import com.project_final.order_service.exceptions.OrderValidationException;
+import com.project_final.order_service.metrics.OrderMetrics;
+import com.project_final.order_service.model.OrderIntake;
+import com.project_final.order_service.service.IdempotencyService;
+import com.project_final.order_service.service.OrderIntakeService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
+
+import static org.hamcrest.Matchers.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.ArgumentMatchers.longThat;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(OrderIntakeController.class)
+@DisplayName("Order Intake Controller Tests")
+class OrderIntakeControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private OrderIntakeService orderIntakeService;
+
+    @MockBean
+    private IdempotencyService idempotencyService;
+
+    @MockBean
+    private OrderMetrics orderMetrics;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void setUp() {
+        // Sin Idempotency-Key el servicio ejecuta la acción sin más
+        when(idempotencyService.execute(isNull(), anyString(), any(), any(), any()))
+                .thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(4).get());
+    }
+
+    @Test
+    @DisplayName("POST /api/orders/intake - Should answer 202 with the entry handle")
+    void acceptOrder_Accepted() throws Exception {
+        // Arrange
+        when(orderIntakeService.accept(any(CreateOrderRequest.class))).thenReturn(intake(7L));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/orders/intake")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new CreateOrderRequest(1L, 1L, 2))))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", "/api/orders/intake/7"))
+                .andExpect(jsonPath("$.success", is(true)))
+                .andExpect(jsonPath("$.data.id", is(7)))
+                .andExpect(jsonPath("$.data.status", is("QUEUED")))
+                .andExpect(jsonPath("$.statusUrl", is("/api/orders/intake/7")));
+    }
+
+    @Test
+    @DisplayName("POST /api/orders/intake - Should reject an invalid request with 400")
+    void acceptOrder_InvalidRequest() throws Exception {
+        // Arrange
+        when(orderIntakeService.accept(any(CreateOrderRequest.class)))
+                .thenThrow(new OrderValidationException("quantity", 0, "La cantidad debe ser un número positivo"));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/orders/intake")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new CreateOrderRequest(1L, 1L, 0))))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errorCode", is("ORDER_VALIDATION_ERROR")));
+    }
+
+    @Test
+    @DisplayName("POST /api/orders/intake - Should answer 503 when the queue is full")
+    void acceptOrder_QueueFull() throws Exception {
+        // Arrange
+        when(orderIntakeService.accept(any(CreateOrderRequest.class)))
+                .thenThrow(new RejectedExecutionException("Cola de órdenes llena"));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/orders/intake")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new CreateOrderRequest(1L, 1L, 2))))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(jsonPath("$.errorCode", is("SERVICE_OVERLOADED")));
+    }
+
+    @Test
+    @DisplayName("GET /api/orders/intake/{id} - Should return the completed entry with its order")
+    void getIntake_Completed() throws Exception {
+        // Arrange
+        OrderIntake intake = intake(7L);
+        intake.complete(55L);
+        when(orderIntakeService.awaitCompletion(eq(7L), anyLong()))
+                .thenReturn(CompletableFuture.completedFuture(intake));
+
+        // Act
+        MvcResult result = mockMvc.perform(get("/api/orders/intake/7").param("waitMs", "5000"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.message", is("Orden creada correctamente")))
+                .andExpect(jsonPath("$.data.status", is("COMPLETED")))
+                .andExpect(jsonPath("$.data.orderId", is(55)));
+        verify(orderIntakeService).awaitCompletion(eq(7L), longThat(waitMs -> waitMs > 0 && waitMs <= 5000));
+    }
+
+    @Test
+    @DisplayName("GET /api/orders/intake/{id} - Should cap the long poll wait")
+    void getIntake_WaitCapped() throws Exception {
+        // Arrange
+        when(orderIntakeService.awaitCompletion(eq(7L), anyLong()))
+                .thenReturn(CompletableFuture.completedFuture(intake(7L)));
+
+        // Act
+        MvcResult result = mockMvc.perform(get("/api/orders/intake/7").param("waitMs", "600000"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.status", is("QUEUED")));
+        // Como mucho order.intake.max-wait-ms, y nunca más allá del plazo de la petición
+        verify(orderIntakeService).awaitCompletion(eq(7L), longThat(waitMs -> waitMs <= 25000));
+    }
+
+    // ========== MÉTODOS AUXILIARES ==========
+
+    private static OrderIntake intake(Long id) {
+        OrderIntake intake = new OrderIntake(new CreateOrderRequest(1L, 1L, 2));
+        ReflectionTestUtils.setField(intake, "id", id);
+        return intake;
+    }
+}
@@ -0,0 +1,224 @@
+package com.project_final.order_service.events;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project_final.order_service.model.Order;
+import com.project_final.order_service.model.OrderItem;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Order Change Feed Tests")
+class OrderChangeFeedTest {
+
+    private static final OrderChangeFeed.Filter ALL = new OrderChangeFeed.Filter(null, null, null);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private OrderChangeFeed feed;
+
+    @BeforeEach
+    void setUp() {
+        feed = new OrderChangeFeed(new ObjectMapper().findAndRegisterModules(), meterRegistry, 100, 4, 3, 2, 60_000);
+        feed.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        feed.stop();
+    }
+
+    @Test
+    @DisplayName("Should send only the changes that match the subscription filter")
+    void onEvent_FiltersChanges() throws Exception {
+        // Arrange
+        RecordingEmitter emitter = new RecordingEmitter();
+        feed.subscribe(emitter, new OrderChangeFeed.Filter(1L, null, Order.OrderStatus.CONFIRMED), null);
+
+        // Act
+        publish(0, OrderEvent.Type.CREATED, 10L, 1L, Order.OrderStatus.CONFIRMED);
+        publish(1, OrderEvent.Type.CREATED, 11L, 2L, Order.OrderStatus.CONFIRMED);
+        publish(2, OrderEvent.Type.STATUS_CHANGED, 10L, 1L, Order.OrderStatus.DELIVERED);
+        publish(3, OrderEvent.Type.CREATED, 12L, 1L, Order.OrderStatus.CONFIRMED);
+
+        // Assert
+        assertTrue(emitter.next().startsWith("created:10:"));
+        assertTrue(emitter.next().startsWith("created:12:"));
+        assertNull(emitter.events.poll(100, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    @DisplayName("Should match a product filter on any line of a multi-item order")
+    void onEvent_ProductFilterMatchesAnyLine() throws Exception {
+        // Arrange
+        RecordingEmitter emitter = new RecordingEmitter();
+        feed.subscribe(emitter, new OrderChangeFeed.Filter(null, 7L, null), null);
+        Order order = new Order();
+        order.setId(20L);
+        order.setUserId(1L);
+        order.setItems(List.of(new OrderItem(1, 1L, 2, new BigDecimal("10.00")),
+                new OrderItem(2, 7L, 1, new BigDecimal("5.00"))));
+        OrderEvent event = new OrderEvent();
+        event.set(1, OrderEvent.Type.CREATED, order, null, System.currentTimeMillis());
+
+        // Act
+        publish(0, OrderEvent.Type.CREATED, 10L, 1L, Order.OrderStatus.PENDING);
+        feed.onEvent(event, true);
+
+        // Assert
+        assertTrue(emitter.next().startsWith("created:20:"));
+        assertNull(emitter.events.poll(100, TimeUnit.MILLISECONDS));
+        assertEquals(List.of(1L, 7L), new OrderChange("c", event).getProductIds());
+    }
+
+    @Test
+    @DisplayName("Should replay the changes after the cursor before the live ones")
+    void subscribe_ResumesFromCursor() throws Exception {
+        // Arrange
+        RecordingEmitter first = new RecordingEmitter();
+        feed.subscribe(first, ALL, null);
+        publish(0, OrderEvent.Type.CREATED, 10L, 1L, Order.OrderStatus.CONFIRMED);
+        publish(1, OrderEvent.Type.CREATED, 11L, 1L, Order.OrderStatus.CONFIRMED);
+        publish(2, OrderEvent.Type.DELETED, 10L, 1L, Order.OrderStatus.CONFIRMED);
+        String cursor = cursorOf(first.next());
+
+        // Act
+        RecordingEmitter resumed = new RecordingEmitter();
+        feed.subscribe(resumed, ALL, cursor);
+        publish(3, OrderEvent.Type.CREATED, 12L, 1L, Order.OrderStatus.CONFIRMED);
+
+        // Assert
+        assertTrue(resumed.next().startsWith("created:11:"));
+        assertTrue(resumed.next().startsWith("deleted:10:"));
+        assertTrue(resumed.next().startsWith("created:12:"));
+    }
+
+    @Test
+    @DisplayName("Should send a reset when the cursor belongs to another instance or start")
+    void subscribe_ResetsUnknownCursor() throws Exception {
+        // Arrange
+        publish(0, OrderEvent.Type.CREATED, 10L, 1L, Order.OrderStatus.CONFIRMED);
+        RecordingEmitter emitter = new RecordingEmitter();
+
+        // Act
+        feed.subscribe(emitter, ALL, "abc-5");
+
+        // Assert
+        assertTrue(emitter.next().startsWith(OrderChangeFeed.RESET_EVENT + ":"));
+        assertEquals(1.0, meterRegistry.counter(OrderChangeFeed.RESETS, "reason", "cursor-expired").count());
+    }
+
+    @Test
+    @DisplayName("Should disconnect a subscriber that does not keep up")
+    void onEvent_DisconnectsSlowSubscriber() throws Exception {
+        // Arrange
+        BlockedEmitter slow = new BlockedEmitter();
+        RecordingEmitter fast = new RecordingEmitter();
+        feed.subscribe(slow, ALL, null);
+        feed.subscribe(fast, ALL, null);
+
+        // Act: el primer envío al lento se queda bloqueado y su cola de 4 se llena
+        List<String> received = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            publish(i, OrderEvent.Type.CREATED, 10L + i, 1L, Order.OrderStatus.CONFIRMED);
+            received.add(fast.next());
+        }
+        slow.release.countDown();
+
+        // Assert
+        assertEquals(1.0, meterRegistry.counter(OrderChangeFeed.DISCONNECTED, "reason", "slow").count());
+        assertEquals(1, feed.getSubscriberCount());
+        for (int i = 0; i < 6; i++) {
+            assertTrue(received.get(i).startsWith("created:" + (10 + i) + ":"));
+        }
+    }
+
+    @Test
+    @DisplayName("Should reject subscriptions above the maximum")
+    void subscribe_RejectsAboveMaximum() {
+        // Arrange
+        for (int i = 0; i < 3; i++) {
+            feed.subscribe(new RecordingEmitter(), ALL, null);
+        }
+
+        // Act & Assert
+        assertThrows(RejectedExecutionException.class, () -> feed.subscribe(new RecordingEmitter(), ALL, null));
+        assertEquals(3, feed.getSubscriberCount());
+    }
+
+    // ========== MÉTODOS AUXILIARES ==========
+
+    private void publish(long sequence, OrderEvent.Type type, Long orderId, Long userId, Order.OrderStatus status) {
+        Order order = new Order(userId, 2L, 3, new BigDecimal("30.00"));
+        order.setId(orderId);
+        order.setStatus(status);
+        OrderEvent event = new OrderEvent();
+        event.set(sequence, type, order, null, System.currentTimeMillis());
+        feed.onEvent(event, true);
+    }
+
+    // "tipo:orderId:cursor" -> cursor
+    private static String cursorOf(String event) {
+        return event.substring(event.lastIndexOf(':') + 1);
+    }
+
+    private static class RecordingEmitter extends SseEmitter {
+
+        private static final Pattern FIELDS = Pattern.compile("id:(\\S+)\\nevent:(\\S+)\\ndata:.*?\"orderId\":(\\d+)",
+                Pattern.DOTALL);
+        private static final Pattern RESET = Pattern.compile("id:(\\S+)\\nevent:reset\\n");
+
+        final BlockingQueue<String> events = new LinkedBlockingQueue<>();
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            StringBuilder text = new StringBuilder();
+            builder.build().forEach(part -> text.append(part.getData()));
+            Matcher reset = RESET.matcher(text);
+            if (reset.find()) {
+                events.add(OrderChangeFeed.RESET_EVENT + ":" + reset.group(1));
+                return;
+            }
+            Matcher fields = FIELDS.matcher(text);
+            if (fields.find()) {
+                events.add(fields.group(2) + ":" + fields.group(3) + ":" + fields.group(1));
+            }
+        }
+
+        String next() throws InterruptedException {
+            String event = events.poll(5, TimeUnit.SECONDS);
+            assertNotNull(event, "No llegó el evento esperado");
+            return event;
+        }
+    }
+
+    // Cliente que no lee: el envío no vuelve hasta que se libera
+    private static class BlockedEmitter extends SseEmitter {
+
+        final CountDownLatch release = new CountDownLatch(1);
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
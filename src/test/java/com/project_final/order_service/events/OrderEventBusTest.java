@@ -0,0 +1,190 @@
+package com.project_final.order_service.events;
+
+import com.project_final.order_service.model.Order;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Order Event Bus Tests")
+class OrderEventBusTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private OrderEventBus bus;
+
+    @AfterEach
+    void tearDown() {
+        if (bus != null && bus.isRunning()) {
+            bus.stop();
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("Should deliver every event in order to each consumer")
+    void publish_DeliversInOrder() throws Exception {
+        // Arrange
+        RecordingConsumer first = new RecordingConsumer("first", OrderEventConsumer.Backpressure.DROP, 3);
+        RecordingConsumer second = new RecordingConsumer("second", OrderEventConsumer.Backpressure.BLOCK, 3);
+        bus = new OrderEventBus(8, 100, List.of(first, second), meterRegistry);
+        bus.start();
+
+        // Act
+        Order order = order(10L);
+        bus.publishCreated(order);
+        order.setStatus(Order.OrderStatus.DELIVERED);
+        bus.publishStatusChanged(order, Order.OrderStatus.CONFIRMED);
+        bus.publishDeleted(order);
+
+        // Assert
+        assertTrue(first.done.await(5, TimeUnit.SECONDS));
+        assertTrue(second.done.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of("CREATED:10:CONFIRMED", "STATUS_CHANGED:10:DELIVERED", "DELETED:10:DELIVERED"),
+                first.received);
+        assertEquals(first.received, second.received);
+    }
+
+    @Test
+    @DisplayName("Should hold the event until the transaction commits")
+    void publish_AfterCommit() throws Exception {
+        // Arrange
+        RecordingConsumer consumer = new RecordingConsumer("consumer", OrderEventConsumer.Backpressure.DROP, 1);
+        bus = new OrderEventBus(8, 100, List.of(consumer), meterRegistry);
+        bus.start();
+        TransactionSynchronizationManager.initSynchronization();
+
+        // Act
+        bus.publishCreated(order(10L));
+
+        // Assert
+        assertEquals(-1, bus.getCursor());
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCommit();
+        }
+        assertTrue(consumer.done.await(5, TimeUnit.SECONDS));
+        assertEquals(0, bus.getCursor());
+    }
+
+    @Test
+    @DisplayName("Should let a DROP consumer fall behind and report the events it missed")
+    void publish_DropConsumerOverrun() throws Exception {
+        // Arrange
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingConsumer slow = new RecordingConsumer("slow", OrderEventConsumer.Backpressure.DROP, Integer.MAX_VALUE) {
+            @Override
+            public void onEvent(OrderEvent event, boolean endOfBatch) {
+                awaitQuietly(release);
+                super.onEvent(event, endOfBatch);
+            }
+        };
+        bus = new OrderEventBus(8, 100, List.of(slow), meterRegistry);
+        bus.start();
+
+        // Act: sin consumidores BLOCK publicar nunca espera
+        Order order = order(10L);
+        for (int i = 0; i < 100; i++) {
+            bus.publishCreated(order);
+        }
+        release.countDown();
+        bus.stop();
+
+        // Assert
+        assertEquals(99, bus.getCursor());
+        assertTrue(slow.missed > 0);
+        assertTrue(slow.received.size() < 100);
+        assertEquals(slow.missed, (long) meterRegistry.get(OrderEventBus.DROPPED).tag("consumer", "slow").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should make publishers wait for a BLOCK consumer only up to the timeout")
+    void publish_BlockConsumerTimeout() {
+        // Arrange
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingConsumer stuck = new RecordingConsumer("stuck", OrderEventConsumer.Backpressure.BLOCK, Integer.MAX_VALUE) {
+            @Override
+            public void onEvent(OrderEvent event, boolean endOfBatch) {
+                awaitQuietly(release);
+            }
+        };
+        bus = new OrderEventBus(8, 20, List.of(stuck), meterRegistry);
+        bus.start();
+
+        // Act
+        long start = System.nanoTime();
+        Order order = order(10L);
+        for (int i = 0; i < 10; i++) {
+            bus.publishCreated(order);
+        }
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        release.countDown();
+
+        // Assert
+        assertTrue(elapsedMs >= 20);
+        assertTrue(meterRegistry.get(OrderEventBus.PUBLISH_TIMEOUTS).counter().count() >= 1);
+    }
+
+    // ========== MÉTODOS AUXILIARES ==========
+
+    private static Order order(Long id) {
+        Order order = new Order(1L, 2L, 3, new BigDecimal("30.00"));
+        order.setId(id);
+        order.setStatus(Order.OrderStatus.CONFIRMED);
+        return order;
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static class RecordingConsumer implements OrderEventConsumer {
+
+        private final String name;
+        private final Backpressure backpressure;
+        final List<String> received = new CopyOnWriteArrayList<>();
+        final CountDownLatch done;
+        volatile long missed;
+
+        RecordingConsumer(String name, Backpressure backpressure, int expected) {
+            this.name = name;
+            this.backpressure = backpressure;
+            this.done = new CountDownLatch(expected);
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public Backpressure getBackpressure() {
+            return backpressure;
+        }
+
+        @Override
+        public void onEvent(OrderEvent event, boolean endOfBatch) {
+            received.add(event.getType() + ":" + event.getOrderId() + ":" + event.getStatus());
+            done.countDown();
+        }
+
+        @Override
+        public void onOverrun(long missed) {
+            this.missed += missed;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.project_final.order_service.exceptions;
+
+import com.project_final.order_service.config.ErrorsConfig;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Business Exception Tests")
+class BusinessExceptionTest {
+
+    @AfterEach
+    void tearDown() {
+        BusinessException.setStackTraces(false);
+    }
+
+    @Test
+    @DisplayName("Should not capture the stack trace by default")
+    void create_WithoutStackTrace() {
+        // Act
+        OrderValidationException exception = new OrderValidationException("quantity", -1, "La cantidad debe ser positiva");
+
+        // Assert
+        assertEquals(0, exception.getStackTrace().length);
+        assertEquals("Error de validación en campo 'quantity' con valor '-1': La cantidad debe ser positiva",
+                exception.getMessage());
+    }
+
+    @Test
+    @DisplayName("Should capture the stack trace when enabled for debugging")
+    void create_WithStackTraceWhenEnabled() {
+        // Arrange
+        BusinessException.setStackTraces(true);
+
+        // Act
+        OrderNotFoundException exception = new OrderNotFoundException(999L);
+
+        // Assert
+        assertTrue(exception.getStackTrace().length > 0);
+    }
+
+    @Test
+    @DisplayName("Should apply order.errors.stack-traces once at startup")
+    void errorsConfig_AppliesStackTraces() throws Exception {
+        // Act
+        new ErrorsConfig().businessExceptionStackTraces(true).run(null);
+
+        // Assert
+        assertTrue(BusinessException.isStackTraces());
+        assertTrue(new OrderNotFoundException(999L).getStackTrace().length > 0);
+    }
+
+    @Test
+    @DisplayName("Should keep the stack trace of external service errors")
+    void create_ExternalServiceKeepsStackTrace() {
+        // Act
+        ExternalServiceException exception = new ExternalServiceException("product-service", "getProduct", "timeout");
+
+        // Assert
+        assertTrue(exception.getStackTrace().length > 0);
+    }
+}
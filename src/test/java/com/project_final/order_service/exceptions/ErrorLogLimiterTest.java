@@ -0,0 +1,42 @@
+package com.project_final.order_service.exceptions;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Error Log Limiter Tests")
+class ErrorLogLimiterTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    @DisplayName("Should log up to the burst and then skip until tokens refill")
+    void tryAcquire_SkipsAboveBurst() {
+        // Arrange
+        ErrorLogLimiter limiter = new ErrorLogLimiter(1, 3);
+
+        // Act & Assert
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, limiter.tryAcquire("ORDER_VALIDATION_ERROR", 0));
+        }
+        assertEquals(-1, limiter.tryAcquire("ORDER_VALIDATION_ERROR", 0));
+        assertEquals(-1, limiter.tryAcquire("ORDER_VALIDATION_ERROR", 0));
+        assertEquals(2, limiter.tryAcquire("ORDER_VALIDATION_ERROR", SECOND));
+        assertEquals(0, limiter.tryAcquire("ORDER_VALIDATION_ERROR", 2 * SECOND));
+    }
+
+    @Test
+    @DisplayName("Should limit each error code separately")
+    void tryAcquire_PerErrorCode() {
+        // Arrange
+        ErrorLogLimiter limiter = new ErrorLogLimiter(1, 1);
+        limiter.tryAcquire("ORDER_VALIDATION_ERROR", 0);
+
+        // Act & Assert
+        assertEquals(-1, limiter.tryAcquire("ORDER_VALIDATION_ERROR", 0));
+        assertEquals(0, limiter.tryAcquire("ORDER_NOT_FOUND", 0));
+    }
+}
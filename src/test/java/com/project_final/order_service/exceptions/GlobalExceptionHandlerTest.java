@@ -1,10 +1,13 @@
 package com.project_final.order_service.exceptions;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project_final.order_service.metrics.OrderMetrics;
 import com.project_final.order_service.model.Order;
+import com.project_final.order_service.resilience.ConcurrencyLimitFilter;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.web.servlet.MockMvc;
@@ -25,6 +28,9 @@ class GlobalExceptionHandlerTest {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @MockBean
+    private OrderMetrics orderMetrics;
+
     // TESTS DE EXCEPCIONES ESPECÍFICAS DE ÓRDENES
 
     @Test
@@ -95,6 +101,19 @@ class GlobalExceptionHandlerTest {
                 .andExpect(jsonPath("$.status").value(400));
     }
 
+    @Test
+    void shouldHandleOrderDeletionException() throws Exception {
+        mockMvc.perform(delete("/test/order-deletion"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.errorCode").value("ORDER_DELETION_ERROR"))
+                .andExpect(jsonPath("$.message").value("No se puede eliminar la orden 1 con estado CONFIRMED: "
+                        + "No se puede eliminar una orden con estado CONFIRMED"))
+                .andExpect(jsonPath("$.status").value(400))
+                .andExpect(jsonPath("$.additionalInfo.orderId").value(1))
+                .andExpect(jsonPath("$.additionalInfo.currentStatus").value("CONFIRMED"));
+    }
+
     @Test
     void shouldHandleStockOperationException() throws Exception {
         mockMvc.perform(get("/test/stock-operation"))
@@ -127,6 +146,19 @@ class GlobalExceptionHandlerTest {
                 .andExpect(jsonPath("$.status").value(503));
     }
 
+    @Test
+    void shouldMarkOnlyTransientUpstreamFailuresAsOverload() throws Exception {
+        MvcResult unknownUser = mockMvc.perform(get("/test/user-service"))
+                .andExpect(status().isServiceUnavailable())
+                .andReturn();
+        MvcResult unavailableProduct = mockMvc.perform(get("/test/product-service"))
+                .andExpect(status().isServiceUnavailable())
+                .andReturn();
+
+        assertFalse(ConcurrencyLimitFilter.isOverloaded(unknownUser.getRequest()));
+        assertTrue(ConcurrencyLimitFilter.isOverloaded(unavailableProduct.getRequest()));
+    }
+
     @Test
     void shouldHandleExternalServiceException() throws Exception {
         mockMvc.perform(get("/test/external-service"))
@@ -136,6 +168,17 @@ class GlobalExceptionHandlerTest {
                 .andExpect(jsonPath("$.status").value(503));
     }
 
+    @Test
+    void shouldHandleRateLimitExceededException() throws Exception {
+        mockMvc.perform(get("/test/rate-limit"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "2"))
+                .andExpect(jsonPath("$.errorCode").value("RATE_LIMIT_EXCEEDED"))
+                .andExpect(jsonPath("$.status").value(429))
+                .andExpect(jsonPath("$.additionalInfo.scope").value("user"))
+                .andExpect(jsonPath("$.additionalInfo.retryAfterMs").value(1500));
+    }
+
     //  TESTS DE EXCEPCIONES GENERALES DE SPRING
 
     @Test
@@ -214,6 +257,12 @@ class GlobalExceptionHandlerTest {
             throw new OrderCancellationException(1L, Order.OrderStatus.DELIVERED);
         }
 
+        @DeleteMapping("/test/order-deletion")
+        public void orderDeletion() {
+            throw new OrderDeletionException(1L, Order.OrderStatus.CONFIRMED,
+                    "No se puede eliminar una orden con estado CONFIRMED");
+        }
+
         @GetMapping("/test/stock-operation")
         public void stockOperation() {
             throw new StockOperationException(1L, "reduce", 10, "Error en operación");
@@ -226,7 +275,7 @@ class GlobalExceptionHandlerTest {
 
         @GetMapping("/test/product-service")
         public void productService() {
-            throw new ProductServiceException(1L, "getProductById", "Producto no disponible");
+            throw new ProductServiceException(1L, "getProductById", "Producto no disponible", true);
         }
 
         @GetMapping("/test/external-service")
@@ -234,6 +283,11 @@ class GlobalExceptionHandlerTest {
             throw new ExternalServiceException("external-api", "getData", "Servicio no disponible");
         }
 
+        @GetMapping("/test/rate-limit")
+        public void rateLimit() {
+            throw new RateLimitExceededException("user", "standard", 1500);
+        }
+
         @PostMapping("/test/create-order")
         public void createOrder(@RequestBody Object request) {
             // Este método causará HttpMessageNotReadableException si el JSON es inválido
@@ -18,7 +18,13 @@ import org.springframework.transaction.annotation.Transactional;
 import jakarta.persistence.EntityManager;
 import org.springframework.beans.factory.annotation.Autowired;
 
+import java.io.ByteArrayInputStream;
 import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.zip.GZIPInputStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -377,4 +383,27 @@ class OrderServiceIntegrationTest {
             assertTrue(errorBody.contains("ORDER_STATUS_ERROR"));
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    void shouldCompressLargeResponsesOnly() throws Exception {
+        // Lista por encima de server.compression.min-response-size
+        for (int i = 0; i < 50; i++) {
+            orderRepository.save(new Order(1L, 1L, 2, BigDecimal.valueOf(100.0)));
+        }
+        HttpClient client = HttpClient.newHttpClient();
+
+        HttpResponse<byte[]> large = client.send(HttpRequest.newBuilder(URI.create(baseUrl))
+                .header("Accept-Encoding", "gzip").build(), HttpResponse.BodyHandlers.ofByteArray());
+        assertEquals(200, large.statusCode());
+        assertEquals("gzip", large.headers().firstValue("Content-Encoding").orElse(null));
+        try (GZIPInputStream body = new GZIPInputStream(new ByteArrayInputStream(large.body()))) {
+            assertEquals(50, objectMapper.readTree(body.readAllBytes()).size());
+        }
+
+        // Respuesta pequeña: se envía sin comprimir
+        HttpResponse<String> small = client.send(HttpRequest.newBuilder(URI.create(baseUrl + "/stats/total"))
+                .header("Accept-Encoding", "gzip").build(), HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, small.statusCode());
+        assertTrue(small.headers().firstValue("Content-Encoding").isEmpty());
+    }
+}
@@ -23,21 +23,21 @@ public class OrderServiceTestConfig {
 
         // Mock User Service - Usuario válido
         UserDto validUser = new UserDto(1L, "Test User", "test@example.com");
-        when(mockRestTemplate.getForObject(eq("http://localhost:8081/api/users/1"), eq(UserDto.class)))
+        when(mockRestTemplate.getForObject(eq("http://user-service/api/users/1"), eq(UserDto.class)))
                 .thenReturn(validUser);
 
         // Mock User Service - Usuario no encontrado
-        when(mockRestTemplate.getForObject(eq("http://localhost:8081/api/users/999"), eq(UserDto.class)))
+        when(mockRestTemplate.getForObject(eq("http://user-service/api/users/999"), eq(UserDto.class)))
                 .thenReturn(null);
 
         // Mock Product Service - Producto válido
         ProductDto validProduct = new ProductDto(1L, "Test Product", "Test Description",
                 BigDecimal.valueOf(50.0), 100);
-        when(mockRestTemplate.getForObject(eq("http://localhost:8082/api/products/1"), eq(ProductDto.class)))
+        when(mockRestTemplate.getForObject(eq("http://product-service/api/products/1"), eq(ProductDto.class)))
                 .thenReturn(validProduct);
 
         // Mock Product Service - Producto no encontrado
-        when(mockRestTemplate.getForObject(eq("http://localhost:8082/api/products/999"), eq(ProductDto.class)))
+        when(mockRestTemplate.getForObject(eq("http://product-service/api/products/999"), eq(ProductDto.class)))
                 .thenReturn(null);
 
         // Mock Stock Check - Stock suficiente
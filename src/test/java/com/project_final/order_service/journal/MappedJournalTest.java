@@ -0,0 +1,164 @@
+package com.project_final.order_service.journal;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Mapped Journal Tests")
+class MappedJournalTest {
+
+    private static final int SEGMENT_SIZE = 4096;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("Should read back every synced record after reopening")
+    void append_SurvivesReopen() throws Exception {
+        // Arrange
+        try (MappedJournal journal = new MappedJournal(directory, SEGMENT_SIZE)) {
+            journal.sync(appendAll(journal, "record-", 10));
+        }
+
+        // Act
+        try (MappedJournal journal = new MappedJournal(directory, SEGMENT_SIZE)) {
+            List<String> records = readAll(journal, journal.getCheckpointOffset());
+
+            // Assert
+            assertEquals(10, records.size());
+            assertEquals("record-0", records.get(0));
+            assertEquals("record-9", records.get(9));
+        }
+    }
+
+    @Test
+    @DisplayName("Should not expose records until they are synced")
+    void read_OnlySyncedRecords() throws Exception {
+        try (MappedJournal journal = new MappedJournal(directory, SEGMENT_SIZE)) {
+            long first = journal.append(bytes("synced"));
+            journal.sync(first);
+            journal.append(bytes("pending"));
+
+            assertEquals(List.of("synced"), readAll(journal, 0));
+        }
+    }
+
+    @Test
+    @DisplayName("Should roll to new segments and delete the ones below the checkpoint")
+    void checkpoint_DeletesAppliedSegments() throws Exception {
+        try (MappedJournal journal = new MappedJournal(directory, SEGMENT_SIZE)) {
+            journal.sync(appendAll(journal, "record-", 2000));
+            int segments = journal.getSegmentCount();
+            long[] checkpoint = new long[1];
+            journal.read(0, 1500, (next, payload) -> checkpoint[0] = next);
+
+            journal.checkpoint(checkpoint[0]);
+
+            assertTrue(segments > 1);
+            assertTrue(journal.getSegmentCount() < segments);
+        }
+
+        // Al reabrir se continúa desde el checkpoint
+        try (MappedJournal journal = new MappedJournal(directory, SEGMENT_SIZE)) {
+            List<String> records = readAll(journal, journal.getCheckpointOffset());
+            assertEquals(500, records.size());
+            assertEquals("record-1500", records.get(0));
+        }
+    }
+
+    @Test
+    @DisplayName("Should stop at a torn record and overwrite it with the next append")
+    void open_DiscardsTornTail() throws Exception {
+        // Arrange
+        long tornStart;
+        try (MappedJournal journal = new MappedJournal(directory, SEGMENT_SIZE)) {
+            tornStart = journal.append(bytes("complete"));
+            journal.sync(journal.append(bytes("torn")));
+        }
+        corrupt(tornStart + MappedJournal.HEADER_BYTES);
+
+        // Act
+        try (MappedJournal journal = new MappedJournal(directory, SEGMENT_SIZE)) {
+            // Assert
+            assertEquals(tornStart, journal.getSyncedOffset());
+            journal.sync(journal.append(bytes("after")));
+        }
+        try (MappedJournal journal = new MappedJournal(directory, SEGMENT_SIZE)) {
+            assertEquals(List.of("complete", "after"), readAll(journal, 0));
+        }
+    }
+
+    @Test
+    @DisplayName("Should keep every record appended and synced concurrently")
+    void sync_Concurrent() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try (MappedJournal journal = new MappedJournal(directory, 1 << 20)) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 2000; i++) {
+                String value = "record-" + i;
+                futures.add(executor.submit(() -> journal.sync(journal.append(bytes(value)))));
+            }
+            for (Future<?> future : futures) {
+                future.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        try (MappedJournal journal = new MappedJournal(directory, 1 << 20)) {
+            assertEquals(2000, readAll(journal, 0).size());
+        }
+    }
+
+    // ========== MÉTODOS AUXILIARES ==========
+
+    private static long appendAll(MappedJournal journal, String prefix, int count) {
+        long offset = 0;
+        for (int i = 0; i < count; i++) {
+            offset = journal.append(bytes(prefix + i));
+        }
+        return offset;
+    }
+
+    private static List<String> readAll(MappedJournal journal, long from) {
+        List<String> records = new ArrayList<>();
+        long offset = from;
+        while (offset < journal.getSyncedOffset()) {
+            offset = journal.read(offset, 100, (next, payload) -> {
+                byte[] value = new byte[payload.remaining()];
+                payload.get(value);
+                records.add(new String(value, StandardCharsets.UTF_8));
+            });
+        }
+        return records;
+    }
+
+    private void corrupt(long offset) throws Exception {
+        Path segment;
+        try (Stream<Path> files = Files.list(directory)) {
+            segment = files.filter(file -> file.toString().endsWith(".log")).sorted().reduce((a, b) -> b).orElseThrow();
+        }
+        try (RandomAccessFile file = new RandomAccessFile(segment.toFile(), "rw")) {
+            file.seek(offset % SEGMENT_SIZE);
+            file.write('X');
+        }
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
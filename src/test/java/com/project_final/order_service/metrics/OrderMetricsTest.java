@@ -0,0 +1,71 @@
+package com.project_final.order_service.metrics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Order Metrics Tests")
+class OrderMetricsTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private OrderMetrics orderMetrics;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        orderMetrics = new OrderMetrics(meterRegistry);
+    }
+
+    private long remoteCalls(String outcome) {
+        return meterRegistry.find(OrderMetrics.REMOTE_CALLS)
+                .tags("service", "product-service", "operation", "getProductById", "outcome", outcome)
+                .timer()
+                .count();
+    }
+
+    @Test
+    @DisplayName("Should tag successful and empty remote calls")
+    void timeRemoteCall_SuccessAndEmpty() {
+        assertEquals("ok", orderMetrics.timeRemoteCall(
+                "product-service", "getProductById", ServerTiming.Phase.PRODUCT, () -> "ok"));
+        assertNull(orderMetrics.timeRemoteCall(
+                "product-service", "getProductById", ServerTiming.Phase.PRODUCT, () -> null));
+
+        assertEquals(1, remoteCalls("success"));
+        assertEquals(1, remoteCalls("empty"));
+    }
+
+    @Test
+    @DisplayName("Should tag failed remote calls and propagate the exception")
+    void timeRemoteCall_Errors() {
+        assertThrows(HttpServerErrorException.class, () -> orderMetrics.timeRemoteCall(
+                "product-service", "getProductById", ServerTiming.Phase.PRODUCT, () -> {
+                    throw new HttpServerErrorException(HttpStatus.SERVICE_UNAVAILABLE);
+                }));
+        assertThrows(ResourceAccessException.class, () -> orderMetrics.timeRemoteCall(
+                "product-service", "getProductById", ServerTiming.Phase.PRODUCT, () -> {
+                    throw new ResourceAccessException("Read timed out");
+                }));
+
+        assertEquals(1, remoteCalls("server_error"));
+        assertEquals(1, remoteCalls("io_error"));
+    }
+
+    @Test
+    @DisplayName("Should count errors by exception type and status")
+    void recordError() {
+        orderMetrics.recordError(new IllegalStateException(), "INTERNAL_SERVER_ERROR", HttpStatus.INTERNAL_SERVER_ERROR);
+        orderMetrics.recordError(new IllegalStateException(), "INTERNAL_SERVER_ERROR", HttpStatus.INTERNAL_SERVER_ERROR);
+
+        assertEquals(2.0, meterRegistry.find(OrderMetrics.ERRORS)
+                .tags("exception", "IllegalStateException", "status", "500")
+                .counter()
+                .count());
+    }
+}
@@ -0,0 +1,63 @@
+package com.project_final.order_service.metrics;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Server Timing Tests")
+class ServerTimingTest {
+
+    @AfterEach
+    void tearDown() {
+        ServerTiming.unbind();
+    }
+
+    @Test
+    @DisplayName("Should not measure anything when no recorder is bound")
+    void disabled_NoMeasurement() {
+        long start = ServerTiming.start();
+
+        assertEquals(0L, start);
+        ServerTiming.stop(ServerTiming.Phase.DB, start);
+        assertNull(ServerTiming.current());
+    }
+
+    @Test
+    @DisplayName("Should accumulate phases and build the header value")
+    void enabled_BuildsHeader() throws InterruptedException {
+        ServerTiming timing = ServerTiming.bind();
+
+        long start = ServerTiming.start();
+        Thread.sleep(2);
+        ServerTiming.stop(ServerTiming.Phase.USER, start);
+        ServerTiming.markSerializationStart();
+        Thread.sleep(1);
+
+        String header = timing.finish();
+
+        assertTrue(timing.duration(ServerTiming.Phase.USER) >= 2_000_000);
+        assertTrue(header.startsWith("user;desc=\"User Service\";dur="), header);
+        assertTrue(header.contains("ser;desc=\"Serialización\";dur="), header);
+        assertTrue(header.matches(".*total;dur=\\d+\\.\\d{2}$"), header);
+        assertFalse(header.contains("product"), header);
+    }
+
+    @Test
+    @DisplayName("Should record phases measured on a pool thread into the request recorder")
+    void wrap_PropagatesToPoolThread() throws Exception {
+        ServerTiming timing = ServerTiming.bind();
+        Runnable task = ServerTiming.wrap(() -> {
+            long start = ServerTiming.start();
+            ServerTiming.stop(ServerTiming.Phase.DB, start - 1_000_000);
+        });
+
+        Thread worker = new Thread(task);
+        worker.start();
+        worker.join();
+
+        assertTrue(timing.duration(ServerTiming.Phase.DB) >= 1_000_000);
+        assertSame(timing, ServerTiming.current());
+    }
+}
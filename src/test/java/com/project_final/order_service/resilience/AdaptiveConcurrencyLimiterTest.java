@@ -0,0 +1,131 @@
+package com.project_final.order_service.resilience;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Adaptive Concurrency Limiter Tests")
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final long BASE_RTT = TimeUnit.MILLISECONDS.toNanos(10);
+
+    @Test
+    @DisplayName("Should reject requests above the limit until a slot is released")
+    void tryAcquire_RejectsAboveLimit() {
+        AdaptiveConcurrencyLimiter limiter = limiter(3);
+        List<AdaptiveConcurrencyLimiter.Permit> permits = acquire(limiter, 1.0, 3);
+
+        assertNull(limiter.tryAcquire(1.0));
+
+        permits.get(0).onIgnore();
+        assertNotNull(limiter.tryAcquire(1.0));
+    }
+
+    @Test
+    @DisplayName("Should admit a lower priority class only up to its share of the limit")
+    void tryAcquire_ShareReservesCapacity() {
+        AdaptiveConcurrencyLimiter limiter = limiter(10);
+
+        acquire(limiter, 0.5, 5);
+
+        assertNull(limiter.tryAcquire(0.5));
+        assertNotNull(limiter.tryAcquire(1.0));
+    }
+
+    @Test
+    @DisplayName("Should release a permit only once")
+    void permit_ReleasedOnce() {
+        AdaptiveConcurrencyLimiter limiter = limiter(10);
+        AdaptiveConcurrencyLimiter.Permit permit = limiter.tryAcquire(1.0);
+
+        permit.onIgnore();
+        permit.onIgnore();
+        permit.onDropped();
+
+        assertEquals(0, limiter.getInFlight());
+        assertEquals(10, limiter.getLimit());
+    }
+
+    @Test
+    @DisplayName("Should lower the limit when latency grows above the no-queue latency")
+    void onSample_QueueingLowersLimit() {
+        AdaptiveConcurrencyLimiter limiter = limiter(20);
+        saturate(limiter, BASE_RTT, 50);
+        int before = limiter.getLimit();
+
+        // 5 veces la latencia sin cola: las peticiones esperan en algún recurso
+        saturate(limiter, BASE_RTT * 5, 50);
+
+        assertTrue(limiter.getLimit() < before);
+    }
+
+    @Test
+    @DisplayName("Should raise the limit while latency stays flat at high utilization")
+    void onSample_FlatLatencyRaisesLimit() {
+        AdaptiveConcurrencyLimiter limiter = limiter(20);
+
+        saturate(limiter, BASE_RTT, 50);
+
+        assertTrue(limiter.getLimit() > 20);
+    }
+
+    @Test
+    @DisplayName("Should not move the limit when it is mostly unused")
+    void onSample_LowUtilizationIgnored() {
+        AdaptiveConcurrencyLimiter limiter = limiter(20);
+
+        record(limiter, BASE_RTT, 2, 50);
+        record(limiter, BASE_RTT * 5, 2, 50);
+
+        assertEquals(20, limiter.getLimit());
+    }
+
+    @Test
+    @DisplayName("Should cut the limit on dropped requests without going below the minimum")
+    void onDropped_CutsLimit() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("write", 10, 4, 100, 2.0, 0.2);
+
+        limiter.tryAcquire(1.0).onDropped();
+        assertEquals(9, limiter.getLimit());
+
+        for (int i = 0; i < 50; i++) {
+            limiter.tryAcquire(1.0).onDropped();
+        }
+        assertEquals(4, limiter.getLimit());
+    }
+
+    // ========== MÉTODOS AUXILIARES ==========
+
+    private static AdaptiveConcurrencyLimiter limiter(int initialLimit) {
+        return new AdaptiveConcurrencyLimiter("read", initialLimit, 1, 1000, 2.0, 0.2);
+    }
+
+    private static List<AdaptiveConcurrencyLimiter.Permit> acquire(AdaptiveConcurrencyLimiter limiter,
+                                                                   double share, int count) {
+        List<AdaptiveConcurrencyLimiter.Permit> permits = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            AdaptiveConcurrencyLimiter.Permit permit = limiter.tryAcquire(share);
+            assertNotNull(permit);
+            permits.add(permit);
+        }
+        return permits;
+    }
+
+    // Todas las muestras con el límite completo en uso
+    private static void saturate(AdaptiveConcurrencyLimiter limiter, long rttNanos, int samples) {
+        for (int i = 0; i < samples; i++) {
+            limiter.onSample(rttNanos, limiter.getLimit() + 1);
+        }
+    }
+
+    private static void record(AdaptiveConcurrencyLimiter limiter, long rttNanos, int inFlight, int samples) {
+        for (int i = 0; i < samples; i++) {
+            limiter.onSample(rttNanos, inFlight);
+        }
+    }
+}
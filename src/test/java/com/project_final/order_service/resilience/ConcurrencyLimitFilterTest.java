@@ -0,0 +1,131 @@
+package com.project_final.order_service.resilience;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Concurrency Limit Filter Tests")
+class ConcurrencyLimitFilterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AdaptiveConcurrencyLimiter writeLimiter = new AdaptiveConcurrencyLimiter("write", 2, 1, 100, 2.0, 0.2);
+    private final AdaptiveConcurrencyLimiter readLimiter = new AdaptiveConcurrencyLimiter("read", 4, 1, 100, 2.0, 0.2);
+    private final ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(writeLimiter, readLimiter, 0.5, 1,
+            meterRegistry, new ObjectMapper().registerModule(new JavaTimeModule()));
+
+    @Test
+    @DisplayName("Should pass requests through while there is capacity")
+    void doFilter_WithinLimit() throws Exception {
+        MockHttpServletResponse response = perform("POST", "/api/orders", new MockFilterChain());
+
+        assertEquals(200, response.getStatus());
+        assertEquals(0, writeLimiter.getInFlight());
+    }
+
+    @Test
+    @DisplayName("Should reject with 503 and Retry-After when the write limit is full")
+    void doFilter_WriteLimitFull() throws Exception {
+        writeLimiter.tryAcquire(1.0);
+        writeLimiter.tryAcquire(1.0);
+
+        MockHttpServletResponse response = perform("PUT", "/api/orders/1/cancel", new MockFilterChain());
+
+        assertEquals(503, response.getStatus());
+        assertEquals("1", response.getHeader("Retry-After"));
+        assertTrue(response.getContentAsString().contains("SERVICE_OVERLOADED"));
+        assertEquals(1.0, meterRegistry.get(ConcurrencyLimitFilter.REJECTED).tag("class", "write").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should shed stats queries before regular reads")
+    void doFilter_StatsShedFirst() throws Exception {
+        // La mitad del límite de lecturas en uso: las estadísticas ya no caben
+        readLimiter.tryAcquire(1.0);
+        readLimiter.tryAcquire(1.0);
+
+        MockHttpServletResponse stats = perform("GET", "/api/orders/stats/total", new MockFilterChain());
+        MockHttpServletResponse read = perform("GET", "/api/orders/1", new MockFilterChain());
+
+        assertEquals(503, stats.getStatus());
+        assertEquals(200, read.getStatus());
+    }
+
+    @Test
+    @DisplayName("Should keep writes independent from a saturated read limit")
+    void doFilter_SeparateLimits() throws Exception {
+        for (int i = 0; i < 4; i++) {
+            readLimiter.tryAcquire(1.0);
+        }
+
+        assertEquals(503, perform("GET", "/api/orders", new MockFilterChain()).getStatus());
+        assertEquals(200, perform("POST", "/api/orders", new MockFilterChain()).getStatus());
+    }
+
+    @Test
+    @DisplayName("Should not limit endpoints with their own protection")
+    void doFilter_ExcludedPaths() throws Exception {
+        writeLimiter.tryAcquire(1.0);
+        writeLimiter.tryAcquire(1.0);
+
+        assertEquals(200, perform("POST", "/api/orders/async", new MockFilterChain()).getStatus());
+        assertEquals(200, perform("POST", "/api/orders/intake", new MockFilterChain()).getStatus());
+        assertEquals(200, perform("POST", "/api/orders/reactive", new MockFilterChain()).getStatus());
+    }
+
+    @Test
+    @DisplayName("Should cut the limit when a request fails from overload")
+    void doFilter_OverloadCutsLimit() throws Exception {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("write", 20, 1, 100, 2.0, 0.2);
+        ConcurrencyLimitFilter limited = new ConcurrencyLimitFilter(limiter, readLimiter, 0.5, 1,
+                meterRegistry, new ObjectMapper());
+        FilterChain failing = (request, response) -> {
+            ConcurrencyLimitFilter.markOverloaded((HttpServletRequest) request);
+            ((HttpServletResponse) response).setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+        };
+
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/orders");
+        limited.doFilter(request, new MockHttpServletResponse(), failing);
+
+        assertEquals(18, limiter.getLimit());
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    @DisplayName("Should keep the limit under a flood of 503s for unknown users")
+    void doFilter_UnknownUserFloodKeepsLimit() throws Exception {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("write", 20, 4, 100, 2.0, 0.2);
+        ConcurrencyLimitFilter limited = new ConcurrencyLimitFilter(limiter, readLimiter, 0.5, 1,
+                meterRegistry, new ObjectMapper());
+        // Lo que responde GlobalExceptionHandler a un 404 de User Service: 503 sin marca de saturación
+        FilterChain unknownUser = (request, response) ->
+                ((HttpServletResponse) response).setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+
+        for (int i = 0; i < 100; i++) {
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            limited.doFilter(new MockHttpServletRequest("POST", "/api/orders"), response, unknownUser);
+            assertEquals(503, response.getStatus());
+        }
+
+        assertEquals(20, limiter.getLimit());
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    // ========== MÉTODOS AUXILIARES ==========
+
+    private MockHttpServletResponse perform(String method, String uri, FilterChain chain) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, uri);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+}
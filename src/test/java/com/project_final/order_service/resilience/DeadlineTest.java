@@ -0,0 +1,80 @@
+package com.project_final.order_service.resilience;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Deadline Tests")
+class DeadlineTest {
+
+    @AfterEach
+    void tearDown() {
+        Deadline.unbind();
+    }
+
+    @Test
+    @DisplayName("Should cap call timeouts to the remaining budget")
+    void timeoutMillis_CappedByRemainingBudget() {
+        Deadline deadline = Deadline.after(Duration.ofMillis(200));
+
+        assertTrue(deadline.timeoutMillis(5000) <= 200);
+        assertEquals(50, deadline.timeoutMillis(50));
+        assertFalse(deadline.isExpired());
+    }
+
+    @Test
+    @DisplayName("Should never return zero (infinite) as timeout once expired")
+    void timeoutMillis_ExpiredIsOneMillisecond() {
+        Deadline deadline = Deadline.after(Duration.ZERO);
+
+        assertTrue(deadline.isExpired());
+        assertEquals(1, deadline.timeoutMillis(5000));
+        assertEquals(1, deadline.timeoutMillis(0));
+    }
+
+    @Test
+    @DisplayName("Should propagate the deadline to pool threads")
+    void wrap_PropagatesToPoolThread() throws InterruptedException {
+        Deadline deadline = Deadline.after(Duration.ofSeconds(1));
+        Deadline.bind(deadline);
+        AtomicReference<Deadline> seen = new AtomicReference<>();
+
+        Thread worker = new Thread(Deadline.wrap(() -> seen.set(Deadline.current())));
+        worker.start();
+        worker.join();
+
+        assertSame(deadline, seen.get());
+    }
+
+    @Test
+    @DisplayName("Should suspend the deadline for compensating actions")
+    void withoutDeadline_SuspendsAndRestores() {
+        Deadline deadline = Deadline.after(Duration.ZERO);
+        Deadline.bind(deadline);
+
+        Deadline inside = Deadline.withoutDeadline(Deadline::current);
+
+        assertNull(inside);
+        assertSame(deadline, Deadline.current());
+    }
+
+    @Test
+    @DisplayName("Should take the budget from the header, capped to the maximum")
+    void filter_BudgetFromHeader() {
+        DeadlineFilter filter = new DeadlineFilter();
+        ReflectionTestUtils.setField(filter, "defaultTimeoutMs", 5000L);
+        ReflectionTestUtils.setField(filter, "maxTimeoutMs", 30000L);
+
+        assertEquals(5000, filter.budgetMillis(null));
+        assertEquals(5000, filter.budgetMillis("abc"));
+        assertEquals(1200, filter.budgetMillis("1200"));
+        assertEquals(30000, filter.budgetMillis("600000"));
+        assertEquals(0, filter.budgetMillis("-5"));
+    }
+}
@@ -0,0 +1,182 @@
+package com.project_final.order_service.resilience;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.loadbalancer.support.ServiceInstanceListSuppliers;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Instance Load Tracker Tests")
+class InstanceLoadTrackerTest {
+
+    private static final int MIN_SAMPLES = 5;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    // Instancias locales simuladas, sin registro
+    private final ServiceInstance first = instance("product-1", 9001);
+    private final ServiceInstance second = instance("product-2", 9002);
+    private final ServiceInstance third = instance("product-3", 9003);
+
+    @Test
+    @DisplayName("Should prefer the instance with the lowest latency")
+    void choose_PrefersFasterInstance() {
+        InstanceLoadTracker tracker = tracker(30000);
+        record(tracker, first, 10, MIN_SAMPLES);
+        record(tracker, second, 30, MIN_SAMPLES);
+
+        for (int i = 0; i < 20; i++) {
+            assertSame(first, tracker.choose(List.of(first, second)));
+        }
+    }
+
+    @Test
+    @DisplayName("Should move traffic away from a fast instance with requests piling up")
+    void choose_WeighsOutstandingRequests() {
+        InstanceLoadTracker tracker = tracker(30000);
+        record(tracker, first, 10, MIN_SAMPLES);
+        record(tracker, second, 30, MIN_SAMPLES);
+
+        // Coste de first: 10 ms x 4 en curso > 30 ms x 1
+        for (int i = 0; i < 3; i++) {
+            tracker.onStart(first);
+        }
+
+        assertEquals(3, tracker.outstanding(first));
+        assertSame(second, tracker.choose(List.of(first, second)));
+    }
+
+    @Test
+    @DisplayName("Should release the slot of a cancelled request without recording latency")
+    void onCancel_ReleasesOutstanding() {
+        InstanceLoadTracker tracker = tracker(30000);
+        record(tracker, first, 10, 1);
+
+        tracker.onStart(first);
+        tracker.onCancel(first);
+
+        assertEquals(0, tracker.outstanding(first));
+        assertEquals(10.0, tracker.latencyMillis(first), 0.5);
+    }
+
+    @Test
+    @DisplayName("Should eject an instance after consecutive failures")
+    void onComplete_ConsecutiveFailuresEject() {
+        InstanceLoadTracker tracker = tracker(30000);
+        tracker.choose(List.of(first, second, third));
+
+        for (int i = 0; i < 3; i++) {
+            complete(tracker, first, 1, false);
+        }
+
+        assertTrue(tracker.isEjected(first));
+        for (int i = 0; i < 20; i++) {
+            assertNotSame(first, tracker.choose(List.of(first, second, third)));
+        }
+        assertEquals(1.0, meterRegistry.get(InstanceLoadTracker.EJECTIONS)
+                .tag("reason", "failures").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should eject an instance much slower than its peers")
+    void onComplete_SlowInstanceEjected() {
+        InstanceLoadTracker tracker = tracker(30000);
+        record(tracker, first, 10, MIN_SAMPLES);
+        record(tracker, second, 12, MIN_SAMPLES);
+        record(tracker, third, 200, MIN_SAMPLES);
+
+        assertTrue(tracker.isEjected(third));
+        assertFalse(tracker.isEjected(first));
+        assertFalse(tracker.isEjected(second));
+    }
+
+    @Test
+    @DisplayName("Should never eject more than the configured share of instances")
+    void onComplete_EjectionCapped() {
+        InstanceLoadTracker tracker = tracker(30000);
+        tracker.choose(List.of(first, second));
+
+        for (int i = 0; i < 3; i++) {
+            complete(tracker, first, 1, false);
+            complete(tracker, second, 1, false);
+        }
+
+        assertTrue(tracker.isEjected(first) ^ tracker.isEjected(second));
+    }
+
+    @Test
+    @DisplayName("Should readmit an ejected instance once the ejection expires")
+    void choose_ReadmitsAfterEjection() {
+        InstanceLoadTracker tracker = tracker(0);
+        record(tracker, second, 10, MIN_SAMPLES);
+        for (int i = 0; i < 3; i++) {
+            complete(tracker, first, 1, false);
+        }
+        assertTrue(tracker.isEjected(first));
+
+        tracker.choose(List.of(first, second));
+
+        assertFalse(tracker.isEjected(first));
+        // Vuelve con la latencia de sus pares
+        assertEquals(10.0, tracker.latencyMillis(first), 0.5);
+    }
+
+    @Test
+    @DisplayName("Should balance across a static instance list without a registry")
+    void loadBalancer_ChoosesFromStaticInstances() {
+        InstanceLoadTracker tracker = tracker(30000);
+        record(tracker, first, 50, MIN_SAMPLES);
+        record(tracker, second, 5, MIN_SAMPLES);
+        LatencyAwareLoadBalancer loadBalancer = new LatencyAwareLoadBalancer(
+                ServiceInstanceListSuppliers.toProvider("product-service", first, second),
+                "product-service", tracker);
+
+        Response<ServiceInstance> response = loadBalancer.choose(null).block();
+
+        assertNotNull(response);
+        assertTrue(response.hasServer());
+        assertSame(second, response.getServer());
+    }
+
+    @Test
+    @DisplayName("Should return an empty response when the service has no instances")
+    void loadBalancer_NoInstances() {
+        LatencyAwareLoadBalancer loadBalancer = new LatencyAwareLoadBalancer(
+                ServiceInstanceListSuppliers.toProvider("product-service"), "product-service", tracker(30000));
+
+        Response<ServiceInstance> response = loadBalancer.choose(null).block();
+
+        assertNotNull(response);
+        assertFalse(response.hasServer());
+    }
+
+    // ========== MÉTODOS AUXILIARES ==========
+
+    private InstanceLoadTracker tracker(long ejectionMs) {
+        // alpha 1: la EWMA es la última muestra, para que las comprobaciones sean exactas
+        return new InstanceLoadTracker(meterRegistry, 1.0, 3, 3.0, 50, MIN_SAMPLES, ejectionMs, 0.5);
+    }
+
+    private static void record(InstanceLoadTracker tracker, ServiceInstance instance, long millis, int samples) {
+        for (int i = 0; i < samples; i++) {
+            complete(tracker, instance, millis, true);
+        }
+    }
+
+    private static void complete(InstanceLoadTracker tracker, ServiceInstance instance, long millis,
+                                 boolean success) {
+        tracker.onStart(instance);
+        tracker.onComplete(instance, TimeUnit.MILLISECONDS.toNanos(millis), success);
+    }
+
+    private static ServiceInstance instance(String id, int port) {
+        return new DefaultServiceInstance(id, "product-service", "localhost", port, false);
+    }
+}
@@ -0,0 +1,136 @@
+package com.project_final.order_service.resilience;
+
+import com.project_final.order_service.exceptions.RateLimitExceededException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Order Rate Limiter Tests")
+class OrderRateLimiterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final KeyedRateLimiter clientLimiter = new KeyedRateLimiter("client", 1000, 60000);
+    private final KeyedRateLimiter userLimiter = new KeyedRateLimiter("user", 1000, 60000);
+    private final OrderRateLimiter rateLimiter = new OrderRateLimiter(clientLimiter, userLimiter,
+            Map.of("standard", new OrderRateLimiter.Tier("standard", 0.01, 2, 0.01, 5),
+                    "premium", new OrderRateLimiter.Tier("premium", 0.01, 4, 0.01, 50)),
+            Map.of("partner-app", "premium"), "standard", meterRegistry);
+
+    @Test
+    @DisplayName("Should reject a user over its burst without affecting other users")
+    void checkCreateOrder_UserIsolation() {
+        rateLimiter.checkCreateOrder(request("10.0.0.1"), 1L);
+        rateLimiter.checkCreateOrder(request("10.0.0.1"), 1L);
+
+        RateLimitExceededException ex = assertThrows(RateLimitExceededException.class,
+                () -> rateLimiter.checkCreateOrder(request("10.0.0.1"), 1L));
+
+        assertEquals("user", ex.getScope());
+        assertTrue(ex.getRetryAfterMillis() > 0);
+        assertDoesNotThrow(() -> rateLimiter.checkCreateOrder(request("10.0.0.1"), 2L));
+        assertEquals(1.0, meterRegistry.get(OrderRateLimiter.REJECTED)
+                .tag("scope", "user").tag("tier", "standard").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should limit a client that sends a different userId on every request")
+    void checkCreateOrder_ClientRotatingUsers() {
+        for (long userId = 1; userId <= 5; userId++) {
+            rateLimiter.checkCreateOrder(request("10.0.0.1"), userId);
+        }
+
+        RateLimitExceededException ex = assertThrows(RateLimitExceededException.class,
+                () -> rateLimiter.checkCreateOrder(request("10.0.0.1"), 99L));
+
+        assertEquals("client", ex.getScope());
+        // Otro cliente conserva su capacidad
+        assertDoesNotThrow(() -> rateLimiter.checkCreateOrder(request("10.0.0.2"), 99L));
+    }
+
+    @Test
+    @DisplayName("Should apply the tier of a configured client")
+    void checkCreateOrder_ConfiguredClientTier() {
+        MockHttpServletRequest partner = request("10.0.0.1");
+        partner.addHeader(OrderRateLimiter.CLIENT_HEADER, "partner-app");
+
+        for (int i = 0; i < 4; i++) {
+            rateLimiter.checkCreateOrder(partner, 1L);
+        }
+
+        RateLimitExceededException ex = assertThrows(RateLimitExceededException.class,
+                () -> rateLimiter.checkCreateOrder(partner, 1L));
+        assertEquals("premium", ex.getTier());
+    }
+
+    @Test
+    @DisplayName("Should key unknown client ids by remote address")
+    void checkCreateOrder_UnknownClientIdIgnored() {
+        for (int i = 0; i < 5; i++) {
+            MockHttpServletRequest request = request("10.0.0.1");
+            request.addHeader(OrderRateLimiter.CLIENT_HEADER, "client-" + i);
+            rateLimiter.checkCreateOrder(request, (long) i);
+        }
+
+        MockHttpServletRequest request = request("10.0.0.1");
+        request.addHeader(OrderRateLimiter.CLIENT_HEADER, "client-new");
+        assertThrows(RateLimitExceededException.class, () -> rateLimiter.checkCreateOrder(request, 99L));
+    }
+
+    @Test
+    @DisplayName("Should not give a client new buckets when it rotates X-Forwarded-For")
+    void checkCreateOrder_RotatingForwardedForIgnored() {
+        // La dirección la resuelve Tomcat con los proxies de confianza; la cabecera no cuenta
+        for (long userId = 1; userId <= 5; userId++) {
+            MockHttpServletRequest request = request("203.0.113.7");
+            request.addHeader("X-Forwarded-For", "198.51.100." + userId + ", 203.0.113.7");
+            rateLimiter.checkCreateOrder(request, userId);
+        }
+
+        MockHttpServletRequest request = request("203.0.113.7");
+        request.addHeader("X-Forwarded-For", "198.51.100.99, 203.0.113.7");
+        RateLimitExceededException ex = assertThrows(RateLimitExceededException.class,
+                () -> rateLimiter.checkCreateOrder(request, 99L));
+
+        assertEquals("client", ex.getScope());
+        assertDoesNotThrow(() -> rateLimiter.checkCreateOrder(request("203.0.113.8"), 99L));
+    }
+
+    @Test
+    @DisplayName("Should bound memory and share an overflow bucket when every key is active")
+    void keyedRateLimiter_Overflow() {
+        KeyedRateLimiter limiter = new KeyedRateLimiter("user", 2, 60000);
+
+        assertEquals(0, limiter.tryAcquire("standard", "1", 0.01, 1));
+        assertEquals(0, limiter.tryAcquire("standard", "2", 0.01, 1));
+        assertEquals(0, limiter.tryAcquire("standard", "3", 0.01, 1));
+
+        assertTrue(limiter.tryAcquire("standard", "4", 0.01, 1) > 0);
+        assertEquals(2, limiter.getKeyCount());
+    }
+
+    @Test
+    @DisplayName("Should evict buckets that have refilled")
+    void keyedRateLimiter_EvictsIdle() {
+        KeyedRateLimiter limiter = new KeyedRateLimiter("user", 10, 60000);
+        limiter.tryAcquire("standard", "1", 1000, 1);
+        limiter.tryAcquire("standard", "2", 0.01, 1);
+
+        limiter.sweep(System.nanoTime() + 1_000_000_000L);
+
+        assertEquals(1, limiter.getKeyCount());
+        assertEquals(1, limiter.getEvictedCount());
+    }
+
+    // ========== MÉTODOS AUXILIARES ==========
+
+    private static MockHttpServletRequest request(String remoteAddr) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/orders");
+        request.setRemoteAddr(remoteAddr);
+        return request;
+    }
+}
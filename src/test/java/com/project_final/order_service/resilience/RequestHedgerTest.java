@@ -0,0 +1,132 @@
+package com.project_final.order_service.resilience;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Request Hedger Tests")
+class RequestHedgerTest {
+
+    private static final int MIN_SAMPLES = 10;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newCachedThreadPool();
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Should call inline without hedging until enough samples are collected")
+    void execute_WarmupRunsInline() {
+        RequestHedger hedger = hedger(1.0, 10);
+        String caller = Thread.currentThread().getName();
+
+        String thread = hedger.execute("product-service", "getProductById", () -> Thread.currentThread().getName());
+
+        assertEquals(caller, thread);
+        assertEquals(-1, hedger.hedgeDelayMillis("product-service", "getProductById"));
+    }
+
+    @Test
+    @DisplayName("Should send a hedge for a slow primary and use the faster answer")
+    void execute_SlowPrimaryHedgeWins() {
+        RequestHedger hedger = hedger(1.0, 10);
+        warmUp(hedger);
+        AtomicInteger attempts = new AtomicInteger();
+
+        long start = System.nanoTime();
+        String result = hedger.execute("product-service", "getProductById", () -> {
+            if (attempts.incrementAndGet() == 1) {
+                sleep(2000);
+                return "slow";
+            }
+            return "fast";
+        });
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        assertEquals("fast", result);
+        assertTrue(elapsedMs < 1000, "elapsed " + elapsedMs + " ms");
+        assertEquals(1.0, meterRegistry.find(RequestHedger.HEDGES_SENT).counter().count());
+        assertEquals(1.0, meterRegistry.find(RequestHedger.HEDGES_WON).counter().count());
+    }
+
+    @Test
+    @DisplayName("Should not hedge when the budget is exhausted")
+    void execute_NoBudgetNoHedge() {
+        RequestHedger hedger = hedger(0.0, 0);
+        warmUp(hedger);
+        AtomicInteger attempts = new AtomicInteger();
+
+        String result = hedger.execute("user-service", "getUserById", () -> {
+            attempts.incrementAndGet();
+            sleep(100);
+            return "slow";
+        });
+
+        assertEquals("slow", result);
+        assertEquals(1, attempts.get());
+        assertNull(meterRegistry.find(RequestHedger.HEDGES_SENT).counter());
+    }
+
+    @Test
+    @DisplayName("Should propagate the original exception of a failed primary")
+    void execute_PrimaryFailurePropagates() {
+        RequestHedger hedger = hedger(1.0, 10);
+        warmUp(hedger);
+
+        ResourceAccessException exception = assertThrows(ResourceAccessException.class,
+                () -> hedger.execute("user-service", "getUserById", () -> {
+                    throw new ResourceAccessException("Connection refused");
+                }));
+
+        assertEquals("Connection refused", exception.getMessage());
+    }
+
+    @Test
+    @DisplayName("Should estimate the configured percentile of recent latencies")
+    void latencyTracker_Percentile() {
+        LatencyTracker tracker = new LatencyTracker(100, 0.9, 100);
+
+        for (int i = 1; i <= 100; i++) {
+            tracker.record(i);
+        }
+
+        assertEquals(90, tracker.percentileNanos());
+    }
+
+    private RequestHedger hedger(double budgetRatio, int maxBurst) {
+        return new RequestHedger(meterRegistry, executor, 0.95, 1, 50, MIN_SAMPLES, budgetRatio, maxBurst);
+    }
+
+    // Latencias rápidas para que el retardo del hedge quede en el mínimo
+    private void warmUp(RequestHedger hedger) {
+        for (int i = 0; i < MIN_SAMPLES; i++) {
+            hedger.execute("product-service", "getProductById", () -> "warm");
+            hedger.execute("user-service", "getUserById", () -> "warm");
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.project_final.order_service.resilience;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Request Retrier Tests")
+class RequestRetrierTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @AfterEach
+    void tearDown() {
+        Deadline.unbind();
+    }
+
+    @Test
+    @DisplayName("Should retry transient errors until the call succeeds")
+    void execute_TransientErrorRetried() {
+        RequestRetrier retrier = retrier(3, 10);
+        AtomicInteger attempts = new AtomicInteger();
+
+        String result = retrier.execute("product-service", "getProductById", () -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw new HttpServerErrorException(HttpStatus.SERVICE_UNAVAILABLE);
+            }
+            return "ok";
+        });
+
+        assertEquals("ok", result);
+        assertEquals(3, attempts.get());
+        assertEquals(2.0, meterRegistry.get(RequestRetrier.RETRY_ATTEMPTS).counter().count());
+    }
+
+    @Test
+    @DisplayName("Should give up after the maximum number of attempts")
+    void execute_MaxAttemptsReached() {
+        RequestRetrier retrier = retrier(3, 10);
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThrows(ResourceAccessException.class, () -> retrier.execute("product-service", "getProductById", () -> {
+            attempts.incrementAndGet();
+            throw new ResourceAccessException("Connection refused");
+        }));
+
+        assertEquals(3, attempts.get());
+    }
+
+    @Test
+    @DisplayName("Should not retry client errors or non-transient server errors")
+    void execute_NonTransientErrorNotRetried() {
+        RequestRetrier retrier = retrier(3, 10);
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThrows(HttpClientErrorException.class, () -> retrier.execute("user-service", "getUserById", () -> {
+            attempts.incrementAndGet();
+            throw new HttpClientErrorException(HttpStatus.NOT_FOUND);
+        }));
+        assertThrows(HttpServerErrorException.class, () -> retrier.execute("user-service", "getUserById", () -> {
+            attempts.incrementAndGet();
+            throw new HttpServerErrorException(HttpStatus.INTERNAL_SERVER_ERROR);
+        }));
+
+        assertEquals(2, attempts.get());
+    }
+
+    @Test
+    @DisplayName("Should stop retrying when the retry budget is exhausted")
+    void execute_BudgetExhausted() {
+        // Sin crédito por petición: solo la ráfaga inicial de 2 reintentos
+        RequestRetrier retrier = new RequestRetrier(meterRegistry, 2, 0, 0, 0, 2);
+        AtomicInteger attempts = new AtomicInteger();
+
+        for (int i = 0; i < 5; i++) {
+            assertThrows(HttpServerErrorException.class, () -> retrier.execute("product-service", "getProductById",
+                    () -> {
+                        attempts.incrementAndGet();
+                        throw new HttpServerErrorException(HttpStatus.SERVICE_UNAVAILABLE);
+                    }));
+        }
+
+        // 5 primeros intentos + 2 reintentos
+        assertEquals(7, attempts.get());
+        assertEquals(3.0, meterRegistry.get(RequestRetrier.BUDGET_EXHAUSTED).counter().count());
+    }
+
+    @Test
+    @DisplayName("Should not retry when the backoff does not fit in the request deadline")
+    void execute_DeadlineTooShort() {
+        RequestRetrier retrier = retrier(3, 10);
+        Deadline.bind(Deadline.after(Duration.ZERO));
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThrows(HttpServerErrorException.class, () -> retrier.execute("product-service", "getProductById", () -> {
+            attempts.incrementAndGet();
+            throw new HttpServerErrorException(HttpStatus.BAD_GATEWAY);
+        }));
+
+        assertEquals(1, attempts.get());
+    }
+
+    @Test
+    @DisplayName("Should grow the backoff ceiling exponentially up to the maximum")
+    void backoffMillis_BoundedByCeiling() {
+        RequestRetrier retrier = new RequestRetrier(meterRegistry, 10, 10, 100, 0.1, 10);
+
+        for (int i = 0; i < 100; i++) {
+            assertTrue(retrier.backoffMillis(1) <= 10);
+            assertTrue(retrier.backoffMillis(3) <= 40);
+            assertTrue(retrier.backoffMillis(8) <= 100);
+        }
+    }
+
+    private RequestRetrier retrier(int maxAttempts, int maxBurst) {
+        return new RequestRetrier(meterRegistry, maxAttempts, 0, 0, 0.1, maxBurst);
+    }
+}
@@ -0,0 +1,82 @@
+package com.project_final.order_service.resilience;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Token Bucket Tests")
+class TokenBucketTest {
+
+    private static final long START = 0;
+    private static final long MILLIS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    @Test
+    @DisplayName("Should admit a full burst and then report the wait for the next token")
+    void tryAcquire_BurstThenWait() {
+        TokenBucket bucket = new TokenBucket(10, 5, START);
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, bucket.tryAcquire(START));
+        }
+
+        assertEquals(100 * MILLIS, bucket.tryAcquire(START));
+    }
+
+    @Test
+    @DisplayName("Should refill one token per emission interval")
+    void tryAcquire_Refills() {
+        TokenBucket bucket = new TokenBucket(10, 1, START);
+        assertEquals(0, bucket.tryAcquire(START));
+
+        assertEquals(40 * MILLIS, bucket.tryAcquire(START + 60 * MILLIS));
+        assertEquals(0, bucket.tryAcquire(START + 100 * MILLIS));
+    }
+
+    @Test
+    @DisplayName("Should be idle once the bucket is full again")
+    void isIdle_AfterRefill() {
+        TokenBucket bucket = new TokenBucket(10, 5, START);
+        bucket.tryAcquire(START);
+        bucket.tryAcquire(START);
+
+        assertFalse(bucket.isIdle(START + 100 * MILLIS));
+        assertTrue(bucket.isIdle(START + 200 * MILLIS));
+    }
+
+    @Test
+    @DisplayName("Should never admit more than the burst under concurrent use")
+    void tryAcquire_Concurrent() throws Exception {
+        // Sin recarga apreciable durante el test: exactamente burst admisiones
+        TokenBucket bucket = new TokenBucket(0.001, 1000, System.nanoTime());
+        AtomicInteger admitted = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 5000; i++) {
+                        if (bucket.tryAcquire(System.nanoTime()) == 0) {
+                            admitted.incrementAndGet();
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(1000, admitted.get());
+    }
+}
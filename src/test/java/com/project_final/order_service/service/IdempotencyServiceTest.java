@@ -0,0 +1,244 @@
+package com.project_final.order_service.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project_final.order_service.exceptions.IdempotencyKeyException;
+import com.project_final.order_service.exceptions.OrderValidationException;
+import com.project_final.order_service.metrics.OrderMetrics;
+import com.project_final.order_service.model.IdempotencyRecord;
+import com.project_final.order_service.repositories.IdempotencyRecordRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Idempotency Service Tests")
+class IdempotencyServiceTest {
+
+    private static final String SCOPE = "POST /api/orders";
+    private static final TypeReference<Map<String, Object>> BODY_TYPE = new TypeReference<>() {
+    };
+
+    @Mock
+    private IdempotencyRecordRepository repository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    private OrderMetrics orderMetrics = new OrderMetrics(meterRegistry);
+
+    @InjectMocks
+    private IdempotencyService idempotencyService;
+
+    private final AtomicInteger executions = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(idempotencyService, "ttlHours", 24L);
+        ReflectionTestUtils.setField(idempotencyService, "cacheSize", 100);
+        ReflectionTestUtils.setField(idempotencyService, "waitTimeoutMs", 5000L);
+        ReflectionTestUtils.setField(idempotencyService, "staleAfterMs", 60000L);
+    }
+
+    @Test
+    @DisplayName("Should run the action without deduplication when no key is sent")
+    void execute_NoKey() {
+        // Act
+        idempotencyService.execute(null, SCOPE, List.of(1L, 2), BODY_TYPE, createOrder());
+        idempotencyService.execute(null, SCOPE, List.of(1L, 2), BODY_TYPE, createOrder());
+
+        // Assert
+        assertEquals(2, executions.get());
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    @DisplayName("Should replay the original response for a repeated key")
+    void execute_DuplicateReplayed() {
+        // Act
+        ResponseEntity<Map<String, Object>> first = idempotencyService.execute("key-1", SCOPE, List.of(1L, 2),
+                BODY_TYPE, createOrder());
+        ResponseEntity<Map<String, Object>> second = idempotencyService.execute("key-1", SCOPE, List.of(1L, 2),
+                BODY_TYPE, createOrder());
+
+        // Assert
+        assertEquals(1, executions.get());
+        assertEquals(HttpStatus.CREATED, second.getStatusCode());
+        assertEquals(first.getBody().get("orderId"), second.getBody().get("orderId"));
+        assertEquals("true", second.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER));
+        assertNull(first.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER));
+        verify(repository).saveAndFlush(any(IdempotencyRecord.class));
+        verify(repository).save(any(IdempotencyRecord.class));
+        assertEquals(1.0, meterRegistry.get(OrderMetrics.IDEMPOTENCY).tag("outcome", "replayed").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should reject a repeated key sent with a different request")
+    void execute_DifferentRequestRejected() {
+        // Arrange
+        idempotencyService.execute("key-1", SCOPE, List.of(1L, 2), BODY_TYPE, createOrder());
+
+        // Act & Assert
+        IdempotencyKeyException exception = assertThrows(IdempotencyKeyException.class,
+                () -> idempotencyService.execute("key-1", SCOPE, List.of(1L, 5), BODY_TYPE, createOrder()));
+
+        assertEquals(IdempotencyKeyException.Reason.MISMATCH, exception.getReason());
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    @DisplayName("Should treat the same key on another operation as a different key")
+    void execute_KeyScopedByOperation() {
+        // Act
+        idempotencyService.execute("key-1", SCOPE, List.of(1L, 2), BODY_TYPE, createOrder());
+        idempotencyService.execute("key-1", "PUT /api/orders/cancel", 1L, BODY_TYPE, createOrder());
+
+        // Assert
+        assertEquals(2, executions.get());
+    }
+
+    @Test
+    @DisplayName("Should run a concurrent duplicate only once")
+    void execute_ConcurrentDuplicateRunsOnce() throws Exception {
+        // Arrange
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Supplier<ResponseEntity<Map<String, Object>>> slowAction = () -> {
+            started.countDown();
+            await(release);
+            return createOrder().get();
+        };
+
+        // Act
+        CompletableFuture<ResponseEntity<Map<String, Object>>> first = CompletableFuture.supplyAsync(
+                () -> idempotencyService.execute("key-1", SCOPE, List.of(1L, 2), BODY_TYPE, slowAction));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<ResponseEntity<Map<String, Object>>> duplicate = CompletableFuture.supplyAsync(
+                () -> idempotencyService.execute("key-1", SCOPE, List.of(1L, 2), BODY_TYPE, slowAction));
+        release.countDown();
+
+        // Assert
+        assertEquals(first.get(5, TimeUnit.SECONDS).getBody(), duplicate.get(5, TimeUnit.SECONDS).getBody());
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    @DisplayName("Should release the key when the action fails so a retry runs again")
+    void execute_FailureReleasesKey() {
+        // Arrange
+        Supplier<ResponseEntity<Map<String, Object>>> failing = () -> {
+            executions.incrementAndGet();
+            throw new IllegalStateException("Product Service no disponible");
+        };
+
+        // Act
+        assertThrows(IllegalStateException.class,
+                () -> idempotencyService.execute("key-1", SCOPE, List.of(1L, 2), BODY_TYPE, failing));
+        idempotencyService.execute("key-1", SCOPE, List.of(1L, 2), BODY_TYPE, createOrder());
+
+        // Assert
+        assertEquals(2, executions.get());
+        verify(repository).deleteById(SCOPE + " key-1");
+        verify(transactionManager).rollback(any());
+    }
+
+    @Test
+    @DisplayName("Should replay a response stored by another instance")
+    void execute_CompletedInDatabaseReplayed() throws Exception {
+        // Arrange
+        IdempotencyRecord record = record(List.of(1L, 2));
+        record.complete(201, "{\"success\":true,\"orderId\":7}");
+        when(repository.findById(SCOPE + " key-1")).thenReturn(Optional.of(record));
+
+        // Act
+        ResponseEntity<Map<String, Object>> response = idempotencyService.execute("key-1", SCOPE, List.of(1L, 2),
+                BODY_TYPE, createOrder());
+
+        // Assert
+        assertEquals(0, executions.get());
+        assertEquals(HttpStatus.CREATED, response.getStatusCode());
+        assertEquals(7, response.getBody().get("orderId"));
+        verify(repository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    @DisplayName("Should report a key still being processed by another instance")
+    void execute_InProgressElsewhere() throws Exception {
+        // Arrange
+        IdempotencyRecord record = record(List.of(1L, 2));
+        when(repository.findById(SCOPE + " key-1")).thenReturn(Optional.of(record));
+
+        // Act & Assert
+        IdempotencyKeyException exception = assertThrows(IdempotencyKeyException.class,
+                () -> idempotencyService.execute("key-1", SCOPE, List.of(1L, 2), BODY_TYPE, createOrder()));
+
+        assertEquals(IdempotencyKeyException.Reason.IN_PROGRESS, exception.getReason());
+        assertEquals(0, executions.get());
+    }
+
+    @Test
+    @DisplayName("Should reject a blank key")
+    void execute_BlankKeyRejected() {
+        assertThrows(OrderValidationException.class,
+                () -> idempotencyService.execute(" ", SCOPE, List.of(1L, 2), BODY_TYPE, createOrder()));
+        assertEquals(0, executions.get());
+    }
+
+    // ========== MÉTODOS AUXILIARES ==========
+
+    private Supplier<ResponseEntity<Map<String, Object>>> createOrder() {
+        return () -> {
+            int orderId = executions.incrementAndGet();
+            return new ResponseEntity<>(Map.of("success", true, "orderId", orderId), HttpStatus.CREATED);
+        };
+    }
+
+    private IdempotencyRecord record(Object fingerprint) throws Exception {
+        // Mismo hash que calcula el servicio
+        String json = objectMapper.writeValueAsString(fingerprint);
+        String hash = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256")
+                .digest(json.getBytes(StandardCharsets.UTF_8)));
+        return new IdempotencyRecord(SCOPE + " key-1", hash, LocalDateTime.now().plusHours(1));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
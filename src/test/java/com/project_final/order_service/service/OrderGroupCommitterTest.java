@@ -0,0 +1,134 @@
+package com.project_final.order_service.service;
+
+import com.project_final.order_service.metrics.OrderMetrics;
+import com.project_final.order_service.model.Order;
+import com.project_final.order_service.model.OrderItem;
+import com.project_final.order_service.repositories.OrderItemRepository;
+import com.project_final.order_service.repositories.OrderRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Order Group Committer Tests")
+class OrderGroupCommitterTest {
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private OrderItemRepository orderItemRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    private OrderMetrics orderMetrics = new OrderMetrics(meterRegistry);
+
+    @InjectMocks
+    private OrderGroupCommitter groupCommitter;
+
+    private final AtomicLong ids = new AtomicLong();
+
+    @Test
+    @DisplayName("Should save a whole batch in one transaction and complete every caller")
+    void flush_OneTransactionPerBatch() throws Exception {
+        // Arrange
+        when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> assignId(invocation.getArgument(0)));
+        List<OrderGroupCommitter.Pending> batch = List.of(pending(1L), pending(2L), pending(3L));
+
+        // Act
+        groupCommitter.flush(batch);
+
+        // Assert
+        verify(transactionManager, times(1)).commit(any());
+        assertEquals(1L, batch.get(0).future().get().getId());
+        assertEquals(3L, batch.get(2).future().get().getId());
+        assertEquals(3.0, meterRegistry.get(OrderMetrics.GROUP_COMMIT)
+                .tag("mode", "batch").summary().totalAmount());
+    }
+
+    @Test
+    @DisplayName("Should save the items of a multi-item order with its generated id")
+    void flush_MultiItemOrder() throws Exception {
+        // Arrange
+        when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> assignId(invocation.getArgument(0)));
+        Order order = new Order();
+        order.setItems(List.of(new OrderItem(1, 10L, 2, new BigDecimal("5.00")),
+                new OrderItem(2, 11L, 1, new BigDecimal("3.00"))));
+        order.setUserId(1L);
+        OrderGroupCommitter.Pending pending = new OrderGroupCommitter.Pending(order);
+
+        // Act
+        groupCommitter.flush(List.of(pending));
+
+        // Assert
+        Order saved = pending.future().get();
+        verify(orderItemRepository).saveAll(order.getItems());
+        assertEquals(saved.getId(), saved.getItems().get(1).getOrderId());
+    }
+
+    @Test
+    @DisplayName("Should retry a failed batch order by order so only the bad order fails")
+    void flush_IsolatesFailingOrder() throws Exception {
+        // Arrange
+        when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> {
+            Order order = invocation.getArgument(0);
+            if (order.getUserId() == 2L) {
+                throw new DataIntegrityViolationException("Duplicate entry");
+            }
+            return assignId(order);
+        });
+        List<OrderGroupCommitter.Pending> batch = List.of(pending(1L), pending(2L), pending(3L));
+
+        // Act
+        groupCommitter.flush(batch);
+
+        // Assert
+        // Se deshace la transacción del lote y la del reintento de la orden inválida
+        verify(transactionManager, times(2)).rollback(any());
+        assertNotNull(batch.get(0).future().get().getId());
+        ExecutionException ex = assertThrows(ExecutionException.class, () -> batch.get(1).future().get());
+        assertInstanceOf(DataIntegrityViolationException.class, ex.getCause());
+        assertNotNull(batch.get(2).future().get().getId());
+        assertEquals(2.0, meterRegistry.get(OrderMetrics.GROUP_COMMIT)
+                .tag("mode", "single").summary().totalAmount());
+    }
+
+    @Test
+    @DisplayName("Should reject submissions when the committer is not running")
+    void submit_NotRunning() {
+        assertThrows(RejectedExecutionException.class, () -> groupCommitter.submit(new Order()));
+    }
+
+    // ========== MÉTODOS AUXILIARES ==========
+
+    private OrderGroupCommitter.Pending pending(Long userId) {
+        Order order = new Order(userId, 10L, 1, new BigDecimal("5.00"));
+        return new OrderGroupCommitter.Pending(order);
+    }
+
+    private Order assignId(Order order) {
+        order.setId(ids.incrementAndGet());
+        return order;
+    }
+}
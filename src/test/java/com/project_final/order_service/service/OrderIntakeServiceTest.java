@@ -0,0 +1,283 @@
+package com.project_final.order_service.service;
+
+import com.project_final.order_service.Dto.CreateOrderRequest;
+import com.project_final.order_service.exceptions.InsufficientStockException;
+import com.project_final.order_service.exceptions.OrderNotFoundException;
+import com.project_final.order_service.exceptions.OrderValidationException;
+import com.project_final.order_service.exceptions.ProductServiceException;
+import com.project_final.order_service.exceptions.UserServiceException;
+import com.project_final.order_service.metrics.OrderMetrics;
+import com.project_final.order_service.model.Order;
+import com.project_final.order_service.model.OrderIntake;
+import com.project_final.order_service.repositories.OrderIntakeRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Order Intake Service Tests")
+class OrderIntakeServiceTest {
+
+    @Mock
+    private OrderIntakeRepository repository;
+
+    @Mock
+    private OrderService orderService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    private OrderMetrics orderMetrics = new OrderMetrics(meterRegistry);
+
+    @InjectMocks
+    private OrderIntakeService orderIntakeService;
+
+    private CreateOrderRequest validRequest;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(orderIntakeService, "orderIoExecutor", (Executor) Runnable::run);
+        ReflectionTestUtils.setField(orderIntakeService, "maxPending", 100L);
+        ReflectionTestUtils.setField(orderIntakeService, "maxAttempts", 3);
+        ReflectionTestUtils.setField(orderIntakeService, "retryBackoffMs", 1000L);
+
+        validRequest = new CreateOrderRequest(1L, 1L, 2);
+    }
+
+    @Test
+    @DisplayName("Should queue a valid request without calling remote services")
+    void accept_Success() {
+        // Arrange
+        when(repository.save(any(OrderIntake.class))).thenAnswer(invocation -> withId(invocation.getArgument(0), 10L));
+
+        // Act
+        OrderIntake intake = orderIntakeService.accept(validRequest);
+
+        // Assert
+        assertEquals(10L, intake.getId());
+        assertEquals(OrderIntake.Status.QUEUED, intake.getStatus());
+        verify(orderService).validateCreateOrderRequest(validRequest);
+        verify(orderService, never()).createOrder(any());
+        assertEquals(1.0, meterRegistry.get(OrderMetrics.INTAKE).tag("outcome", "accepted").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should reject an invalid request before queuing it")
+    void accept_InvalidRequest() {
+        // Arrange
+        CreateOrderRequest invalid = new CreateOrderRequest(1L, 1L, 0);
+        doThrow(new OrderValidationException("quantity", 0, "La cantidad debe ser un número positivo"))
+                .when(orderService).validateCreateOrderRequest(invalid);
+
+        // Act & Assert
+        assertThrows(OrderValidationException.class, () -> orderIntakeService.accept(invalid));
+        verify(repository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Should reject new requests when the queue is full")
+    void accept_QueueFull() {
+        // Arrange
+        ReflectionTestUtils.setField(orderIntakeService, "maxPending", 0L);
+
+        // Act & Assert
+        assertThrows(RejectedExecutionException.class, () -> orderIntakeService.accept(validRequest));
+        verify(repository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Should write the entry to the journal instead of the table when it is enabled")
+    void accept_Journal() {
+        // Arrange
+        OrderIntakeJournal journal = mock(OrderIntakeJournal.class);
+        ReflectionTestUtils.setField(orderIntakeService, "intakeJournal", journal);
+        OrderIntake journaled = new OrderIntake(validRequest);
+        when(journal.append(validRequest)).thenReturn(journaled);
+        when(journal.findUnapplied(journaled.getReference())).thenReturn(journaled);
+
+        // Act
+        OrderIntake intake = orderIntakeService.accept(validRequest);
+
+        // Assert
+        assertNull(intake.getId());
+        assertSame(journaled, orderIntakeService.getIntakeByReference(intake.getReference()));
+        verify(repository, never()).save(any());
+        verify(repository, never()).findByReference(any());
+    }
+
+    @Test
+    @DisplayName("Should complete the entry with the created order")
+    void process_Success() {
+        // Arrange
+        OrderIntake intake = claimed(withId(new OrderIntake(validRequest), 10L), 1);
+        Order order = new Order(1L, 1L, 2, new BigDecimal("2599.98"));
+        order.setId(55L);
+        when(orderService.createOrder(any(CreateOrderRequest.class))).thenReturn(order);
+
+        // Act
+        orderIntakeService.process(intake);
+
+        // Assert
+        assertEquals(OrderIntake.Status.COMPLETED, intake.getStatus());
+        assertEquals(55L, intake.getOrderId());
+        verify(repository).save(intake);
+        verify(transactionManager).commit(any());
+    }
+
+    @Test
+    @DisplayName("Should requeue the entry with a backoff when a remote service fails")
+    void process_TransientFailureRequeued() {
+        // Arrange
+        OrderIntake intake = claimed(withId(new OrderIntake(validRequest), 10L), 1);
+        when(orderService.createOrder(any(CreateOrderRequest.class)))
+                .thenThrow(new ProductServiceException(1L, "getProductById", "503 Service Unavailable", true));
+
+        // Act
+        orderIntakeService.process(intake);
+
+        // Assert
+        assertEquals(OrderIntake.Status.QUEUED, intake.getStatus());
+        assertTrue(intake.getAvailableAt().isAfter(LocalDateTime.now()));
+        verify(repository).save(intake);
+        assertEquals(1.0, meterRegistry.get(OrderMetrics.INTAKE).tag("outcome", "retried").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should fail the entry once the attempts are exhausted")
+    void process_AttemptsExhausted() {
+        // Arrange
+        OrderIntake intake = claimed(withId(new OrderIntake(validRequest), 10L), 3);
+        when(orderService.createOrder(any(CreateOrderRequest.class)))
+                .thenThrow(new ProductServiceException(1L, "getProductById", "503 Service Unavailable", true));
+
+        // Act
+        orderIntakeService.process(intake);
+
+        // Assert
+        assertEquals(OrderIntake.Status.FAILED, intake.getStatus());
+        assertEquals("EXTERNAL_SERVICE_ERROR", intake.getErrorCode());
+    }
+
+    @Test
+    @DisplayName("Should fail the entry without retrying when the user does not exist upstream")
+    void process_ClientErrorNotRetried() {
+        // Arrange
+        OrderIntake intake = claimed(withId(new OrderIntake(validRequest), 10L), 1);
+        when(orderService.createOrder(any(CreateOrderRequest.class)))
+                .thenThrow(new UserServiceException(1L, "getUserById", "404 Not Found", false));
+
+        // Act
+        orderIntakeService.process(intake);
+
+        // Assert
+        assertEquals(OrderIntake.Status.FAILED, intake.getStatus());
+        assertEquals("EXTERNAL_SERVICE_ERROR", intake.getErrorCode());
+        assertEquals(1, intake.getAttempts());
+        assertEquals(1.0, meterRegistry.get(OrderMetrics.INTAKE).tag("outcome", "failed").counter().count());
+        assertNull(meterRegistry.find(OrderMetrics.INTAKE).tag("outcome", "retried").counter());
+    }
+
+    @Test
+    @DisplayName("Should fail the entry without retrying a business error")
+    void process_BusinessErrorNotRetried() {
+        // Arrange
+        OrderIntake intake = claimed(withId(new OrderIntake(validRequest), 10L), 1);
+        when(orderService.createOrder(any(CreateOrderRequest.class)))
+                .thenThrow(new InsufficientStockException(1L, 2, 0));
+
+        // Act
+        orderIntakeService.process(intake);
+
+        // Assert
+        assertEquals(OrderIntake.Status.FAILED, intake.getStatus());
+        assertEquals("INSUFFICIENT_STOCK", intake.getErrorCode());
+        verify(transactionManager).rollback(any());
+    }
+
+    @Test
+    @DisplayName("Should wake a long poll as soon as the entry finishes")
+    void awaitCompletion_WokenByWorker() throws Exception {
+        // Arrange
+        OrderIntake intake = claimed(withId(new OrderIntake(validRequest), 10L), 1);
+        OrderIntake finished = withId(new OrderIntake(validRequest), 10L);
+        finished.complete(55L);
+        when(repository.findById(10L))
+                .thenReturn(Optional.of(intake))
+                .thenReturn(Optional.of(intake))
+                .thenReturn(Optional.of(finished));
+        Order order = new Order(1L, 1L, 2, new BigDecimal("2599.98"));
+        order.setId(55L);
+        when(orderService.createOrder(any(CreateOrderRequest.class))).thenReturn(order);
+
+        // Act
+        CompletableFuture<OrderIntake> poll = orderIntakeService.awaitCompletion(10L, 10000);
+        assertFalse(poll.isDone());
+        orderIntakeService.process(intake);
+
+        // Assert
+        OrderIntake result = poll.get(1, TimeUnit.SECONDS);
+        assertEquals(OrderIntake.Status.COMPLETED, result.getStatus());
+        assertEquals(55L, result.getOrderId());
+    }
+
+    @Test
+    @DisplayName("Should return the current state when the long poll times out")
+    void awaitCompletion_TimesOut() throws Exception {
+        // Arrange
+        OrderIntake intake = withId(new OrderIntake(validRequest), 10L);
+        when(repository.findById(10L)).thenReturn(Optional.of(intake));
+
+        // Act
+        OrderIntake result = orderIntakeService.awaitCompletion(10L, 50).get(1, TimeUnit.SECONDS);
+
+        // Assert
+        assertEquals(OrderIntake.Status.QUEUED, result.getStatus());
+    }
+
+    @Test
+    @DisplayName("Should throw OrderNotFoundException for an unknown entry")
+    void getIntake_NotFound() {
+        // Arrange
+        when(repository.findById(99L)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThrows(OrderNotFoundException.class, () -> orderIntakeService.getIntake(99L));
+    }
+
+    // ========== MÉTODOS AUXILIARES ==========
+
+    private static OrderIntake withId(OrderIntake intake, Long id) {
+        ReflectionTestUtils.setField(intake, "id", id);
+        return intake;
+    }
+
+    // Estado tras el UPDATE de reclamación del despachador
+    private static OrderIntake claimed(OrderIntake intake, int attempts) {
+        ReflectionTestUtils.setField(intake, "status", OrderIntake.Status.PROCESSING);
+        ReflectionTestUtils.setField(intake, "attempts", attempts);
+        return intake;
+    }
+}
@@ -1,23 +1,46 @@
 package com.project_final.order_service.service;
 
 import com.project_final.order_service.Dto.CreateOrderRequest;
+import com.project_final.order_service.Dto.OrderItemRequest;
 import com.project_final.order_service.Dto.ProductDto;
 import com.project_final.order_service.Dto.UserDto;
+import com.project_final.order_service.events.OrderEventBus;
+import com.project_final.order_service.exceptions.ExternalServiceException;
+import com.project_final.order_service.exceptions.InsufficientStockException;
+import com.project_final.order_service.exceptions.OrderValidationException;
+import com.project_final.order_service.exceptions.UserServiceException;
+import com.project_final.order_service.metrics.OrderMetrics;
 import com.project_final.order_service.model.Order;
+import com.project_final.order_service.model.OrderItem;
+import com.project_final.order_service.repositories.OrderItemRepository;
+import com.project_final.order_service.repositories.OrderListVersion;
 import com.project_final.order_service.repositories.OrderRepository;
+import com.project_final.order_service.resilience.Deadline;
+import com.project_final.order_service.resilience.RequestRetrier;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
 import org.springframework.web.client.RestTemplate;
 
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.Executor;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -30,9 +53,20 @@ class OrderServiceTest {
     @Mock
     private OrderRepository orderRepository;
 
+    @Mock
+    private OrderItemRepository orderItemRepository;
+
     @Mock
     private RestTemplate restTemplate;
 
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    private OrderMetrics orderMetrics = new OrderMetrics(meterRegistry);
+
     @InjectMocks
     private OrderService orderService;
 
@@ -41,6 +75,11 @@ class OrderServiceTest {
     private ProductDto validProduct;
     private Order validOrder;
 
+    @AfterEach
+    void tearDown() {
+        Deadline.unbind();
+    }
+
     @BeforeEach
     void setUp() {
         // Setup test data
@@ -82,6 +121,12 @@ class OrderServiceTest {
         // Verify interactions
         verify(orderRepository).save(any(Order.class));
         verify(restTemplate, times(3)).getForObject(anyString(), any(Class.class));
+
+        // Cada llamada externa queda registrada con su resultado
+        assertEquals(1, meterRegistry.find(OrderMetrics.REMOTE_CALLS)
+                .tags("operation", "getUserById", "outcome", "success").timer().count());
+        assertEquals(1, meterRegistry.find(OrderMetrics.REMOTE_CALLS)
+                .tags("operation", "checkProductStock", "outcome", "success").timer().count());
     }
 
 
@@ -104,6 +149,107 @@ class OrderServiceTest {
         verify(orderRepository, never()).save(any(Order.class));
     }
 
+    @Test
+    @DisplayName("Should fail fast without remote calls when the deadline is already exhausted")
+    void createOrder_DeadlineExhausted() {
+        // Arrange
+        Deadline.bind(Deadline.after(Duration.ZERO));
+
+        // Act & Assert
+        ExternalServiceException exception = assertThrows(ExternalServiceException.class,
+                () -> orderService.createOrder(validRequest));
+
+        assertEquals("getUserById", exception.getOperation());
+        verifyNoInteractions(restTemplate);
+        verify(orderRepository, never()).save(any(Order.class));
+        assertEquals(1.0, meterRegistry.find(OrderMetrics.DEADLINE_EXCEEDED)
+                .tags("operation", "getUserById").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should stop calling downstream once a slow call consumes the deadline")
+    void createOrder_DeadlineExhaustedMidway() {
+        // Arrange
+        // Plazo holgado para que la llamada de usuario empiece; la respuesta lo agota
+        Deadline.bind(Deadline.after(Duration.ofMillis(500)));
+        when(restTemplate.getForObject(contains("/users/1"), eq(UserDto.class)))
+                .thenAnswer(invocation -> {
+                    Thread.sleep(600);
+                    return validUser;
+                });
+
+        // Act & Assert
+        ExternalServiceException exception = assertThrows(ExternalServiceException.class,
+                () -> orderService.createOrder(validRequest));
+
+        assertEquals("getProductById", exception.getOperation());
+        verify(restTemplate, never()).getForObject(contains("/products/"), eq(ProductDto.class));
+        verify(orderRepository, never()).save(any(Order.class));
+    }
+
+    @Test
+    @DisplayName("Should retry a transient product-service error and create the order")
+    void createOrder_TransientErrorRetried() {
+        // Arrange
+        ReflectionTestUtils.setField(orderService, "requestRetrier",
+                new RequestRetrier(meterRegistry, 3, 0, 0, 0.1, 10));
+        when(restTemplate.getForObject(contains("/users/1"), eq(UserDto.class)))
+                .thenReturn(validUser);
+        when(restTemplate.getForObject(contains("/products/1"), eq(ProductDto.class)))
+                .thenThrow(new HttpServerErrorException(HttpStatus.SERVICE_UNAVAILABLE))
+                .thenReturn(validProduct);
+        when(restTemplate.getForObject(contains("check-stock"), eq(Boolean.class)))
+                .thenReturn(true);
+        when(orderRepository.save(any(Order.class))).thenReturn(validOrder);
+
+        // Act
+        Order result = orderService.createOrder(validRequest);
+
+        // Assert
+        assertNotNull(result);
+        verify(restTemplate, times(2)).getForObject(contains("/products/1"), eq(ProductDto.class));
+        assertEquals(1.0, meterRegistry.get(RequestRetrier.RETRY_ATTEMPTS)
+                .tag("operation", "getProductById").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should flag an upstream 404 as permanent and a 503 as transient")
+    void createOrder_UpstreamFailureClassified() {
+        // Arrange
+        when(restTemplate.getForObject(contains("/users/1"), eq(UserDto.class)))
+                .thenThrow(HttpClientErrorException.create(HttpStatus.NOT_FOUND, "Not Found", null, null, null))
+                .thenThrow(new HttpServerErrorException(HttpStatus.SERVICE_UNAVAILABLE));
+
+        // Act
+        UserServiceException notFound = assertThrows(UserServiceException.class,
+                () -> orderService.createOrder(validRequest));
+        UserServiceException unavailable = assertThrows(UserServiceException.class,
+                () -> orderService.createOrder(validRequest));
+
+        // Assert
+        assertFalse(notFound.isTransient());
+        assertTrue(unavailable.isTransient());
+    }
+
+    @Test
+    @DisplayName("Should never retry a stock mutation")
+    void cancelOrder_StockReturnNotRetried() {
+        // Arrange
+        ReflectionTestUtils.setField(orderService, "requestRetrier",
+                new RequestRetrier(meterRegistry, 3, 0, 0, 0.1, 10));
+        when(orderRepository.findById(1L)).thenReturn(Optional.of(validOrder));
+        when(orderRepository.save(any(Order.class))).thenReturn(validOrder);
+        when(restTemplate.getForObject(contains("increase-stock"), eq(Boolean.class)))
+                .thenThrow(new HttpServerErrorException(HttpStatus.SERVICE_UNAVAILABLE));
+
+        // Act
+        Order result = orderService.cancelOrder(1L);
+
+        // Assert
+        assertEquals(Order.OrderStatus.CANCELLED, result.getStatus());
+        verify(restTemplate, times(1)).getForObject(contains("increase-stock"), eq(Boolean.class));
+    }
+
     @Test
     @DisplayName("Should get all orders successfully")
     void getAllOrders_Success() {
@@ -150,6 +296,22 @@ class OrderServiceTest {
         verify(orderRepository).save(validOrder);
     }
 
+    @Test
+    @DisplayName("Should publish a status change event with the previous status")
+    void updateOrderStatus_PublishesEvent() {
+        // Arrange
+        OrderEventBus orderEventBus = mock(OrderEventBus.class);
+        ReflectionTestUtils.setField(orderService, "orderEventBus", orderEventBus);
+        when(orderRepository.findById(1L)).thenReturn(Optional.of(validOrder));
+        when(orderRepository.save(any(Order.class))).thenReturn(validOrder);
+
+        // Act
+        orderService.updateOrderStatus(1L, Order.OrderStatus.DELIVERED);
+
+        // Assert
+        verify(orderEventBus).publishStatusChanged(validOrder, Order.OrderStatus.CONFIRMED);
+    }
+
 
     @Test
     @DisplayName("Should get orders by user ID")
@@ -168,6 +330,47 @@ class OrderServiceTest {
         verify(orderRepository).findByUserIdOrderByOrderDateDesc(1L);
     }
 
+    @Test
+    @DisplayName("Should change the user orders ETag when an order is added or updated")
+    void getOrdersByUserIdEtag_ChangesWithVersion() {
+        // Arrange
+        LocalDateTime updatedAt = LocalDateTime.of(2024, 1, 10, 12, 0, 0, 123_456_789);
+        when(orderRepository.findVersionByUserId(1L)).thenReturn(
+                new OrderListVersion(2L, 5L, updatedAt),
+                new OrderListVersion(3L, 6L, updatedAt),
+                new OrderListVersion(3L, 6L, updatedAt.plusNanos(1_000)),
+                new OrderListVersion(3L, 6L, updatedAt.plusNanos(1_000)));
+
+        // Act
+        String initial = orderService.getOrdersByUserIdEtag(1L);
+        String added = orderService.getOrdersByUserIdEtag(1L);
+        String updated = orderService.getOrdersByUserIdEtag(1L);
+        String unchanged = orderService.getOrdersByUserIdEtag(1L);
+
+        // Assert
+        assertNotEquals(initial, added);
+        assertNotEquals(added, updated);
+        assertEquals(updated, unchanged);
+        verify(orderRepository, never()).findByUserIdOrderByOrderDateDesc(any());
+    }
+
+    @Test
+    @DisplayName("Should build the order ETag without loading the order")
+    void getOrderEtag_MatchesLoadedOrder() {
+        // Arrange
+        validOrder.setUpdatedAt(LocalDateTime.of(2024, 1, 10, 12, 0, 0, 123_456_789));
+        // La columna guarda microsegundos
+        when(orderRepository.findUpdatedAtById(1L))
+                .thenReturn(Optional.of(LocalDateTime.of(2024, 1, 10, 12, 0, 0, 123_456_000)));
+
+        // Act
+        Optional<String> etag = orderService.getOrderEtag(1L);
+
+        // Assert
+        assertEquals(Optional.of(OrderEtags.forOrder(validOrder)), etag);
+        verify(orderRepository, never()).findById(any());
+    }
+
     @Test
     @DisplayName("Should get total orders count")
     void getTotalOrders_Success() {
@@ -210,4 +413,158 @@ class OrderServiceTest {
         assertEquals(BigDecimal.ZERO, result);
         verify(orderRepository).getTotalSales();
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Should create a multi-item order with one user lookup and one line per product")
+    void createOrder_MultiItem() {
+        // Arrange
+        useDirectExecutor();
+        CreateOrderRequest request = multiItemRequest(
+                new OrderItemRequest(1L, 2), new OrderItemRequest(2L, 1), new OrderItemRequest(1L, 1));
+        when(restTemplate.getForObject(contains("/users/1"), eq(UserDto.class))).thenReturn(validUser);
+        when(restTemplate.getForObject(contains("/products/"), eq(ProductDto.class))).thenReturn(validProduct);
+        when(restTemplate.getForObject(contains("check-stock"), eq(Boolean.class))).thenReturn(true);
+        when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> {
+            Order order = invocation.getArgument(0);
+            order.setId(5L);
+            return order;
+        });
+
+        // Act
+        Order result = orderService.createOrder(request);
+
+        // Assert
+        assertEquals(5L, result.getId());
+        assertEquals(2, result.getItemCount());
+        assertEquals(1L, result.getProductId());
+        assertEquals(3, result.getQuantity());
+        assertEquals(new BigDecimal("5199.96"), result.getTotalPrice());
+        assertEquals(List.of(1L, 2L), result.getItems().stream().map(OrderItem::getProductId).toList());
+        assertTrue(result.getItems().stream().allMatch(item -> item.getOrderId() == 5L));
+
+        verify(restTemplate, times(1)).getForObject(contains("/users/"), eq(UserDto.class));
+        verify(restTemplate, times(2)).getForObject(contains("/products/"), eq(ProductDto.class));
+        verify(orderRepository, times(1)).save(any(Order.class));
+        verify(orderItemRepository).saveAll(result.getItems());
+    }
+
+    @Test
+    @DisplayName("Should reject a multi-item order when any line is out of stock")
+    void createOrder_MultiItemInsufficientStock() {
+        // Arrange
+        useDirectExecutor();
+        CreateOrderRequest request = multiItemRequest(new OrderItemRequest(1L, 2), new OrderItemRequest(2L, 1));
+        when(restTemplate.getForObject(contains("/users/1"), eq(UserDto.class))).thenReturn(validUser);
+        when(restTemplate.getForObject(contains("/products/"), eq(ProductDto.class))).thenReturn(validProduct);
+        when(restTemplate.getForObject(contains("/1/check-stock"), eq(Boolean.class))).thenReturn(true);
+        when(restTemplate.getForObject(contains("/2/check-stock"), eq(Boolean.class))).thenReturn(false);
+
+        // Act & Assert
+        assertThrows(InsufficientStockException.class, () -> orderService.createOrder(request));
+        verify(orderRepository, never()).save(any(Order.class));
+        verify(orderItemRepository, never()).saveAll(any());
+    }
+
+    @Test
+    @DisplayName("Should reject a request that mixes items with productId")
+    void createOrder_MultiItemMixedWithSingleProduct() {
+        // Arrange
+        CreateOrderRequest request = multiItemRequest(new OrderItemRequest(1L, 2));
+        request.setProductId(3L);
+
+        // Act & Assert
+        assertThrows(OrderValidationException.class, () -> orderService.createOrder(request));
+        verifyNoInteractions(restTemplate);
+    }
+
+    @Test
+    @DisplayName("Should store a single-line items order as a header without order_items rows")
+    void createOrder_SingleLineItemsHeaderOnly() {
+        // Arrange
+        useDirectExecutor();
+        CreateOrderRequest request = multiItemRequest(new OrderItemRequest(1L, 2));
+        when(restTemplate.getForObject(contains("/users/1"), eq(UserDto.class))).thenReturn(validUser);
+        when(restTemplate.getForObject(contains("/products/1"), eq(ProductDto.class))).thenReturn(validProduct);
+        when(restTemplate.getForObject(contains("check-stock"), eq(Boolean.class))).thenReturn(true);
+        when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> {
+            Order order = invocation.getArgument(0);
+            order.setId(5L);
+            return order;
+        });
+
+        // Act
+        Order result = orderService.createOrder(request);
+
+        // Assert
+        assertEquals(1, result.getItemCount());
+        assertEquals(1L, result.getProductId());
+        assertEquals(2, result.getQuantity());
+        verify(orderItemRepository, never()).saveAll(any());
+    }
+
+    @Test
+    @DisplayName("Should delete the lines of a single-line items order")
+    void deleteOrder_SingleLineItemsRemovesLines() {
+        // Arrange
+        Order order = new Order();
+        order.setId(5L);
+        order.setStatus(Order.OrderStatus.PENDING);
+        order.setItems(List.of(new OrderItem(1, 1L, 2, new BigDecimal("10.00"))));
+        when(orderRepository.findById(5L)).thenReturn(Optional.of(order));
+
+        // Act
+        orderService.deleteOrder(5L);
+
+        // Assert
+        verify(orderItemRepository).deleteByOrderId(5L);
+        verify(orderRepository).deleteById(5L);
+    }
+
+    @Test
+    @DisplayName("Should load the lines of a multi-item order")
+    void getOrderById_MultiItem() {
+        // Arrange
+        Order order = new Order();
+        order.setId(5L);
+        order.setItems(List.of(new OrderItem(1, 1L, 2, new BigDecimal("10.00")),
+                new OrderItem(2, 2L, 1, new BigDecimal("5.00"))));
+        List<OrderItem> stored = List.of(new OrderItem(1, 1L, 2, new BigDecimal("10.00")),
+                new OrderItem(2, 2L, 1, new BigDecimal("5.00")));
+        when(orderRepository.findById(5L)).thenReturn(Optional.of(order));
+        when(orderItemRepository.findByOrderIdOrderByLineNumber(5L)).thenReturn(stored);
+
+        // Act
+        Order result = orderService.getOrderByIdOrThrow(5L);
+
+        // Assert
+        assertSame(stored, result.getItems());
+        assertEquals(new BigDecimal("25.00"), result.getTotalPrice());
+    }
+
+    @Test
+    @DisplayName("Should not query order lines for single-product orders")
+    void getOrderById_SingleProductSkipsLines() {
+        // Arrange
+        when(orderRepository.findById(1L)).thenReturn(Optional.of(validOrder));
+
+        // Act
+        Order result = orderService.getOrderByIdOrThrow(1L);
+
+        // Assert
+        assertTrue(result.getItems().isEmpty());
+        verifyNoInteractions(orderItemRepository);
+    }
+
+    // ========== MÉTODOS AUXILIARES ==========
+
+    private void useDirectExecutor() {
+        ReflectionTestUtils.setField(orderService, "orderIoExecutor", (Executor) Runnable::run);
+    }
+
+    private static CreateOrderRequest multiItemRequest(OrderItemRequest... items) {
+        CreateOrderRequest request = new CreateOrderRequest();
+        request.setUserId(1L);
+        request.setItems(List.of(items));
+        return request;
+    }
+}
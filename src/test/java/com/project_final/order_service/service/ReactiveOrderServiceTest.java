@@ -0,0 +1,183 @@
+package com.project_final.order_service.service;
+
+import com.project_final.order_service.Dto.CreateOrderRequest;
+import com.project_final.order_service.exceptions.*;
+import com.project_final.order_service.metrics.OrderMetrics;
+import com.project_final.order_service.model.Order;
+import com.project_final.order_service.repositories.OrderRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.math.BigDecimal;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Reactive Order Service Tests")
+class ReactiveOrderServiceTest {
+
+    private static final String USER_JSON = "{\"id\":1,\"name\":\"John Doe\",\"email\":\"john@example.com\"}";
+    private static final String PRODUCT_JSON =
+            "{\"id\":1,\"name\":\"Laptop\",\"description\":\"Gaming Laptop\",\"price\":1299.99,\"stock\":10}";
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Spy
+    private OrderService orderService = new OrderService();
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    private OrderMetrics orderMetrics = new OrderMetrics(meterRegistry);
+
+    @InjectMocks
+    private ReactiveOrderService reactiveOrderService;
+
+    // Respuestas simuladas por ruta, sin abrir puertos
+    private ClientResponse userResponse;
+    private ClientResponse productResponse;
+    private Mono<ClientResponse> stockResponse;
+    private final AtomicInteger remoteCalls = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        userResponse = json(HttpStatus.OK, USER_JSON);
+        productResponse = json(HttpStatus.OK, PRODUCT_JSON);
+        stockResponse = Mono.just(json(HttpStatus.OK, "true"));
+
+        WebClient webClient = WebClient.builder()
+                .exchangeFunction(request -> {
+                    remoteCalls.incrementAndGet();
+                    String path = request.url().getPath();
+                    if (path.startsWith("/api/users/")) {
+                        return Mono.just(userResponse);
+                    }
+                    if (path.endsWith("/check-stock")) {
+                        return stockResponse;
+                    }
+                    return Mono.just(productResponse);
+                })
+                .build();
+
+        ReflectionTestUtils.setField(reactiveOrderService, "webClient", webClient);
+        ReflectionTestUtils.setField(reactiveOrderService, "dbScheduler", Schedulers.immediate());
+        ReflectionTestUtils.setField(reactiveOrderService, "remoteTimeoutMs", 200L);
+        ReflectionTestUtils.setField(reactiveOrderService, "maxInFlight", 10);
+    }
+
+    @Test
+    @DisplayName("Should create order through the non-blocking pipeline")
+    void createOrder_Success() {
+        // Arrange
+        when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> {
+            Order order = invocation.getArgument(0);
+            order.setId(1L);
+            return order;
+        });
+
+        // Act
+        Order result = reactiveOrderService.createOrder(new CreateOrderRequest(1L, 1L, 2)).block();
+
+        // Assert
+        assertNotNull(result);
+        assertEquals(1L, result.getId());
+        assertEquals(Order.OrderStatus.CONFIRMED, result.getStatus());
+        assertEquals(0, new BigDecimal("2599.98").compareTo(result.getTotalPrice()));
+        assertEquals(3, remoteCalls.get());
+        assertEquals(0, reactiveOrderService.getInFlight());
+        assertEquals(3, meterRegistry.get(OrderMetrics.REMOTE_CALLS).tag("outcome", "success").timers().size());
+    }
+
+    @Test
+    @DisplayName("Should reject invalid request before any remote call")
+    void createOrder_InvalidRequest() {
+        // Act & Assert
+        assertThrows(OrderValidationException.class,
+                () -> reactiveOrderService.createOrder(new CreateOrderRequest(1L, 1L, 0)).block());
+
+        assertEquals(0, remoteCalls.get());
+        verify(orderRepository, never()).save(any(Order.class));
+    }
+
+    @Test
+    @DisplayName("Should map user 404 to UserServiceException")
+    void createOrder_UserNotFound() {
+        // Arrange
+        userResponse = json(HttpStatus.NOT_FOUND, "{}");
+
+        // Act & Assert
+        UserServiceException exception = assertThrows(UserServiceException.class,
+                () -> reactiveOrderService.createOrder(new CreateOrderRequest(1L, 1L, 2)).block());
+
+        assertEquals(1L, exception.getUserId());
+        verify(orderRepository, never()).save(any(Order.class));
+        assertEquals(0, reactiveOrderService.getInFlight());
+    }
+
+    @Test
+    @DisplayName("Should throw InsufficientStockException when stock check fails")
+    void createOrder_InsufficientStock() {
+        // Arrange
+        stockResponse = Mono.just(json(HttpStatus.OK, "false"));
+
+        // Act & Assert
+        assertThrows(InsufficientStockException.class,
+                () -> reactiveOrderService.createOrder(new CreateOrderRequest(1L, 1L, 2)).block());
+
+        verify(orderRepository, never()).save(any(Order.class));
+    }
+
+    @Test
+    @DisplayName("Should fall back to product stock when stock check times out")
+    void createOrder_StockCheckTimeoutFallback() {
+        // Arrange
+        stockResponse = Mono.never();
+        when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        Order result = reactiveOrderService.createOrder(new CreateOrderRequest(1L, 1L, 2)).block();
+
+        // Assert
+        assertNotNull(result);
+        assertEquals(1.0, meterRegistry.get(OrderMetrics.FALLBACKS).counter().count());
+    }
+
+    @Test
+    @DisplayName("Should reject new orders when the in-flight limit is reached")
+    void createOrder_InFlightLimit() {
+        // Arrange
+        ReflectionTestUtils.setField(reactiveOrderService, "maxInFlight", 0);
+
+        // Act & Assert
+        assertThrows(RejectedExecutionException.class,
+                () -> reactiveOrderService.createOrder(new CreateOrderRequest(1L, 1L, 2)).block());
+
+        assertEquals(0, remoteCalls.get());
+        assertEquals(0, reactiveOrderService.getInFlight());
+    }
+
+    private static ClientResponse json(HttpStatus status, String body) {
+        return ClientResponse.create(status)
+                .header("Content-Type", "application/json")
+                .body(body)
+                .build();
+    }
+}